@@ -0,0 +1,120 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that compares deserialization of a batch of small records, as polled from a message queue, record by
+ * record with a reinitialized {@link BinaryDecoder} against {@link FastGenericDatumReader#readBatch}.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class BatchDeserializationBenchmark {
+  private static final int NUMBER_OF_OPERATIONS = 2_000;
+
+  private byte[] serializedBytes;
+  private int[] offsets;
+  private FastGenericDatumReader<GenericRecord> fastDeserializer;
+  private GenericRecord[] records;
+  private BinaryDecoder decoder;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(BatchDeserializationBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    Schema schema = createMessageSchema();
+    AvroRandomDataGenerator generator = new AvroRandomDataGenerator(schema, new Random(0));
+    AvroGenericSerializer<GenericData.Record> serializer = new AvroGenericSerializer<>(schema);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    offsets = new int[NUMBER_OF_OPERATIONS + 1];
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      offsets[i] = baos.size();
+      baos.write(serializer.serialize((GenericData.Record) generator.generate(Collections.emptyMap())));
+    }
+    offsets[NUMBER_OF_OPERATIONS] = baos.size();
+    serializedBytes = baos.toByteArray();
+    records = new GenericRecord[NUMBER_OF_OPERATIONS];
+
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    // make sure the generated deserializer is used from the very first iteration
+    cache.getFastGenericDeserializerAsync(schema, schema).get();
+    fastDeserializer = new FastGenericDatumReader<>(schema, cache);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroDeserializationPerRecord(Blackhole bh) throws Exception {
+    for (int i = 0; i < NUMBER_OF_OPERATIONS; i++) {
+      decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, offsets[i], offsets[i + 1] - offsets[i],
+          decoder);
+      records[i] = fastDeserializer.read(records[i], decoder);
+    }
+    bh.consume(records);
+  }
+
+  @Benchmark
+  @OperationsPerInvocation(NUMBER_OF_OPERATIONS)
+  public void testFastAvroDeserializationBatch(Blackhole bh) throws Exception {
+    fastDeserializer.readBatch(serializedBytes, offsets, records);
+    bh.consume(records);
+  }
+
+  private static Schema createMessageSchema() {
+    List<Schema.Field> fields = new ArrayList<>();
+    fields.add(AvroCompatibilityHelper.createSchemaField("id", Schema.create(Schema.Type.LONG), null, null));
+    fields.add(AvroCompatibilityHelper.createSchemaField("key", Schema.create(Schema.Type.STRING), null, null));
+    fields.add(AvroCompatibilityHelper.createSchemaField("count", Schema.create(Schema.Type.INT), null, null));
+    fields.add(AvroCompatibilityHelper.createSchemaField("score",
+        Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.DOUBLE))), null,
+        null));
+    Schema schema = Schema.createRecord("BatchMessage", null, "com.linkedin.avro.fastserde.benchmark", false);
+    schema.setFields(fields);
+    return schema;
+  }
+}
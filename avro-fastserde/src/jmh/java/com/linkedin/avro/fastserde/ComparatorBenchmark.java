@@ -0,0 +1,119 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.BinaryData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that compares binary encoded records differing only in their last field, which is the worst case of
+ * the comparison, with {@link BinaryData#compare} and with the generated {@link FastComparator}.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class ComparatorBenchmark {
+  @Param({"10", "100"})
+  private int numberOfFields;
+
+  private Schema schema;
+  private byte[] serializedBytes1;
+  private byte[] serializedBytes2;
+  private FastComparator fastComparator;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(ComparatorBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    schema = createSchema(numberOfFields);
+    GenericData.Record record =
+        (GenericData.Record) new AvroRandomDataGenerator(schema, new Random(0)).generate(Collections.emptyMap());
+    AvroGenericSerializer<GenericData.Record> serializer = new AvroGenericSerializer<>(schema);
+    serializedBytes1 = serializer.serialize(record);
+    record.put(numberOfFields - 1, (Long) record.get(numberOfFields - 1) + 1);
+    serializedBytes2 = serializer.serialize(record);
+
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    // make sure the generated comparator is used from the very first iteration
+    fastComparator = cache.getFastComparatorAsync(schema).get();
+  }
+
+  @Benchmark
+  public int testVanillaAvroComparison() {
+    return BinaryData.compare(serializedBytes1, 0, serializedBytes2, 0, schema);
+  }
+
+  @Benchmark
+  public int testFastAvroComparison() {
+    return fastComparator.compare(serializedBytes1, 0, serializedBytes1.length, serializedBytes2, 0,
+        serializedBytes2.length);
+  }
+
+  private static Schema createSchema(int numberOfFields) {
+    List<Schema.Field> fields = new ArrayList<>(numberOfFields);
+    for (int i = 0; i < numberOfFields - 1; i++) {
+      Schema fieldSchema;
+      switch (i % 4) {
+        case 0:
+          fieldSchema = Schema.create(Schema.Type.INT);
+          break;
+        case 1:
+          fieldSchema = Schema.create(Schema.Type.STRING);
+          break;
+        case 2:
+          fieldSchema = Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.DOUBLE)));
+          break;
+        default:
+          fieldSchema = Schema.createArray(Schema.create(Schema.Type.INT));
+          break;
+      }
+      fields.add(AvroCompatibilityHelper.createSchemaField("field" + i, fieldSchema, null, null));
+    }
+    // the only field which differs between the compared records
+    fields.add(AvroCompatibilityHelper.createSchemaField("field" + (numberOfFields - 1),
+        Schema.create(Schema.Type.LONG), null, null));
+    Schema schema =
+        Schema.createRecord("SortedRecord" + numberOfFields, null, "com.linkedin.avro.fastserde.benchmark", false);
+    schema.setFields(fields);
+    return schema;
+  }
+}
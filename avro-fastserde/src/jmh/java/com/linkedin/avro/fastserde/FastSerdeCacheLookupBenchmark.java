@@ -0,0 +1,99 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates the cost of {@link FastSerdeCache} lookups under contention, comparing lookups keyed by
+ * the pair of schema fingerprints with the formerly used string keys built out of them on every lookup.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Threads(8)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class FastSerdeCacheLookupBenchmark {
+  @Param({"16", "1024"})
+  private int numberOfSchemas;
+
+  private Schema[] schemas;
+  private FastSerdeCache cache;
+  private ConcurrentLongPairMap<Object> longPairMap;
+  private Map<String, Object> stringKeyMap;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(FastSerdeCacheLookupBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() {
+    schemas = new Schema[numberOfSchemas];
+    // compilation isn't needed for lookups
+    cache = FastSerdeCache.builder().executor(task -> { }).build();
+    longPairMap = new ConcurrentLongPairMap<>();
+    stringKeyMap = new FastAvroConcurrentHashMap<>();
+    for (int i = 0; i < numberOfSchemas; i++) {
+      schemas[i] = Schema.parse("{\"type\": \"record\", \"name\": \"record" + i
+          + "\", \"fields\": [{\"name\": \"field\", \"type\": \"int\"}]}");
+      long fingerprint = Utils.getPrimitiveSchemaFingerprint(schemas[i]);
+      cache.getFastGenericDeserializer(schemas[i], schemas[i]);
+      longPairMap.put(fingerprint, fingerprint, schemas[i]);
+      stringKeyMap.put(getStringKey(fingerprint, fingerprint), schemas[i]);
+    }
+  }
+
+  @Benchmark
+  public Object testFastSerdeCacheLookup() {
+    Schema schema = schemas[ThreadLocalRandom.current().nextInt(numberOfSchemas)];
+    return cache.getFastGenericDeserializer(schema, schema);
+  }
+
+  @Benchmark
+  public Object testLongPairKeyLookup() {
+    Schema schema = schemas[ThreadLocalRandom.current().nextInt(numberOfSchemas)];
+    long fingerprint = Utils.getPrimitiveSchemaFingerprint(schema);
+    return longPairMap.get(fingerprint, fingerprint);
+  }
+
+  @Benchmark
+  public Object testStringKeyLookup() {
+    Schema schema = schemas[ThreadLocalRandom.current().nextInt(numberOfSchemas)];
+    long fingerprint = Utils.getPrimitiveSchemaFingerprint(schema);
+    return stringKeyMap.get(getStringKey(fingerprint, fingerprint));
+  }
+
+  private static String getStringKey(long writerFingerprint, long readerFingerprint) {
+    return String.valueOf(Math.abs(writerFingerprint)) + Math.abs(readerFingerprint);
+  }
+}
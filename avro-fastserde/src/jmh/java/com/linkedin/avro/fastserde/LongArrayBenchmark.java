@@ -0,0 +1,112 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.io.Encoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that compares decoding of a long-array element by element with the bulk decoding of whole blocks by
+ * {@link PrimitiveLongArrayList} and with {@link LazyPrimitiveLongList}, whose elements are all accessed.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class LongArrayBenchmark {
+  private static final int ARRAY_SIZE = 10_000;
+
+  /**
+   * Number of elements per block, arrays written by avro consist of a single block unless they're streamed.
+   */
+  @Param({"100", "10000"})
+  private int blockSize;
+
+  private byte[] serializedBytes;
+  private ByteArrayDecoder decoder;
+  private Object reuse;
+  private Object lazyReuse;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(LongArrayBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    Random random = new Random(0);
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (int i = 0; i < ARRAY_SIZE; i++) {
+      if (i % blockSize == 0) {
+        encoder.writeLong(Math.min(blockSize, ARRAY_SIZE - i));
+      }
+      // mix of short and long varints
+      encoder.writeLong(i % 4 == 0 ? random.nextLong() : random.nextInt(1000));
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    serializedBytes = baos.toByteArray();
+    decoder = new ByteArrayDecoder(serializedBytes);
+  }
+
+  @Benchmark
+  public void testPerElementDecoding(Blackhole bh) throws Exception {
+    decoder.setPosition(0);
+    PrimitiveLongArrayList list = reuse instanceof PrimitiveLongArrayList ? (PrimitiveLongArrayList) reuse
+        : new PrimitiveLongArrayList(0);
+    list.clear();
+    for (long length = decoder.readArrayStart(); length > 0; length = decoder.arrayNext()) {
+      for (long i = 0; i < length; i++) {
+        list.addPrimitive(decoder.readLong());
+      }
+    }
+    reuse = list;
+    bh.consume(list);
+  }
+
+  @Benchmark
+  public void testBulkDecoding(Blackhole bh) throws Exception {
+    decoder.setPosition(0);
+    reuse = PrimitiveLongArrayList.readPrimitiveLongArray(reuse, decoder);
+    bh.consume(reuse);
+  }
+
+  @Benchmark
+  public void testLazyDecoding(Blackhole bh) throws Exception {
+    decoder.setPosition(0);
+    lazyReuse = LazyPrimitiveLongList.readPrimitiveLongArray(lazyReuse, decoder);
+    bh.consume(((PrimitiveLongList) lazyReuse).getPrimitive(ARRAY_SIZE - 1));
+  }
+}
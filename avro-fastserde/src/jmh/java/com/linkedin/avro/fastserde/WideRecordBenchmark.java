@@ -0,0 +1,122 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generator.AvroRandomDataGenerator;
+import com.linkedin.avro.fastserde.micro.benchmark.AvroGenericSerializer;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryDecoder;
+import org.apache.avro.io.DatumReader;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+
+/**
+ * A benchmark that evaluates deserialization of very wide records, whose generated deserializers would exceed
+ * HotSpot's limit of JIT-compiled method size unless their fields are split over multiple methods.
+ *
+ * To run this benchmark:
+ * <code>
+ *   ./gradlew :avro-fastserde:jmh -PUSE_AVRO_18
+ * </code>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3)
+@Measurement(iterations = 3)
+public class WideRecordBenchmark {
+  @Param({"50", "600"})
+  private int numberOfFields;
+
+  private byte[] serializedBytes;
+  private DatumReader<GenericRecord> vanillaDeserializer;
+  private DatumReader<GenericRecord> fastDeserializer;
+  private GenericRecord vanillaReuse;
+  private GenericRecord fastReuse;
+  private BinaryDecoder decoder;
+
+  public static void main(String[] args) throws RunnerException {
+    org.openjdk.jmh.runner.options.Options opt = new OptionsBuilder()
+        .include(WideRecordBenchmark.class.getSimpleName())
+        .addProfiler(GCProfiler.class)
+        .build();
+    new Runner(opt).run();
+  }
+
+  @Setup(Level.Trial)
+  public void prepare() throws Exception {
+    Schema schema = createWideSchema(numberOfFields);
+    GenericData.Record record =
+        (GenericData.Record) new AvroRandomDataGenerator(schema, new Random(0)).generate(Collections.emptyMap());
+    serializedBytes = new AvroGenericSerializer<GenericData.Record>(schema).serialize(record);
+
+    vanillaDeserializer = new GenericDatumReader<>(schema);
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    // make sure the generated deserializer is used from the very first iteration
+    cache.getFastGenericDeserializerAsync(schema, schema).get();
+    fastDeserializer = new FastGenericDatumReader<>(schema, cache);
+  }
+
+  @Benchmark
+  public GenericRecord testVanillaAvroDeserialization() throws Exception {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    vanillaReuse = vanillaDeserializer.read(vanillaReuse, decoder);
+    return vanillaReuse;
+  }
+
+  @Benchmark
+  public GenericRecord testFastAvroDeserialization() throws Exception {
+    decoder = AvroCompatibilityHelper.newBinaryDecoder(serializedBytes, 0, serializedBytes.length, decoder);
+    fastReuse = fastDeserializer.read(fastReuse, decoder);
+    return fastReuse;
+  }
+
+  private static Schema createWideSchema(int numberOfFields) {
+    List<Schema.Field> fields = new ArrayList<>(numberOfFields);
+    for (int i = 0; i < numberOfFields; i++) {
+      Schema fieldSchema;
+      switch (i % 4) {
+        case 0:
+          fieldSchema = Schema.create(Schema.Type.INT);
+          break;
+        case 1:
+          fieldSchema = Schema.create(Schema.Type.STRING);
+          break;
+        case 2:
+          fieldSchema = Schema.createUnion(Arrays.asList(Schema.create(Schema.Type.NULL), Schema.create(Schema.Type.LONG)));
+          break;
+        default:
+          fieldSchema = Schema.create(Schema.Type.DOUBLE);
+          break;
+      }
+      fields.add(AvroCompatibilityHelper.createSchemaField("field" + i, fieldSchema, null, null));
+    }
+    Schema schema = Schema.createRecord("WideRecord" + numberOfFields, null, "com.linkedin.avro.fastserde.benchmark", false);
+    schema.setFields(fields);
+    return schema;
+  }
+}
@@ -0,0 +1,422 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Binary {@link Decoder} reading directly from a byte array, which exposes the current position within it. That
+ * allows generated deserializers to keep track of where individual fields start, e.g. to decode them lazily later
+ * on, see {@link LazyGenericRecord}.
+ *
+ * Unlike {@link org.apache.avro.io.BinaryDecoder} it doesn't buffer anything, hence the position is always exact
+ * and a single array can be decoded by multiple instances at once.
+ */
+public class ByteArrayDecoder extends Decoder {
+  private static final int MAX_INT_BYTES = 5;
+  private static final int MAX_LONG_BYTES = 10;
+
+  private byte[] buffer;
+  private int position;
+  private int limit;
+
+  public ByteArrayDecoder(byte[] buffer) {
+    this(buffer, 0, buffer.length);
+  }
+
+  public ByteArrayDecoder(byte[] buffer, int offset, int length) {
+    setBuffer(buffer, offset, length);
+  }
+
+  /**
+   * Points the decoder to another part of the same or a different array, which allows to reuse the instance.
+   */
+  public void setBuffer(byte[] buffer, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > buffer.length) {
+      throw new IndexOutOfBoundsException(
+          "Offset " + offset + " and length " + length + " out of bounds of an array of " + buffer.length);
+    }
+    this.buffer = buffer;
+    this.position = offset;
+    this.limit = offset + length;
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return index within {@link #getBuffer()} of the next byte to read
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  public void setPosition(int position) {
+    if (position < 0 || position > limit) {
+      throw new IndexOutOfBoundsException("Position " + position + " out of bounds, limit: " + limit);
+    }
+    this.position = position;
+  }
+
+  /**
+   * @return index within {@link #getBuffer()} right after the last byte to read
+   */
+  public int getLimit() {
+    return limit;
+  }
+
+  /**
+   * Required by avro 1.4, which re-initializes decoders with an input stream.
+   */
+  public void init(InputStream in) {
+    throw new UnsupportedOperationException("ByteArrayDecoder can only read from a byte array");
+  }
+
+  @Override
+  public void readNull() {
+  }
+
+  @Override
+  public boolean readBoolean() throws IOException {
+    ensureAvailable(1);
+    return buffer[position++] == 1;
+  }
+
+  @Override
+  public int readInt() throws IOException {
+    int b = readByte();
+    int n = b & 0x7f;
+    for (int shift = 7; b > 0x7f; shift += 7) {
+      if (shift > 28) {
+        throw new AvroRuntimeException("Invalid int encoding");
+      }
+      b = readByte();
+      n |= (b & 0x7f) << shift;
+    }
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  @Override
+  public long readLong() throws IOException {
+    int b = readByte();
+    long n = b & 0x7f;
+    for (int shift = 7; b > 0x7f; shift += 7) {
+      if (shift > 63) {
+        throw new AvroRuntimeException("Invalid long encoding");
+      }
+      b = readByte();
+      n |= (long) (b & 0x7f) << shift;
+    }
+    return (n >>> 1) ^ -(n & 1);
+  }
+
+  /**
+   * Decodes the given number of ints into the array in one go, which is what {@link #readInt()} in a loop does, but
+   * without checking the bounds of the buffer for every byte as long as the remaining bytes can hold an int of the
+   * maximum width. Only the last few values may need the checked reads.
+   */
+  public void readInts(int[] array, int offset, int count) throws IOException {
+    byte[] buf = buffer;
+    int pos = position;
+    int end = offset + count;
+    int k = offset;
+    for (int safeLimit = limit - MAX_INT_BYTES; k < end && pos <= safeLimit; k++) {
+      int b = buf[pos++] & 0xff;
+      int n = b & 0x7f;
+      for (int shift = 7; b > 0x7f; shift += 7) {
+        if (shift > 28) {
+          position = pos;
+          throw new AvroRuntimeException("Invalid int encoding");
+        }
+        b = buf[pos++] & 0xff;
+        n |= (b & 0x7f) << shift;
+      }
+      array[k] = (n >>> 1) ^ -(n & 1);
+    }
+    position = pos;
+    for (; k < end; k++) {
+      array[k] = readInt();
+    }
+  }
+
+  /**
+   * Decodes the given number of longs into the array in one go, see {@link #readInts(int[], int, int)}. Since ints
+   * are encoded the same way, it decodes ints promoted to longs as well.
+   */
+  public void readLongs(long[] array, int offset, int count) throws IOException {
+    byte[] buf = buffer;
+    int pos = position;
+    int end = offset + count;
+    int k = offset;
+    for (int safeLimit = limit - MAX_LONG_BYTES; k < end && pos <= safeLimit; k++) {
+      int b = buf[pos++] & 0xff;
+      long n = b & 0x7f;
+      for (int shift = 7; b > 0x7f; shift += 7) {
+        if (shift > 63) {
+          position = pos;
+          throw new AvroRuntimeException("Invalid long encoding");
+        }
+        b = buf[pos++] & 0xff;
+        n |= (long) (b & 0x7f) << shift;
+      }
+      array[k] = (n >>> 1) ^ -(n & 1);
+    }
+    position = pos;
+    for (; k < end; k++) {
+      array[k] = readLong();
+    }
+  }
+
+  /**
+   * Skips the given number of ints or longs without decoding them, e.g. to keep their raw bytes and decode them in
+   * bulk later on, see {@link VarintBuffer}.
+   */
+  public void skipVarints(long count) throws IOException {
+    byte[] buf = buffer;
+    int pos = position;
+    for (long i = 0; i < count; i++) {
+      do {
+        if (pos == limit) {
+          position = pos;
+          throw new EOFException();
+        }
+      } while (buf[pos++] < 0);
+    }
+    position = pos;
+  }
+
+  @Override
+  public float readFloat() throws IOException {
+    ensureAvailable(Float.BYTES);
+    int bits = (buffer[position] & 0xff) | (buffer[position + 1] & 0xff) << 8 | (buffer[position + 2] & 0xff) << 16
+        | (buffer[position + 3] & 0xff) << 24;
+    position += Float.BYTES;
+    return Float.intBitsToFloat(bits);
+  }
+
+  @Override
+  public double readDouble() throws IOException {
+    ensureAvailable(Double.BYTES);
+    long low = (buffer[position] & 0xff) | (buffer[position + 1] & 0xff) << 8 | (buffer[position + 2] & 0xff) << 16
+        | (long) (buffer[position + 3] & 0xff) << 24;
+    long high = (buffer[position + 4] & 0xff) | (buffer[position + 5] & 0xff) << 8
+        | (buffer[position + 6] & 0xff) << 16 | (long) (buffer[position + 7] & 0xff) << 24;
+    position += Double.BYTES;
+    return Double.longBitsToDouble((high << 32) | (low & 0xffffffffL));
+  }
+
+  /**
+   * Always returns a new {@link Utf8}, the given one is not reused since the way to resize it differs across avro
+   * versions.
+   */
+  @Override
+  public Utf8 readString(Utf8 old) throws IOException {
+    int length = readLength();
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, position, bytes, 0, length);
+    position += length;
+    return new Utf8(bytes);
+  }
+
+  /**
+   * Required by avro 1.5 and later.
+   */
+  public String readString() throws IOException {
+    int length = readLength();
+    String result = new String(buffer, position, length, StandardCharsets.UTF_8);
+    position += length;
+    return result;
+  }
+
+  /**
+   * @return view over the bytes of the next string within {@link #getBuffer()}, which isn't copied
+   */
+  public Utf8View readStringView() throws IOException {
+    int length = readLength();
+    Utf8View view = new Utf8View(buffer, position, length);
+    position += length;
+    return view;
+  }
+
+  @Override
+  public void skipString() throws IOException {
+    skipFixed(readLength());
+  }
+
+  @Override
+  public ByteBuffer readBytes(ByteBuffer old) throws IOException {
+    int length = readLength();
+    ByteBuffer result;
+    if (old != null && length <= old.capacity()) {
+      result = old;
+      result.clear();
+    } else {
+      result = ByteBuffer.allocate(length);
+    }
+    System.arraycopy(buffer, position, result.array(), result.arrayOffset() + result.position(), length);
+    position += length;
+    result.limit(length);
+    return result;
+  }
+
+  /**
+   * @return {@link ByteBuffer} sharing the bytes of the next bytes value within {@link #getBuffer()}, which aren't
+   *         copied
+   */
+  public ByteBuffer readBytesView() throws IOException {
+    int length = readLength();
+    ByteBuffer view = ByteBuffer.wrap(buffer, position, length).slice();
+    position += length;
+    return view;
+  }
+
+  @Override
+  public void skipBytes() throws IOException {
+    skipFixed(readLength());
+  }
+
+  @Override
+  public void readFixed(byte[] bytes, int start, int length) throws IOException {
+    ensureAvailable(length);
+    System.arraycopy(buffer, position, bytes, start, length);
+    position += length;
+  }
+
+  @Override
+  public void skipFixed(int length) throws IOException {
+    ensureAvailable(length);
+    position += length;
+  }
+
+  @Override
+  public int readEnum() throws IOException {
+    return readInt();
+  }
+
+  @Override
+  public long readArrayStart() throws IOException {
+    return readBlockCount();
+  }
+
+  @Override
+  public long arrayNext() throws IOException {
+    return readBlockCount();
+  }
+
+  @Override
+  public long skipArray() throws IOException {
+    return skipBlocks();
+  }
+
+  @Override
+  public long readMapStart() throws IOException {
+    return readBlockCount();
+  }
+
+  @Override
+  public long mapNext() throws IOException {
+    return readBlockCount();
+  }
+
+  @Override
+  public long skipMap() throws IOException {
+    return skipBlocks();
+  }
+
+  @Override
+  public int readIndex() throws IOException {
+    return readInt();
+  }
+
+  /**
+   * Compares the next string or bytes values of the decoders without copying them, byte by byte as unsigned values
+   * and then by length, just like {@link org.apache.avro.io.BinaryData#compareBytes} does.
+   */
+  public static int compareBytes(ByteArrayDecoder d1, ByteArrayDecoder d2) throws IOException {
+    int length1 = d1.readLength();
+    int length2 = d2.readLength();
+    int result = compare(d1.buffer, d1.position, length1, d2.buffer, d2.position, length2);
+    d1.position += length1;
+    d2.position += length2;
+    return result;
+  }
+
+  /**
+   * Compares the next fixed values of the decoders without copying them, see {@link #compareBytes}.
+   */
+  public static int compareFixed(ByteArrayDecoder d1, ByteArrayDecoder d2, int length) throws IOException {
+    d1.ensureAvailable(length);
+    d2.ensureAvailable(length);
+    int result = compare(d1.buffer, d1.position, length, d2.buffer, d2.position, length);
+    d1.position += length;
+    d2.position += length;
+    return result;
+  }
+
+  private static int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+    int length = Math.min(l1, l2);
+    for (int i = 0; i < length; i++) {
+      int a = b1[s1 + i] & 0xff;
+      int b = b2[s2 + i] & 0xff;
+      if (a != b) {
+        return a - b;
+      }
+    }
+    return l1 - l2;
+  }
+
+  private int readByte() throws IOException {
+    ensureAvailable(1);
+    return buffer[position++] & 0xff;
+  }
+
+  private int readLength() throws IOException {
+    int length = readInt();
+    if (length < 0) {
+      throw new AvroRuntimeException("Malformed data, length is negative: " + length);
+    }
+    ensureAvailable(length);
+    return length;
+  }
+
+  private long readBlockCount() throws IOException {
+    long count = readLong();
+    if (count < 0) {
+      // followed by the size of the block in bytes, which isn't needed
+      readLong();
+      count = -count;
+    }
+    return count;
+  }
+
+  /**
+   * Skips the blocks whose size in bytes is known.
+   *
+   * @return number of items of the first block which has to be skipped item by item, or 0 if there is none
+   */
+  private long skipBlocks() throws IOException {
+    long count = readLong();
+    while (count < 0) {
+      long size = readLong();
+      if (size < 0 || size > limit - position) {
+        throw new EOFException();
+      }
+      position += (int) size;
+      count = readLong();
+    }
+    return count;
+  }
+
+  private void ensureAvailable(int length) throws EOFException {
+    if (length > limit - position) {
+      throw new EOFException();
+    }
+  }
+}
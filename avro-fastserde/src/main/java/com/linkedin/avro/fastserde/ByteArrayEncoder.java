@@ -0,0 +1,269 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Binary {@link Encoder} writing directly into a byte array, which has to be large enough to hold the whole data,
+ * see {@link FastSerializer#sizeOf(Object)}. Since the array is never grown, there's nothing to check before writing
+ * and nothing to copy afterwards.
+ *
+ * It also provides the encoded sizes of the values, which generated serializers sum up to tell the size of the data.
+ */
+public class ByteArrayEncoder extends Encoder {
+  private byte[] buffer;
+  private int position;
+
+  public ByteArrayEncoder(byte[] buffer) {
+    this(buffer, 0);
+  }
+
+  public ByteArrayEncoder(byte[] buffer, int offset) {
+    setBuffer(buffer, offset);
+  }
+
+  /**
+   * Points the encoder to another part of the same or a different array, which allows to reuse the instance.
+   */
+  public void setBuffer(byte[] buffer, int offset) {
+    if (offset < 0 || offset > buffer.length) {
+      throw new IndexOutOfBoundsException("Offset " + offset + " out of bounds of an array of " + buffer.length);
+    }
+    this.buffer = buffer;
+    this.position = offset;
+  }
+
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  /**
+   * @return index within {@link #getBuffer()} of the next byte to write
+   */
+  public int getPosition() {
+    return position;
+  }
+
+  /**
+   * Required by avro 1.4, which re-initializes encoders with an output stream.
+   */
+  public void init(OutputStream out) {
+    throw new UnsupportedOperationException("ByteArrayEncoder can only write into a byte array");
+  }
+
+  @Override
+  public void flush() {
+  }
+
+  @Override
+  public void writeNull() {
+  }
+
+  @Override
+  public void writeBoolean(boolean b) {
+    buffer[position++] = (byte) (b ? 1 : 0);
+  }
+
+  @Override
+  public void writeInt(int n) {
+    int value = (n << 1) ^ (n >> 31);
+    while ((value & ~0x7f) != 0) {
+      buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  @Override
+  public void writeLong(long n) {
+    long value = (n << 1) ^ (n >> 63);
+    while ((value & ~0x7fL) != 0) {
+      buffer[position++] = (byte) ((value & 0x7f) | 0x80);
+      value >>>= 7;
+    }
+    buffer[position++] = (byte) value;
+  }
+
+  @Override
+  public void writeFloat(float f) {
+    int bits = Float.floatToRawIntBits(f);
+    buffer[position] = (byte) bits;
+    buffer[position + 1] = (byte) (bits >>> 8);
+    buffer[position + 2] = (byte) (bits >>> 16);
+    buffer[position + 3] = (byte) (bits >>> 24);
+    position += Float.BYTES;
+  }
+
+  @Override
+  public void writeDouble(double d) {
+    long bits = Double.doubleToRawLongBits(d);
+    for (int i = 0; i < Double.BYTES; i++) {
+      buffer[position + i] = (byte) (bits >>> (i * 8));
+    }
+    position += Double.BYTES;
+  }
+
+  @Override
+  public void writeString(Utf8 utf8) {
+    // getByteLength() doesn't exist in old avro versions
+    writeBytes(utf8.getBytes(), 0, utf8.getLength());
+  }
+
+  /**
+   * Encodes the string right into the array instead of converting it to {@link Utf8} first. Unpaired surrogates are
+   * replaced by '?', just like {@link String#getBytes(java.nio.charset.Charset)} does.
+   */
+  public void writeString(String string) {
+    writeInt(utf8Length(string));
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        buffer[position++] = (byte) c;
+      } else if (c < 0x800) {
+        buffer[position++] = (byte) (0xc0 | (c >> 6));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      } else if (Character.isSurrogate(c)) {
+        if (isSurrogatePair(string, i)) {
+          int codePoint = Character.toCodePoint(c, string.charAt(++i));
+          buffer[position++] = (byte) (0xf0 | (codePoint >> 18));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+          buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+          buffer[position++] = (byte) (0x80 | (codePoint & 0x3f));
+        } else {
+          buffer[position++] = '?';
+        }
+      } else {
+        buffer[position++] = (byte) (0xe0 | (c >> 12));
+        buffer[position++] = (byte) (0x80 | ((c >> 6) & 0x3f));
+        buffer[position++] = (byte) (0x80 | (c & 0x3f));
+      }
+    }
+  }
+
+  @Override
+  public void writeBytes(ByteBuffer bytes) {
+    int length = bytes.remaining();
+    writeInt(length);
+    bytes.duplicate().get(buffer, position, length);
+    position += length;
+  }
+
+  @Override
+  public void writeBytes(byte[] bytes, int start, int len) {
+    writeInt(len);
+    writeFixed(bytes, start, len);
+  }
+
+  @Override
+  public void writeFixed(byte[] bytes, int start, int len) {
+    System.arraycopy(bytes, start, buffer, position, len);
+    position += len;
+  }
+
+  @Override
+  public void writeEnum(int e) {
+    writeInt(e);
+  }
+
+  @Override
+  public void writeArrayStart() {
+  }
+
+  @Override
+  public void setItemCount(long itemCount) {
+    if (itemCount > 0) {
+      writeLong(itemCount);
+    }
+  }
+
+  @Override
+  public void startItem() {
+  }
+
+  @Override
+  public void writeArrayEnd() {
+    buffer[position++] = 0;
+  }
+
+  @Override
+  public void writeMapStart() {
+  }
+
+  @Override
+  public void writeMapEnd() {
+    buffer[position++] = 0;
+  }
+
+  @Override
+  public void writeIndex(int unionIndex) {
+    writeInt(unionIndex);
+  }
+
+  /**
+   * @return number of bytes of the encoded int, also used for enum ordinals and union indexes
+   */
+  public static int sizeOfInt(int n) {
+    int bits = Integer.SIZE - Integer.numberOfLeadingZeros((n << 1) ^ (n >> 31));
+    return bits == 0 ? 1 : (bits + 6) / 7;
+  }
+
+  /**
+   * @return number of bytes of the encoded long
+   */
+  public static int sizeOfLong(long n) {
+    int bits = Long.SIZE - Long.numberOfLeadingZeros((n << 1) ^ (n >> 63));
+    return bits == 0 ? 1 : (bits + 6) / 7;
+  }
+
+  /**
+   * @return number of bytes written by {@link #setItemCount(long)}, which writes nothing for empty collections
+   */
+  public static int sizeOfItemCount(long itemCount) {
+    return itemCount > 0 ? sizeOfLong(itemCount) : 0;
+  }
+
+  /**
+   * @return number of bytes of the encoded string, including its length
+   */
+  public static int sizeOfString(CharSequence string) {
+    int length = string instanceof Utf8 ? ((Utf8) string).getLength() : utf8Length(string);
+    return sizeOfInt(length) + length;
+  }
+
+  /**
+   * @return number of bytes of the encoded bytes, including their length
+   */
+  public static int sizeOfBytes(ByteBuffer bytes) {
+    return sizeOfInt(bytes.remaining()) + bytes.remaining();
+  }
+
+  private static int utf8Length(CharSequence string) {
+    int length = 0;
+    for (int i = 0; i < string.length(); i++) {
+      char c = string.charAt(i);
+      if (c < 0x80) {
+        length++;
+      } else if (c < 0x800) {
+        length += 2;
+      } else if (Character.isSurrogate(c)) {
+        if (isSurrogatePair(string, i)) {
+          length += 4;
+          i++;
+        } else {
+          length++;
+        }
+      } else {
+        length += 3;
+      }
+    }
+    return length;
+  }
+
+  private static boolean isSurrogatePair(CharSequence string, int index) {
+    return Character.isHighSurrogate(string.charAt(index)) && index + 1 < string.length()
+        && Character.isLowSurrogate(string.charAt(index + 1));
+  }
+}
@@ -32,7 +32,8 @@ import org.apache.avro.io.Decoder;
  *   after the first get access of the array so that sub-sequent array access are fast. For reuse case, we try to reuse
  *   the existing ByteBuffers as long as their capacity can hold the array.
  *
- *   TODO: Provide arrays for other primitive types.
+ *   See {@link ByteBufferBackedPrimitiveDoubleList}, {@link LazyPrimitiveIntList} and {@link LazyPrimitiveLongList}
+ *   for the other primitive types.
  */
 public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
     implements GenericArray<Float>, Comparable<GenericArray<Float>>, PrimitiveFloatList {
@@ -54,11 +55,11 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
   }
 
   public ByteBufferBackedPrimitiveFloatList(Collection<Float> c) {
+    byteBuffer = new CompositeByteBuffer(c != null);
     if (c != null) {
       elements = new float[c.size()];
       addAll(c);
     }
-    byteBuffer = new CompositeByteBuffer(c != null);
   }
 
   /**
@@ -243,7 +244,7 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
 
   @Override
   public Float set(int i, Float o) {
-    return set(i, o);
+    return setPrimitive(i, o);
   }
 
   @Override
@@ -299,6 +300,7 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
     cacheFromByteBuffer();
     if (that instanceof ByteBufferBackedPrimitiveFloatList) {
       ByteBufferBackedPrimitiveFloatList thatPrimitiveList = (ByteBufferBackedPrimitiveFloatList) that;
+      thatPrimitiveList.cacheFromByteBuffer();
       if (this.size == thatPrimitiveList.size) {
         for (int i = 0; i < this.size; i++) {
           int compare = Float.compare(this.elements[i], thatPrimitiveList.elements[i]);
@@ -322,7 +324,7 @@ public class ByteBufferBackedPrimitiveFloatList extends AbstractList<Float>
   public void reverse() {
     cacheFromByteBuffer();
     int left = 0;
-    int right = elements.length - 1;
+    int right = size - 1;
 
     while (left < right) {
       float tmp = elements[left];
@@ -0,0 +1,517 @@
+package com.linkedin.avro.fastserde;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Records of the same schema stored column by column, as deserialized by columnar deserializers, see
+ * {@link FastSerdeCache#getFastColumnarDeserializer(Schema, Schema)}, which append one row per deserialized record
+ * without building the record in between.
+ *
+ * Each field of the record gets a column of primitive values: int and boolean fields go to {@link IntColumn}s, long
+ * fields to {@link LongColumn}s, float and double fields to {@link DoubleColumn}s, and string and bytes fields to
+ * {@link BytesColumn}s, which keep the values one after another in a single array. Nullable fields, i.e. unions of
+ * null and one of those types, are stored in the column of the other type, which tells the null values apart. Records
+ * with fields of other types can't be stored.
+ *
+ * Columns grow as rows are added and keep their arrays once the batch gets {@link #clear() cleared}, so that a batch
+ * reused for consecutive batches of records eventually stops allocating.
+ */
+public class ColumnarBatch {
+  private static final int DEFAULT_INITIAL_CAPACITY = 1024;
+
+  private final Schema schema;
+  private final Column[] columns;
+  private final BytesColumn[] bytesColumns;
+  private int size;
+  private int capacity;
+
+  public ColumnarBatch(Schema schema) {
+    this(schema, DEFAULT_INITIAL_CAPACITY);
+  }
+
+  /**
+   * @throws IllegalArgumentException if the schema isn't a record or any of its fields can't be stored in a column
+   */
+  public ColumnarBatch(Schema schema, int initialCapacity) {
+    if (!Schema.Type.RECORD.equals(schema.getType())) {
+      throw new IllegalArgumentException("Columnar batches only store records, got: " + schema.getType());
+    }
+    if (initialCapacity <= 0) {
+      throw new IllegalArgumentException("Initial capacity has to be positive, got: " + initialCapacity);
+    }
+    this.schema = schema;
+    this.capacity = initialCapacity;
+    List<Schema.Field> fields = schema.getFields();
+    this.columns = new Column[fields.size()];
+    int bytesColumnCount = 0;
+    for (Schema.Field field : fields) {
+      Column column = newColumn(field, initialCapacity);
+      columns[field.pos()] = column;
+      if (column instanceof BytesColumn) {
+        bytesColumnCount++;
+      }
+    }
+    this.bytesColumns = new BytesColumn[bytesColumnCount];
+    int i = 0;
+    for (Column column : columns) {
+      if (column instanceof BytesColumn) {
+        bytesColumns[i++] = (BytesColumn) column;
+      }
+    }
+  }
+
+  /**
+   * Used by the generated code, fails rather than returns a new batch if the one to reuse has a different schema,
+   * since that would drop the rows appended so far.
+   */
+  public static ColumnarBatch newOrReused(ColumnarBatch reuse, Schema schema) {
+    if (reuse == null) {
+      return new ColumnarBatch(schema);
+    }
+    if (reuse.schema != schema && !reuse.schema.equals(schema)) {
+      throw new IllegalArgumentException(
+          "Batch of schema " + reuse.schema.getFullName() + " can't store records of schema " + schema.getFullName());
+    }
+    return reuse;
+  }
+
+  /**
+   * @return class of the column the values of the given field schema are stored in
+   * @throws IllegalArgumentException if they can't be stored in a column
+   */
+  static Class<? extends Column> getColumnClass(Schema fieldSchema) {
+    switch (getValueSchema(fieldSchema).getType()) {
+      case BOOLEAN:
+      case INT:
+        return IntColumn.class;
+      case LONG:
+        return LongColumn.class;
+      case FLOAT:
+      case DOUBLE:
+        return DoubleColumn.class;
+      case STRING:
+      case BYTES:
+        return BytesColumn.class;
+      default:
+        throw new IllegalArgumentException("Values of schema " + fieldSchema + " can't be stored in a column");
+    }
+  }
+
+  /**
+   * @return schema of the non-null values of a nullable field, the field schema itself otherwise
+   */
+  static Schema getValueSchema(Schema fieldSchema) {
+    if (!Schema.Type.UNION.equals(fieldSchema.getType())) {
+      return fieldSchema;
+    }
+    List<Schema> types = fieldSchema.getTypes();
+    if (types.size() == 2) {
+      if (Schema.Type.NULL.equals(types.get(0).getType())) {
+        return types.get(1);
+      }
+      if (Schema.Type.NULL.equals(types.get(1).getType())) {
+        return types.get(0);
+      }
+    }
+    return fieldSchema;
+  }
+
+  private static Column newColumn(Schema.Field field, int capacity) {
+    Class<? extends Column> columnClass;
+    try {
+      columnClass = getColumnClass(field.schema());
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Field " + field.name() + " can't be stored in a column", e);
+    }
+    if (columnClass == IntColumn.class) {
+      return new IntColumn(capacity);
+    } else if (columnClass == LongColumn.class) {
+      return new LongColumn(capacity);
+    } else if (columnClass == DoubleColumn.class) {
+      return new DoubleColumn(capacity);
+    }
+    return new BytesColumn(capacity);
+  }
+
+  public Schema getSchema() {
+    return schema;
+  }
+
+  /**
+   * @return number of rows in the batch
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Removes all the rows, keeping the arrays of the columns for the next ones.
+   */
+  public void clear() {
+    for (Column column : columns) {
+      column.clear(size);
+    }
+    size = 0;
+  }
+
+  /**
+   * Used by the generated code, appends a row whose values are all null until they get set.
+   *
+   * @return index of the appended row
+   */
+  public int addRow() {
+    if (size == capacity) {
+      capacity = capacity * 2;
+      for (Column column : columns) {
+        column.grow(capacity);
+      }
+    }
+    int row = size++;
+    for (BytesColumn bytesColumn : bytesColumns) {
+      bytesColumn.startRow(row);
+    }
+    return row;
+  }
+
+  /**
+   * Appends a row holding the field values of the given record, which has to be of the same schema.
+   *
+   * @return index of the appended row
+   */
+  public int addRecord(IndexedRecord record) {
+    int row = addRow();
+    for (int i = 0; i < columns.length; i++) {
+      columns[i].setValue(row, record.get(i));
+    }
+    return row;
+  }
+
+  /**
+   * @return column of the field at the given position of the record schema
+   */
+  public Column getColumn(int fieldPos) {
+    return columns[fieldPos];
+  }
+
+  /**
+   * @return column of the field of the given name
+   * @throws IllegalArgumentException if there is no such field
+   */
+  public Column getColumn(String fieldName) {
+    Schema.Field field = schema.getField(fieldName);
+    if (field == null) {
+      throw new IllegalArgumentException("No field " + fieldName + " in schema " + schema.getFullName());
+    }
+    return columns[field.pos()];
+  }
+
+  public IntColumn getIntColumn(String fieldName) {
+    return (IntColumn) getColumn(fieldName);
+  }
+
+  public LongColumn getLongColumn(String fieldName) {
+    return (LongColumn) getColumn(fieldName);
+  }
+
+  public DoubleColumn getDoubleColumn(String fieldName) {
+    return (DoubleColumn) getColumn(fieldName);
+  }
+
+  public BytesColumn getBytesColumn(String fieldName) {
+    return (BytesColumn) getColumn(fieldName);
+  }
+
+  /**
+   * Values of a field, along with a bitmap of the rows which aren't null. Value arrays exposed by the subclasses may
+   * be longer than the batch and hold stale values in null rows.
+   */
+  public abstract static class Column {
+    private long[] nonNullRows;
+
+    Column(int capacity) {
+      this.nonNullRows = new long[bitmapLength(capacity)];
+    }
+
+    private static int bitmapLength(int capacity) {
+      return (capacity + 63) >>> 6;
+    }
+
+    public boolean isNull(int row) {
+      return (nonNullRows[row >>> 6] & (1L << row)) == 0;
+    }
+
+    /**
+     * @return bitmap of the rows which aren't null, row {@code i} being bit {@code i % 64} of element {@code i / 64}
+     */
+    public long[] getNonNullRows() {
+      return nonNullRows;
+    }
+
+    final void setNonNull(int row) {
+      nonNullRows[row >>> 6] |= 1L << row;
+    }
+
+    void grow(int capacity) {
+      nonNullRows = Arrays.copyOf(nonNullRows, bitmapLength(capacity));
+    }
+
+    void clear(int size) {
+      Arrays.fill(nonNullRows, 0, bitmapLength(size), 0L);
+    }
+
+    /**
+     * Sets the value of the row to the given one as held by a generic record, null included.
+     */
+    abstract void setValue(int row, Object value);
+  }
+
+  public static final class IntColumn extends Column {
+    private int[] values;
+
+    IntColumn(int capacity) {
+      super(capacity);
+      this.values = new int[capacity];
+    }
+
+    public int[] getValues() {
+      return values;
+    }
+
+    public int get(int row) {
+      return values[row];
+    }
+
+    /**
+     * @return value of a boolean field, which is stored as 1 or 0
+     */
+    public boolean getBoolean(int row) {
+      return values[row] != 0;
+    }
+
+    public void set(int row, int value) {
+      values[row] = value;
+      setNonNull(row);
+    }
+
+    public void set(int row, boolean value) {
+      set(row, value ? 1 : 0);
+    }
+
+    @Override
+    void grow(int capacity) {
+      super.grow(capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Object value) {
+      if (value instanceof Boolean) {
+        set(row, (boolean) (Boolean) value);
+      } else if (value != null) {
+        set(row, ((Number) value).intValue());
+      }
+    }
+  }
+
+  public static final class LongColumn extends Column {
+    private long[] values;
+
+    LongColumn(int capacity) {
+      super(capacity);
+      this.values = new long[capacity];
+    }
+
+    public long[] getValues() {
+      return values;
+    }
+
+    public long get(int row) {
+      return values[row];
+    }
+
+    public void set(int row, long value) {
+      values[row] = value;
+      setNonNull(row);
+    }
+
+    @Override
+    void grow(int capacity) {
+      super.grow(capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Object value) {
+      if (value != null) {
+        set(row, ((Number) value).longValue());
+      }
+    }
+  }
+
+  public static final class DoubleColumn extends Column {
+    private double[] values;
+
+    DoubleColumn(int capacity) {
+      super(capacity);
+      this.values = new double[capacity];
+    }
+
+    public double[] getValues() {
+      return values;
+    }
+
+    public double get(int row) {
+      return values[row];
+    }
+
+    public void set(int row, double value) {
+      values[row] = value;
+      setNonNull(row);
+    }
+
+    @Override
+    void grow(int capacity) {
+      super.grow(capacity);
+      values = Arrays.copyOf(values, capacity);
+    }
+
+    @Override
+    void setValue(int row, Object value) {
+      if (value != null) {
+        set(row, ((Number) value).doubleValue());
+      }
+    }
+  }
+
+  /**
+   * Strings and bytes, whose UTF-8 or raw bytes are stored one after another, row {@code i} spanning from
+   * {@code getOffsets()[i]} to {@code getOffsets()[i + 1]} of {@link #getBytes()}. Null rows are empty.
+   */
+  public static final class BytesColumn extends Column {
+    private int[] offsets;
+    private byte[] bytes;
+    /**
+     * the last value read by the generated code, to read the next one into
+     */
+    private Object reuse;
+
+    BytesColumn(int capacity) {
+      super(capacity);
+      this.offsets = new int[capacity + 1];
+      this.bytes = new byte[capacity * 16];
+    }
+
+    public int[] getOffsets() {
+      return offsets;
+    }
+
+    public byte[] getBytes() {
+      return bytes;
+    }
+
+    public int getOffset(int row) {
+      return offsets[row];
+    }
+
+    public int getLength(int row) {
+      return offsets[row + 1] - offsets[row];
+    }
+
+    /**
+     * @return the value of a string field, null for null rows
+     */
+    public String getString(int row) {
+      if (isNull(row)) {
+        return null;
+      }
+      return new String(bytes, offsets[row], getLength(row), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * @return copy of the value, null for null rows
+     */
+    public byte[] getByteArray(int row) {
+      if (isNull(row)) {
+        return null;
+      }
+      return Arrays.copyOfRange(bytes, offsets[row], offsets[row + 1]);
+    }
+
+    /**
+     * Used by the generated code.
+     */
+    public Object getReuse() {
+      return reuse;
+    }
+
+    /**
+     * Used by the generated code, keeps the value to read the next one into.
+     */
+    public void set(int row, Utf8 value) {
+      reuse = value;
+      set(row, value.getBytes(), 0, value.getLength());
+    }
+
+    /**
+     * Used by the generated code, keeps the value to read the next one into.
+     */
+    public void set(int row, ByteBuffer value) {
+      reuse = value;
+      setCopy(row, value);
+    }
+
+    public void set(int row, CharSequence value) {
+      byte[] utf8 = value.toString().getBytes(StandardCharsets.UTF_8);
+      set(row, utf8, 0, utf8.length);
+    }
+
+    public void set(int row, byte[] value, int offset, int length) {
+      int start = offsets[row];
+      int end = start + length;
+      if (end > bytes.length) {
+        bytes = Arrays.copyOf(bytes, Math.max(end, bytes.length * 2));
+      }
+      System.arraycopy(value, offset, bytes, start, length);
+      offsets[row + 1] = end;
+      setNonNull(row);
+    }
+
+    private void setCopy(int row, ByteBuffer value) {
+      if (value.hasArray()) {
+        set(row, value.array(), value.arrayOffset() + value.position(), value.remaining());
+      } else {
+        byte[] copy = new byte[value.remaining()];
+        value.duplicate().get(copy);
+        set(row, copy, 0, copy.length);
+      }
+    }
+
+    void startRow(int row) {
+      offsets[row + 1] = offsets[row];
+    }
+
+    @Override
+    void grow(int capacity) {
+      super.grow(capacity);
+      offsets = Arrays.copyOf(offsets, capacity + 1);
+    }
+
+    @Override
+    void setValue(int row, Object value) {
+      if (value instanceof ByteBuffer) {
+        setCopy(row, (ByteBuffer) value);
+      } else if (value instanceof Utf8) {
+        set(row, ((Utf8) value).getBytes(), 0, ((Utf8) value).getLength());
+      } else if (value != null) {
+        set(row, (CharSequence) value);
+      }
+    }
+  }
+}
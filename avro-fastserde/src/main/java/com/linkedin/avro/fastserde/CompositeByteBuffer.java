@@ -25,9 +25,15 @@ public class CompositeByteBuffer {
     } else {
       byteBuffer = ByteBuffer.allocate((int)size).order(ByteOrder.LITTLE_ENDIAN);
     }
+    // a reused buffer may be larger than needed
+    byteBuffer.limit(size);
     if (index < byteBuffers.size()) {
       byteBuffers.set(index, byteBuffer);
     } else {
+      if (byteBuffers.isEmpty()) {
+        // the immutable empty list of a list which was created through the List interface
+        byteBuffers = new ArrayList<>(1);
+      }
       byteBuffers.add(byteBuffer);
     }
     return byteBuffer;
@@ -44,21 +50,42 @@ public class CompositeByteBuffer {
   }
 
   public float getElement(int i) {
-    int index = i * 4;
+    int index = i * Float.BYTES;
     // most common case:
     if (byteBufferCount == 1) {
       return byteBuffers.get(0).getFloat(index);
     }
+    int k = findByteBuffer(index);
+    return byteBuffers.get(k).getFloat(index - byteOffsetOf(k));
+  }
 
+  public double getDoubleElement(int i) {
+    int index = i * Double.BYTES;
+    // most common case:
+    if (byteBufferCount == 1) {
+      return byteBuffers.get(0).getDouble(index);
+    }
+    int k = findByteBuffer(index);
+    return byteBuffers.get(k).getDouble(index - byteOffsetOf(k));
+  }
+
+  /**
+   * @return index of the byteBuffer holding the byte at the given offset within all the bytes
+   */
+  private int findByteBuffer(int byteIndex) {
     int k = 0, size = 0;
-    // find which byteBuffer holds the i-th item
-    while (index >= size) {
+    while (byteIndex >= size) {
       size += byteBuffers.get(k++).limit();
     }
-    k--;
-    // find the index on the byte buffer
-    int j = i - (size - byteBuffers.get(k).limit());
-    return byteBuffers.get(k).getFloat(j);
+    return k - 1;
+  }
+
+  private int byteOffsetOf(int k) {
+    int offset = 0;
+    for (int i = 0; i < k; i++) {
+      offset += byteBuffers.get(i).limit();
+    }
+    return offset;
   }
 
   public void setArray(float[] array) {
@@ -70,4 +97,14 @@ public class CompositeByteBuffer {
       }
     }
   }
+
+  public void setArray(double[] array) {
+    int k = 0;
+    for (int i = 0; i < byteBufferCount; i++) {
+      ByteBuffer byteBuffer = byteBuffers.get(i);
+      for (int j = 0; j < byteBuffer.limit(); j += Double.BYTES) {
+        array[k++] = byteBuffer.getDouble(j);
+      }
+    }
+  }
 }
@@ -0,0 +1,193 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+
+/**
+ * Concurrent open-addressing hash map keyed by a pair of primitive longs, e.g. writer and reader schema
+ * fingerprints. Lookups neither lock nor allocate, updates are serialized by a lock, which suits read-mostly
+ * caches.
+ *
+ * Keys of a slot never change once assigned, removed entries leave a tombstone behind which is either reused by
+ * the same key or dropped on rehash. Lookups racing with a rehash may see the state right before it.
+ */
+@SuppressWarnings("unchecked")
+final class ConcurrentLongPairMap<V> {
+  private static final Object REMOVED = new Object();
+  private static final float LOAD_FACTOR = 0.5f;
+
+  private volatile Table table;
+  // guarded by this
+  private int size;
+  private int tombstones;
+
+  ConcurrentLongPairMap() {
+    this(16);
+  }
+
+  ConcurrentLongPairMap(int initialCapacity) {
+    table = new Table(tableSizeFor(Math.max(2, (int) (initialCapacity / LOAD_FACTOR))));
+  }
+
+  /**
+   * @return value mapped to the given key or null if there is none
+   */
+  V get(long key1, long key2) {
+    Table table = this.table;
+    int mask = table.values.length() - 1;
+    for (int i = hash(key1, key2) & mask; ; i = (i + 1) & mask) {
+      // read before the keys, which are written before the value is published
+      Object value = table.values.get(i);
+      if (value == null) {
+        return null;
+      }
+      if (table.keys[2 * i] == key1 && table.keys[2 * i + 1] == key2) {
+        return value == REMOVED ? null : (V) value;
+      }
+    }
+  }
+
+  /**
+   * @return previous value or null if the key wasn't mapped, in which case the given value got mapped to it
+   */
+  synchronized V putIfAbsent(long key1, long key2, V value) {
+    int slot = findSlot(table, key1, key2);
+    Object current = table.values.get(slot);
+    if (current != null && current != REMOVED) {
+      return (V) current;
+    }
+    insert(slot, key1, key2, value);
+    return null;
+  }
+
+  /**
+   * @return previous value or null if the key wasn't mapped
+   */
+  synchronized V put(long key1, long key2, V value) {
+    int slot = findSlot(table, key1, key2);
+    Object current = table.values.get(slot);
+    if (current != null && current != REMOVED) {
+      table.values.set(slot, value);
+      return (V) current;
+    }
+    insert(slot, key1, key2, value);
+    return null;
+  }
+
+  /**
+   * Replaces the value only if the key is currently mapped to the expected one (compared by identity).
+   *
+   * @return true if replaced
+   */
+  synchronized boolean replace(long key1, long key2, V expectedValue, V newValue) {
+    int slot = findSlot(table, key1, key2);
+    if (table.values.get(slot) != expectedValue || expectedValue == null) {
+      return false;
+    }
+    table.values.set(slot, newValue);
+    return true;
+  }
+
+  /**
+   * Removes the mapping only if the key is currently mapped to the expected value (compared by identity).
+   *
+   * @return true if removed
+   */
+  synchronized boolean remove(long key1, long key2, Object expectedValue) {
+    int slot = findSlot(table, key1, key2);
+    if (table.values.get(slot) != expectedValue || expectedValue == null) {
+      return false;
+    }
+    table.values.set(slot, REMOVED);
+    size--;
+    tombstones++;
+    return true;
+  }
+
+  synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Iterates over a snapshot of the current mappings without locking, hence concurrent updates may or may not be
+   * reflected.
+   */
+  void forEach(EntryConsumer<? super V> consumer) {
+    Table table = this.table;
+    for (int i = 0; i < table.values.length(); i++) {
+      Object value = table.values.get(i);
+      if (value != null && value != REMOVED) {
+        consumer.accept(table.keys[2 * i], table.keys[2 * i + 1], (V) value);
+      }
+    }
+  }
+
+  private void insert(int slot, long key1, long key2, V value) {
+    if (table.values.get(slot) == REMOVED) {
+      tombstones--;
+    } else {
+      table.keys[2 * slot] = key1;
+      table.keys[2 * slot + 1] = key2;
+    }
+    table.values.set(slot, value);
+    size++;
+    if (size + tombstones > table.values.length() * LOAD_FACTOR) {
+      rehash();
+    }
+  }
+
+  private void rehash() {
+    // grows only if mostly occupied by live entries, otherwise it just drops the tombstones
+    int capacity = table.values.length();
+    Table newTable = new Table(size > capacity * LOAD_FACTOR / 2 ? capacity * 2 : capacity);
+    for (int i = 0; i < capacity; i++) {
+      Object value = table.values.get(i);
+      if (value != null && value != REMOVED) {
+        int slot = findSlot(newTable, table.keys[2 * i], table.keys[2 * i + 1]);
+        newTable.keys[2 * slot] = table.keys[2 * i];
+        newTable.keys[2 * slot + 1] = table.keys[2 * i + 1];
+        newTable.values.lazySet(slot, value);
+      }
+    }
+    tombstones = 0;
+    // volatile write publishes the new table together with its content
+    table = newTable;
+  }
+
+  /**
+   * @return slot of the given key, or the first empty one if the key is not there
+   */
+  private static int findSlot(Table table, long key1, long key2) {
+    int mask = table.values.length() - 1;
+    for (int i = hash(key1, key2) & mask; ; i = (i + 1) & mask) {
+      if (table.values.get(i) == null || (table.keys[2 * i] == key1 && table.keys[2 * i + 1] == key2)) {
+        return i;
+      }
+    }
+  }
+
+  private static int hash(long key1, long key2) {
+    long hash = (key1 * 0x9E3779B97F4A7C15L) ^ key2;
+    hash ^= hash >>> 32;
+    return (int) (hash ^ (hash >>> 16));
+  }
+
+  private static int tableSizeFor(int capacity) {
+    return Integer.highestOneBit(capacity - 1) << 1;
+  }
+
+  interface EntryConsumer<V> {
+    void accept(long key1, long key2, V value);
+  }
+
+  private static final class Table {
+    // pairs of keys, i-th slot keys are at 2 * i and 2 * i + 1
+    private final long[] keys;
+    private final AtomicReferenceArray<Object> values;
+
+    Table(int capacity) {
+      keys = new long[2 * capacity];
+      values = new AtomicReferenceArray<>(capacity);
+    }
+  }
+}
@@ -0,0 +1,61 @@
+package com.linkedin.avro.fastserde;
+
+import java.nio.ByteBuffer;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * Copies of the mutable values of data called by the generated {@link FastDeepCopier}s, the same kind of copies
+ * {@code GenericData#deepCopy} makes.
+ */
+public final class DeepCopies {
+
+  private DeepCopies() {
+  }
+
+  /**
+   * @return the same {@link String}, which is immutable, otherwise a new {@link Utf8} not depending on the given
+   *         value anymore, e.g. a materialized {@link Utf8View}
+   */
+  public static CharSequence copyString(CharSequence value) {
+    if (value == null || value instanceof String) {
+      return value;
+    } else if (value instanceof Utf8) {
+      return copyUtf8((Utf8) value);
+    } else if (value instanceof Utf8View) {
+      return ((Utf8View) value).materialize();
+    }
+    return new Utf8(value.toString());
+  }
+
+  public static Utf8 copyUtf8(Utf8 value) {
+    if (value == null) {
+      return null;
+    }
+    // getByteLength() doesn't exist in old avro versions
+    byte[] bytes = new byte[value.getLength()];
+    System.arraycopy(value.getBytes(), 0, bytes, 0, bytes.length);
+    return new Utf8(bytes);
+  }
+
+  /**
+   * Copies the remaining bytes of the buffer, into the reused buffer if it's big enough.
+   */
+  public static ByteBuffer copyBytes(ByteBuffer value, Object reuse) {
+    if (value == null) {
+      return null;
+    }
+    int length = value.remaining();
+    ByteBuffer copy;
+    if (reuse instanceof ByteBuffer && reuse != value && !((ByteBuffer) reuse).isReadOnly()
+        && ((ByteBuffer) reuse).capacity() >= length) {
+      copy = (ByteBuffer) reuse;
+      copy.clear();
+    } else {
+      copy = ByteBuffer.allocate(length);
+    }
+    copy.put(value.duplicate());
+    copy.flip();
+    return copy;
+  }
+}
@@ -0,0 +1,81 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import org.apache.avro.Schema;
+
+
+/**
+ * Reader of records into {@link ColumnarBatch}es backed by generated deserialization code, see
+ * {@link FastSerdeCache#getFastColumnarDeserializer(Schema, Schema)}. Each {@link #read} appends a row to the given
+ * batch, or to a new one if it's null, and returns the batch.
+ */
+public class FastColumnarDatumReader extends FastGenericDatumReader<ColumnarBatch> {
+  public FastColumnarDatumReader(Schema schema) {
+    super(schema, schema);
+  }
+
+  public FastColumnarDatumReader(Schema writerSchema, Schema readerSchema) {
+    super(writerSchema, readerSchema, FastSerdeCache.getDefaultInstance());
+  }
+
+  public FastColumnarDatumReader(Schema schema, FastSerdeCache cache) {
+    super(schema, schema, cache);
+  }
+
+  public FastColumnarDatumReader(Schema writerSchema, Schema readerSchema, FastSerdeCache cache) {
+    super(writerSchema, readerSchema, cache);
+  }
+
+  /**
+   * Deserializes a batch of records laid out one after another in the given array into columns, see
+   * {@link #readBatch(byte[], int[], Object[])}.
+   *
+   * @param buffer array containing the serialized records
+   * @param offsets offsets of the records within the array followed by the end of the last one
+   * @param reuse batch to clear and fill with the records, or null to get a new one
+   * @return batch holding the records as its rows
+   */
+  public ColumnarBatch readColumns(byte[] buffer, int[] offsets, ColumnarBatch reuse) throws IOException {
+    ColumnarBatch batch = reuse != null ? reuse : new ColumnarBatch(getReaderSchema());
+    batch.clear();
+    FastDeserializer<ColumnarBatch> fastDeserializer = getFastDeserializer();
+    readRecords(buffer, offsets, (index, decoder) -> fastDeserializer.deserialize(batch, decoder));
+    return batch;
+  }
+
+  /**
+   * Not supported, since all the records are appended to a single batch, see
+   * {@link #readColumns(byte[], int[], ColumnarBatch)}.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public int readBatch(byte[] buffer, int[] offsets, ColumnarBatch[] records) {
+    throw new UnsupportedOperationException("Batches of records are read into a single batch by readColumns");
+  }
+
+  /**
+   * Not supported, since all the records are appended to a single batch, see
+   * {@link #readColumns(byte[], int[], ColumnarBatch)}.
+   *
+   * @throws UnsupportedOperationException always
+   */
+  @Override
+  public int readBatch(List<ByteBuffer> buffers, ColumnarBatch[] records) {
+    throw new UnsupportedOperationException("Batches of records are read into a single batch by readColumns");
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  protected FastDeserializer<ColumnarBatch> getFastDeserializerFromCache(FastSerdeCache fastSerdeCache,
+      Schema writerSchema, Schema readerSchema) {
+    return (FastDeserializer<ColumnarBatch>) fastSerdeCache.getFastColumnarDeserializer(writerSchema, readerSchema);
+  }
+
+  @Override
+  protected FastDeserializer<ColumnarBatch> getRegularAvroImpl(Schema writerSchema, Schema readerSchema) {
+    return new FastSerdeCache.FastDeserializerWithAvroColumnarImpl(writerSchema, readerSchema);
+  }
+}
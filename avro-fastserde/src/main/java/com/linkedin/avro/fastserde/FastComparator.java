@@ -0,0 +1,26 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * Compares binary encoded data of a schema without deserializing it, with the same result as
+ * {@link org.apache.avro.io.BinaryData#compare(byte[], int, byte[], int, org.apache.avro.Schema)}: record fields are
+ * compared one by one in their sort order, skipping the ignored ones, up to the first difference. Maps can't be
+ * compared. See {@link FastComparatorGenerator}.
+ */
+public interface FastComparator {
+
+  /**
+   * @param b1 array holding the first datum
+   * @param s1 offset of the first datum within the array
+   * @param l1 number of bytes the first datum may span
+   * @param b2 array holding the second datum
+   * @param s2 offset of the second datum within the array
+   * @param l2 number of bytes the second datum may span
+   * @return negative number, zero or positive number as the first datum is less than, equal to, or greater than
+   *         the second one
+   */
+  int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2);
+
+  default int compare(byte[] b1, int s1, byte[] b2, int s2) {
+    return compare(b1, s1, b1.length - s1, b2, s2, b2.length - s2);
+  }
+}
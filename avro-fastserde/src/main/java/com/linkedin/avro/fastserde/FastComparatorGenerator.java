@@ -0,0 +1,253 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JCatchBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JSwitch;
+import com.sun.codemodel.JTryBlock;
+import com.sun.codemodel.JVar;
+import com.sun.codemodel.JWhileLoop;
+import java.io.File;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * Generates {@link FastComparator} of binary encoded data of a schema, returning the same results as
+ * {@link org.apache.avro.io.BinaryData#compare(byte[], int, byte[], int, Schema)}. Values are compared right within
+ * the arrays as they are decoded, record fields are compared in their order and the result is negated for the
+ * descending ones, ignored fields are skipped and the comparison returns as soon as it finds a difference.
+ *
+ * Maps can't be compared, so no comparator is generated for schemas containing them anywhere but in ignored fields.
+ */
+public class FastComparatorGenerator extends FastSerdeBase {
+
+  private static final String DECODER1 = "decoder1";
+  private static final String DECODER2 = "decoder2";
+
+  private final Schema schema;
+
+  private final Map<String, JMethod> compareMethodMap = new HashMap<>();
+
+  public FastComparatorGenerator(Schema schema, File destination, ClassLoader classLoader, String compileClassPath) {
+    super("comparison", true, Utf8.class, destination, classLoader, compileClassPath, false);
+    this.schema = schema;
+  }
+
+  public static String getClassName(Schema schema) {
+    Long schemaId = Math.abs(Utils.getSchemaFingerprint(schema));
+    String typeName = SchemaAssistant.getTypeName(schema);
+    return typeName + SEP + "Comparator" + SEP + schemaId;
+  }
+
+  public FastComparator generateComparator() {
+    generateComparatorClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+    return loadComparator();
+  }
+
+  /**
+   * Generates source of the comparator class, which still has to be compiled before {@link #loadComparator()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateComparatorClass() {
+    final String className = getClassName(schema);
+    try {
+      generatedClass = codeModel._package(generatedPackageName)._class(className);
+      generatedClass._implements(FastComparator.class);
+      JClass byteArrayDecoderClass = codeModel.ref(ByteArrayDecoder.class);
+
+      final JMethod decodersCompareMethod = generatedClass.method(JMod.PUBLIC, codeModel.INT, "compare");
+      decodersCompareMethod.param(byteArrayDecoderClass, DECODER1);
+      decodersCompareMethod.param(byteArrayDecoderClass, DECODER2);
+      decodersCompareMethod._throws(IOException.class);
+      processValue(schema, false, decodersCompareMethod.body());
+      decodersCompareMethod.body()._return(JExpr.lit(0));
+
+      final JMethod compareMethod = generatedClass.method(JMod.PUBLIC, codeModel.INT, "compare");
+      JVar b1 = compareMethod.param(codeModel.BYTE.array(), "b1");
+      JVar s1 = compareMethod.param(codeModel.INT, "s1");
+      JVar l1 = compareMethod.param(codeModel.INT, "l1");
+      JVar b2 = compareMethod.param(codeModel.BYTE.array(), "b2");
+      JVar s2 = compareMethod.param(codeModel.INT, "s2");
+      JVar l2 = compareMethod.param(codeModel.INT, "l2");
+      JTryBlock tryBlock = compareMethod.body()._try();
+      tryBlock.body()._return(JExpr.invoke(decodersCompareMethod)
+          .arg(JExpr._new(byteArrayDecoderClass).arg(b1).arg(s1).arg(l1))
+          .arg(JExpr._new(byteArrayDecoderClass).arg(b2).arg(s2).arg(l2)));
+      JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(IOException.class));
+      JVar exception = catchBlock.param("e");
+      catchBlock.body()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class)).arg(exception));
+    } catch (JClassAlreadyExistsException e) {
+      throw new FastSerdeGeneratorException("Class: " + className + " already exists");
+    } catch (FastSerdeGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Instantiates the comparator once its class is compiled.
+   */
+  FastComparator loadComparator() {
+    try {
+      final Class<FastComparator> clazz = loadGeneratedClass();
+      return clazz.newInstance();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Generates code comparing the next values of both decoders, which returns the result from the enclosing method
+   * unless the values are equal.
+   *
+   * @param descending whether the value belongs to a descending record field, hence the result has to be negated
+   */
+  private void processValue(Schema schema, boolean descending, JBlock body) {
+    JExpression decoder1 = JExpr.direct(DECODER1);
+    JExpression decoder2 = JExpr.direct(DECODER2);
+    JClass byteArrayDecoderClass = codeModel.ref(ByteArrayDecoder.class);
+    switch (schema.getType()) {
+      case RECORD:
+        processResult(JExpr.invoke(getCompareRecordMethod(schema)).arg(decoder1).arg(decoder2), descending, body);
+        break;
+      case ARRAY:
+        processArray(schema, descending, body);
+        break;
+      case UNION:
+        processUnion(schema, descending, body);
+        break;
+      case MAP:
+        throw new FastSerdeGeneratorException("Can't compare maps!");
+      case NULL:
+        break;
+      case FIXED:
+        processResult(byteArrayDecoderClass.staticInvoke("compareFixed").arg(decoder1).arg(decoder2)
+            .arg(JExpr.lit(schema.getFixedSize())), descending, body);
+        break;
+      case STRING:
+      case BYTES:
+        processResult(byteArrayDecoderClass.staticInvoke("compareBytes").arg(decoder1).arg(decoder2), descending,
+            body);
+        break;
+      case INT:
+      case ENUM:
+        processResult(codeModel.ref(Integer.class).staticInvoke("compare")
+            .arg(decoder1.invoke("read" + getTypeMethodSuffix(schema.getType())))
+            .arg(decoder2.invoke("read" + getTypeMethodSuffix(schema.getType()))), descending, body);
+        break;
+      case LONG:
+        processResult(codeModel.ref(Long.class).staticInvoke("compare")
+            .arg(decoder1.invoke("readLong")).arg(decoder2.invoke("readLong")), descending, body);
+        break;
+      case BOOLEAN:
+        processResult(codeModel.ref(Boolean.class).staticInvoke("compare")
+            .arg(decoder1.invoke("readBoolean")).arg(decoder2.invoke("readBoolean")), descending, body);
+        break;
+      case FLOAT:
+      case DOUBLE:
+        // compared the way BinaryData does rather than with Float/Double.compare, which order NaN and -0.0 apart
+        String readMethod = "read" + getTypeMethodSuffix(schema.getType());
+        JVar value1 = body.decl(schema.getType() == Schema.Type.FLOAT ? codeModel.FLOAT : codeModel.DOUBLE,
+            getUniqueName("value"), decoder1.invoke(readMethod));
+        JVar value2 = body.decl(schema.getType() == Schema.Type.FLOAT ? codeModel.FLOAT : codeModel.DOUBLE,
+            getUniqueName("value"), decoder2.invoke(readMethod));
+        processResult(JOp.cond(value1.lt(value2), JExpr.lit(-1), JOp.cond(value1.eq(value2), JExpr.lit(0),
+            JExpr.lit(1))), descending, body);
+        break;
+      default:
+        throw new FastSerdeGeneratorException("Unsupported type: " + schema.getType());
+    }
+  }
+
+  /**
+   * Returns the comparison result from the enclosing method unless it's 0.
+   */
+  private void processResult(JExpression comparison, boolean descending, JBlock body) {
+    JVar result = body.decl(codeModel.INT, getUniqueName("result"), comparison);
+    body._if(result.ne(JExpr.lit(0)))._then()._return(descending ? JOp.minus(result) : result);
+  }
+
+  private JMethod getCompareRecordMethod(Schema recordSchema) {
+    String methodKey = AvroCompatibilityHelper.getSchemaFullName(recordSchema) + recordSchema.hashCode();
+    JMethod method = compareMethodMap.get(methodKey);
+    if (method != null) {
+      return method;
+    }
+    JClass byteArrayDecoderClass = codeModel.ref(ByteArrayDecoder.class);
+    method = generatedClass.method(JMod.PUBLIC, codeModel.INT,
+        getUniqueName("compare" + StringUtils.capitalize(recordSchema.getName())));
+    method._throws(IOException.class);
+    method.param(byteArrayDecoderClass, DECODER1);
+    method.param(byteArrayDecoderClass, DECODER2);
+    // registered before processing the fields, which may refer to the record itself
+    compareMethodMap.put(methodKey, method);
+
+    for (Schema.Field field : recordSchema.getFields()) {
+      if (field.order() == Schema.Field.Order.IGNORE) {
+        skipValue(field.schema(), JExpr.direct(DECODER1), method.body());
+        skipValue(field.schema(), JExpr.direct(DECODER2), method.body());
+      } else {
+        processValue(field.schema(), field.order() == Schema.Field.Order.DESCENDING, method.body());
+      }
+    }
+    method.body()._return(JExpr.lit(0));
+    return method;
+  }
+
+  /**
+   * Compares items of both arrays one by one, across blocks of possibly different sizes, and then their lengths
+   * once the shorter one ends.
+   */
+  private void processArray(Schema arraySchema, boolean descending, JBlock body) {
+    JVar remaining1 = body.decl(codeModel.LONG, getUniqueName("remaining"),
+        JExpr.direct(DECODER1).invoke("readArrayStart"));
+    JVar remaining2 = body.decl(codeModel.LONG, getUniqueName("remaining"),
+        JExpr.direct(DECODER2).invoke("readArrayStart"));
+    JWhileLoop itemLoop = body._while(remaining1.ne(JExpr.lit(0)).cand(remaining2.ne(JExpr.lit(0))));
+    JBlock itemBody = itemLoop.body();
+    processValue(arraySchema.getElementType(), descending, itemBody);
+    itemBody.assignMinus(remaining1, JExpr.lit(1));
+    itemBody._if(remaining1.eq(JExpr.lit(0)))._then().assign(remaining1, JExpr.direct(DECODER1).invoke("arrayNext"));
+    itemBody.assignMinus(remaining2, JExpr.lit(1));
+    itemBody._if(remaining2.eq(JExpr.lit(0)))._then().assign(remaining2, JExpr.direct(DECODER2).invoke("arrayNext"));
+    // at least one of them is 0, the other one isn't unless both arrays have the same length
+    processResult(codeModel.ref(Long.class).staticInvoke("compare").arg(remaining1).arg(remaining2), descending,
+        body);
+  }
+
+  private void processUnion(Schema unionSchema, boolean descending, JBlock body) {
+    JVar unionIndex1 = body.decl(codeModel.INT, getUniqueName("unionIndex"),
+        JExpr.direct(DECODER1).invoke("readIndex"));
+    JVar unionIndex2 = body.decl(codeModel.INT, getUniqueName("unionIndex"),
+        JExpr.direct(DECODER2).invoke("readIndex"));
+    processResult(unionIndex1.minus(unionIndex2), descending, body);
+
+    JSwitch switchBlock = body._switch(unionIndex1);
+    for (int i = 0; i < unionSchema.getTypes().size(); i++) {
+      JBlock caseBody = switchBlock._case(JExpr.lit(i)).body();
+      processValue(unionSchema.getTypes().get(i), descending, caseBody);
+      caseBody._break();
+    }
+    switchBlock._default().body()._throw(JExpr._new(codeModel.ref(RuntimeException.class))
+        .arg(JExpr.lit("Illegal union index: ").plus(unionIndex1)));
+  }
+}
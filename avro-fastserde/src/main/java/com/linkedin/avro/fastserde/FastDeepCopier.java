@@ -0,0 +1,20 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * Makes deep copies of data of a schema, like {@code GenericData#deepCopy} and {@code SpecificData#deepCopy} do, but
+ * with code generated for the schema rather than by walking it for every copy. See {@link FastDeepCopierGenerator}.
+ */
+public interface FastDeepCopier<T> {
+
+  /**
+   * @param data datum to copy
+   * @param reuse optional previous copy, which is no longer in use, to copy the datum into instead of allocating
+   *              a new one
+   * @return deep copy of the datum, the reused one if it could be reused
+   */
+  T deepCopy(T data, T reuse);
+
+  default T deepCopy(T data) {
+    return deepCopy(data, null);
+  }
+}
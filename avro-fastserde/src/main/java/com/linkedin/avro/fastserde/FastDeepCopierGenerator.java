@@ -0,0 +1,454 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JOp;
+import com.sun.codemodel.JVar;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * Generates {@link FastDeepCopier} of generic or specific data of a schema, with the classes of the values mapped by
+ * {@link SchemaAssistant} the same way as for the serializers. Records are instantiated directly and their fields are
+ * copied by code specific to their schemas. Values which can't change are shared rather than copied: numbers,
+ * booleans, enums, {@link String}s, other stringable classes and converted logical types. Primitive lists are copied
+ * into primitive lists, all at once if they are array-backed.
+ *
+ * Records, arrays, maps, bytes and fixed values of the reused copy get reused recursively, the same way the
+ * generated deserializers reuse them.
+ */
+public class FastDeepCopierGenerator<T> extends FastSerdeBase {
+
+  private static final String DATA = "data";
+  private static final String REUSE = "reuse";
+
+  private final Schema schema;
+  private final boolean logicalTypeConversions;
+
+  private final Map<String, JMethod> copyMethodMap = new HashMap<>();
+  private final Map<Long, JVar> schemaVarMap = new HashMap<>();
+  private JMethod constructor;
+
+  public FastDeepCopierGenerator(boolean useGenericTypes, boolean logicalTypeConversions, Schema schema,
+      File destination, ClassLoader classLoader, String compileClassPath) {
+    super("copying", useGenericTypes, CharSequence.class, destination, classLoader, compileClassPath, true,
+        logicalTypeConversions);
+    this.schema = schema;
+    this.logicalTypeConversions = logicalTypeConversions;
+  }
+
+  /**
+   * @param description see {@link FastSerializerGenerator#getDescription(boolean, boolean)}
+   */
+  public static String getClassName(Schema schema, String description) {
+    Long schemaId = Math.abs(Utils.getSchemaFingerprint(schema));
+    String typeName = SchemaAssistant.getTypeName(schema);
+    return typeName + SEP + description + "DeepCopier" + SEP + schemaId;
+  }
+
+  public FastDeepCopier<T> generateDeepCopier() {
+    generateDeepCopierClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+    return loadDeepCopier();
+  }
+
+  /**
+   * Generates source of the deep copier class, which still has to be compiled before {@link #loadDeepCopier()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateDeepCopierClass() {
+    final String className =
+        getClassName(schema, FastSerializerGenerator.getDescription(useGenericTypes, logicalTypeConversions));
+    try {
+      generatedClass = codeModel._package(generatedPackageName)._class(className);
+      JClass dataClass = schemaAssistant.classFromSchema(schema);
+      generatedClass._implements(codeModel.ref(FastDeepCopier.class).narrow(dataClass));
+
+      JVar schemaVar = generatedClass.field(JMod.PRIVATE | JMod.FINAL, Schema.class, "schema");
+      constructor = generatedClass.constructor(JMod.PUBLIC);
+      JVar constructorParam = constructor.param(Schema.class, "schema");
+      constructor.body().assign(JExpr.refthis(schemaVar.name()), constructorParam);
+      schemaVarMap.put(Utils.getSchemaFingerprint(schema), schemaVar);
+
+      switch (schema.getType()) {
+        case RECORD:
+        case ARRAY:
+        case MAP:
+          break;
+        default:
+          throw new FastSerdeGeneratorException("Unsupported input schema type: " + schema.getType());
+      }
+      final JMethod deepCopyMethod = generatedClass.method(JMod.PUBLIC, dataClass, "deepCopy");
+      deepCopyMethod.annotate(SuppressWarnings.class).param("value", "unchecked");
+      JVar data = deepCopyMethod.param(dataClass, DATA);
+      JVar reuse = deepCopyMethod.param(dataClass, REUSE);
+      deepCopyMethod.body()._return(processValue(schema, schemaVar, data, reuse, deepCopyMethod.body()));
+    } catch (JClassAlreadyExistsException e) {
+      throw new FastSerdeGeneratorException("Class: " + className + " already exists");
+    } catch (FastSerdeGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Instantiates the deep copier once its class is compiled.
+   */
+  FastDeepCopier<T> loadDeepCopier() {
+    try {
+      final Class<FastDeepCopier<T>> clazz = loadGeneratedClass();
+      return clazz.getConstructor(Schema.class).newInstance(schema);
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * @param schemaExpr expression evaluated by the constructor to get the schema, which is only needed to create
+   *                   generic records, arrays and fixed values
+   * @param reuseVar previous copy of the value to reuse, or null if there's none
+   * @return expression of the copy of the value, or the value itself if it can't change
+   */
+  private JExpression processValue(Schema valueSchema, JExpression schemaExpr, JExpression valueExpr, JVar reuseVar,
+      JBlock body) {
+    if (schemaAssistant.getConversion(valueSchema) != null) {
+      // the classes of the converted logical types are immutable
+      return valueExpr;
+    }
+    switch (valueSchema.getType()) {
+      case RECORD:
+        JClass recordClass = schemaAssistant.classFromSchema(valueSchema);
+        return JExpr.invoke(getCopyRecordMethod(valueSchema, schemaExpr))
+            .arg(JExpr.cast(recordClass, valueExpr))
+            .arg(reuseVar != null ? reuseVar : JExpr._null());
+      case ARRAY:
+        return processArray(valueSchema, schemaExpr, valueExpr, reuseVar, body);
+      case MAP:
+        return processMap(valueSchema, schemaExpr, valueExpr, reuseVar, body);
+      case UNION:
+        return processUnion(valueSchema, schemaExpr, valueExpr, reuseVar, body);
+      case FIXED:
+        return processFixed(valueSchema, schemaExpr, valueExpr, reuseVar, body);
+      case BYTES:
+        return codeModel.ref(DeepCopies.class).staticInvoke("copyBytes")
+            .arg(JExpr.cast(codeModel.ref(ByteBuffer.class), valueExpr))
+            .arg(reuseVar != null ? reuseVar : JExpr._null());
+      case STRING:
+        return processString(schemaAssistant.findStringClass(valueSchema), valueExpr);
+      default:
+        // null, numbers, booleans and enums are immutable
+        return valueExpr;
+    }
+  }
+
+  private JMethod getCopyRecordMethod(Schema recordSchema, JExpression schemaExpr) {
+    String methodKey = AvroCompatibilityHelper.getSchemaFullName(recordSchema) + recordSchema.hashCode();
+    JMethod method = copyMethodMap.get(methodKey);
+    if (method != null) {
+      return method;
+    }
+    JClass recordClass = schemaAssistant.classFromSchema(recordSchema);
+    method = generatedClass.method(JMod.PUBLIC, recordClass,
+        getUniqueName("deepCopy" + StringUtils.capitalize(recordSchema.getName())));
+    method.annotate(SuppressWarnings.class).param("value", "unchecked");
+    JVar data = method.param(recordClass, DATA);
+    JVar reuse = method.param(Object.class, REUSE);
+    // registered before processing the fields, which may refer to the record itself
+    copyMethodMap.put(methodKey, method);
+
+    JBlock body = method.body();
+    body._if(data.eq(JExpr._null()))._then()._return(JExpr._null());
+    final JVar copy = body.decl(recordClass, "copy");
+    JExpression recordSchemaExpr = schemaExpr;
+    if (useGenericTypes) {
+      JVar recordSchemaVar = getSchemaVar(recordSchema, schemaExpr);
+      JClass indexedRecordClass = codeModel.ref(IndexedRecord.class);
+      ifCodeGen(body,
+          reuse._instanceof(indexedRecordClass)
+              // compares the schemas by reference, which is enough for the copies made by this class
+              .cand(JExpr.cast(indexedRecordClass, reuse).invoke("getSchema").eq(recordSchemaVar)),
+          thenBlock -> thenBlock.assign(copy, JExpr.cast(indexedRecordClass, reuse)),
+          elseBlock -> elseBlock.assign(copy, JExpr._new(codeModel.ref(GenericData.Record.class)).arg(recordSchemaVar)));
+      recordSchemaExpr = recordSchemaVar;
+    } else {
+      ifCodeGen(body, reuse._instanceof(recordClass),
+          thenBlock -> thenBlock.assign(copy, JExpr.cast(recordClass, reuse)),
+          elseBlock -> elseBlock.assign(copy, JExpr._new(recordClass)));
+    }
+
+    for (Schema.Field field : recordSchema.getFields()) {
+      JVar fieldReuse = null;
+      if (isReusedByCopy(field.schema())) {
+        fieldReuse = body.decl(codeModel.ref(Object.class), getUniqueName(field.name() + "Reuse"),
+            copy.invoke("get").arg(JExpr.lit(field.pos())));
+      }
+      JExpression fieldCopy = processValue(field.schema(),
+          recordSchemaExpr.invoke("getField").arg(field.name()).invoke("schema"),
+          data.invoke("get").arg(JExpr.lit(field.pos())), fieldReuse, body);
+      body.invoke(copy, "put").arg(JExpr.lit(field.pos())).arg(fieldCopy);
+    }
+    body._return(copy);
+    return method;
+  }
+
+  private JExpression processArray(Schema arraySchema, JExpression schemaExpr, JExpression arrayExpr, JVar reuseVar,
+      JBlock body) {
+    final Schema elementSchema = arraySchema.getElementType();
+    final JClass listClass = schemaAssistant.classFromSchema(arraySchema);
+    final JVar array = body.decl(listClass, getUniqueName("array"), JExpr.cast(listClass, arrayExpr));
+    final JVar copy = body.decl(listClass, getUniqueName("arrayCopy"), JExpr._null());
+    JBlock nonNullBody = body._if(array.ne(JExpr._null()))._then();
+
+    JBlock listBody = nonNullBody;
+    if (SchemaAssistant.isPrimitive(elementSchema) && !schemaAssistant.hasConversion(elementSchema)) {
+      JClass primitiveListInterface = schemaAssistant.classFromSchema(arraySchema, true, false, true);
+      JClass primitiveListClass = schemaAssistant.classFromSchema(arraySchema, false, false, true);
+      JConditional ifPrimitiveList = nonNullBody._if(array._instanceof(primitiveListInterface));
+      JBlock primitiveBody = ifPrimitiveList._then();
+      JInvocation newPrimitiveList = JExpr._new(primitiveListClass).arg(array.invoke("size"));
+      JVar primitiveCopy = primitiveBody.decl(primitiveListClass, getUniqueName("primitiveListCopy"),
+          reuseVar == null ? newPrimitiveList
+              : JOp.cond(reuseVar._instanceof(primitiveListClass), JExpr.cast(primitiveListClass, reuseVar),
+                  newPrimitiveList));
+      ifCodeGen(primitiveBody, array._instanceof(primitiveListClass),
+          thenBlock -> thenBlock.invoke(primitiveCopy, "copyFrom").arg(JExpr.cast(primitiveListClass, array)),
+          elseBlock -> {
+            // e.g. lists backed by the serialized data, which would be shared otherwise
+            elseBlock.invoke(primitiveCopy, "clear");
+            JVar primitiveList = elseBlock.decl(primitiveListInterface, getUniqueName("primitiveList"),
+                JExpr.cast(primitiveListInterface, array));
+            JForLoop forLoop = elseBlock._for();
+            JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
+            forLoop.test(counter.lt(primitiveList.invoke("size")));
+            forLoop.update(counter.incr());
+            forLoop.body().invoke(primitiveCopy, "addPrimitive").arg(primitiveList.invoke("getPrimitive").arg(counter));
+          });
+      primitiveBody.assign(copy, primitiveCopy);
+      listBody = ifPrimitiveList._else();
+    }
+
+    JInvocation newList = JExpr._new(schemaAssistant.classFromSchema(arraySchema, false)).arg(array.invoke("size"));
+    if (useGenericTypes) {
+      newList = newList.arg(getSchemaVar(arraySchema, schemaExpr));
+    }
+    final JVar listCopy = listBody.decl(listClass, getUniqueName("listCopy"));
+    if (reuseVar == null) {
+      listBody.assign(listCopy, newList);
+    } else {
+      JInvocation finalNewList = newList;
+      ifCodeGen(listBody, reuseVar._instanceof(codeModel.ref(List.class)), thenBlock -> {
+        thenBlock.assign(listCopy, JExpr.cast(listClass, reuseVar));
+        thenBlock.invoke(listCopy, "clear");
+      }, elseBlock -> elseBlock.assign(listCopy, finalNewList));
+    }
+
+    JForLoop forLoop = listBody._for();
+    JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
+    forLoop.test(counter.lt(array.invoke("size")));
+    forLoop.update(counter.incr());
+    JBlock forBody = forLoop.body();
+    JVar elementReuse = null;
+    if (reuseVar != null && isReusedByCopy(elementSchema)) {
+      // cleared generic arrays keep their elements for reuse
+      elementReuse = forBody.decl(codeModel.ref(Object.class), getUniqueName("elementReuse"), JExpr._null());
+      JClass genericArrayClass = codeModel.ref(GenericArray.class);
+      forBody._if(listCopy._instanceof(genericArrayClass))._then()
+          .assign(elementReuse, JExpr.cast(genericArrayClass, listCopy).invoke("peek"));
+    }
+    JExpression elementCopy = processValue(elementSchema, schemaExpr.invoke("getElementType"),
+        array.invoke("get").arg(counter), elementReuse, forBody);
+    forBody.invoke(listCopy, "add").arg(elementCopy);
+    listBody.assign(copy, listCopy);
+    return copy;
+  }
+
+  private JExpression processMap(Schema mapSchema, JExpression schemaExpr, JExpression mapExpr, JVar reuseVar,
+      JBlock body) {
+    final JClass mapClass = schemaAssistant.classFromSchema(mapSchema);
+    final JVar map = body.decl(mapClass, getUniqueName("map"), JExpr.cast(mapClass, mapExpr));
+    final JVar copy = body.decl(mapClass, getUniqueName("mapCopy"), JExpr._null());
+    JBlock nonNullBody = body._if(map.ne(JExpr._null()))._then();
+
+    JInvocation newMap = JExpr._new(schemaAssistant.classFromSchema(mapSchema, false))
+        .arg(JExpr.cast(codeModel.INT, map.invoke("size").div(JExpr.lit(0.75f))).plus(JExpr.lit(1)));
+    if (reuseVar == null) {
+      nonNullBody.assign(copy, newMap);
+    } else {
+      ifCodeGen(nonNullBody, reuseVar._instanceof(codeModel.ref(Map.class)), thenBlock -> {
+        thenBlock.assign(copy, JExpr.cast(mapClass, reuseVar));
+        thenBlock.invoke(copy, "clear");
+      }, elseBlock -> elseBlock.assign(copy, newMap));
+    }
+
+    JClass keyClass = schemaAssistant.findStringClass(mapSchema);
+    JClass valueClass = schemaAssistant.classFromSchema(mapSchema.getValueType());
+    JForEach forEach = nonNullBody.forEach(codeModel.ref(Map.Entry.class).narrow(keyClass, valueClass),
+        getUniqueName("entry"), map.invoke("entrySet"));
+    JBlock forBody = forEach.body();
+    JExpression valueCopy = processValue(mapSchema.getValueType(), schemaExpr.invoke("getValueType"),
+        forEach.var().invoke("getValue"), null, forBody);
+    forBody.invoke(copy, "put").arg(processString(keyClass, forEach.var().invoke("getKey"))).arg(valueCopy);
+    return copy;
+  }
+
+  private JExpression processUnion(Schema unionSchema, JExpression schemaExpr, JExpression unionExpr, JVar reuseVar,
+      JBlock body) {
+    JClass unionClass = schemaAssistant.classFromSchema(unionSchema);
+    JVar union = body.decl(codeModel.ref(Object.class), getUniqueName("union"), unionExpr);
+    JVar copy = body.decl(unionClass, getUniqueName("unionCopy"), JExpr._null());
+
+    JConditional ifBlock = null;
+    List<Schema> types = unionSchema.getTypes();
+    for (int i = 0; i < types.size(); i++) {
+      Schema optionSchema = types.get(i);
+      if (Schema.Type.NULL.equals(optionSchema.getType())) {
+        // the copy of null is null
+        continue;
+      }
+      JClass optionClass = schemaAssistant.classFromSchema(optionSchema);
+      JClass rawOptionClass = schemaAssistant.classFromSchema(optionSchema, true, true);
+      JExpression condition = union._instanceof(rawOptionClass);
+      // named types of the same class are told apart by their schemas, see FastSerializerGenerator#processUnion
+      if (useGenericTypes && SchemaAssistant.isNamedTypeWithSchema(optionSchema)
+          && !schemaAssistant.hasConversion(optionSchema)) {
+        condition = condition.cand(JExpr.lit(AvroCompatibilityHelper.getSchemaFullName(optionSchema)).invoke("equals")
+            .arg(JExpr.cast(optionClass, union).invoke("getSchema").invoke("getFullName")));
+      }
+      ifBlock = ifBlock != null ? ifBlock._elseif(condition) : body._if(condition);
+      JBlock optionBody = ifBlock._then();
+      JExpression optionCopy = processValue(optionSchema,
+          schemaExpr.invoke("getTypes").invoke("get").arg(JExpr.lit(i)), union, reuseVar, optionBody);
+      optionBody.assign(copy, JExpr.cast(unionClass, optionCopy));
+    }
+    if (ifBlock != null) {
+      ifBlock._else()._if(union.ne(JExpr._null()))._then()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class))
+          .arg(JExpr.lit("Not in union " + unionSchema + ": ").plus(union)));
+    }
+    return copy;
+  }
+
+  private JExpression processFixed(Schema fixedSchema, JExpression schemaExpr, JExpression fixedExpr, JVar reuseVar,
+      JBlock body) {
+    final JClass fixedClass = schemaAssistant.classFromSchema(fixedSchema);
+    final JVar fixed = body.decl(fixedClass, getUniqueName("fixed"), JExpr.cast(fixedClass, fixedExpr));
+    final JVar copy = body.decl(fixedClass, getUniqueName("fixedCopy"), JExpr._null());
+    JBlock nonNullBody = body._if(fixed.ne(JExpr._null()))._then();
+
+    // generic fixed of avro-1.4 has no schema
+    JExpression fixedSchemaVar = useGenericTypes && !Utils.isAvro14() ? getSchemaVar(fixedSchema, schemaExpr) : null;
+    if (reuseVar == null) {
+      assignNewFixed(nonNullBody, fixedClass, fixedSchemaVar, fixed, copy);
+      return copy;
+    }
+
+    JExpression reusable = reuseVar._instanceof(fixedClass);
+    if (useGenericTypes) {
+      reusable = reusable.cand(JExpr.cast(fixedClass, reuseVar).invoke("bytes").ref("length")
+          .eq(JExpr.lit(fixedSchema.getFixedSize())));
+      if (SchemaAssistant.isNamedTypeWithSchema(fixedSchema)) {
+        reusable = reusable.cand(JExpr.cast(fixedClass, reuseVar).invoke("getSchema").eq(fixedSchemaVar));
+      }
+    }
+    ifCodeGen(nonNullBody, reusable, thenBlock -> {
+      thenBlock.assign(copy, JExpr.cast(fixedClass, reuseVar));
+      thenBlock.add(codeModel.ref(System.class).staticInvoke("arraycopy")
+          .arg(fixed.invoke("bytes"))
+          .arg(JExpr.lit(0))
+          .arg(copy.invoke("bytes"))
+          .arg(JExpr.lit(0))
+          .arg(JExpr.lit(fixedSchema.getFixedSize())));
+    }, elseBlock -> assignNewFixed(elseBlock, fixedClass, fixedSchemaVar, fixed, copy));
+    return copy;
+  }
+
+  /**
+   * Assigns a new fixed holding a copy of the bytes of the given one, constructed the same way as the deserializers
+   * construct it, see {@link FastDeserializerGenerator}.
+   */
+  private void assignNewFixed(JBlock body, JClass fixedClass, JExpression fixedSchemaVar, JVar fixed, JVar copy) {
+    JExpression bytesCopy = fixed.invoke("bytes").invoke("clone");
+    if (useGenericTypes) {
+      JInvocation newFixed = JExpr._new(fixedClass);
+      if (fixedSchemaVar != null) {
+        newFixed.arg(fixedSchemaVar);
+      }
+      body.assign(copy, newFixed.arg(bytesCopy));
+    } else {
+      // the specific fixed type of avro-1.4 only has a constructor with empty param
+      body.assign(copy, JExpr._new(fixedClass));
+      body.invoke(copy, "bytes").arg(bytesCopy);
+    }
+  }
+
+  /**
+   * {@link Utf8} is mutable, hence copied, {@link String} and the other stringable classes are shared.
+   */
+  private JExpression processString(JClass stringClass, JExpression stringExpr) {
+    JClass deepCopiesClass = codeModel.ref(DeepCopies.class);
+    if (stringClass.equals(codeModel.ref(Utf8.class))) {
+      return deepCopiesClass.staticInvoke("copyUtf8").arg(JExpr.cast(stringClass, stringExpr));
+    } else if (stringClass.equals(codeModel.ref(CharSequence.class))) {
+      return deepCopiesClass.staticInvoke("copyString").arg(JExpr.cast(stringClass, stringExpr));
+    }
+    return stringExpr;
+  }
+
+  /**
+   * @return field of the generated class holding the schema, assigned by the constructor
+   */
+  private JVar getSchemaVar(Schema valueSchema, JExpression schemaExpr) {
+    long schemaId = Utils.getPrimitiveSchemaFingerprint(valueSchema);
+    JVar schemaVar = schemaVarMap.get(schemaId);
+    if (schemaVar == null) {
+      schemaVar = generatedClass.field(JMod.PRIVATE | JMod.FINAL, Schema.class,
+          getUniqueName(StringUtils.uncapitalize(valueSchema.getName()) + "Schema"));
+      constructor.body().assign(JExpr.refthis(schemaVar.name()), schemaExpr);
+      schemaVarMap.put(schemaId, schemaVar);
+    }
+    return schemaVar;
+  }
+
+  /**
+   * @return true if copies of values of the schema may reuse a previous copy
+   */
+  private static boolean isReusedByCopy(Schema schema) {
+    switch (schema.getType()) {
+      case RECORD:
+      case ARRAY:
+      case MAP:
+      case FIXED:
+      case BYTES:
+        return true;
+      case UNION:
+        return schema.getTypes().stream().anyMatch(FastDeepCopierGenerator::isReusedByCopy);
+      default:
+        return false;
+    }
+  }
+}
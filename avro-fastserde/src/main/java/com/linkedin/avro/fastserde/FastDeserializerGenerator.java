@@ -1,8 +1,12 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.api.PrimitiveFloatList;
+import com.linkedin.avro.api.PrimitiveIntList;
+import com.linkedin.avro.api.PrimitiveLongList;
 import com.linkedin.avro.fastserde.backport.ResolvingGrammarGenerator;
 import com.linkedin.avro.fastserde.backport.Symbol;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.sun.codemodel.JArray;
 import com.sun.codemodel.JBlock;
@@ -27,6 +31,7 @@ import com.sun.codemodel.JWhileLoop;
 import java.io.File;
 import java.io.IOException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
@@ -55,6 +60,12 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private static final Logger LOGGER = LoggerFactory.getLogger(FastDeserializerGenerator.class);
   private static final String DECODER = "decoder";
   private static final String VAR_NAME_FOR_REUSE = "reuse";
+  /**
+   * Estimated bytecode size a record method is filled up to before the remaining fields get moved to another one,
+   * see {@link RecordMethodChunker}. Kept well below HotSpot's 8000 bytes limit to leave room for estimation errors
+   * and for fields whose code can't be split, while still big enough for the extra invocations to be negligible.
+   */
+  private static final int MAX_CHUNK_BYTECODE_SIZE = 2000;
 
   /**
    * This is sometimes passed into the reuse parameter,
@@ -69,14 +80,43 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private Map<String, JMethod> deserializeMethodMap = new HashMap<>();
   private Map<String, JMethod> skipMethodMap = new HashMap<>();
   private Map<JMethod, Set<Class<? extends Exception>>> exceptionFromMethodMap = new HashMap<>();
+  private final boolean lazy;
+  private final boolean inputViews;
 
   FastDeserializerGenerator(boolean useGenericTypes, Schema writer, Schema reader, File destination,
       ClassLoader classLoader, String compileClassPath) {
-    super(useGenericTypes, writer, reader, destination, classLoader, compileClassPath);
+    this(useGenericTypes ? DeserializerKind.GENERIC : DeserializerKind.SPECIFIC, writer, reader, destination,
+        classLoader, compileClassPath);
+  }
+
+  FastDeserializerGenerator(DeserializerKind kind, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath) {
+    this(kind, false, writer, reader, destination, classLoader, compileClassPath);
+  }
+
+  FastDeserializerGenerator(DeserializerKind kind, boolean logicalTypeConversions, Schema writer, Schema reader,
+      File destination, ClassLoader classLoader, String compileClassPath) {
+    super(kind, logicalTypeConversions, writer, reader, destination, classLoader, compileClassPath);
+    this.lazy = kind == DeserializerKind.LAZY_GENERIC;
+    this.inputViews = kind == DeserializerKind.INPUT_VIEW_GENERIC;
   }
 
   public FastDeserializer<T> generateDeserializer() {
-    String className = getClassName(writer, reader, useGenericTypes ? "Generic" : "Specific");
+    generateDeserializerClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+    return loadDeserializer();
+  }
+
+  /**
+   * Generates source of the deserializer class, which still has to be compiled before {@link #loadDeserializer()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateDeserializerClass() {
+    String className = getClassName(writer, reader, kind.getDescription(logicalTypeConversions));
     JPackage classPackage = codeModel._package(generatedPackageName);
 
     try {
@@ -102,7 +142,9 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         registerSchema(reader, readerSchemaVar);
       }
 
-      JClass readerSchemaClass = schemaAssistant.classFromSchema(reader);
+      JClass readerSchemaClass = kind == DeserializerKind.COLUMNAR
+          ? codeModel.ref(ColumnarBatch.class)
+          : schemaAssistant.classFromSchema(reader);
       /**
        * Writer schema could be using a different namespace from the reader schema, so we should always
        * use the reader schema class for generic type.
@@ -113,43 +155,42 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       JBlock topLevelDeserializeBlock = new JBlock();
 
       final Supplier<JExpression> reuseSupplier = () -> JExpr.direct(VAR_NAME_FOR_REUSE);
-      switch (aliasedWriterSchema.getType()) {
-        case RECORD:
-          processRecord(readerSchemaVar, aliasedWriterSchema.getName(), aliasedWriterSchema, reader,
-              topLevelDeserializeBlock, fieldAction, JBlock::_return, reuseSupplier);
-          break;
-        case ARRAY:
-          processArray(readerSchemaVar, "array", aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction,
-              JBlock::_return, reuseSupplier);
-          break;
-        case MAP:
-          processMap(readerSchemaVar, "map", aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction,
-              JBlock::_return, reuseSupplier);
-          break;
-        default:
-          throw new FastDeserializerGeneratorException(
-              "Incorrect top-level writer schema: " + aliasedWriterSchema.getType());
-      }
-
-      if (schemaAssistant.getExceptionsFromStringable().isEmpty()) {
-        assignBlockToBody(deserializeMethod, topLevelDeserializeBlock);
+      if (lazy) {
+        if (!useGenericTypes || !Schema.Type.RECORD.equals(aliasedWriterSchema.getType())) {
+          throw new FastDeserializerGeneratorException("Lazy deserializers are only generated for generic records");
+        }
+        generatedClass._implements(LazyGenericRecord.FieldDecoder.class);
+        processLazyRecord(readerSchemaVar, aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction);
+      } else if (kind == DeserializerKind.COLUMNAR) {
+        if (!Schema.Type.RECORD.equals(aliasedWriterSchema.getType())) {
+          throw new FastDeserializerGeneratorException("Columnar deserializers are only generated for records");
+        }
+        processColumnarRecord(readerSchemaVar, aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction);
       } else {
-        JTryBlock tryBlock = deserializeMethod.body()._try();
-        assignBlockToBody(tryBlock, topLevelDeserializeBlock);
-
-        for (Class<? extends Exception> classException : schemaAssistant.getExceptionsFromStringable()) {
-          JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(classException));
-          JVar exceptionVar = catchBlock.param("e");
-          catchBlock.body()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class)).arg(exceptionVar));
+        switch (aliasedWriterSchema.getType()) {
+          case RECORD:
+            processRecord(readerSchemaVar, aliasedWriterSchema.getName(), aliasedWriterSchema, reader,
+                topLevelDeserializeBlock, fieldAction, JBlock::_return, reuseSupplier);
+            break;
+          case ARRAY:
+            processArray(readerSchemaVar, "array", aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction,
+                JBlock::_return, reuseSupplier);
+            break;
+          case MAP:
+            processMap(readerSchemaVar, "map", aliasedWriterSchema, reader, topLevelDeserializeBlock, fieldAction,
+                JBlock::_return, reuseSupplier);
+            break;
+          default:
+            throw new FastDeserializerGeneratorException(
+                "Incorrect top-level writer schema: " + aliasedWriterSchema.getType());
         }
       }
 
+      assignBlockToBodyWrappingStringableExceptions(deserializeMethod, topLevelDeserializeBlock);
+
       deserializeMethod._throws(codeModel.ref(IOException.class));
       deserializeMethod.param(readerSchemaClass, VAR_NAME_FOR_REUSE);
       deserializeMethod.param(Decoder.class, DECODER);
-
-      Class<FastDeserializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.getConstructor(Schema.class).newInstance(reader);
     } catch (JClassAlreadyExistsException e) {
       throw new FastDeserializerGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -157,6 +198,53 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  /**
+   * Assigns the block to the method body, wrapping exceptions of stringable types' constructors, which the method
+   * can't declare, into {@link AvroRuntimeException}.
+   */
+  private void assignBlockToBodyWrappingStringableExceptions(JMethod method, JBlock block) {
+    if (schemaAssistant.getExceptionsFromStringable().isEmpty()) {
+      assignBlockToBody(method, block);
+    } else {
+      JTryBlock tryBlock = method.body()._try();
+      assignBlockToBody(tryBlock, block);
+
+      for (Class<? extends Exception> classException : schemaAssistant.getExceptionsFromStringable()) {
+        JCatchBlock catchBlock = tryBlock._catch(codeModel.ref(classException));
+        JVar exceptionVar = catchBlock.param("e");
+        catchBlock.body()._throw(JExpr._new(codeModel.ref(AvroRuntimeException.class)).arg(exceptionVar));
+      }
+    }
+  }
+
+  /**
+   * Instantiates the deserializer once its class is compiled.
+   */
+  FastDeserializer<T> loadDeserializer() {
+    try {
+      Class<FastDeserializer<T>> clazz = loadGeneratedClass();
+      return clazz.getConstructor(Schema.class).newInstance(reader);
+    } catch (Exception e) {
+      throw new FastDeserializerGeneratorException(e);
+    }
+  }
+
+  /**
+   * @return expression of the current value of the given record field, typed as {@link Object}, which is passed as
+   *         reuse to the field's deserialization
+   */
+  protected JExpression getRecordField(JExpression recordExpr, Schema recordSchema, Schema.Field field) {
+    return recordExpr.invoke("get").arg(JExpr.lit(field.pos()));
+  }
+
+  /**
+   * Sets the given record field to the value.
+   */
+  protected void putRecordField(JBlock body, JExpression recordExpr, Schema recordSchema, Schema.Field field,
+      JExpression valueExpr) {
+    body.invoke(recordExpr, "put").arg(JExpr.lit(field.pos())).arg(valueExpr);
+  }
+
   private void processComplexType(JVar fieldSchemaVar, String name, Schema schema, Schema readerFieldSchema,
       JBlock methodBody, FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent,
       Supplier<JExpression> reuseSupplier) {
@@ -184,6 +272,12 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
   private void processSimpleType(Schema schema, Schema readerSchema, JBlock methodBody, FieldAction action,
       BiConsumer<JBlock, JExpression> putExpressionIntoParent, Supplier<JExpression> reuseSupplier) {
+    LogicalTypeConversions.Conversion conversion =
+        action.getShouldRead() && readerSchema != null ? schemaAssistant.getConversion(readerSchema) : null;
+    if (conversion != null) {
+      processConvertedType(schema, readerSchema, conversion, methodBody, action, putExpressionIntoParent);
+      return;
+    }
     switch (schema.getType()) {
       case ENUM:
         processEnum(readerSchema, methodBody, action, putExpressionIntoParent);
@@ -202,6 +296,29 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  /**
+   * Reads the raw value of a logical type and converts it inline, the same way as avro does, i.e. based on the
+   * logical type of the reader schema once the written value got promoted.
+   */
+  private void processConvertedType(Schema schema, Schema readerSchema, LogicalTypeConversions.Conversion conversion,
+      JBlock methodBody, FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent) {
+    if (!schema.getType().equals(readerSchema.getType())
+        && !(Schema.Type.INT.equals(schema.getType()) && Schema.Type.LONG.equals(readerSchema.getType()))) {
+      throw new FastDeserializerGeneratorException(
+          "Unsupported promotion of " + schema.getType() + " to logical type of " + readerSchema);
+    }
+    BiConsumer<JBlock, JExpression> putRawValueIntoParent = (block, rawValueExpr) -> putExpressionIntoParent.accept(
+        block, schemaAssistant.getConvertedValue(conversion, rawValueExpr));
+    if (Schema.Type.FIXED.equals(schema.getType())) {
+      JVar fixedBuffer = methodBody.decl(codeModel.ref(byte[].class), getUniqueName(schema.getName()),
+          JExpr.direct(" new byte[" + schema.getFixedSize() + "]"));
+      methodBody.directStatement(DECODER + ".readFixed(" + fixedBuffer.name() + ");");
+      putRawValueIntoParent.accept(methodBody, fixedBuffer);
+    } else {
+      processPrimitive(schema, methodBody, action, putRawValueIntoParent, EMPTY_SUPPLIER);
+    }
+  }
+
   private void processRecord(JVar recordSchemaVar, String recordName, final Schema recordWriterSchema,
       final Schema recordReaderSchema, JBlock parentBody, FieldAction recordAction,
       BiConsumer<JBlock, JExpression> putRecordIntoParent, Supplier<JExpression> reuseSupplier) {
@@ -254,8 +371,9 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     final JBlock methodBody = method.body();
 
     final JVar result;
+    final JClass recordClass;
     if (recordAction.getShouldRead()) {
-      JClass recordClass = schemaAssistant.classFromSchema(recordReaderSchema);
+      recordClass = schemaAssistant.classFromSchema(recordReaderSchema);
       result = methodBody.decl(recordClass, recordName);
 
       JExpression reuseVar = JExpr.direct(VAR_NAME_FOR_REUSE);
@@ -286,14 +404,20 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         );
       }
     } else {
+      recordClass = null;
       result = null;
     }
+
+    RecordMethodChunker chunker = new RecordMethodChunker(recordName, recordClass, methodBody, result);
     for (Schema.Field field : recordWriterSchema.getFields()) {
       FieldAction action = seekFieldAction(recordAction.getShouldRead(), field, actionIterator);
       if (action.getSymbol() == END_SYMBOL) {
         break;
       }
 
+      chunker.startField();
+      final JBlock fieldBody = chunker.getBody();
+      final JVar fieldResult = chunker.getResult();
       Schema readerFieldSchema = null;
       JVar fieldSchemaVar = null;
       BiConsumer<JBlock, JExpression> putExpressionInRecord = null;
@@ -301,21 +425,17 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       if (action.getShouldRead()) {
         Schema.Field readerField = recordReaderSchema.getField(field.name());
         readerFieldSchema = readerField.schema();
-        final int readerFieldPos = readerField.pos();
         putExpressionInRecord =
-            (block, expression) -> block.invoke(result, "put").arg(JExpr.lit(readerFieldPos)).arg(expression);
+            (block, expression) -> putRecordField(block, fieldResult, recordReaderSchema, readerField, expression);
         if (useGenericTypes) {
           fieldSchemaVar = declareSchemaVar(readerField.schema(), readerField.name(),
               recordSchemaVar.invoke("getField").arg(field.name()).invoke("schema"));
         }
-        fieldReuseSupplier = () -> result.invoke("get").arg(JExpr.lit(readerFieldPos));
-      }
-      if (SchemaAssistant.isComplexType(field.schema())) {
-        processComplexType(fieldSchemaVar, field.name(), field.schema(), readerFieldSchema, methodBody, action,
-            putExpressionInRecord, fieldReuseSupplier);
-      } else {
-        processSimpleType(field.schema(), readerFieldSchema, methodBody, action, putExpressionInRecord, fieldReuseSupplier);
+        fieldReuseSupplier = () -> getRecordField(fieldResult, recordReaderSchema, readerField);
       }
+      processFieldValue(field, readerFieldSchema, fieldSchemaVar, fieldBody, action, putExpressionInRecord,
+          fieldReuseSupplier);
+      chunker.endField();
     }
 
     // Handle default values
@@ -326,6 +446,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
         if (!fieldNamesSet.contains(readerField.name())) {
           forwardToExpectedDefault(actionIterator);
           seekFieldAction(true, readerField, actionIterator);
+          chunker.startField();
           JVar schemaVar = null;
           if (useGenericTypes) {
             schemaVar = declareSchemaVariableForRecordField(readerField.name(), readerField.schema(), recordSchemaVar);
@@ -333,10 +454,11 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
           JExpression value = parseDefaultValue(
               readerField.schema(),
               AvroCompatibilityHelper.getGenericDefaultValue(readerField),
-              methodBody,
+              chunker.getBody(),
               schemaVar,
               readerField.name());
-          methodBody.invoke(result, "put").arg(JExpr.lit(readerField.pos())).arg(value);
+          putRecordField(chunker.getBody(), chunker.getResult(), recordReaderSchema, readerField, value);
+          chunker.endField();
         }
       }
     }
@@ -344,11 +466,247 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     if (recordAction.getShouldRead()) {
       methodBody._return(result);
     }
+    for (JMethod chunkMethod : chunker.getChunkMethods()) {
+      for (Class<? extends Exception> exceptionClass : schemaAssistant.getExceptionsFromStringable()) {
+        chunkMethod._throws(exceptionClass);
+      }
+    }
     exceptionFromMethodMap.put(method, schemaAssistant.getExceptionsFromStringable());
     schemaAssistant.setExceptionsFromStringable(exceptionsOnHigherLevel);
     updateActualExceptions(method);
   }
 
+  /**
+   * Generates a deserializer of {@link LazyGenericRecord}s. Deserialization only skips the top-level record fields,
+   * noting down where each one starts, while the code reading them goes to methods of
+   * {@link LazyGenericRecord.FieldDecoder}, one per reader field, invoked on the first access of the field.
+   */
+  private void processLazyRecord(JVar recordSchemaVar, final Schema recordWriterSchema,
+      final Schema recordReaderSchema, JBlock body, FieldAction recordAction) {
+    ListIterator<Symbol> actionIterator = actionIterator(recordAction);
+    JClass byteArrayDecoderClass = codeModel.ref(ByteArrayDecoder.class);
+    List<Schema.Field> writerFields = recordWriterSchema.getFields();
+
+    ifCodeGen(body, JExpr.direct(DECODER)._instanceof(byteArrayDecoderClass).not(),
+        thenBlock -> thenBlock._throw(JExpr._new(codeModel.ref(IllegalArgumentException.class))
+            .arg("Lazy deserializers only read from " + ByteArrayDecoder.class.getName())));
+    JVar byteArrayDecoder = body.decl(byteArrayDecoderClass, getUniqueName("byteArrayDecoder"),
+        JExpr.cast(byteArrayDecoderClass, JExpr.direct(DECODER)));
+    JVar fieldOffsets = body.decl(codeModel.INT.array(), getUniqueName("fieldOffsets"),
+        JExpr.newArray(codeModel.INT, writerFields.size() + 1));
+
+    JMethod decodeFieldMethod = generatedClass.method(JMod.PUBLIC, Object.class, "decodeField");
+    decodeFieldMethod._throws(IOException.class);
+    JVar readerFieldPosParam = decodeFieldMethod.param(codeModel.INT, "readerFieldPos");
+    JVar decoderParam = decodeFieldMethod.param(byteArrayDecoderClass, DECODER);
+    JVar fieldOffsetsParam = decodeFieldMethod.param(codeModel.INT.array(), "fieldOffsets");
+    JBlock decodeFieldBlock = new JBlock();
+    JSwitch fieldSwitch = decodeFieldBlock._switch(readerFieldPosParam);
+    List<JMethod> fieldMethods = new ArrayList<>();
+
+    boolean allActionsSeen = false;
+    for (int i = 0; i < writerFields.size(); i++) {
+      Schema.Field field = writerFields.get(i);
+      body.assign(fieldOffsets.component(JExpr.lit(i)), byteArrayDecoder.invoke("getPosition"));
+      processFieldValue(field, null, null, body, FieldAction.fromValues(field.schema().getType(), false, EMPTY_SYMBOL),
+          null, EMPTY_SUPPLIER);
+
+      if (allActionsSeen) {
+        continue;
+      }
+      FieldAction action = seekFieldAction(true, field, actionIterator);
+      if (action.getSymbol() == END_SYMBOL) {
+        allActionsSeen = true;
+        continue;
+      }
+      if (action.getShouldRead()) {
+        Schema.Field readerField = recordReaderSchema.getField(field.name());
+        JVar fieldSchemaVar = declareSchemaVar(readerField.schema(), readerField.name(),
+            recordSchemaVar.invoke("getField").arg(field.name()).invoke("schema"));
+        JMethod fieldMethod = createLazyFieldMethod(readerField);
+        fieldMethods.add(fieldMethod);
+        fieldMethod.body().invoke(JExpr.direct(DECODER), "setPosition")
+            .arg(JExpr.direct("fieldOffsets").component(JExpr.lit(i)));
+        JVar value = fieldMethod.body().decl(codeModel.ref(Object.class), getUniqueName("value"), JExpr._null());
+        processFieldValue(field, readerField.schema(), fieldSchemaVar, fieldMethod.body(), action,
+            (block, expression) -> block.assign(value, expression), EMPTY_SUPPLIER);
+        fieldMethod.body()._return(value);
+        fieldSwitch._case(JExpr.lit(readerField.pos())).body()
+            ._return(JExpr.invoke(fieldMethod).arg(decoderParam).arg(fieldOffsetsParam));
+      }
+    }
+    body.assign(fieldOffsets.component(JExpr.lit(writerFields.size())), byteArrayDecoder.invoke("getPosition"));
+
+    // Handle default values
+    Set<String> fieldNamesSet = writerFields.stream().map(Schema.Field::name).collect(Collectors.toSet());
+    for (Schema.Field readerField : recordReaderSchema.getFields()) {
+      if (!fieldNamesSet.contains(readerField.name())) {
+        forwardToExpectedDefault(actionIterator);
+        seekFieldAction(true, readerField, actionIterator);
+        JMethod fieldMethod = createLazyFieldMethod(readerField);
+        fieldMethods.add(fieldMethod);
+        JVar schemaVar = declareSchemaVariableForRecordField(readerField.name(), readerField.schema(), recordSchemaVar);
+        JExpression value = parseDefaultValue(
+            readerField.schema(),
+            AvroCompatibilityHelper.getGenericDefaultValue(readerField),
+            fieldMethod.body(),
+            schemaVar,
+            readerField.name());
+        fieldMethod.body()._return(value);
+        fieldSwitch._case(JExpr.lit(readerField.pos())).body()
+            ._return(JExpr.invoke(fieldMethod).arg(decoderParam).arg(fieldOffsetsParam));
+      }
+    }
+
+    decodeFieldBlock._throw(JExpr._new(codeModel.ref(IndexOutOfBoundsException.class))
+        .arg(JExpr.lit("Invalid field position: ").plus(readerFieldPosParam)));
+    assignBlockToBodyWrappingStringableExceptions(decodeFieldMethod, decodeFieldBlock);
+    for (JMethod fieldMethod : fieldMethods) {
+      for (Class<? extends Exception> exceptionClass : schemaAssistant.getExceptionsFromStringable()) {
+        fieldMethod._throws(exceptionClass);
+      }
+    }
+
+    body._return(codeModel.ref(LazyGenericRecord.class).staticInvoke("newOrReused")
+        .arg(JExpr.direct(VAR_NAME_FOR_REUSE))
+        .arg(recordSchemaVar)
+        .arg(JExpr._this())
+        .arg(byteArrayDecoder.invoke("getBuffer"))
+        .arg(fieldOffsets));
+  }
+
+  /**
+   * Generates a deserializer appending each record as a row of a {@link ColumnarBatch}. Fields are resolved the same
+   * way as by {@link #processRecord}, except that the read values are set in the columns rather than put into a
+   * record.
+   */
+  private void processColumnarRecord(JVar recordSchemaVar, final Schema recordWriterSchema,
+      final Schema recordReaderSchema, JBlock body, FieldAction recordAction) {
+    for (Schema.Field readerField : recordReaderSchema.getFields()) {
+      try {
+        ColumnarBatch.getColumnClass(readerField.schema());
+      } catch (IllegalArgumentException e) {
+        throw new FastDeserializerGeneratorException("Field " + readerField.name() + " can't be read into a column", e);
+      }
+      Schema valueSchema = ColumnarBatch.getValueSchema(readerField.schema());
+      if (Schema.Type.STRING.equals(valueSchema.getType())
+          && !schemaAssistant.findStringClass(valueSchema).equals(codeModel.ref(Utf8.class))
+          && !schemaAssistant.findStringClass(valueSchema).equals(codeModel.ref(String.class))) {
+        throw new FastDeserializerGeneratorException(
+            "Field " + readerField.name() + " of stringable class can't be read into a column");
+      }
+    }
+
+    ListIterator<Symbol> actionIterator = actionIterator(recordAction);
+    JClass batchClass = codeModel.ref(ColumnarBatch.class);
+    JVar batch = body.decl(batchClass, getUniqueName("batch"), batchClass.staticInvoke("newOrReused")
+        .arg(JExpr.direct(VAR_NAME_FOR_REUSE))
+        .arg(recordSchemaVar));
+    body.invoke(batch, "addRow");
+
+    RecordMethodChunker chunker = new RecordMethodChunker("batch", batchClass, body, batch);
+    for (Schema.Field field : recordWriterSchema.getFields()) {
+      FieldAction action = seekFieldAction(true, field, actionIterator);
+      if (action.getSymbol() == END_SYMBOL) {
+        break;
+      }
+
+      chunker.startField();
+      final JBlock fieldBody = chunker.getBody();
+      final JVar fieldBatch = chunker.getResult();
+      Schema readerFieldSchema = null;
+      JVar fieldSchemaVar = null;
+      BiConsumer<JBlock, JExpression> putExpressionInColumn = null;
+      Supplier<JExpression> fieldReuseSupplier = EMPTY_SUPPLIER;
+      if (action.getShouldRead()) {
+        Schema.Field readerField = recordReaderSchema.getField(field.name());
+        readerFieldSchema = readerField.schema();
+        JVar column = declareColumnVar(fieldBody, fieldBatch, readerField);
+        putExpressionInColumn = (block, expression) -> block.invoke(column, "set")
+            .arg(fieldBatch.invoke("size").minus(JExpr.lit(1)))
+            .arg(expression);
+        fieldSchemaVar = declareSchemaVar(readerField.schema(), readerField.name(),
+            recordSchemaVar.invoke("getField").arg(field.name()).invoke("schema"));
+        if (ColumnarBatch.BytesColumn.class.equals(ColumnarBatch.getColumnClass(readerFieldSchema))) {
+          fieldReuseSupplier = () -> column.invoke("getReuse");
+        }
+      }
+      processFieldValue(field, readerFieldSchema, fieldSchemaVar, fieldBody, action, putExpressionInColumn,
+          fieldReuseSupplier);
+      chunker.endField();
+    }
+
+    // Handle default values
+    Set<String> fieldNamesSet =
+        recordWriterSchema.getFields().stream().map(Schema.Field::name).collect(Collectors.toSet());
+    for (Schema.Field readerField : recordReaderSchema.getFields()) {
+      if (!fieldNamesSet.contains(readerField.name())) {
+        forwardToExpectedDefault(actionIterator);
+        seekFieldAction(true, readerField, actionIterator);
+        Object defaultValue = AvroCompatibilityHelper.getGenericDefaultValue(readerField);
+        if (defaultValue == null) {
+          // rows are null until set
+          continue;
+        }
+        chunker.startField();
+        JVar column = declareColumnVar(chunker.getBody(), chunker.getResult(), readerField);
+        JInvocation setDefault = chunker.getBody().invoke(column, "set")
+            .arg(chunker.getResult().invoke("size").minus(JExpr.lit(1)));
+        if (defaultValue instanceof Boolean) {
+          setDefault.arg(JExpr.lit((Boolean) defaultValue));
+        } else if (column.type().equals(codeModel.ref(ColumnarBatch.IntColumn.class))) {
+          setDefault.arg(JExpr.lit(((Number) defaultValue).intValue()));
+        } else if (column.type().equals(codeModel.ref(ColumnarBatch.LongColumn.class))) {
+          setDefault.arg(JExpr.lit(((Number) defaultValue).longValue()));
+        } else if (column.type().equals(codeModel.ref(ColumnarBatch.DoubleColumn.class))) {
+          setDefault.arg(JExpr.lit(((Number) defaultValue).doubleValue()));
+        } else if (defaultValue instanceof ByteBuffer) {
+          ByteBuffer bytes = ((ByteBuffer) defaultValue).duplicate();
+          JArray bytesArray = JExpr.newArray(codeModel.BYTE);
+          while (bytes.hasRemaining()) {
+            bytesArray.add(JExpr.lit(bytes.get()));
+          }
+          setDefault.arg(bytesArray).arg(JExpr.lit(0)).arg(JExpr.lit(((ByteBuffer) defaultValue).remaining()));
+        } else {
+          setDefault.arg(JExpr.lit(defaultValue.toString()));
+        }
+        chunker.endField();
+      }
+    }
+
+    body._return(batch);
+    for (JMethod chunkMethod : chunker.getChunkMethods()) {
+      for (Class<? extends Exception> exceptionClass : schemaAssistant.getExceptionsFromStringable()) {
+        chunkMethod._throws(exceptionClass);
+      }
+    }
+  }
+
+  private JVar declareColumnVar(JBlock body, JVar batch, Schema.Field readerField) {
+    JClass columnClass = codeModel.ref(ColumnarBatch.getColumnClass(readerField.schema()));
+    return body.decl(columnClass, getUniqueName(StringUtils.uncapitalize(readerField.name()) + "Column"),
+        JExpr.cast(columnClass, batch.invoke("getColumn").arg(JExpr.lit(readerField.pos()))));
+  }
+
+  private JMethod createLazyFieldMethod(Schema.Field readerField) {
+    JMethod method = generatedClass.method(JMod.PRIVATE, Object.class,
+        getUniqueName("decode" + StringUtils.capitalize(readerField.name())));
+    method._throws(IOException.class);
+    method.param(ByteArrayDecoder.class, DECODER);
+    method.param(codeModel.INT.array(), "fieldOffsets");
+    return method;
+  }
+
+  private void processFieldValue(Schema.Field field, Schema readerFieldSchema, JVar fieldSchemaVar, JBlock body,
+      FieldAction action, BiConsumer<JBlock, JExpression> putExpressionIntoParent, Supplier<JExpression> reuseSupplier) {
+    if (SchemaAssistant.isComplexType(field.schema())) {
+      processComplexType(fieldSchemaVar, field.name(), field.schema(), readerFieldSchema, body, action,
+          putExpressionIntoParent, reuseSupplier);
+    } else {
+      processSimpleType(field.schema(), readerFieldSchema, body, action, putExpressionIntoParent, reuseSupplier);
+    }
+  }
+
   private void updateActualExceptions(JMethod method) {
     Set<Class<? extends Exception>> exceptionFromMethod = exceptionFromMethodMap.get(method);
     if (exceptionFromMethod != null) {
@@ -399,7 +757,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
             }
             JExpression fieldValue =
                 parseDefaultValue(subField.schema(), defaultValueRecord.get(subField.name()), body, fieldSchemaVar, subField.name());
-            body.invoke(valueVar, "put").arg(JExpr.lit(subField.pos())).arg(fieldValue);
+            putRecordField(body, valueVar, schema, subField, fieldValue);
 
           }
           break;
@@ -437,6 +795,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
             JExpression mapKeyExpr;
             if (SchemaAssistant.hasStringableKey(schema)) {
               mapKeyExpr = JExpr._new(schemaAssistant.findStringClass(schema)).arg(mapEntry.getKey().toString());
+            } else if (schemaAssistant.findStringClass(schema).equals(codeModel.ref(String.class))) {
+              mapKeyExpr = JExpr.lit(mapEntry.getKey().toString());
             } else {
               mapKeyExpr = JExpr._new(codeModel.ref(Utf8.class)).arg(mapEntry.getKey().toString());
             }
@@ -451,6 +811,10 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       }
       return valueVar;
     } else {
+      LogicalTypeConversions.Conversion conversion = schemaAssistant.getConversion(schema);
+      if (conversion != null) {
+        return parseConvertedDefaultValue(schema, conversion, defaultValue);
+      }
       switch (schemaType) {
         case ENUM:
           GenericData.EnumSymbol defaultValueEnum = (GenericData.EnumSymbol) defaultValue;
@@ -511,6 +875,39 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     }
   }
 
+  private JExpression parseConvertedDefaultValue(Schema schema, LogicalTypeConversions.Conversion conversion,
+      Object defaultValue) {
+    JExpression rawValueExpr;
+    switch (schema.getType()) {
+      case FIXED:
+        JArray fixedBytesArray = JExpr.newArray(codeModel.BYTE);
+        for (byte b : ((GenericFixed) defaultValue).bytes()) {
+          fixedBytesArray.add(JExpr.lit(b));
+        }
+        rawValueExpr = fixedBytesArray;
+        break;
+      case BYTES:
+        JArray bytesArray = JExpr.newArray(codeModel.BYTE);
+        for (byte b : ((ByteBuffer) defaultValue).array()) {
+          bytesArray.add(JExpr.lit(b));
+        }
+        rawValueExpr = codeModel.ref(ByteBuffer.class).staticInvoke("wrap").arg(bytesArray);
+        break;
+      case STRING:
+        rawValueExpr = JExpr.lit(defaultValue.toString());
+        break;
+      case INT:
+        rawValueExpr = JExpr.lit((Integer) defaultValue);
+        break;
+      case LONG:
+        rawValueExpr = JExpr.lit((Long) defaultValue);
+        break;
+      default:
+        throw new FastDeserializerGeneratorException("Incorrect schema type of logical type default value!");
+    }
+    return schemaAssistant.getConvertedValue(conversion, rawValueExpr);
+  }
+
   private void processUnion(JVar unionSchemaVar, final String name, final Schema unionSchema,
       final Schema readerUnionSchema, JBlock body, FieldAction action,
       BiConsumer<JBlock, JExpression> putValueIntoParent, Supplier<JExpression> reuseSupplier) {
@@ -624,18 +1021,63 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
 
     final JVar arrayVar = action.getShouldRead() ? declareValueVar(name, readerArraySchema, parentBody, true, false, true) : null;
     /**
-     * Special optimization for float array by leveraging {@link ByteBufferBackedPrimitiveFloatList}.
-     *
-     * TODO: Handle other primitive element types here.
+     * Special optimization for arrays of floats, doubles, ints and longs, which are decoded lazily by leveraging
+     * {@link ByteBufferBackedPrimitiveFloatList}, {@link ByteBufferBackedPrimitiveDoubleList},
+     * {@link LazyPrimitiveIntList} and {@link LazyPrimitiveLongList}. Promoted elements are read as usual.
+     */
+    if (action.getShouldRead() && arraySchema.getElementType().getType()
+        .equals(readerArraySchema.getElementType().getType())
+        && !schemaAssistant.hasConversion(readerArraySchema.getElementType())) {
+      Class<?> lazyListClass = null;
+      Class<?> primitiveListInterface = null;
+      String readMethod = null;
+      switch (arraySchema.getElementType().getType()) {
+        case FLOAT:
+          lazyListClass = ByteBufferBackedPrimitiveFloatList.class;
+          primitiveListInterface = PrimitiveFloatList.class;
+          readMethod = "readPrimitiveFloatArray";
+          break;
+        case DOUBLE:
+          lazyListClass = ByteBufferBackedPrimitiveDoubleList.class;
+          primitiveListInterface = PrimitiveDoubleList.class;
+          readMethod = "readPrimitiveDoubleArray";
+          break;
+        case INT:
+          lazyListClass = LazyPrimitiveIntList.class;
+          primitiveListInterface = PrimitiveIntList.class;
+          readMethod = "readPrimitiveIntArray";
+          break;
+        case LONG:
+          lazyListClass = LazyPrimitiveLongList.class;
+          primitiveListInterface = PrimitiveLongList.class;
+          readMethod = "readPrimitiveLongArray";
+          break;
+        default:
+          break;
+      }
+      if (lazyListClass != null) {
+        JExpression readPrimitiveArrayInvocation = codeModel.ref(lazyListClass).staticInvoke(readMethod).
+            arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+        JExpression castedResult =
+            JExpr.cast(codeModel.ref(primitiveListInterface), readPrimitiveArrayInvocation);
+
+        parentBody.assign(arrayVar, castedResult);
+        putArrayIntoParent.accept(parentBody, arrayVar);
+        return;
+      }
+    }
+
+    /**
+     * Ints promoted to longs can't be kept raw, but are still decoded block by block in bulk by
+     * {@link PrimitiveLongArrayList}.
      */
-    if (action.getShouldRead() && arraySchema.getElementType().getType().equals(Schema.Type.FLOAT)) {
-      JClass primitiveFloatList = codeModel.ref(ByteBufferBackedPrimitiveFloatList.class);
-      JExpression readPrimitiveFloatArrayInvocation = primitiveFloatList.staticInvoke("readPrimitiveFloatArray").
-          arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
-      JExpression castedResult =
-          JExpr.cast(codeModel.ref(PrimitiveFloatList.class), readPrimitiveFloatArrayInvocation);
-
-      parentBody.assign(arrayVar, castedResult);
+    if (action.getShouldRead() && Schema.Type.INT.equals(arraySchema.getElementType().getType())
+        && Schema.Type.LONG.equals(readerArraySchema.getElementType().getType())
+        && !schemaAssistant.hasConversion(readerArraySchema.getElementType())) {
+      JExpression readPrimitiveArrayInvocation = codeModel.ref(PrimitiveLongArrayList.class)
+          .staticInvoke("readPrimitiveLongArray").arg(reuseSupplier.get()).arg(JExpr.direct(DECODER));
+
+      parentBody.assign(arrayVar, JExpr.cast(codeModel.ref(PrimitiveLongList.class), readPrimitiveArrayInvocation));
       putArrayIntoParent.accept(parentBody, arrayVar);
       return;
     }
@@ -646,13 +1088,16 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     final FieldAction finalAction = action;
 
     final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, parentBody, "oldArray");
+    // converted logical types are added to regular lists
+    final boolean primitiveElements = SchemaAssistant.isPrimitive(arraySchema.getElementType())
+        && !(finalAction.getShouldRead() && schemaAssistant.hasConversion(readerArraySchema.getElementType()));
     if (finalAction.getShouldRead()) {
 
       JClass arrayClass = schemaAssistant.classFromSchema(readerArraySchema, false, false, true);
       JClass abstractErasedArrayClass = schemaAssistant.classFromSchema(readerArraySchema, true, false, true).erasure();
 
       JInvocation newArrayExp = JExpr._new(arrayClass).arg(JExpr.cast(codeModel.INT, chunkLen));
-      if (useGenericTypes && !SchemaAssistant.isPrimitive(arraySchema.getElementType())) {
+      if (useGenericTypes && !primitiveElements) {
         /**
          * N.B.: The ColdPrimitiveXList implementations do not take the schema as a constructor param,
          * but the {@link org.apache.avro.generic.GenericData.Array} does.
@@ -682,7 +1127,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     JVar elementSchemaVar = null;
     BiConsumer<JBlock, JExpression> putValueInArray = null;
     if (finalAction.getShouldRead()) {
-      String addMethod = SchemaAssistant.isPrimitive(arraySchema.getElementType())
+      String addMethod = primitiveElements
           ? "addPrimitive"
           : "add";
       putValueInArray = (block, expression) -> block.invoke(arrayVar, addMethod).arg(expression);
@@ -820,6 +1265,8 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     JExpression keyValueExpression;
     if (SchemaAssistant.hasStringableKey(mapSchema)) {
       keyValueExpression = readStringableExpression(keyClass);
+    } else if (inputViews && codeModel.ref(CharSequence.class).equals(keyClass)) {
+      keyValueExpression = codeModel.ref(InputViews.class).staticInvoke("readString").arg(JExpr.direct(DECODER));
     } else {
       keyValueExpression = codeModel.ref(String.class).equals(keyClass) ?
               JExpr.direct(DECODER + ".readString()")
@@ -956,7 +1403,10 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
   private void processBytes(JBlock body, FieldAction action, BiConsumer<JBlock, JExpression> putValueIntoParent,
       Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
-      if (reuseSupplier.get().equals(JExpr._null())) {
+      if (inputViews) {
+        putValueIntoParent.accept(body,
+            codeModel.ref(InputViews.class).staticInvoke("readBytes").arg(JExpr.direct(DECODER)));
+      } else if (reuseSupplier.get().equals(JExpr._null())) {
         putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readBytes").arg(JExpr.direct("null")));
       } else {
         final Supplier<JExpression> finalReuseSupplier = potentiallyCacheInvocation(reuseSupplier, body, "oldBytes");
@@ -977,7 +1427,10 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
       BiConsumer<JBlock, JExpression> putValueIntoParent, Supplier<JExpression> reuseSupplier) {
     if (action.getShouldRead()) {
       JClass stringClass = schemaAssistant.findStringClass(schema);
-      if (stringClass.equals(codeModel.ref(Utf8.class))) {
+      if (inputViews && stringClass.equals(codeModel.ref(CharSequence.class))) {
+        putValueIntoParent.accept(body,
+            codeModel.ref(InputViews.class).staticInvoke("readString").arg(JExpr.direct(DECODER)));
+      } else if (stringClass.equals(codeModel.ref(Utf8.class))) {
         if (reuseSupplier.equals(EMPTY_SUPPLIER)) {
           putValueIntoParent.accept(body, JExpr.invoke(JExpr.direct(DECODER), "readString").arg(JExpr._null()));
         } else {
@@ -1049,7 +1502,7 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
      */
     if (SchemaAssistant.isComplexType(valueSchema) || Schema.Type.ENUM.equals(valueSchema.getType())
         || Schema.Type.FIXED.equals(valueSchema.getType())) {
-      long schemaId = Utils.getSchemaFingerprint(valueSchema);
+      long schemaId = Utils.getPrimitiveSchemaFingerprint(valueSchema);
       if (schemaVarMap.get(schemaId) != null) {
         return schemaVarMap.get(schemaId);
       } else {
@@ -1129,6 +1582,82 @@ public class FastDeserializerGenerator<T> extends FastDeserializerGeneratorBase<
     return method;
   }
 
+  /**
+   * Spreads the code of record fields over chunk methods, so that none of the generated methods grows past
+   * {@link #MAX_CHUNK_BYTECODE_SIZE}. HotSpot doesn't JIT-compile methods bigger than 8000 bytes of bytecode
+   * (-XX:HugeMethodLimit), which very wide records would easily exceed if all of their fields were processed within
+   * the record method.
+   *
+   * Fields go to the record method itself until it's full, then to private methods invoked one after another from
+   * it, each one receiving the record being populated. Code of a single field is never split.
+   */
+  private class RecordMethodChunker {
+    private final String recordName;
+    private final JClass recordClass;
+    private final JBlock recordMethodBody;
+    private final JVar recordMethodResult;
+    private final List<JMethod> chunkMethods = new ArrayList<>();
+    private JBlock body;
+    private JVar result;
+    private int estimatedSize;
+    private int fieldStart;
+
+    /**
+     * @param recordClass class of the record or null if it is only skipped
+     * @param result variable holding the record or null if it is only skipped
+     */
+    RecordMethodChunker(String recordName, JClass recordClass, JBlock recordMethodBody, JVar result) {
+      this.recordName = recordName;
+      this.recordClass = recordClass;
+      this.recordMethodBody = recordMethodBody;
+      this.recordMethodResult = result;
+      this.body = recordMethodBody;
+      this.result = result;
+      this.estimatedSize = estimateBytecodeSize(recordMethodBody, 0);
+    }
+
+    void startField() {
+      if (estimatedSize > MAX_CHUNK_BYTECODE_SIZE) {
+        JMethod chunkMethod = generatedClass.method(JMod.PRIVATE, codeModel.VOID,
+            getUniqueName((result != null ? "populate" : "skip") + StringUtils.capitalize(recordName)));
+        chunkMethod._throws(IOException.class);
+        JInvocation chunkInvocation = recordMethodBody.invoke(chunkMethod);
+        if (result != null) {
+          chunkInvocation.arg(recordMethodResult);
+          result = chunkMethod.param(recordClass, recordName);
+        }
+        chunkInvocation.arg(JExpr.direct(DECODER));
+        chunkMethod.param(Decoder.class, DECODER);
+        chunkMethods.add(chunkMethod);
+        body = chunkMethod.body();
+        estimatedSize = 0;
+      }
+      fieldStart = body.getContents().size();
+    }
+
+    void endField() {
+      estimatedSize += estimateBytecodeSize(body, fieldStart);
+    }
+
+    /**
+     * @return block the code of the current field should be added to
+     */
+    JBlock getBody() {
+      return body;
+    }
+
+    /**
+     * @return variable holding the record within the current chunk
+     */
+    JVar getResult() {
+      return result;
+    }
+
+    List<JMethod> getChunkMethods() {
+      return chunkMethods;
+    }
+  }
+
   private JExpression getSchemaExpr(Schema schema) {
     Long index = Utils.getSchemaFingerprint(schema);
     return (useGenericTypes && schemaVarMap.containsKey(index)) ? schemaVarMap.get(index) : JExpr._null();
@@ -18,13 +18,41 @@ public abstract class FastDeserializerGeneratorBase<T> extends FastSerdeBase {
   protected final Schema writer;
   protected final Schema reader;
 
+  protected final DeserializerKind kind;
+  protected final boolean logicalTypeConversions;
+
   FastDeserializerGeneratorBase(boolean useGenericTypes, Schema writer, Schema reader, File destination, ClassLoader classLoader,
       String compileClassPath) {
-    super("deserialization", useGenericTypes, Utf8.class, destination, classLoader, compileClassPath, false);
+    this(useGenericTypes ? DeserializerKind.GENERIC : DeserializerKind.SPECIFIC, writer, reader, destination,
+        classLoader, compileClassPath);
+  }
+
+  FastDeserializerGeneratorBase(DeserializerKind kind, Schema writer, Schema reader, File destination,
+      ClassLoader classLoader, String compileClassPath) {
+    this(kind, false, writer, reader, destination, classLoader, compileClassPath);
+  }
+
+  FastDeserializerGeneratorBase(DeserializerKind kind, boolean logicalTypeConversions, Schema writer, Schema reader,
+      File destination, ClassLoader classLoader, String compileClassPath) {
+    super("deserialization", kind.useGenericTypes, defaultStringClass(kind), destination, classLoader,
+        compileClassPath, false, logicalTypeConversions && kind != DeserializerKind.COLUMNAR);
+    this.kind = kind;
+    this.logicalTypeConversions = logicalTypeConversions && kind != DeserializerKind.COLUMNAR;
     this.writer = writer;
     this.reader = reader;
   }
 
+  private static Class<?> defaultStringClass(DeserializerKind kind) {
+    switch (kind) {
+      case INPUT_VIEW_GENERIC:
+        return CharSequence.class;
+      case REFLECT:
+        return String.class;
+      default:
+        return Utf8.class;
+    }
+  }
+
   protected static Symbol[] reverseSymbolArray(Symbol[] symbols) {
     Symbol[] reversedSymbols = new Symbol[symbols.length];
 
@@ -42,6 +70,50 @@ public abstract class FastDeserializerGeneratorBase<T> extends FastSerdeBase {
     return typeName + SEP + description + "Deserializer" + SEP + writerSchemaId + SEP + readerSchemaId;
   }
 
+  /**
+   * Kinds of generated deserializers, which differ in what they produce.
+   */
+  enum DeserializerKind {
+    SPECIFIC(false, "Specific"),
+    GENERIC(true, "Generic"),
+    /**
+     * {@link LazyGenericRecord}s, which only find out where the top-level record fields start and decode them on
+     * access.
+     */
+    LAZY_GENERIC(true, "GenericLazy"),
+    /**
+     * Generic data whose strings and bytes are views over the input array, see {@link InputViews}.
+     */
+    INPUT_VIEW_GENERIC(true, "GenericInputView"),
+    /**
+     * {@link ColumnarBatch}es, each deserialized record being appended as a row. Logical types are never converted.
+     */
+    COLUMNAR(true, "GenericColumnar"),
+    /**
+     * POJOs read through {@link org.apache.avro.reflect.ReflectDatumReader}, whose fields are accessed directly, see
+     * {@link FastReflectDeserializerGenerator}.
+     */
+    REFLECT(false, "Reflect");
+
+    final boolean useGenericTypes;
+    /**
+     * part of the generated class name
+     */
+    final String description;
+
+    DeserializerKind(boolean useGenericTypes, String description) {
+      this.useGenericTypes = useGenericTypes;
+      this.description = description;
+    }
+
+    /**
+     * @return part of the generated class name, which tells apart classes converting logical types
+     */
+    String getDescription(boolean logicalTypeConversions) {
+      return logicalTypeConversions && this != COLUMNAR ? description + "Converted" : description;
+    }
+  }
+
   protected static String getSymbolPrintName(Symbol symbol) {
     String printName;
     try {
@@ -1,6 +1,8 @@
 package com.linkedin.avro.fastserde;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
 import org.apache.avro.Schema;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.Decoder;
@@ -17,6 +19,7 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
   private Schema writerSchema;
   private Schema readerSchema;
   private FastSerdeCache cache;
+  private final boolean inputViews;
 
   private FastDeserializer<T> cachedFastDeserializer;
 
@@ -32,10 +35,35 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
     this(schema, schema, cache);
   }
 
+  /**
+   * Creates a reader deserializing only the projected fields of the reader schema and skipping the others, see
+   * {@link FastSerdeCache#getProjectedSchema(Schema, FieldProjection)}. Read records have the projected schema.
+   */
+  public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, FieldProjection projection) {
+    this(writerSchema, readerSchema, projection, FastSerdeCache.getDefaultInstance());
+  }
+
+  public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, FieldProjection projection,
+      FastSerdeCache cache) {
+    this(writerSchema, (cache != null ? cache : FastSerdeCache.getDefaultInstance())
+        .getProjectedSchema(readerSchema, projection), cache);
+  }
+
   public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, FastSerdeCache cache) {
+    this(writerSchema, readerSchema, cache, false);
+  }
+
+  /**
+   * @param inputViews whether strings and bytes read from a {@link ByteArrayDecoder} should be views over its array
+   *                   rather than copies, see {@link FastSerdeCache#getFastInputViewGenericDeserializer}. Strings are
+   *                   then read as {@link Utf8View}s, and the read data is only valid while the input array isn't
+   *                   modified, unless detached by {@link InputViews#materialize(Object)}.
+   */
+  public FastGenericDatumReader(Schema writerSchema, Schema readerSchema, FastSerdeCache cache, boolean inputViews) {
     this.writerSchema = writerSchema;
     this.readerSchema = readerSchema;
     this.cache = cache != null ? cache : FastSerdeCache.getDefaultInstance();
+    this.inputViews = inputViews;
 
     if (!Utils.isSupportedAvroVersionsForDeserializer()) {
       this.cachedFastDeserializer = getRegularAvroImpl(writerSchema, readerSchema);
@@ -67,8 +95,111 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public T read(T reuse, Decoder in) throws IOException {
+    return getFastDeserializer().deserialize(reuse, in);
+  }
+
+  /**
+   * Deserializes a batch of records laid out one after another in the given array, e.g. payloads of messages
+   * fetched at once. A single {@link ByteArrayDecoder} is pointed to each of them in turn and the deserializer is
+   * looked up only once per batch.
+   *
+   * @param buffer array containing the serialized records
+   * @param offsets offsets of the records within the array followed by the end of the last one, hence one element
+   *                longer than the number of records
+   * @param records array the records are stored into, its elements are reused the same way as by
+   *                {@link #read(Object, Decoder)}, it has to hold at least as many elements as there are records
+   * @return number of records read
+   */
+  public int readBatch(byte[] buffer, int[] offsets, T[] records) throws IOException {
+    checkBatchSize(offsets.length - 1, records);
+    FastDeserializer<T> fastDeserializer = getFastDeserializer();
+    return readRecords(buffer, offsets,
+        (index, decoder) -> records[index] = fastDeserializer.deserialize(records[index], decoder));
+  }
+
+  /**
+   * Points a single {@link ByteArrayDecoder} to each of the records laid out one after another in the given array in
+   * turn, see {@link #readBatch(byte[], int[], Object[])}.
+   *
+   * @param buffer array containing the serialized records
+   * @param offsets offsets of the records within the array followed by the end of the last one
+   * @param recordReader reader of every record from the decoder positioned at it
+   * @return number of records read
+   */
+  static int readRecords(byte[] buffer, int[] offsets, BatchRecordReader recordReader) throws IOException {
+    int count = offsets.length - 1;
+    ByteArrayDecoder decoder = null;
+    for (int i = 0; i < count; i++) {
+      if (decoder == null) {
+        decoder = new ByteArrayDecoder(buffer, offsets[i], offsets[i + 1] - offsets[i]);
+      } else {
+        decoder.setBuffer(buffer, offsets[i], offsets[i + 1] - offsets[i]);
+      }
+      recordReader.read(i, decoder);
+    }
+    return Math.max(count, 0);
+  }
+
+  /**
+   * Deserializes a batch of records, each of which occupies the remaining bytes of one of the given buffers.
+   * Buffers backed by an accessible array are read in place, the others get copied into a scratch array shared by
+   * the whole batch, unless reading input views which need a separate copy per record. Positions of the buffers are
+   * left intact.
+   *
+   * @param buffers buffers containing the serialized records
+   * @param records array the records are stored into, see {@link #readBatch(byte[], int[], Object[])}
+   * @return number of records read
+   */
+  public int readBatch(List<ByteBuffer> buffers, T[] records) throws IOException {
+    int count = buffers.size();
+    checkBatchSize(count, records);
+    FastDeserializer<T> fastDeserializer = getFastDeserializer();
+    ByteArrayDecoder decoder = null;
+    byte[] scratch = null;
+    for (int i = 0; i < count; i++) {
+      ByteBuffer buffer = buffers.get(i);
+      byte[] array;
+      int offset;
+      if (buffer.hasArray()) {
+        array = buffer.array();
+        offset = buffer.arrayOffset() + buffer.position();
+      } else {
+        // views of the previous records would point to the bytes of the next ones otherwise
+        if (inputViews || scratch == null || scratch.length < buffer.remaining()) {
+          scratch = new byte[buffer.remaining()];
+        }
+        buffer.duplicate().get(scratch, 0, buffer.remaining());
+        array = scratch;
+        offset = 0;
+      }
+      if (decoder == null) {
+        decoder = new ByteArrayDecoder(array, offset, buffer.remaining());
+      } else {
+        decoder.setBuffer(array, offset, buffer.remaining());
+      }
+      records[i] = fastDeserializer.deserialize(records[i], decoder);
+    }
+    return count;
+  }
+
+  /**
+   * Reads a single record of a batch, see {@link #readRecords(byte[], int[], BatchRecordReader)}.
+   */
+  @FunctionalInterface
+  interface BatchRecordReader {
+    void read(int index, ByteArrayDecoder decoder) throws IOException;
+  }
+
+  private static void checkBatchSize(int count, Object[] records) {
+    if (count < 0 || records.length < count) {
+      throw new IllegalArgumentException(
+          "Batch of " + count + " records doesn't fit into an array of " + records.length);
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  FastDeserializer<T> getFastDeserializer() {
     FastDeserializer<T> fastDeserializer = null;
 
     if (cachedFastDeserializer != null) {
@@ -76,7 +207,9 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
     } else {
       fastDeserializer = getFastDeserializerFromCache(cache, writerSchema, readerSchema);
       if (fastDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroSpecificImpl
-          || fastDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl) {
+          || fastDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl
+          || fastDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroColumnarImpl
+          || fastDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroReflectImpl) {
         // don't cache
       } else {
         cachedFastDeserializer = fastDeserializer;
@@ -87,15 +220,22 @@ public class FastGenericDatumReader<T> implements DatumReader<T> {
       }
     }
 
-    return fastDeserializer.deserialize(reuse, in);
+    return fastDeserializer;
+  }
+
+  Schema getReaderSchema() {
+    return readerSchema;
   }
 
   protected FastDeserializer<T> getFastDeserializerFromCache(FastSerdeCache fastSerdeCache, Schema writerSchema,
       Schema readerSchema) {
-    return (FastDeserializer<T>) fastSerdeCache.getFastGenericDeserializer(writerSchema, readerSchema);
+    return (FastDeserializer<T>) (inputViews
+        ? fastSerdeCache.getFastInputViewGenericDeserializer(writerSchema, readerSchema)
+        : fastSerdeCache.getFastGenericDeserializer(writerSchema, readerSchema));
   }
 
   protected FastDeserializer<T> getRegularAvroImpl(Schema writerSchema, Schema readerSchema) {
-    return new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema);
+    return new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema,
+        cache.isLogicalTypeConversions());
   }
 }
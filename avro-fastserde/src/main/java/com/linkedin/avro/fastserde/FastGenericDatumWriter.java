@@ -1,6 +1,10 @@
 package com.linkedin.avro.fastserde;
 
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Encoder;
@@ -48,15 +52,52 @@ public class FastGenericDatumWriter<T> implements DatumWriter<T> {
   }
 
   @Override
-  @SuppressWarnings("unchecked")
   public void write(T data, Encoder out) throws IOException {
+    getFastSerializer().serialize(data, out);
+  }
+
+  /**
+   * Serializes the data into an array of exactly its encoded size, which is allocated once and written without any
+   * growing or copying, as long as the serializer is generated. Otherwise the data is serialized as usual.
+   */
+  public byte[] toByteArray(T data) throws IOException {
+    FastSerializer<T> fastSerializer = getFastSerializer();
+    int size = fastSerializer.sizeOf(data);
+    if (size < 0) {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+      fastSerializer.serialize(data, encoder);
+      encoder.flush();
+      return baos.toByteArray();
+    }
+
+    byte[] bytes = new byte[size];
+    ByteArrayEncoder encoder = new ByteArrayEncoder(bytes);
+    fastSerializer.serialize(data, encoder);
+    if (encoder.getPosition() != size) {
+      // e.g. the data changed in between
+      throw new AvroRuntimeException("Serialized " + encoder.getPosition() + " bytes instead of " + size);
+    }
+    return bytes;
+  }
+
+  /**
+   * Serializes the data into a heap buffer, see {@link #toByteArray(Object)}.
+   */
+  public ByteBuffer toByteBuffer(T data) throws IOException {
+    return ByteBuffer.wrap(toByteArray(data));
+  }
+
+  @SuppressWarnings("unchecked")
+  private FastSerializer<T> getFastSerializer() {
     FastSerializer<T> fastSerializer;
     if (cachedFastSerializer != null) {
       fastSerializer = cachedFastSerializer;
     } else {
       fastSerializer = getFastSerializerFromCache(cache, writerSchema);
       if (fastSerializer instanceof FastSerdeCache.FastSerializerWithAvroSpecificImpl
-          || fastSerializer instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl) {
+          || fastSerializer instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl
+          || fastSerializer instanceof FastSerdeCache.FastSerializerWithAvroReflectImpl) {
         // don't cache
       } else {
         cachedFastSerializer = fastSerializer;
@@ -65,8 +106,7 @@ public class FastGenericDatumWriter<T> implements DatumWriter<T> {
         }
       }
     }
-
-    fastSerializer.serialize(data, out);
+    return fastSerializer;
   }
 
   protected FastSerializer<T> getFastSerializerFromCache(FastSerdeCache fastSerdeCache, Schema schema) {
@@ -74,6 +114,6 @@ public class FastGenericDatumWriter<T> implements DatumWriter<T> {
   }
 
   protected FastSerializer<T> getRegularAvroImpl(Schema schema) {
-    return new FastSerdeCache.FastSerializerWithAvroGenericImpl<>(schema);
+    return new FastSerdeCache.FastSerializerWithAvroGenericImpl<>(schema, cache.isLogicalTypeConversions());
   }
 }
@@ -10,4 +10,14 @@ public final class FastGenericDeserializerGenerator<T> extends FastDeserializerG
       String compileClassPath) {
     super(true, writer, reader, destination, classLoader, compileClassPath);
   }
+
+  FastGenericDeserializerGenerator(Schema writer, Schema reader, DeserializerKind kind, File destination,
+      ClassLoader classLoader, String compileClassPath) {
+    super(kind, writer, reader, destination, classLoader, compileClassPath);
+  }
+
+  FastGenericDeserializerGenerator(Schema writer, Schema reader, DeserializerKind kind, boolean logicalTypeConversions,
+      File destination, ClassLoader classLoader, String compileClassPath) {
+    super(kind, logicalTypeConversions, writer, reader, destination, classLoader, compileClassPath);
+  }
 }
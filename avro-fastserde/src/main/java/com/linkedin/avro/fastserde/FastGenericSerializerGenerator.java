@@ -10,4 +10,9 @@ public class FastGenericSerializerGenerator<T> extends FastSerializerGenerator<T
       String compileClassPath) {
     super(true, schema, destination, classLoader, compileClassPath);
   }
+
+  public FastGenericSerializerGenerator(Schema schema, boolean logicalTypeConversions, File destination,
+      ClassLoader classLoader, String compileClassPath) {
+    super(true, logicalTypeConversions, schema, destination, classLoader, compileClassPath);
+  }
 }
@@ -0,0 +1,37 @@
+package com.linkedin.avro.fastserde;
+
+import org.apache.avro.Schema;
+
+
+/**
+ * {@link org.apache.avro.reflect.ReflectDatumReader} backed by generated deserialization code, which sets the POJO
+ * fields directly, see {@link FastSerdeCache#getFastReflectDeserializer(Schema, Schema)}.
+ */
+public class FastReflectDatumReader<T> extends FastGenericDatumReader<T> {
+  public FastReflectDatumReader(Schema schema) {
+    super(schema, schema);
+  }
+
+  public FastReflectDatumReader(Schema writerSchema, Schema readerSchema) {
+    super(writerSchema, readerSchema, FastSerdeCache.getDefaultInstance());
+  }
+
+  public FastReflectDatumReader(Schema schema, FastSerdeCache cache) {
+    super(schema, schema, cache);
+  }
+
+  public FastReflectDatumReader(Schema writerSchema, Schema readerSchema, FastSerdeCache cache) {
+    super(writerSchema, readerSchema, cache);
+  }
+
+  @Override
+  protected FastDeserializer<T> getFastDeserializerFromCache(FastSerdeCache fastSerdeCache, Schema writeSchema,
+      Schema readerSchema) {
+    return (FastDeserializer<T>) fastSerdeCache.getFastReflectDeserializer(writeSchema, readerSchema);
+  }
+
+  @Override
+  protected FastDeserializer<T> getRegularAvroImpl(Schema writerSchema, Schema readerSchema) {
+    return new FastSerdeCache.FastDeserializerWithAvroReflectImpl<>(writerSchema, readerSchema);
+  }
+}
@@ -0,0 +1,28 @@
+package com.linkedin.avro.fastserde;
+
+import org.apache.avro.Schema;
+
+
+/**
+ * {@link org.apache.avro.reflect.ReflectDatumWriter} backed by generated serialization code, which gets the POJO
+ * fields directly, see {@link FastSerdeCache#getFastReflectSerializer(Schema)}.
+ */
+public class FastReflectDatumWriter<T> extends FastGenericDatumWriter<T> {
+  public FastReflectDatumWriter(Schema schema) {
+    super(schema);
+  }
+
+  public FastReflectDatumWriter(Schema schema, FastSerdeCache cache) {
+    super(schema, cache);
+  }
+
+  @Override
+  protected FastSerializer<T> getFastSerializerFromCache(FastSerdeCache fastSerdeCache, Schema schema) {
+    return (FastSerializer<T>) fastSerdeCache.getFastReflectSerializer(schema);
+  }
+
+  @Override
+  protected FastSerializer<T> getRegularAvroImpl(Schema schema) {
+    return new FastSerdeCache.FastSerializerWithAvroReflectImpl<>(schema);
+  }
+}
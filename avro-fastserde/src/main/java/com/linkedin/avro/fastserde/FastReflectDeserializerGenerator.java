@@ -0,0 +1,38 @@
+package com.linkedin.avro.fastserde;
+
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JExpression;
+import java.io.File;
+import org.apache.avro.Schema;
+
+
+/**
+ * Generates deserializers of the POJOs handled by {@link org.apache.avro.reflect.ReflectData}, which instantiate
+ * them with their no-arg constructors and set the fields directly rather than reflectively, see
+ * {@link ReflectAccessors}. Strings are read as {@link String}s, like reflect readers do.
+ */
+public final class FastReflectDeserializerGenerator<T> extends FastDeserializerGenerator<T> {
+  private final ReflectAccessors accessors;
+
+  FastReflectDeserializerGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath) {
+    super(DeserializerKind.REFLECT, writer, reader, destination, classLoader, compileClassPath);
+    if (!Utils.isAbleToSupportJavaStrings()) {
+      throw new FastDeserializerGeneratorException(
+          "Reflect FastDeserializer needs avro 1.6 or later, which reads java strings");
+    }
+    this.accessors = new ReflectAccessors(codeModel, classLoader, false);
+    accessors.check(reader);
+  }
+
+  @Override
+  protected JExpression getRecordField(JExpression recordExpr, Schema recordSchema, Schema.Field field) {
+    return accessors.getField(recordExpr, recordSchema, field);
+  }
+
+  @Override
+  protected void putRecordField(JBlock body, JExpression recordExpr, Schema recordSchema, Schema.Field field,
+      JExpression valueExpr) {
+    accessors.putField(body, recordExpr, recordSchema, field, valueExpr);
+  }
+}
@@ -0,0 +1,31 @@
+package com.linkedin.avro.fastserde;
+
+import com.sun.codemodel.JExpression;
+import java.io.File;
+import org.apache.avro.Schema;
+
+
+/**
+ * Generates serializers of the POJOs handled by {@link org.apache.avro.reflect.ReflectData}, which read the fields
+ * directly rather than reflectively, see {@link ReflectAccessors}.
+ */
+public final class FastReflectSerializerGenerator<T> extends FastSerializerGenerator<T> {
+  private final ReflectAccessors accessors;
+
+  FastReflectSerializerGenerator(Schema schema, File destination, ClassLoader classLoader,
+      String compileClassPath) {
+    super(false, schema, destination, classLoader, compileClassPath);
+    this.accessors = new ReflectAccessors(codeModel, classLoader, true);
+    accessors.check(schema);
+  }
+
+  @Override
+  protected String getDescription() {
+    return "Reflect";
+  }
+
+  @Override
+  protected JExpression getRecordField(JExpression recordExpr, Schema recordSchema, Schema.Field field) {
+    return accessors.getField(recordExpr, recordSchema, field);
+  }
+}
@@ -4,22 +4,30 @@ import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.sun.codemodel.JBlock;
 import com.sun.codemodel.JCodeModel;
 import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JDeclaration;
 import com.sun.codemodel.JDefinedClass;
 import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JFormatter;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JStatement;
+import com.sun.codemodel.JSwitch;
 import com.sun.codemodel.JVar;
 import java.io.File;
 import java.io.IOException;
-import java.util.Set;
+import java.io.StringWriter;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Consumer;
-import javax.tools.JavaCompiler;
-import javax.tools.ToolProvider;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 import org.apache.commons.lang3.StringUtils;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
 
 import static com.linkedin.avro.fastserde.Utils.*;
 
@@ -28,16 +36,28 @@ import static com.linkedin.avro.fastserde.Utils.*;
  * Utilities used by both serialization and deserialization code.
  */
 public abstract class FastSerdeBase {
-  private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeBase.class);
   protected static final String SEP = "_";
   public static final String GENERATED_PACKAGE_NAME_PREFIX = "com.linkedin.avro.fastserde.generated.";
 
+  /**
+   * Version of the code produced by the generators. It has to be bumped whenever a change to the generators makes
+   * previously generated classes incompatible or obsolete, so that classes persisted by {@link PersistentClassCache}
+   * are not reused across such changes.
+   */
+  public static final int GENERATOR_VERSION = 3;
+
+  private static final int SOURCE_CHARS_PER_BYTECODE_BYTE = 3;
+
+  protected static final Schema MAP_KEY_SCHEMA = Schema.create(Schema.Type.STRING);
+
   /**
    * A repository of how many times a given name was used.
    * N.B.: Does not actually need to be threadsafe, but it is made so just for defensive coding reasons.
    */
   private final ConcurrentMap<String, AtomicInteger> counterPerName = new FastAvroConcurrentHashMap<>();
-  private final String generatedSourcesPath;
+  // methods skipping records of the given schemas, see skipValue(...)
+  private final Map<String, JMethod> skipRecordMethodMap = new HashMap<>();
+  protected final String generatedSourcesPath;
   protected final String generatedPackageName;
   protected final JCodeModel codeModel = new JCodeModel();
   protected final boolean useGenericTypes;
@@ -49,15 +69,31 @@ public abstract class FastSerdeBase {
 
   public FastSerdeBase(String description, boolean useGenericTypes, Class defaultStringClass, File destination, ClassLoader classLoader,
       String compileClassPath, boolean isForSerializer) {
+    this(description, useGenericTypes, defaultStringClass, destination, classLoader, compileClassPath, isForSerializer,
+        false);
+  }
+
+  public FastSerdeBase(String description, boolean useGenericTypes, Class defaultStringClass, File destination, ClassLoader classLoader,
+      String compileClassPath, boolean isForSerializer, boolean logicalTypeConversions) {
     this.useGenericTypes = useGenericTypes;
-    this.schemaAssistant = new SchemaAssistant(codeModel, useGenericTypes, defaultStringClass, isForSerializer);
+    this.schemaAssistant =
+        new SchemaAssistant(codeModel, useGenericTypes, defaultStringClass, isForSerializer, logicalTypeConversions);
     this.destination = destination;
     this.classLoader = classLoader;
     this.compileClassPath = (null == compileClassPath ? "" : compileClassPath);
-    this.generatedPackageName = GENERATED_PACKAGE_NAME_PREFIX + description + "." + AvroCompatibilityHelper.getRuntimeAvroVersion().name();
+    this.generatedPackageName = getGeneratedPackageName(description);
     this.generatedSourcesPath = generateSourcePathFromPackageName(generatedPackageName);
   }
 
+  /**
+   * @param description either "serialization", "deserialization", "transcoding", "comparison", "copying" or
+   *                    "validation"
+   * @return name of the package generated classes of the given kind are placed in for the runtime avro version
+   */
+  public static String getGeneratedPackageName(String description) {
+    return GENERATED_PACKAGE_NAME_PREFIX + description + "." + AvroCompatibilityHelper.getRuntimeAvroVersion().name();
+  }
+
   /**
    * A function to generate unique names, such as those of variables and functions, within the scope
    * of the this class instance (i.e. per serializer of a given schema or deserializer of a given
@@ -100,44 +136,161 @@ public abstract class FastSerdeBase {
     }
   }
 
-  @SuppressWarnings("unchecked")
-  protected Class compileClass(final String className, Set<String> knownUsedFullyQualifiedClassNameSet)
-      throws IOException, ClassNotFoundException {
-    codeModel.build(destination);
-
-    String filePath = destination.getAbsolutePath() + generatedSourcesPath + className + ".java";
-
-    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
-    String compileClassPathForCurrentFile = Utils.inferCompileDependencies(compileClassPath, filePath, knownUsedFullyQualifiedClassNameSet);
-    int compileResult;
-    try {
-      /*
-       * Disable sharedNameTable in runtime complication
-       *
-       * The SharedNameTable was introduced to speed up Java complication by using soft references
-       * to avoid re-allocations. However, in fast-avro runtime compilation, sharedNameTable brings
-       * severe Memory and GC issue. When fast-avro needed to process a large number of different
-       * schemas, SharedNameTable objects will consume huge memory and cannot be freed.
-       *
-       * SharedNameTable should be disabled for runtime compilation by "-XDuseUnsharedTable" config.
-       * The memory issue by SharedNameTable does not exist in Java 11 (tested JDK-11_0_5-zulu
-       * and JDK-11_0_5-zing_19_12_100_0_1), thus the change can be reverted in java 11.
-       * Keeping this config also does not bring any downgrade.
-       *
-       */
-      LOGGER.info("Starting compilation for the generated source file: {} ", filePath);
-      LOGGER.debug("The inferred compile class path for file: {} : {}", filePath, compileClassPathForCurrentFile);
-      compileResult = compiler.run(null, null, null, "-cp", compileClassPathForCurrentFile, filePath, "-XDuseUnsharedTable");
-    } catch (Exception e) {
-      throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath, e);
+  /**
+   * Generates code skipping a value of the given schema, records are skipped by methods shared by all the callers.
+   *
+   * @param decoder expression of the {@link Decoder} to skip the value with
+   */
+  protected void skipValue(Schema schema, JExpression decoder, JBlock body) {
+    switch (schema.getType()) {
+      case RECORD:
+        body.invoke(getSkipRecordMethod(schema)).arg(decoder);
+        break;
+      case ARRAY:
+        skipBlocks("skipArray", schema.getElementType(), null, decoder, body);
+        break;
+      case MAP:
+        skipBlocks("skipMap", MAP_KEY_SCHEMA, schema.getValueType(), decoder, body);
+        break;
+      case UNION:
+        JVar unionIndex = body.decl(codeModel.INT, getUniqueName("unionIndex"), decoder.invoke("readIndex"));
+        JSwitch switchBlock = body._switch(unionIndex);
+        for (int i = 0; i < schema.getTypes().size(); i++) {
+          JBlock caseBody = switchBlock._case(JExpr.lit(i)).body();
+          skipValue(schema.getTypes().get(i), decoder, caseBody);
+          caseBody._break();
+        }
+        switchBlock._default().body()._throw(JExpr._new(codeModel.ref(RuntimeException.class))
+            .arg(JExpr.lit("Illegal union index: ").plus(unionIndex)));
+        break;
+      case FIXED:
+        body.invoke(decoder, "skipFixed").arg(JExpr.lit(schema.getFixedSize()));
+        break;
+      case STRING:
+        body.invoke(decoder, "skipString");
+        break;
+      case BYTES:
+        body.invoke(decoder, "skipBytes");
+        break;
+      case ENUM:
+        body.invoke(decoder, "readEnum");
+        break;
+      default:
+        body.invoke(decoder, "read" + getTypeMethodSuffix(schema.getType()));
+        break;
     }
+  }
 
-    if (compileResult != 0) {
-      throw new FastSerdeGeneratorException("Unable to compile:" + className + " from source file: " + filePath);
-    } else {
-      LOGGER.info("Successfully compiled class {} defined at source file: {}", className, filePath);
+  private JMethod getSkipRecordMethod(Schema schema) {
+    String methodKey = AvroCompatibilityHelper.getSchemaFullName(schema) + schema.hashCode();
+    JMethod method = skipRecordMethodMap.get(methodKey);
+    if (method == null) {
+      method = generatedClass.method(JMod.PUBLIC, codeModel.VOID,
+          getUniqueName("skip" + StringUtils.capitalize(schema.getName())));
+      method._throws(IOException.class);
+      JVar decoderParam = method.param(Decoder.class, "decoder");
+      // registered before processing the fields, which may refer to the record itself
+      skipRecordMethodMap.put(methodKey, method);
+      for (Schema.Field field : schema.getFields()) {
+        skipValue(field.schema(), decoderParam, method.body());
+      }
     }
+    return method;
+  }
 
-    return classLoader.loadClass(generatedPackageName + "." + className);
+  /**
+   * Skips blocks of array or map items, blocks of fixed size items are skipped at once.
+   *
+   * @param valueSchema schema of map values or null in case of arrays
+   */
+  private void skipBlocks(String skipFunction, Schema itemSchema, Schema valueSchema, JExpression decoder,
+      JBlock body) {
+    JForLoop blockLoop = body._for();
+    JVar blockSize = blockLoop.init(codeModel.LONG, getUniqueName("blockSize"), decoder.invoke(skipFunction));
+    blockLoop.test(blockSize.ne(JExpr.lit(0)));
+    blockLoop.update(blockSize.assign(decoder.invoke(skipFunction)));
+
+    int fixedItemSize = valueSchema == null ? getEncodedSize(itemSchema) : -1;
+    if (fixedItemSize > 0) {
+      blockLoop.body().invoke(decoder, "skipFixed")
+          .arg(JExpr.cast(codeModel.INT, blockSize.mul(JExpr.lit(fixedItemSize))));
+      return;
+    }
+    JForLoop itemLoop = blockLoop.body()._for();
+    JVar counter = itemLoop.init(codeModel.LONG, getUniqueName("counter"), JExpr.lit(0));
+    itemLoop.test(counter.lt(blockSize));
+    itemLoop.update(counter.incr());
+    skipValue(itemSchema, decoder, itemLoop.body());
+    if (valueSchema != null) {
+      skipValue(valueSchema, decoder, itemLoop.body());
+    }
+  }
+
+  /**
+   * @return number of bytes every value of the schema is encoded with regardless of the value, or -1 if it varies
+   */
+  protected static int getEncodedSize(Schema schema) {
+    switch (schema.getType()) {
+      case BOOLEAN:
+        return 1;
+      case FLOAT:
+        return Float.BYTES;
+      case DOUBLE:
+        return Double.BYTES;
+      case FIXED:
+        return schema.getFixedSize();
+      default:
+        return -1;
+    }
+  }
+
+  /**
+   * @return suffix of the {@link Decoder} and {@link org.apache.avro.io.Encoder} methods reading
+   *         and writing primitive values of the type, e.g. "Int" of readInt() and writeInt(...)
+   */
+  protected static String getTypeMethodSuffix(Schema.Type type) {
+    return StringUtils.capitalize(type.getName());
+  }
+
+  /**
+   * Roughly estimates the size of bytecode the given statements compile to, based on the length of their source
+   * with fully qualified class names. It's meant for keeping generated methods within JIT limits, not for exact
+   * accounting, and tends to overestimate.
+   *
+   * @param block block containing the statements
+   * @param fromIndex index of the first statement within the block to take into account
+   * @return estimated bytecode size in bytes
+   */
+  protected static int estimateBytecodeSize(JBlock block, int fromIndex) {
+    StringWriter source = new StringWriter();
+    JFormatter formatter = new JFormatter(source);
+    List<Object> contents = block.getContents();
+    for (Object statement : contents.subList(fromIndex, contents.size())) {
+      if (statement instanceof JDeclaration) {
+        formatter.d((JDeclaration) statement);
+      } else {
+        formatter.s((JStatement) statement);
+      }
+    }
+    return source.getBuffer().length() / SOURCE_CHARS_PER_BYTECODE_BYTE;
+  }
+
+  /**
+   * Compiles the generated class, see {@link GeneratedClassesCompiler}.
+   */
+  protected void compileClass() throws IOException {
+    GeneratedClassesCompiler.compile(Collections.singletonList(this), null);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected <C> Class<C> loadGeneratedClass() throws ClassNotFoundException {
+    return (Class<C>) classLoader.loadClass(getGeneratedClassName());
+  }
+
+  /**
+   * @return fully qualified name of the generated class
+   */
+  protected String getGeneratedClassName() {
+    return generatedPackageName + "." + generatedClass.name();
   }
 }
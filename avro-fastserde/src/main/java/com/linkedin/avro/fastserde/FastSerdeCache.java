@@ -1,33 +1,73 @@
 package com.linkedin.avro.fastserde;
 
-import static com.linkedin.avro.fastserde.Utils.getSchemaFingerprint;
+import static com.linkedin.avro.fastserde.Utils.getPrimitiveSchemaFingerprint;
 import static com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper.getSchemaFullName;
 
+import com.linkedin.avro.fastserde.FastDeserializerGeneratorBase.DeserializerKind;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.ParameterizedType;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
 import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.PriorityBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BiFunction;
+import java.util.function.Function;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.tools.JavaCompiler;
 
+import org.apache.avro.AvroRuntimeException;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.ColdGenericDatumReader;
+import org.apache.avro.generic.ColdGenericDatumWriter;
 import org.apache.avro.generic.ColdSpecificDatumReader;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericDatumReader;
 import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.BinaryData;
 import org.apache.avro.io.DatumReader;
 import org.apache.avro.io.DatumWriter;
 import org.apache.avro.io.Decoder;
 import org.apache.avro.io.Encoder;
+import org.apache.avro.reflect.ReflectDatumReader;
+import org.apache.avro.reflect.ReflectDatumWriter;
 import org.apache.avro.specific.SpecificDatumReader;
 import org.apache.avro.specific.SpecificDatumWriter;
 import org.slf4j.Logger;
@@ -43,27 +83,139 @@ public final class FastSerdeCache {
 
   public static final String CLASSPATH = "avro.fast.serde.classpath";
   public static final String CLASSPATH_SUPPLIER = "avro.fast.serde.classpath.supplier";
+  public static final String PERSISTENT_CLASSES_DIR = "avro.fast.serde.persistent.classes.dir";
 
   private static final Logger LOGGER = LoggerFactory.getLogger(FastSerdeCache.class);
 
+  private static final String DESERIALIZATION = "deserialization";
+  private static final String SERIALIZATION = "serialization";
+  private static final String TRANSCODING = "transcoding";
+  private static final String COMPARISON = "comparison";
+  private static final String COPYING = "copying";
+  private static final String VALIDATION = "validation";
+
   private static volatile FastSerdeCache _INSTANCE;
 
-  private final Map<String, FastDeserializer<?>> fastSpecificRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastDeserializer<?>> fastGenericRecordDeserializersCache =
-      new FastAvroConcurrentHashMap<>();
+  /**
+   * Size eviction evicts 1/8 of the maximum cache size at once, so that it doesn't run on every insertion.
+   */
+  private static final int EVICTION_BATCH_DIVISOR = 8;
 
-  private final Map<String, FastSerializer<?>> fastSpecificRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
-  private final Map<String, FastSerializer<?>> fastGenericRecordSerializersCache =
-      new FastAvroConcurrentHashMap<>();
+  private int maxCacheSize;
+  private long maxIdleTimeMs;
+  private final Lock evictionLock = new ReentrantLock();
+  private volatile long lastIdleEvictionNanos = System.nanoTime();
+  private final AtomicLong sizeEvictionCount = new AtomicLong();
+  private final AtomicLong idleEvictionCount = new AtomicLong();
 
   private Executor executor;
 
+  private final BlockingQueue<CompileRequest<?>> pendingCompileRequests;
+  private final AtomicBoolean batchCompilationScheduled = new AtomicBoolean();
+  private int compileBatchSize;
+  private long compileBatchWindowMs;
+  private int compileThreshold;
+
   private File classesDir;
   private ClassLoader classLoader;
+  private PersistentClassCache persistentClassCache;
 
   private Optional<String> compileClassPath;
+  private JavaCompiler javaCompiler;
+
+  private long initialFailureBackoffMs;
+  private long maxFailureBackoffMs;
+  /**
+   * Compilation failures of this cache, so that an evicted entry isn't retried before the backoff elapses. Not
+   * shared with other caches, which may compile with different settings. Keyed by the generated class name,
+   * removed once the class gets compiled.
+   */
+  private final Map<String, CompileFailure> compileFailures = new FastAvroConcurrentHashMap<>();
+
+  private boolean logicalTypeConversions;
+
+  // e.g. generic deserializers, each kind caching its instances separately. Declared after the settings, which
+  // the kinds refer to
+  private final GeneratedKind<FastDeserializer<?>> specificDeserializers =
+      newDeserializerKind(DeserializerKind.SPECIFIC, FastDeserializerWithAvroSpecificImpl::new);
+  private final GeneratedKind<FastDeserializer<?>> genericDeserializers =
+      newDeserializerKind(DeserializerKind.GENERIC, this::newGenericDeserializerFallback);
+  private final GeneratedKind<FastDeserializer<?>> lazyGenericDeserializers =
+      newDeserializerKind(DeserializerKind.LAZY_GENERIC, this::newGenericDeserializerFallback);
+  private final GeneratedKind<FastDeserializer<?>> inputViewGenericDeserializers =
+      newDeserializerKind(DeserializerKind.INPUT_VIEW_GENERIC, this::newGenericDeserializerFallback);
+  private final GeneratedKind<FastDeserializer<?>> columnarDeserializers =
+      newDeserializerKind(DeserializerKind.COLUMNAR, FastDeserializerWithAvroColumnarImpl::new);
+  private final GeneratedKind<FastDeserializer<?>> reflectDeserializers =
+      newDeserializerKind(DeserializerKind.REFLECT, FastDeserializerWithAvroReflectImpl::new);
+
+  private final GeneratedKind<FastSerializer<?>> specificSerializers = new GeneratedKind<>("specific FastSerializer",
+      SERIALIZATION, (schema, ignored) -> FastSerializerGenerator.getClassName(schema, "Specific"),
+      (schema, ignored, invocationCounter) -> new FastSerializerWithAvroSpecificImpl<>(schema, invocationCounter),
+      (schema, ignored, classLoader) -> generateSerializerClass(() -> new FastSpecificSerializerGenerator<>(schema,
+          classesDir, classLoader, compileClassPath.orElseGet(() -> null))),
+      generator -> ((FastSerializerGenerator<?>) generator).loadSerializer());
+  private final GeneratedKind<FastSerializer<?>> genericSerializers = new GeneratedKind<>("generic FastSerializer",
+      SERIALIZATION, (schema, ignored) -> FastSerializerGenerator.getClassName(schema,
+          FastSerializerGenerator.getDescription(true, logicalTypeConversions)),
+      (schema, ignored, invocationCounter) -> new FastSerializerWithAvroGenericImpl<>(schema, logicalTypeConversions,
+          invocationCounter),
+      (schema, ignored, classLoader) -> generateSerializerClass(() -> new FastGenericSerializerGenerator<>(schema,
+          logicalTypeConversions, classesDir, classLoader, compileClassPath.orElseGet(() -> null))),
+      generator -> ((FastSerializerGenerator<?>) generator).loadSerializer());
+  private final GeneratedKind<FastSerializer<?>> reflectSerializers = new GeneratedKind<>("reflect FastSerializer",
+      SERIALIZATION, (schema, ignored) -> FastSerializerGenerator.getClassName(schema, "Reflect"),
+      (schema, ignored, invocationCounter) -> new FastSerializerWithAvroReflectImpl<>(schema, invocationCounter),
+      (schema, ignored, classLoader) -> generateSerializerClass(() -> new FastReflectSerializerGenerator<>(schema,
+          classesDir, classLoader, compileClassPath.orElseGet(() -> null))),
+      generator -> ((FastSerializerGenerator<?>) generator).loadSerializer());
+
+  private final GeneratedKind<FastTranscoder> transcoders = new GeneratedKind<>("FastTranscoder", TRANSCODING,
+      FastTranscoderGenerator::getClassName, FastTranscoderWithAvroImpl::new,
+      (writerSchema, readerSchema, classLoader) -> {
+        FastTranscoderGenerator generator = new FastTranscoderGenerator(writerSchema, readerSchema, classesDir,
+            classLoader, compileClassPath.orElseGet(() -> null));
+        generator.generateTranscoderClass();
+        return generator;
+      }, generator -> ((FastTranscoderGenerator) generator).loadTranscoder());
+  private final GeneratedKind<FastComparator> comparators = new GeneratedKind<>("FastComparator", COMPARISON,
+      (schema, ignored) -> FastComparatorGenerator.getClassName(schema),
+      (schema, ignored, invocationCounter) -> new FastComparatorWithAvroImpl(schema, invocationCounter),
+      (schema, ignored, classLoader) -> {
+        FastComparatorGenerator generator = new FastComparatorGenerator(schema, classesDir, classLoader,
+            compileClassPath.orElseGet(() -> null));
+        generator.generateComparatorClass();
+        return generator;
+      }, generator -> ((FastComparatorGenerator) generator).loadComparator());
+
+  private final GeneratedKind<FastDeepCopier<?>> specificDeepCopiers = newDeepCopierKind(false,
+      (schema, ignored, invocationCounter) -> new FastDeepCopierWithAvroSpecificImpl<Object>(schema,
+          invocationCounter));
+  private final GeneratedKind<FastDeepCopier<?>> genericDeepCopiers = newDeepCopierKind(true,
+      (schema, ignored, invocationCounter) -> new FastDeepCopierWithAvroGenericImpl<Object>(schema,
+          logicalTypeConversions, invocationCounter));
+  private final GeneratedKind<FastValidator> validators = new GeneratedKind<>("FastValidator", VALIDATION,
+      (schema, ignored) -> FastValidatorGenerator.getClassName(schema,
+          FastSerializerGenerator.getDescription(true, logicalTypeConversions)),
+      (schema, ignored, invocationCounter) -> new FastValidatorWithAvroImpl(schema, logicalTypeConversions,
+          invocationCounter),
+      (schema, ignored, classLoader) -> {
+        FastValidatorGenerator generator = new FastValidatorGenerator(schema, logicalTypeConversions, classesDir,
+            classLoader, compileClassPath.orElseGet(() -> null));
+        generator.generateValidatorClass();
+        return generator;
+      }, generator -> ((FastValidatorGenerator) generator).loadValidator());
+
+  // keyed by reader schema and projection fingerprints, the same projected schema instance is reused so that
+  // deserializers of the projection are looked up by an already known fingerprint. Bounded caches drop projected
+  // schemas together with the last deserializer entry reading them
+  private final ConcurrentLongPairMap<Schema> projectedSchemas = new ConcurrentLongPairMap<>();
+
+  private final List<ConcurrentLongPairMap<? extends CacheEntry<?>>> caches =
+      Arrays.asList(specificDeserializers.cache, genericDeserializers.cache, lazyGenericDeserializers.cache,
+          inputViewGenericDeserializers.cache, columnarDeserializers.cache, reflectDeserializers.cache,
+          specificSerializers.cache, genericSerializers.cache, reflectSerializers.cache, transcoders.cache,
+          comparators.cache, specificDeepCopiers.cache, genericDeepCopiers.cache, validators.cache);
 
   /**
    *
@@ -108,27 +260,56 @@ public final class FastSerdeCache {
    *            customized {@link Executor} used by serializer/deserializer compile threads
    */
   public FastSerdeCache(Executor executorService) {
-    this.executor = executorService != null ? executorService : getDefaultExecutor();
+    this(builder().executor(executorService));
+  }
 
-    try {
-      Path classesPath = Files.createTempDirectory("generated");
-      classesDir = classesPath.toFile();
-      classLoader =
-          URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
-    } catch (IOException e) {
-      throw new RuntimeException(e);
-    }
+  private FastSerdeCache(Builder builder) {
+    this.executor = builder.executor != null ? builder.executor : getDefaultExecutor();
 
-    this.compileClassPath = Optional.empty();
+    // generated classes are neither written to nor loaded from the filesystem if compiled in memory
+    if (!builder.inMemoryCompilation) {
+      try {
+        if (builder.persistentClassesDir != null) {
+          persistentClassCache = new PersistentClassCache(builder.persistentClassesDir);
+          classesDir = persistentClassCache.getClassesDir();
+        } else {
+          Path classesPath = Files.createTempDirectory("generated");
+          classesDir = classesPath.toFile();
+        }
+      } catch (IOException e) {
+        throw new RuntimeException(e);
+      }
+    }
+    this.initialFailureBackoffMs = builder.initialFailureBackoffMs;
+    this.maxFailureBackoffMs = builder.maxFailureBackoffMs;
+    this.maxCacheSize = builder.maxCacheSize;
+    this.maxIdleTimeMs = builder.maxIdleTimeMs;
+    classLoader = newClassLoader();
+
+    this.compileClassPath = Optional.ofNullable(builder.compileClassPath);
+    this.javaCompiler = builder.javaCompiler;
+    this.compileBatchSize = builder.compileBatchSize;
+    this.compileThreshold = builder.compileThreshold;
+    // the hottest ones get compiled first if compiled by hotness
+    this.pendingCompileRequests = compileThreshold > 0 ? new PriorityBlockingQueue<>(11,
+        Comparator.comparingDouble((CompileRequest<?> request) -> request.invocationRate).reversed())
+        : new LinkedBlockingQueue<>();
+    this.compileBatchWindowMs = builder.compileBatchWindowMs;
+    this.logicalTypeConversions = builder.logicalTypeConversions;
   }
 
   private FastSerdeCache() {
     this((Executor) null);
   }
 
+  public static Builder builder() {
+    return new Builder();
+  }
+
   /**
    * Gets default {@link FastSerdeCache} instance. Default instance classpath can be customized via
-   * {@value #CLASSPATH} or {@value #CLASSPATH_SUPPLIER} system properties.
+   * {@value #CLASSPATH} or {@value #CLASSPATH_SUPPLIER} system properties. Generated classes are persisted
+   * across JVM restarts if {@value #PERSISTENT_CLASSES_DIR} system property points to a directory.
    *
    * @return default {@link FastSerdeCache} instance
    */
@@ -153,10 +334,8 @@ public final class FastSerdeCache {
             } catch (ReflectiveOperationException e) {
               LOGGER.warn("unable to instantiate classpath supplier: " + classpathSupplierClassName, e);
             }
-            _INSTANCE = new FastSerdeCache(classpathSupplier);
-          } else if (classPath != null) {
-            _INSTANCE = new FastSerdeCache(classPath);
-          } else {
+            classPath = classpathSupplier != null ? classpathSupplier.get() : null;
+          } else if (classPath == null) {
             // Infer class path if no classpath specified.
             classPath = System.getProperty("java.class.path");
             String avroSchemaClassName = "org.apache.avro.Schema";
@@ -174,8 +353,11 @@ public final class FastSerdeCache {
             } catch (ClassNotFoundException e) {
               throw new RuntimeException("Failed to find class: " + avroSchemaClassName);
             }
-            _INSTANCE = new FastSerdeCache(classPath);
           }
+          String persistentClassesDir = System.getProperty(PERSISTENT_CLASSES_DIR);
+          _INSTANCE = builder().compileClassPath(classPath)
+              .persistentClassesDir(persistentClassesDir != null ? new File(persistentClassesDir) : null)
+              .build();
         }
       }
     }
@@ -202,22 +384,22 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
-    FastDeserializer<?> deserializer = fastSpecificRecordDeserializersCache.get(schemaKey);
-
-    if (deserializer == null) {
-      deserializer = fastSpecificRecordDeserializersCache.putIfAbsent(schemaKey,
-          new FastDeserializerWithAvroSpecificImpl<>(writerSchema, readerSchema));
-      if (deserializer == null) {
-        deserializer = fastSpecificRecordDeserializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildSpecificDeserializer(writerSchema, readerSchema), executor)
-            .thenAccept(d -> {
-              fastSpecificRecordDeserializersCache.put(schemaKey, d);
-            });
-      }
-    }
+    return getEntry(specificDeserializers, writerSchema, readerSchema, false).value;
+  }
 
-    return deserializer;
+  /**
+   * Generates if needed specific-class aware avro {@link FastDeserializer}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastSpecificDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(specificDeserializers, writerSchema, readerSchema, true).compiled;
   }
 
   /**
@@ -230,21 +412,206 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastDeserializer}
    */
   public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    String schemaKey = getSchemaKey(writerSchema, readerSchema);
-    FastDeserializer<?> deserializer = fastGenericRecordDeserializersCache.get(schemaKey);
-
-    if (deserializer == null) {
-      deserializer = fastGenericRecordDeserializersCache.putIfAbsent(schemaKey,
-          new FastDeserializerWithAvroGenericImpl(writerSchema, readerSchema));
-      if (deserializer == null) {
-        deserializer = fastGenericRecordDeserializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildGenericDeserializer(writerSchema, readerSchema), executor)
-            .thenAccept(d -> {
-              fastGenericRecordDeserializersCache.put(schemaKey, d);
-            });
+    return getEntry(genericDeserializers, writerSchema, readerSchema, false).value;
+  }
+
+  /**
+   * Generates if needed generic-class aware avro {@link FastDeserializer}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastGenericDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(genericDeserializers, writerSchema, readerSchema, true).compiled;
+  }
+
+  /**
+   * Generates if needed and returns avro {@link FastDeserializer} of {@link LazyGenericRecord}s, which decode their
+   * fields only on access and retain the input. It only reads from {@link ByteArrayDecoder}s. Until it gets compiled
+   * the returned deserializer produces regular generic records.
+   *
+   * @param writerSchema
+   *            record {@link Schema} of written data
+   * @param readerSchema
+   *            record {@link Schema} intended to be used during deserialization
+   * @return avro {@link FastDeserializer} of {@link LazyGenericRecord}s
+   */
+  public FastDeserializer<?> getFastLazyGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    return getEntry(lazyGenericDeserializers, writerSchema, readerSchema, false).value;
+  }
+
+  /**
+   * Generates if needed avro {@link FastDeserializer} of {@link LazyGenericRecord}s.
+   *
+   * @param writerSchema
+   *            record {@link Schema} of written data
+   * @param readerSchema
+   *            record {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastLazyGenericDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(lazyGenericDeserializers, writerSchema, readerSchema, true).compiled;
+  }
+
+  /**
+   * Generates if needed and returns generic-class aware avro {@link FastDeserializer}, whose strings and bytes are
+   * views over the input array of a {@link ByteArrayDecoder} rather than copies, see {@link InputViews}. Deserialized
+   * data is only valid while that array isn't modified, {@link InputViews#materialize(Object)} detaches it. Other
+   * decoders, as well as the returned deserializer until it gets compiled, produce regular copies.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return avro {@link FastDeserializer} producing views over the input
+   */
+  public FastDeserializer<?> getFastInputViewGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    return getEntry(inputViewGenericDeserializers, writerSchema, readerSchema, false).value;
+  }
+
+  /**
+   * Generates if needed avro {@link FastDeserializer} producing views over the input, see
+   * {@link #getFastInputViewGenericDeserializer(Schema, Schema)}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastInputViewGenericDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(inputViewGenericDeserializers, writerSchema, readerSchema, true).compiled;
+  }
+
+  /**
+   * Generates if needed and returns avro {@link FastDeserializer} of {@link ColumnarBatch}es, which appends each
+   * deserialized record as a row of the batch passed as the reuse argument, or of a new one if it's null. The reader
+   * schema has to be a record whose fields can be stored in columns. Until it gets compiled the returned deserializer
+   * builds regular generic records and copies them to the batch.
+   *
+   * @param writerSchema
+   *            record {@link Schema} of written data
+   * @param readerSchema
+   *            record {@link Schema} intended to be used during deserialization
+   * @return avro {@link FastDeserializer} of {@link ColumnarBatch}es
+   */
+  public FastDeserializer<?> getFastColumnarDeserializer(Schema writerSchema, Schema readerSchema) {
+    return getEntry(columnarDeserializers, writerSchema, readerSchema, false).value;
+  }
+
+  /**
+   * Generates if needed avro {@link FastDeserializer} of {@link ColumnarBatch}es.
+   *
+   * @param writerSchema
+   *            record {@link Schema} of written data
+   * @param readerSchema
+   *            record {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastColumnarDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(columnarDeserializers, writerSchema, readerSchema, true).compiled;
+  }
+
+  /**
+   * Generates if needed and returns avro {@link FastDeserializer} of the POJOs handled by
+   * {@link org.apache.avro.reflect.ReflectData}, which sets their fields directly rather than reflectively, see
+   * {@link FastReflectDeserializerGenerator}. POJOs the generated code can't access, e.g. ones with private or
+   * final fields, keep being deserialized by {@link ReflectDatumReader}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return avro {@link FastDeserializer} of POJOs
+   */
+  public FastDeserializer<?> getFastReflectDeserializer(Schema writerSchema, Schema readerSchema) {
+    return getEntry(reflectDeserializers, writerSchema, readerSchema, false).value;
+  }
+
+  /**
+   * Generates if needed avro {@link FastDeserializer} of POJOs, see
+   * {@link #getFastReflectDeserializer(Schema, Schema)}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastReflectDeserializerAsync(Schema writerSchema,
+      Schema readerSchema) {
+    return getEntry(reflectDeserializers, writerSchema, readerSchema, true).compiled;
+  }
+
+  /**
+   * Generates if needed and returns generic-class aware avro {@link FastDeserializer}, which deserializes only the
+   * projected fields and skips the others. Deserialized records have the projected schema, see
+   * {@link #getProjectedSchema(Schema, FieldProjection)}.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @param projection
+   *            fields of the reader schema to deserialize
+   * @return generic-class aware avro {@link FastDeserializer}
+   */
+  public FastDeserializer<?> getFastGenericDeserializer(Schema writerSchema, Schema readerSchema,
+      FieldProjection projection) {
+    return getFastGenericDeserializer(writerSchema, getProjectedSchema(readerSchema, projection));
+  }
+
+  /**
+   * Generates if needed generic-class aware avro {@link FastDeserializer}, which deserializes only the projected
+   * fields and skips the others.
+   *
+   * @param writerSchema
+   *            {@link Schema} of written data
+   * @param readerSchema
+   *            {@link Schema} intended to be used during deserialization
+   * @param projection
+   *            fields of the reader schema to deserialize
+   * @return future completed once the {@link FastDeserializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeserializer<?>> getFastGenericDeserializerAsync(Schema writerSchema,
+      Schema readerSchema, FieldProjection projection) {
+    return getFastGenericDeserializerAsync(writerSchema, getProjectedSchema(readerSchema, projection));
+  }
+
+  /**
+   * Returns the reader schema pruned to the projected fields, see {@link FieldProjection#project(Schema)}. The same
+   * instance is returned for the same reader schema and projection.
+   *
+   * @param readerSchema
+   *            record {@link Schema} to project
+   * @param projection
+   *            fields of the reader schema to keep
+   * @return projected reader schema
+   */
+  public Schema getProjectedSchema(Schema readerSchema, FieldProjection projection) {
+    long readerFingerprint = getPrimitiveSchemaFingerprint(readerSchema);
+    Schema projectedSchema = projectedSchemas.get(readerFingerprint, projection.getFingerprint());
+    if (projectedSchema == null) {
+      projectedSchema = projection.project(readerSchema);
+      Schema existing = projectedSchemas.putIfAbsent(readerFingerprint, projection.getFingerprint(), projectedSchema);
+      if (existing != null) {
+        projectedSchema = existing;
       }
     }
-    return deserializer;
+    return projectedSchema;
   }
 
   /**
@@ -255,20 +622,19 @@ public final class FastSerdeCache {
    * @return specific-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastSpecificSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
-    FastSerializer<?> serializer = fastSpecificRecordSerializersCache.get(schemaKey);
-    if (serializer == null) {
-      serializer =
-          fastSpecificRecordSerializersCache.putIfAbsent(schemaKey, new FastSerializerWithAvroSpecificImpl(schema));
-      if (serializer == null) {
-        serializer = fastSpecificRecordSerializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildSpecificSerializer(schema), executor).thenAccept(s -> {
-          fastSpecificRecordSerializersCache.put(schemaKey, s);
-        });
-      }
-    }
+    return getEntry(specificSerializers, schema, schema, false).value;
+  }
 
-    return serializer;
+  /**
+   * Generates if needed specific-class aware avro {@link FastSerializer}.
+   *
+   * @param schema
+   *            {@link Schema} of data to write
+   * @return future completed once the {@link FastSerializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastSerializer<?>> getFastSpecificSerializerAsync(Schema schema) {
+    return getEntry(specificSerializers, schema, schema, true).compiled;
   }
 
   /**
@@ -279,225 +645,807 @@ public final class FastSerdeCache {
    * @return generic-class aware avro {@link FastSerializer}
    */
   public FastSerializer<?> getFastGenericSerializer(Schema schema) {
-    String schemaKey = getSchemaKey(schema, schema);
-
-    FastSerializer<?> serializer = fastGenericRecordSerializersCache.get(schemaKey);
-    if (serializer == null) {
-      serializer =
-          fastGenericRecordSerializersCache.putIfAbsent(schemaKey, new FastSerializerWithAvroGenericImpl(schema));
-      if (serializer == null) {
-        serializer = fastGenericRecordSerializersCache.get(schemaKey);
-        CompletableFuture.supplyAsync(() -> buildGenericSerializer(schema), executor).thenAccept(s -> {
-          fastGenericRecordSerializersCache.put(schemaKey, s);
-        });
-      }
-    }
-    return serializer;
+    return getEntry(genericSerializers, schema, schema, false).value;
   }
 
-  private String getSchemaKey(Schema writerSchema, Schema readerSchema) {
-    return String.valueOf(Math.abs(getSchemaFingerprint(writerSchema))) + Math.abs(
-        getSchemaFingerprint(readerSchema));
+  /**
+   * Generates if needed generic-class aware avro {@link FastSerializer}.
+   *
+   * @param schema
+   *            {@link Schema} of data to write
+   * @return future completed once the {@link FastSerializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastSerializer<?>> getFastGenericSerializerAsync(Schema schema) {
+    return getEntry(genericSerializers, schema, schema, true).compiled;
   }
 
   /**
-   * This function will generate a fast specific deserializer, and it will throw exception if anything wrong happens.
-   * This function can be used to verify whether current {@link FastSerdeCache} could generate proper fast deserializer.
+   * Generates if needed and returns avro {@link FastSerializer} of the POJOs handled by
+   * {@link org.apache.avro.reflect.ReflectData}, which gets their fields directly rather than reflectively, see
+   * {@link FastReflectSerializerGenerator}. POJOs the generated code can't access, e.g. ones with private fields,
+   * keep being serialized by {@link ReflectDatumWriter}.
    *
-   * @param writerSchema writer schema
-   * @param readerSchema reader schema
-   * @return a fast deserializer
+   * @param schema
+   *            {@link Schema} of data to write
+   * @return avro {@link FastSerializer} of POJOs
    */
-  public FastDeserializer<?> buildFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
-    FastSpecificDeserializerGenerator<?> generator =
-        new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
-            compileClassPath.orElseGet(() -> null));
-    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
-
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Generated classes dir: {} and generation of specific FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
-              + " and content: [\n{}\n] and reader schema of type: {} with fingerprint: {} and content: [\n{}\n]", classesDir, getSchemaFullName(writerSchema),
-              writerSchema.toString(true), getSchemaFingerprint(writerSchema), getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema),
-              readerSchema.toString(true));
-    } else {
-      LOGGER.info("Generated classes dir: {} and generation of specific FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
-              + " and reader schema of type: {} with fingerprint: {}", classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema),
-              getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema));
-    }
+  public FastSerializer<?> getFastReflectSerializer(Schema schema) {
+    return getEntry(reflectSerializers, schema, schema, false).value;
+  }
 
-    return fastDeserializer;
+  /**
+   * Generates if needed avro {@link FastSerializer} of POJOs, see {@link #getFastReflectSerializer(Schema)}.
+   *
+   * @param schema
+   *            {@link Schema} of data to write
+   * @return future completed once the {@link FastSerializer} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastSerializer<?>> getFastReflectSerializerAsync(Schema schema) {
+    return getEntry(reflectSerializers, schema, schema, true).compiled;
   }
 
   /**
-   * This function is used to generate a fast generic deserializer, and it will fail back to use
-   * {@link SpecificDatumReader} if anything wrong happens.
+   * Generates if needed and returns {@link FastTranscoder} rewriting data of the writer schema into the reader schema.
+   *
    * @param writerSchema
+   *            {@link Schema} of the data to read
    * @param readerSchema
-   * @return
+   *            {@link Schema} of the data to write
+   * @return {@link FastTranscoder} for the writer and reader schemas
    */
-  private FastDeserializer<?> buildSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
-    try {
-      return buildFastSpecificDeserializer(writerSchema, readerSchema);
-    } catch (FastDeserializerGeneratorException e) {
-      LOGGER.warn("Deserializer generation exception when generating specific FastDeserializer for writer schema: "
-              + "[\n{}\n] and reader schema: [\n{}\n]", writerSchema.toString(true), readerSchema.toString(true), e);
-    } catch (Exception e) {
-      LOGGER.warn("Deserializer class instantiation exception", e);
-    }
+  public FastTranscoder getFastTranscoder(Schema writerSchema, Schema readerSchema) {
+    return getEntry(transcoders, writerSchema, readerSchema, false).value;
+  }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new SpecificDatumReader<>(writerSchema, readerSchema);
+  /**
+   * Generates if needed {@link FastTranscoder} rewriting data of the writer schema into the reader schema.
+   *
+   * @param writerSchema
+   *            {@link Schema} of the data to read
+   * @param readerSchema
+   *            {@link Schema} of the data to write
+   * @return future completed once the {@link FastTranscoder} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastTranscoder> getFastTranscoderAsync(Schema writerSchema, Schema readerSchema) {
+    return getEntry(transcoders, writerSchema, readerSchema, true).compiled;
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
-      }
-    };
+  /**
+   * Generates if needed and returns {@link FastComparator} of binary encoded data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to compare
+   * @return {@link FastComparator} for the schema
+   */
+  public FastComparator getFastComparator(Schema schema) {
+    return getEntry(comparators, schema, schema, false).value;
   }
 
   /**
-   * This function will generate a fast generic deserializer, and it will throw exception if anything wrong happens.
-   * This function can be used to verify whether current {@link FastSerdeCache} could generate proper fast deserializer.
+   * Generates if needed {@link FastComparator} of binary encoded data of the schema.
    *
-   * @param writerSchema writer schema
-   * @param readerSchema reader schema
-   * @return a fast deserializer
+   * @param schema
+   *            {@link Schema} of the data to compare
+   * @return future completed once the {@link FastComparator} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
    */
-  public FastDeserializer<?> buildFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    FastGenericDeserializerGenerator<?> generator =
-        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
-            compileClassPath.orElseGet(() -> null));
+  public CompletableFuture<FastComparator> getFastComparatorAsync(Schema schema) {
+    return getEntry(comparators, schema, schema, true).compiled;
+  }
 
-    FastDeserializer<?> fastDeserializer = generator.generateDeserializer();
+  /**
+   * Generates if needed and returns {@link FastDeepCopier} of specific data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to copy
+   * @return specific-class aware {@link FastDeepCopier}
+   */
+  public FastDeepCopier<?> getFastSpecificDeepCopier(Schema schema) {
+    return getEntry(specificDeepCopiers, schema, schema, false).value;
+  }
 
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Generated classes dir: {} and generation of generic FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
-              + " and content: [\n{}\n] and reader schema of type: {} with fingerprint: {} and content: [\n{}\n]", classesDir, getSchemaFullName(writerSchema),
-              writerSchema.toString(true), getSchemaFingerprint(writerSchema), getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema),
-              readerSchema.toString(true));
-    } else {
-      LOGGER.info("Generated classes dir: {} and generation of generic FastDeserializer is done for writer schema of type: {} with fingerprint: {}"
-              + " and reader schema of type: {} with fingerprint: {}", classesDir, getSchemaFullName(writerSchema), getSchemaFingerprint(writerSchema),
-              getSchemaFullName(readerSchema), getSchemaFingerprint(readerSchema));
-    }
+  /**
+   * Generates if needed {@link FastDeepCopier} of specific data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to copy
+   * @return future completed once the {@link FastDeepCopier} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastDeepCopier<?>> getFastSpecificDeepCopierAsync(Schema schema) {
+    return getEntry(specificDeepCopiers, schema, schema, true).compiled;
+  }
 
-    return fastDeserializer;
+  /**
+   * Generates if needed and returns {@link FastDeepCopier} of generic data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to copy
+   * @return generic-class aware {@link FastDeepCopier}
+   */
+  public FastDeepCopier<?> getFastGenericDeepCopier(Schema schema) {
+    return getEntry(genericDeepCopiers, schema, schema, false).value;
   }
 
   /**
-   * This function is used to generate a fast generic deserializer, and it will fail back to use
-   * {@link GenericDatumReader} if anything wrong happens.
+   * Generates if needed {@link FastDeepCopier} of generic data of the schema.
    *
-   * @param writerSchema
-   * @param readerSchema
-   * @return
+   * @param schema
+   *            {@link Schema} of the data to copy
+   * @return future completed once the {@link FastDeepCopier} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
    */
-  private FastDeserializer<?> buildGenericDeserializer(Schema writerSchema, Schema readerSchema) {
-    try {
-      return buildFastGenericDeserializer(writerSchema, readerSchema);
-    } catch (FastDeserializerGeneratorException e) {
-      LOGGER.warn("Deserializer generation exception when generating generic FastDeserializer for writer schema: [\n"
-          + writerSchema.toString(true) + "\n] and reader schema:[\n" + readerSchema.toString(true) + "\n]", e);
-    } catch (Exception e) {
-      LOGGER.warn("Deserializer class instantiation exception:" + e);
-    }
+  public CompletableFuture<FastDeepCopier<?>> getFastGenericDeepCopierAsync(Schema schema) {
+    return getEntry(genericDeepCopiers, schema, schema, true).compiled;
+  }
 
-    return new FastDeserializer<Object>() {
-      private DatumReader datumReader = new GenericDatumReader<>(writerSchema, readerSchema);
+  /**
+   * Generates if needed and returns {@link FastValidator} of generic data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to validate
+   * @return {@link FastValidator} for the schema
+   */
+  public FastValidator getFastValidator(Schema schema) {
+    return getEntry(validators, schema, schema, false).value;
+  }
 
-      @Override
-      public Object deserialize(Object reuse, Decoder d) throws IOException {
-        return datumReader.read(reuse, d);
-      }
-    };
+  /**
+   * Generates if needed {@link FastValidator} of generic data of the schema.
+   *
+   * @param schema
+   *            {@link Schema} of the data to validate
+   * @return future completed once the {@link FastValidator} is compiled, or exceptionally if its compilation
+   *         failed and is not going to be retried before the backoff elapses
+   */
+  public CompletableFuture<FastValidator> getFastValidatorAsync(Schema schema) {
+    return getEntry(validators, schema, schema, true).compiled;
   }
 
-  public FastSerializer<?> buildFastSpecificSerializer(Schema schema) {
-    // Defensive code
-    if (!Utils.isSupportedAvroVersionsForSerializer()) {
-      throw new FastDeserializerGeneratorException("Specific FastSerializer is only supported in following Avro versions: " +
-          Utils.getAvroVersionsSupportedForSerializer());
+  private <S> CacheEntry<S> getEntry(GeneratedKind<S> kind, Schema writerSchema, Schema readerSchema,
+      boolean awaitCompiled) {
+    long writerFingerprint = getPrimitiveSchemaFingerprint(writerSchema);
+    long readerFingerprint =
+        readerSchema == writerSchema ? writerFingerprint : getPrimitiveSchemaFingerprint(readerSchema);
+    CacheEntry<S> entry = kind.cache.get(writerFingerprint, readerFingerprint);
+    if (isSettled(entry, awaitCompiled)) {
+      return recordAccess(entry);
     }
-    FastSpecificSerializerGenerator<?> generator =
-        new FastSpecificSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+    return getOrScheduleCompilation(kind.cache, writerFingerprint, readerFingerprint,
+        invocationCounter -> kind.fallbackFactory.newInstance(writerSchema, readerSchema, invocationCounter),
+        () -> new CompileRequest<>(kind, writerSchema, readerSchema, writerFingerprint, readerFingerprint),
+        awaitCompiled);
+  }
 
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Generated classes dir: {} and generation of specific FastSerializer is done for schema of type: {}" +
-              " and fingerprint: {} and content: [\n{}\n]", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema),
-              schema.toString(true));
-    } else {
-      LOGGER.info("Generated classes dir: {} and generation of specific FastSerializer is done for schema of type: {}" +
-              " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
-    }
+  /**
+   * @return number of entries evicted since they exceeded the maximum cache size
+   */
+  public long getSizeEvictionCount() {
+    return sizeEvictionCount.get();
+  }
 
-    return generator.generateSerializer();
+  /**
+   * @return number of entries evicted since they haven't been accessed for longer than the maximum idle time
+   */
+  public long getIdleEvictionCount() {
+    return idleEvictionCount.get();
   }
 
-  private FastSerializer<?> buildSpecificSerializer(Schema schema) {
-    if (Utils.isSupportedAvroVersionsForSerializer()) {
-      // Only build fast specific serializer for supported Avro versions.
-      try {
-        return buildFastSpecificSerializer(schema);
-      } catch (FastDeserializerGeneratorException e) {
-        LOGGER.warn("Serializer generation exception when generating specific FastSerializer for schema: [\n{}\n]",
-            schema.toString(true), e);
-      } catch (Exception e) {
-        LOGGER.warn("Serializer class instantiation exception", e);
+  /**
+   * @return whether generic serializers and deserializers convert logical types, see
+   *         {@link Builder#logicalTypeConversions(boolean)}
+   */
+  public boolean isLogicalTypeConversions() {
+    return logicalTypeConversions;
+  }
+
+  /**
+   * Compiles deserializers for the given schema pairs ahead of their first use, which allows to e.g. gate the
+   * readiness of a service on them instead of serving the traffic with the vanilla avro based ones meanwhile.
+   *
+   * @param schemaPairs
+   *            writer schemas mapped to reader schemas
+   * @param generic
+   *            whether to compile generic-class aware deserializers
+   * @param specific
+   *            whether to compile specific-class aware deserializers
+   * @return future completed once all the deserializers are either compiled or failed
+   */
+  public CompletableFuture<WarmupResult> warmUpDeserializers(
+      Collection<? extends Map.Entry<Schema, Schema>> schemaPairs, boolean generic, boolean specific) {
+    List<CompletableFuture<WarmupResult.Failure>> results = new ArrayList<>();
+    for (Map.Entry<Schema, Schema> schemaPair : schemaPairs) {
+      Schema writerSchema = schemaPair.getKey();
+      Schema readerSchema = schemaPair.getValue();
+      if (generic) {
+        results.add(getWarmupResult(getFastGenericDeserializerAsync(writerSchema, readerSchema),
+            cause -> new WarmupResult.Failure(writerSchema, readerSchema, true, false, cause)));
+      }
+      if (specific) {
+        results.add(getWarmupResult(getFastSpecificDeserializerAsync(writerSchema, readerSchema),
+            cause -> new WarmupResult.Failure(writerSchema, readerSchema, false, false, cause)));
       }
     }
+    return collectWarmupResults(results);
+  }
 
-    return new FastSerializer<Object>() {
-      private final DatumWriter datumWriter = new SpecificDatumWriter(schema);
+  /**
+   * Compiles serializers for the given schemas ahead of their first use.
+   *
+   * @param schemas
+   *            schemas of data to write
+   * @param generic
+   *            whether to compile generic-class aware serializers
+   * @param specific
+   *            whether to compile specific-class aware serializers
+   * @return future completed once all the serializers are either compiled or failed
+   * @see #warmUpDeserializers(Collection, boolean, boolean)
+   */
+  public CompletableFuture<WarmupResult> warmUpSerializers(Collection<Schema> schemas, boolean generic,
+      boolean specific) {
+    List<CompletableFuture<WarmupResult.Failure>> results = new ArrayList<>();
+    for (Schema schema : schemas) {
+      if (generic) {
+        results.add(getWarmupResult(getFastGenericSerializerAsync(schema),
+            cause -> new WarmupResult.Failure(schema, schema, true, true, cause)));
+      }
+      if (specific) {
+        results.add(getWarmupResult(getFastSpecificSerializerAsync(schema),
+            cause -> new WarmupResult.Failure(schema, schema, false, true, cause)));
+      }
+    }
+    return collectWarmupResults(results);
+  }
 
-      @Override
-      public void serialize(Object data, Encoder e) throws IOException {
-        datumWriter.write(data, e);
+  private static CompletableFuture<WarmupResult.Failure> getWarmupResult(CompletableFuture<?> compiled,
+      Function<Throwable, WarmupResult.Failure> failureFactory) {
+    return compiled.handle((instance, e) -> {
+      if (e == null) {
+        return null;
       }
-    };
+      return failureFactory.apply(e instanceof CompletionException && e.getCause() != null ? e.getCause() : e);
+    });
   }
 
-  public FastSerializer<?> buildFastGenericSerializer(Schema schema) {
-    // Defensive code
-    if (!Utils.isSupportedAvroVersionsForSerializer()) {
-      throw new FastDeserializerGeneratorException("Generic FastSerializer is only supported in following avro versions:"
-          + Utils.getAvroVersionsSupportedForSerializer());
+  private static CompletableFuture<WarmupResult> collectWarmupResults(
+      List<CompletableFuture<WarmupResult.Failure>> results) {
+    return CompletableFuture.allOf(results.toArray(new CompletableFuture[0])).thenApply(ignored -> {
+      List<WarmupResult.Failure> failures =
+          results.stream().map(CompletableFuture::join).filter(Objects::nonNull).collect(Collectors.toList());
+      return new WarmupResult(results.size() - failures.size(), failures);
+    });
+  }
+
+  /**
+   * Returns cached entry, putting the vanilla avro based one into the cache and scheduling compilation of the
+   * fast one if there is none yet. Compilation is scheduled only by the thread which managed to put the pending
+   * entry, hence there is at most one compilation per key in flight. Failed compilation is scheduled again only
+   * once its backoff elapses.
+   *
+   * If compiled by hotness, compilation is scheduled only once the vanilla avro based instance is invoked the
+   * threshold number of times, unless the caller is about to await the compiled instance.
+   */
+  private <S> CacheEntry<S> getOrScheduleCompilation(ConcurrentLongPairMap<CacheEntry<S>> cache,
+      long writerFingerprint, long readerFingerprint, Function<InvocationCounter, S> fallbackFactory,
+      Supplier<CompileRequest<S>> compileRequestFactory, boolean awaitCompiled) {
+    CacheEntry<S> entry = cache.get(writerFingerprint, readerFingerprint);
+    if (entry == null) {
+      CompileRequest<S> request = compileRequestFactory.get();
+      CompileFailure failure = compileFailures.get(request.failureKey);
+      CacheEntry<S> newEntry;
+      if (failure != null && System.nanoTime() - getRetryAfterNanos(failure) < 0) {
+        // failed before, but got evicted meanwhile
+        CompletableFuture<S> compiled = new CompletableFuture<>();
+        compiled.completeExceptionally(failure.cause);
+        newEntry = CacheEntry.failed(fallbackFactory.apply(null), compiled, getRetryAfterNanos(failure));
+      } else if (compileThreshold > 0 && !awaitCompiled) {
+        newEntry = CacheEntry.cold(fallbackFactory.apply(new InvocationCounter(compileThreshold,
+            invocationRate -> promote(cache, writerFingerprint, readerFingerprint, compileRequestFactory,
+                invocationRate))));
+      } else {
+        newEntry = CacheEntry.pending(fallbackFactory.apply(null), new CompletableFuture<>());
+      }
+      entry = cache.putIfAbsent(writerFingerprint, readerFingerprint, newEntry);
+      if (entry == null) {
+        entry = newEntry;
+        if (newEntry.state == CompileState.PENDING) {
+          scheduleCompilation(request, newEntry, Double.POSITIVE_INFINITY);
+        }
+        evictIfNeeded();
+      } else if (entry.state == CompileState.COLD && awaitCompiled) {
+        entry = promote(cache, writerFingerprint, readerFingerprint, compileRequestFactory, Double.POSITIVE_INFINITY);
+      }
+    } else if (entry.state == CompileState.COLD && awaitCompiled) {
+      entry = promote(cache, writerFingerprint, readerFingerprint, compileRequestFactory, Double.POSITIVE_INFINITY);
+    } else if (entry.state == CompileState.FAILED && System.nanoTime() - entry.retryAfterNanos >= 0) {
+      CacheEntry<S> pendingEntry = CacheEntry.pending(entry.value, new CompletableFuture<>());
+      if (cache.replace(writerFingerprint, readerFingerprint, entry, pendingEntry)) {
+        scheduleCompilation(compileRequestFactory.get(), pendingEntry, 0);
+      }
+      entry = cache.get(writerFingerprint, readerFingerprint);
+      if (entry == null) {
+        return pendingEntry;
+      }
+    }
+    return recordAccess(entry);
+  }
+
+  /**
+   * @return true if the entry can be used as is, i.e. it doesn't need to be either added or scheduled for compilation
+   */
+  private static boolean isSettled(CacheEntry<?> entry, boolean awaitCompiled) {
+    if (entry == null) {
+      return false;
+    }
+    switch (entry.state) {
+      case COLD:
+        return !awaitCompiled;
+      case FAILED:
+        return System.nanoTime() - entry.retryAfterNanos < 0;
+      default:
+        return true;
+    }
+  }
+
+  private <S> CacheEntry<S> recordAccess(CacheEntry<S> entry) {
+    if (isBounded()) {
+      entry.lastAccessNanos = System.nanoTime();
+      if (maxIdleTimeMs > 0 && entry.lastAccessNanos - lastIdleEvictionNanos > TimeUnit.MILLISECONDS.toNanos(
+          maxIdleTimeMs) / 2) {
+        evictIfNeeded();
+      }
+    }
+    return entry;
+  }
+
+  /**
+   * Schedules compilation of cold entry, i.e. the one not compiled yet since it isn't hot enough.
+   *
+   * @return current entry, or pending one if the entry got evicted meanwhile
+   */
+  private <S> CacheEntry<S> promote(ConcurrentLongPairMap<CacheEntry<S>> cache, long writerFingerprint,
+      long readerFingerprint, Supplier<CompileRequest<S>> compileRequestFactory, double invocationRate) {
+    CacheEntry<S> entry = cache.get(writerFingerprint, readerFingerprint);
+    if (entry != null && entry.state == CompileState.COLD) {
+      CacheEntry<S> pendingEntry = CacheEntry.pending(entry.value, entry.compiled);
+      if (cache.replace(writerFingerprint, readerFingerprint, entry, pendingEntry)) {
+        scheduleCompilation(compileRequestFactory.get(), pendingEntry, invocationRate);
+      }
+      CacheEntry<S> currentEntry = cache.get(writerFingerprint, readerFingerprint);
+      return currentEntry != null ? currentEntry : pendingEntry;
+    }
+    return entry;
+  }
+
+  private long getRetryAfterNanos(CompileFailure failure) {
+    int shift = Math.min(failure.attempts - 1, Long.numberOfLeadingZeros(initialFailureBackoffMs) - 1);
+    long backoffMs = Math.min(initialFailureBackoffMs << shift, maxFailureBackoffMs);
+    return failure.failedAtNanos + TimeUnit.MILLISECONDS.toNanos(backoffMs);
+  }
+
+  private boolean isBounded() {
+    return maxCacheSize > 0 || maxIdleTimeMs > 0;
+  }
+
+  /**
+   * Evicts idle entries and the least recently used ones exceeding the maximum cache size. Eviction is skipped if
+   * it is already in progress in another thread, hence the bounds are not strict.
+   */
+  private void evictIfNeeded() {
+    if (!isBounded() || !evictionLock.tryLock()) {
+      return;
+    }
+    try {
+      long evictedCount = idleEvictionCount.get() + sizeEvictionCount.get();
+      long nowNanos = System.nanoTime();
+      if (maxIdleTimeMs > 0) {
+        lastIdleEvictionNanos = nowNanos;
+        long maxIdleTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxIdleTimeMs);
+        for (ConcurrentLongPairMap<? extends CacheEntry<?>> cache : caches) {
+          cache.forEach((writerFingerprint, readerFingerprint, entry) -> {
+            // pending entries are kept, so that there is never more than one compilation per key
+            if (entry.state != CompileState.PENDING && nowNanos - entry.lastAccessNanos > maxIdleTimeNanos
+                && cache.remove(writerFingerprint, readerFingerprint, entry)) {
+              idleEvictionCount.incrementAndGet();
+            }
+          });
+        }
+      }
+
+      if (maxCacheSize > 0) {
+        int cacheSize = caches.stream().mapToInt(ConcurrentLongPairMap::size).sum();
+        if (cacheSize > maxCacheSize) {
+          // evicts down to the low-water mark, so that the following insertions don't look for the least recently
+          // used entries again until the cache fills up
+          int evictionBatchSize = cacheSize - (maxCacheSize - maxCacheSize / EVICTION_BATCH_DIVISOR);
+          // the most recently used of the selected entries on top, to be replaced by the less recently used ones
+          PriorityQueue<EvictionCandidate> candidates = new PriorityQueue<>(evictionBatchSize,
+              Comparator.comparingLong((EvictionCandidate candidate) -> candidate.lastAccessNanos).reversed());
+          for (ConcurrentLongPairMap<? extends CacheEntry<?>> cache : caches) {
+            cache.forEach((writerFingerprint, readerFingerprint, entry) -> {
+              if (entry.state != CompileState.PENDING) {
+                EvictionCandidate candidate = new EvictionCandidate(cache, writerFingerprint, readerFingerprint, entry);
+                if (candidates.size() < evictionBatchSize) {
+                  candidates.add(candidate);
+                } else if (candidate.lastAccessNanos < candidates.peek().lastAccessNanos) {
+                  candidates.poll();
+                  candidates.add(candidate);
+                }
+              }
+            });
+          }
+          for (EvictionCandidate candidate : candidates) {
+            if (candidate.cache.remove(candidate.writerFingerprint, candidate.readerFingerprint, candidate.entry)) {
+              sizeEvictionCount.incrementAndGet();
+            }
+          }
+        }
+      }
+
+      if (idleEvictionCount.get() + sizeEvictionCount.get() > evictedCount) {
+        evictProjectedSchemas();
+      }
+    } finally {
+      evictionLock.unlock();
     }
-    FastGenericSerializerGenerator<?> generator =
-        new FastGenericSerializerGenerator<>(schema, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+  }
+
+  /**
+   * Removes projected schemas no longer read by any cached deserializer.
+   */
+  private void evictProjectedSchemas() {
+    if (projectedSchemas.size() == 0) {
+      return;
+    }
+    Set<Long> readerFingerprints = new HashSet<>();
+    genericDeserializers.cache.forEach(
+        (writerFingerprint, readerFingerprint, entry) -> readerFingerprints.add(readerFingerprint));
+    projectedSchemas.forEach((readerFingerprint, projectionFingerprint, projectedSchema) -> {
+      if (!readerFingerprints.contains(getPrimitiveSchemaFingerprint(projectedSchema))) {
+        projectedSchemas.remove(readerFingerprint, projectionFingerprint, projectedSchema);
+      }
+    });
+  }
 
-    if (LOGGER.isDebugEnabled()) {
-      LOGGER.debug("Generated classes dir: {} and generation of generic FastSerializer is done for schema of type: {}" +
-              " and fingerprint: {} and content: [\n{}\n]", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema),
-              schema.toString(true));
+  private <S> void scheduleCompilation(CompileRequest<S> request, CacheEntry<S> pendingEntry, double invocationRate) {
+    request.pendingEntry = pendingEntry;
+    request.invocationRate = invocationRate;
+    if (compileBatchSize > 1) {
+      pendingCompileRequests.add(request);
+      scheduleBatchCompilation();
+    } else if (compileThreshold > 0) {
+      // every task compiles the hottest pending request at the time it runs
+      pendingCompileRequests.add(request);
+      try {
+        executor.execute(this::compileHottestPendingRequest);
+      } catch (RejectedExecutionException e) {
+        if (pendingCompileRequests.remove(request)) {
+          request.fail(e);
+        }
+      }
     } else {
-      LOGGER.info("Generated classes dir: {} and generation of generic FastSerializer is done for schema of type: {}" +
-              " and fingerprint: {}", classesDir, getSchemaFullName(schema), getSchemaFingerprint(schema));
+      try {
+        executor.execute(request::buildAndInstall);
+      } catch (RejectedExecutionException e) {
+        request.fail(e);
+      }
+    }
+  }
+
+  private void compileHottestPendingRequest() {
+    CompileRequest<?> request = pendingCompileRequests.poll();
+    if (request != null) {
+      request.buildAndInstall();
     }
+  }
 
-    return generator.generateSerializer();
+  private void scheduleBatchCompilation() {
+    if (batchCompilationScheduled.compareAndSet(false, true)) {
+      CompletableFuture.runAsync(this::compilePendingRequests, executor);
+    }
+  }
+
+  /**
+   * Collects pending requests until either batch is full or the batching window elapses, then compiles them together.
+   */
+  private void compilePendingRequests() {
+    List<CompileRequest<?>> batch = new ArrayList<>(compileBatchSize);
+    long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(compileBatchWindowMs);
+    try {
+      while (batch.size() < compileBatchSize) {
+        CompileRequest<?> request =
+            pendingCompileRequests.poll(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        if (request == null) {
+          break;
+        }
+        batch.add(request);
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } finally {
+      batchCompilationScheduled.set(false);
+      // requests which didn't fit into this batch or arrived in the meantime
+      if (!pendingCompileRequests.isEmpty()) {
+        scheduleBatchCompilation();
+      }
+    }
+    compileBatch(batch);
   }
 
-  private FastSerializer<?> buildGenericSerializer(Schema schema) {
-    if (Utils.isSupportedAvroVersionsForSerializer()) {
-      // Only build fast generic serializer for supported Avro versions.
+  private void compileBatch(List<CompileRequest<?>> batch) {
+    List<CompileRequest<?>> generatedRequests = new ArrayList<>(batch.size());
+    List<FastSerdeBase> generators = new ArrayList<>(batch.size());
+    ClassLoader classLoader = getClassLoader();
+    for (CompileRequest<?> request : batch) {
       try {
-        return buildFastGenericSerializer(schema);
-      } catch (FastDeserializerGeneratorException e) {
-        LOGGER.warn("Serializer generation exception when generating generic FastSerializer for schema: [\n{}\n]",
-            schema.toString(true), e);
+        if (!request.installPersisted(classLoader)) {
+          generators.add(request.generateClass(classLoader));
+          generatedRequests.add(request);
+        }
       } catch (Exception e) {
-        LOGGER.warn("Serializer class instantiation exception", e);
+        // built on its own in order to report the failure and fall back to the vanilla implementation
+        request.buildAndInstall();
       }
     }
 
-    return new FastSerializer<Object>() {
-      private final DatumWriter datumWriter = new GenericDatumWriter(schema);
+    try {
+      GeneratedClassesCompiler.compile(generators, javaCompiler);
+      LOGGER.info("Generated classes dir: {} and compilation of batch with {} generated classes is done", classesDir,
+          generators.size());
+    } catch (Exception e) {
+      LOGGER.warn("Compilation of batch with " + generators.size() + " generated classes failed, compiling them one by one", e);
+      generatedRequests.forEach(CompileRequest::buildAndInstall);
+      return;
+    }
 
-      @Override
-      public void serialize(Object data, Encoder e) throws IOException {
-        datumWriter.write(data, e);
+    for (int i = 0; i < generatedRequests.size(); i++) {
+      CompileRequest<?> request = generatedRequests.get(i);
+      try {
+        request.loadAndInstall(generators.get(i));
+      } catch (Exception e) {
+        request.buildAndInstall();
       }
-    };
+    }
+  }
+
+  /**
+   * This function will generate a fast specific deserializer, and it will throw exception if anything wrong happens.
+   * This function can be used to verify whether current {@link FastSerdeCache} could generate proper fast deserializer.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a fast deserializer
+   */
+  public FastDeserializer<?> buildFastSpecificDeserializer(Schema writerSchema, Schema readerSchema) {
+    return build(specificDeserializers, writerSchema, readerSchema);
+  }
+
+  /**
+   * This function will generate a fast generic deserializer, and it will throw exception if anything wrong happens.
+   * This function can be used to verify whether current {@link FastSerdeCache} could generate proper fast deserializer.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a fast deserializer
+   */
+  public FastDeserializer<?> buildFastGenericDeserializer(Schema writerSchema, Schema readerSchema) {
+    return build(genericDeserializers, writerSchema, readerSchema);
+  }
+
+  public FastSerializer<?> buildFastSpecificSerializer(Schema schema) {
+    return build(specificSerializers, schema, schema);
+  }
+
+  public FastSerializer<?> buildFastGenericSerializer(Schema schema) {
+    return build(genericSerializers, schema, schema);
+  }
+
+  /**
+   * This function will generate a fast reflect serializer, and it will throw exception if anything wrong happens.
+   *
+   * @param schema schema of the POJOs
+   * @return a fast serializer
+   */
+  public FastSerializer<?> buildFastReflectSerializer(Schema schema) {
+    return build(reflectSerializers, schema, schema);
+  }
+
+  /**
+   * This function will generate a fast transcoder, and it will throw exception if anything wrong happens.
+   *
+   * @param writerSchema writer schema
+   * @param readerSchema reader schema
+   * @return a fast transcoder
+   */
+  public FastTranscoder buildFastTranscoder(Schema writerSchema, Schema readerSchema) {
+    return build(transcoders, writerSchema, readerSchema);
+  }
+
+  /**
+   * This function will generate a fast comparator, and it will throw exception if anything wrong happens.
+   *
+   * @param schema schema of the data to compare
+   * @return a fast comparator
+   */
+  public FastComparator buildFastComparator(Schema schema) {
+    return build(comparators, schema, schema);
+  }
+
+  public FastDeepCopier<?> buildFastSpecificDeepCopier(Schema schema) {
+    return build(specificDeepCopiers, schema, schema);
+  }
+
+  public FastDeepCopier<?> buildFastGenericDeepCopier(Schema schema) {
+    return build(genericDeepCopiers, schema, schema);
+  }
+
+  /**
+   * This function will generate a fast validator, and it will throw exception if anything wrong happens.
+   *
+   * @param schema schema of the data to validate
+   * @return a fast validator
+   */
+  public FastValidator buildFastValidator(Schema schema) {
+    return build(validators, schema, schema);
+  }
+
+  /**
+   * Generates and compiles class of the given kind on its own, unless it has been persisted already.
+   */
+  private <S> S build(GeneratedKind<S> kind, Schema writerSchema, Schema readerSchema) {
+    ClassLoader classLoader = getClassLoader();
+    S persistedInstance = loadPersisted(kind, kind.getClassName(writerSchema, readerSchema), readerSchema,
+        classLoader);
+    if (persistedInstance != null) {
+      return persistedInstance;
+    }
+
+    FastSerdeBase generator = kind.generatorFactory.generate(writerSchema, readerSchema, classLoader);
+    try {
+      GeneratedClassesCompiler.compile(Collections.singletonList(generator), javaCompiler);
+    } catch (Exception e) {
+      throw kind.newGeneratorException(e);
+    }
+    logGenerated(kind, writerSchema, readerSchema);
+    return load(kind, generator);
+  }
+
+  private void logGenerated(GeneratedKind<?> kind, Schema writerSchema, Schema readerSchema) {
+    if (writerSchema == readerSchema) {
+      if (LOGGER.isDebugEnabled()) {
+        LOGGER.debug("Generated classes dir: {} and generation of {} is done for schema of type: {} and fingerprint: {}"
+                + " and content: [\n{}\n]", classesDir, kind.description, getSchemaFullName(writerSchema),
+            getPrimitiveSchemaFingerprint(writerSchema), writerSchema.toString(true));
+      } else {
+        LOGGER.info("Generated classes dir: {} and generation of {} is done for schema of type: {} and fingerprint: {}",
+            classesDir, kind.description, getSchemaFullName(writerSchema), getPrimitiveSchemaFingerprint(writerSchema));
+      }
+    } else if (LOGGER.isDebugEnabled()) {
+      LOGGER.debug("Generated classes dir: {} and generation of {} is done for writer schema of type: {} with fingerprint: {}"
+              + " and content: [\n{}\n] and reader schema of type: {} with fingerprint: {} and content: [\n{}\n]", classesDir,
+          kind.description, getSchemaFullName(writerSchema), getPrimitiveSchemaFingerprint(writerSchema),
+          writerSchema.toString(true), getSchemaFullName(readerSchema), getPrimitiveSchemaFingerprint(readerSchema),
+          readerSchema.toString(true));
+    } else {
+      LOGGER.info("Generated classes dir: {} and generation of {} is done for writer schema of type: {} with fingerprint: {}"
+              + " and reader schema of type: {} with fingerprint: {}", classesDir, kind.description,
+          getSchemaFullName(writerSchema), getPrimitiveSchemaFingerprint(writerSchema), getSchemaFullName(readerSchema),
+          getPrimitiveSchemaFingerprint(readerSchema));
+    }
+  }
+
+  /**
+   * @return instance of the class compiled by the given generator
+   */
+  private <S> S load(GeneratedKind<S> kind, FastSerdeBase generator) {
+    S instance = kind.loader.apply(generator);
+    persistClass(instance);
+    return instance;
+  }
+
+  /**
+   * @return previously persisted instance or null if there is none
+   */
+  @SuppressWarnings("unchecked")
+  private <S> S loadPersisted(GeneratedKind<S> kind, String className, Schema readerSchema,
+      ClassLoader classLoader) {
+    Class<?> clazz =
+        loadPersistedClass(FastSerdeBase.getGeneratedPackageName(kind.category) + "." + className, classLoader);
+    if (clazz == null) {
+      return null;
+    }
+    try {
+      return (S) (kind.isConstructedWithSchema() ? clazz.getConstructor(Schema.class).newInstance(readerSchema)
+          : clazz.newInstance());
+    } catch (ReflectiveOperationException e) {
+      throw kind.newGeneratorException(e);
+    }
+  }
+
+  private GeneratedKind<FastDeserializer<?>> newDeserializerKind(DeserializerKind kind,
+      FallbackFactory<FastDeserializer<?>> fallbackFactory) {
+    return new GeneratedKind<>(kind.name().toLowerCase(Locale.ROOT).replace('_', ' ') + " FastDeserializer",
+        DESERIALIZATION, (writerSchema, readerSchema) -> FastDeserializerGeneratorBase.getClassName(writerSchema,
+            readerSchema, kind.getDescription(kind.useGenericTypes && logicalTypeConversions)), fallbackFactory,
+        (writerSchema, readerSchema, classLoader) -> {
+          FastDeserializerGenerator<?> generator;
+          if (kind == DeserializerKind.REFLECT) {
+            generator = new FastReflectDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+                compileClassPath.orElseGet(() -> null));
+          } else if (kind.useGenericTypes) {
+            generator = new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, kind,
+                logicalTypeConversions, classesDir, classLoader, compileClassPath.orElseGet(() -> null));
+          } else {
+            generator = new FastSpecificDeserializerGenerator<>(writerSchema, readerSchema, classesDir, classLoader,
+                compileClassPath.orElseGet(() -> null));
+          }
+          generator.generateDeserializerClass();
+          return generator;
+        }, generator -> ((FastDeserializerGenerator<?>) generator).loadDeserializer());
+  }
+
+  private FastDeserializer<?> newGenericDeserializerFallback(Schema writerSchema, Schema readerSchema,
+      InvocationCounter invocationCounter) {
+    return new FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema, logicalTypeConversions,
+        invocationCounter);
+  }
+
+  private static FastSerdeBase generateSerializerClass(Supplier<FastSerializerGenerator<?>> generatorFactory) {
+    // Defensive code
+    if (!Utils.isSupportedAvroVersionsForSerializer()) {
+      throw new FastSerdeGeneratorException("FastSerializer is only supported in following avro versions: "
+          + Utils.getAvroVersionsSupportedForSerializer());
+    }
+    FastSerializerGenerator<?> generator = generatorFactory.get();
+    generator.generateSerializerClass();
+    return generator;
+  }
+
+  private GeneratedKind<FastDeepCopier<?>> newDeepCopierKind(boolean useGenericTypes,
+      FallbackFactory<FastDeepCopier<?>> fallbackFactory) {
+    return new GeneratedKind<>((useGenericTypes ? "generic" : "specific") + " FastDeepCopier", COPYING,
+        (schema, ignored) -> FastDeepCopierGenerator.getClassName(schema,
+            FastSerializerGenerator.getDescription(useGenericTypes, useGenericTypes && logicalTypeConversions)),
+        fallbackFactory, (schema, ignored, classLoader) -> {
+          FastDeepCopierGenerator<?> generator = new FastDeepCopierGenerator<>(useGenericTypes,
+              useGenericTypes && logicalTypeConversions, schema, classesDir, classLoader,
+              compileClassPath.orElseGet(() -> null));
+          generator.generateDeepCopierClass();
+          return generator;
+        }, generator -> ((FastDeepCopierGenerator<?>) generator).loadDeepCopier());
+  }
+
+  private Class<?> loadPersistedClass(String fullClassName, ClassLoader classLoader) {
+    return persistentClassCache != null ? persistentClassCache.loadClass(fullClassName, classLoader) : null;
+  }
+
+  /**
+   * @return class loader to be used by the next compilation; in bounded mode every compilation (i.e. a single
+   *         class or a batch of classes) gets its own class loader, so that classes can be unloaded once all the
+   *         instances loaded by it are evicted
+   */
+  private ClassLoader getClassLoader() {
+    return isBounded() ? newClassLoader() : classLoader;
+  }
+
+  private ClassLoader newClassLoader() {
+    if (classesDir == null) {
+      return new InMemoryClassLoader(FastSerdeCache.class.getClassLoader());
+    }
+    try {
+      return URLClassLoader.newInstance(new URL[]{classesDir.toURI().toURL()}, FastSerdeCache.class.getClassLoader());
+    } catch (MalformedURLException e) {
+      throw new RuntimeException(e);
+    }
+  }
+
+  private void persistClass(Object generatedInstance) {
+    if (persistentClassCache != null) {
+      persistentClassCache.store(generatedInstance.getClass().getName());
+    }
   }
 
   private Executor getDefaultExecutor() {
@@ -514,55 +1462,876 @@ public final class FastSerdeCache {
     });
   }
 
+  private enum CompileState {
+    COLD, PENDING, COMPILED, FAILED
+  }
+
+  /**
+   * Cached instance together with the state of its compilation. Entries are immutable apart from their access
+   * time, state transitions atomically replace cold entries by pending ones once hot enough, pending entries by
+   * either compiled or failed ones, and failed entries by pending ones once their backoff elapses.
+   */
+  private static final class CacheEntry<S> {
+    final CompileState state;
+    final S value;
+    // shared by cold or pending entry and the entry it gets replaced by
+    final CompletableFuture<S> compiled;
+    final long retryAfterNanos;
+    volatile long lastAccessNanos = System.nanoTime();
+
+    private CacheEntry(CompileState state, S value, CompletableFuture<S> compiled, long retryAfterNanos) {
+      this.state = state;
+      this.value = value;
+      this.compiled = compiled;
+      this.retryAfterNanos = retryAfterNanos;
+    }
+
+    static <S> CacheEntry<S> cold(S fallback) {
+      return new CacheEntry<>(CompileState.COLD, fallback, new CompletableFuture<>(), 0);
+    }
+
+    static <S> CacheEntry<S> pending(S fallback, CompletableFuture<S> compiled) {
+      return new CacheEntry<>(CompileState.PENDING, fallback, compiled, 0);
+    }
+
+    static <S> CacheEntry<S> compiled(S value, CompletableFuture<S> compiled) {
+      return new CacheEntry<>(CompileState.COMPILED, value, compiled, 0);
+    }
+
+    static <S> CacheEntry<S> failed(S fallback, CompletableFuture<S> compiled, long retryAfterNanos) {
+      return new CacheEntry<>(CompileState.FAILED, fallback, compiled, retryAfterNanos);
+    }
+  }
+
+  private static final class CompileFailure {
+    private final int attempts;
+    private final long failedAtNanos;
+    private final Throwable cause;
+
+    CompileFailure(int attempts, Throwable cause) {
+      this.attempts = attempts;
+      this.failedAtNanos = System.nanoTime();
+      this.cause = cause;
+    }
+
+    CompileFailure next(CompileFailure failure) {
+      return new CompileFailure(attempts + 1, failure.cause);
+    }
+  }
+
+  private static final class EvictionCandidate {
+    private final ConcurrentLongPairMap<? extends CacheEntry<?>> cache;
+    private final long writerFingerprint;
+    private final long readerFingerprint;
+    private final CacheEntry<?> entry;
+    // snapshot, so that the order doesn't change while selecting
+    private final long lastAccessNanos;
+
+    EvictionCandidate(ConcurrentLongPairMap<? extends CacheEntry<?>> cache, long writerFingerprint,
+        long readerFingerprint, CacheEntry<?> entry) {
+      this.cache = cache;
+      this.writerFingerprint = writerFingerprint;
+      this.readerFingerprint = readerFingerprint;
+      this.entry = entry;
+      this.lastAccessNanos = entry.lastAccessNanos;
+    }
+  }
+
+  /**
+   * Kind of generated classes, e.g. generic deserializers or comparators, together with the cache of their instances.
+   * The compilation lifecycle is shared by all the kinds, each of them only tells how its classes get generated and
+   * loaded, and which vanilla avro based instances stand in for them until compiled.
+   */
+  private final class GeneratedKind<S> {
+    // keyed by writer and reader schema fingerprints, which allows lookups without allocation
+    private final ConcurrentLongPairMap<CacheEntry<S>> cache = new ConcurrentLongPairMap<>();
+    // used by the log messages
+    private final String description;
+    // suffix of the generated package, e.g. DESERIALIZATION
+    private final String category;
+    private final BiFunction<Schema, Schema, String> classNameFactory;
+    private final FallbackFactory<S> fallbackFactory;
+    private final GeneratorFactory generatorFactory;
+    private final Function<FastSerdeBase, S> loader;
+
+    GeneratedKind(String description, String category, BiFunction<Schema, Schema, String> classNameFactory,
+        FallbackFactory<S> fallbackFactory, GeneratorFactory generatorFactory, Function<FastSerdeBase, S> loader) {
+      this.description = description;
+      this.category = category;
+      this.classNameFactory = classNameFactory;
+      this.fallbackFactory = fallbackFactory;
+      this.generatorFactory = generatorFactory;
+      this.loader = loader;
+    }
+
+    /**
+     * @return generated class name, which identifies the compilation
+     */
+    String getClassName(Schema writerSchema, Schema readerSchema) {
+      return classNameFactory.apply(writerSchema, readerSchema);
+    }
+
+    /**
+     * @return whether the generated classes get the reader schema, which is the case of deserializers and deep
+     *         copiers, while the other ones have no-arg constructors
+     */
+    boolean isConstructedWithSchema() {
+      return DESERIALIZATION.equals(category) || COPYING.equals(category);
+    }
+
+    RuntimeException newGeneratorException(Exception e) {
+      return DESERIALIZATION.equals(category) ? new FastDeserializerGeneratorException(e)
+          : new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Factory of the vanilla avro based instances, which are used until the generated class is compiled.
+   */
+  @FunctionalInterface
+  private interface FallbackFactory<S> {
+    /**
+     * @param invocationCounter counter of the invocations, which triggers the compilation once hot enough, or
+     *                          null if the compilation doesn't depend on the invocations
+     */
+    S newInstance(Schema writerSchema, Schema readerSchema, InvocationCounter invocationCounter);
+  }
+
+  @FunctionalInterface
+  private interface GeneratorFactory {
+    /**
+     * @return generator with generated class, ready to be compiled
+     */
+    FastSerdeBase generate(Schema writerSchema, Schema readerSchema, ClassLoader classLoader);
+  }
+
+  /**
+   * Request to generate fast serializer/deserializer, which can be compiled either on its own or together with
+   * the other pending requests.
+   */
+  private final class CompileRequest<S> {
+    private final GeneratedKind<S> kind;
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+    private final long writerFingerprint;
+    private final long readerFingerprint;
+    // generated class name, which identifies the compilation
+    final String failureKey;
+    CacheEntry<S> pendingEntry;
+    // invocations per second of the vanilla avro based instance at the time compilation got scheduled
+    double invocationRate;
+
+    CompileRequest(GeneratedKind<S> kind, Schema writerSchema, Schema readerSchema, long writerFingerprint,
+        long readerFingerprint) {
+      this.kind = kind;
+      this.writerSchema = writerSchema;
+      this.readerSchema = readerSchema;
+      this.writerFingerprint = writerFingerprint;
+      this.readerFingerprint = readerFingerprint;
+      this.failureKey = kind.getClassName(writerSchema, readerSchema);
+    }
+
+    /**
+     * @return generator with generated class, ready to be compiled
+     */
+    FastSerdeBase generateClass(ClassLoader classLoader) {
+      return kind.generatorFactory.generate(writerSchema, readerSchema, classLoader);
+    }
+
+    void install(S instance) {
+      compileFailures.remove(failureKey);
+      // no-op if the pending entry is no longer cached
+      kind.cache.replace(writerFingerprint, readerFingerprint, pendingEntry,
+          CacheEntry.compiled(instance, pendingEntry.compiled));
+      pendingEntry.compiled.complete(instance);
+      evictIfNeeded();
+    }
+
+    void fail(Exception e) {
+      logFailure(e);
+      CompileFailure failure = compileFailures.merge(failureKey, new CompileFailure(1, e), CompileFailure::next);
+      // vanilla avro based instance stays in place until the compilation is retried
+      kind.cache.replace(writerFingerprint, readerFingerprint, pendingEntry,
+          CacheEntry.failed(pendingEntry.value, pendingEntry.compiled, getRetryAfterNanos(failure)));
+      pendingEntry.compiled.completeExceptionally(e);
+    }
+
+    boolean installPersisted(ClassLoader classLoader) {
+      S instance = loadPersisted(kind, failureKey, readerSchema, classLoader);
+      if (instance != null) {
+        install(instance);
+        return true;
+      }
+      return false;
+    }
+
+    void loadAndInstall(FastSerdeBase generator) {
+      install(load(kind, generator));
+    }
+
+    void buildAndInstall() {
+      S instance;
+      try {
+        instance = build(kind, writerSchema, readerSchema);
+      } catch (Exception e) {
+        fail(e);
+        return;
+      }
+      install(instance);
+    }
+
+    private void logFailure(Exception e) {
+      if (SERIALIZATION.equals(kind.category) && !Utils.isSupportedAvroVersionsForSerializer()) {
+        LOGGER.debug("FastSerializer is not supported by the runtime avro version", e);
+      } else if (e instanceof FastSerdeGeneratorException || e instanceof FastDeserializerGeneratorException) {
+        LOGGER.warn("Generation exception when generating " + kind.description + " for " + (writerSchema == readerSchema
+            ? "schema: [\n" + writerSchema.toString(true) + "\n]"
+            : "writer schema: [\n" + writerSchema.toString(true) + "\n] and reader schema: [\n"
+                + readerSchema.toString(true) + "\n]"), e);
+      } else {
+        LOGGER.warn("Class instantiation exception of " + kind.description, e);
+      }
+    }
+  }
+
   public static class FastDeserializerWithAvroSpecificImpl<V> implements FastDeserializer<V> {
     private final SpecificDatumReader<V> datumReader;
+    private final InvocationCounter invocationCounter;
 
     public FastDeserializerWithAvroSpecificImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, null);
+    }
+
+    FastDeserializerWithAvroSpecificImpl(Schema writerSchema, Schema readerSchema,
+        InvocationCounter invocationCounter) {
       this.datumReader = new ColdSpecificDatumReader<>(writerSchema, readerSchema);
+      this.invocationCounter = invocationCounter;
     }
 
     @Override
     public V deserialize(V reuse, Decoder d) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
       return datumReader.read(reuse, d);
     }
   }
 
   public static class FastDeserializerWithAvroGenericImpl<V> implements FastDeserializer<V> {
     private final GenericDatumReader<V> datumReader;
+    private final InvocationCounter invocationCounter;
 
     public FastDeserializerWithAvroGenericImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, false);
+    }
+
+    public FastDeserializerWithAvroGenericImpl(Schema writerSchema, Schema readerSchema,
+        boolean logicalTypeConversions) {
+      this(writerSchema, readerSchema, logicalTypeConversions, null);
+    }
+
+    FastDeserializerWithAvroGenericImpl(Schema writerSchema, Schema readerSchema, boolean logicalTypeConversions,
+        InvocationCounter invocationCounter) {
+      this.datumReader = new ColdGenericDatumReader<>(writerSchema, readerSchema, logicalTypeConversions);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public V deserialize(V reuse, Decoder d) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      return datumReader.read(reuse, d);
+    }
+  }
+
+  public static class FastDeserializerWithAvroColumnarImpl implements FastDeserializer<ColumnarBatch> {
+    private final Schema readerSchema;
+    private final GenericDatumReader<GenericRecord> datumReader;
+    private final InvocationCounter invocationCounter;
+
+    public FastDeserializerWithAvroColumnarImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, null);
+    }
+
+    FastDeserializerWithAvroColumnarImpl(Schema writerSchema, Schema readerSchema,
+        InvocationCounter invocationCounter) {
+      // fails early for the schemas whose records can't be stored in a batch
+      new ColumnarBatch(readerSchema, 1);
+      this.readerSchema = readerSchema;
       this.datumReader = new ColdGenericDatumReader<>(writerSchema, readerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public ColumnarBatch deserialize(ColumnarBatch reuse, Decoder d) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      ColumnarBatch batch = ColumnarBatch.newOrReused(reuse, readerSchema);
+      batch.addRecord(datumReader.read(null, d));
+      return batch;
+    }
+  }
+
+  public static class FastDeserializerWithAvroReflectImpl<V> implements FastDeserializer<V> {
+    private final ReflectDatumReader<V> datumReader;
+    private final InvocationCounter invocationCounter;
+
+    public FastDeserializerWithAvroReflectImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, null);
+    }
+
+    FastDeserializerWithAvroReflectImpl(Schema writerSchema, Schema readerSchema,
+        InvocationCounter invocationCounter) {
+      this.datumReader = new ReflectDatumReader<>(readerSchema);
+      this.datumReader.setSchema(writerSchema);
+      this.invocationCounter = invocationCounter;
     }
 
     @Override
     public V deserialize(V reuse, Decoder d) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
       return datumReader.read(reuse, d);
     }
   }
 
   public static class FastSerializerWithAvroSpecificImpl<V> implements FastSerializer<V> {
     private final SpecificDatumWriter<V> datumWriter;
+    private final InvocationCounter invocationCounter;
 
     public FastSerializerWithAvroSpecificImpl(Schema schema) {
+      this(schema, null);
+    }
+
+    FastSerializerWithAvroSpecificImpl(Schema schema, InvocationCounter invocationCounter) {
       this.datumWriter = new SpecificDatumWriter<>(schema);
+      this.invocationCounter = invocationCounter;
     }
 
     @Override
     public void serialize(V data, Encoder e) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
       datumWriter.write(data, e);
     }
   }
 
   public static class FastSerializerWithAvroGenericImpl<V> implements FastSerializer<V> {
     private final DatumWriter<V> datumWriter;
+    private final InvocationCounter invocationCounter;
 
     public FastSerializerWithAvroGenericImpl(Schema schema) {
-      this.datumWriter = new GenericDatumWriter<>(schema);
+      this(schema, false);
+    }
+
+    public FastSerializerWithAvroGenericImpl(Schema schema, boolean logicalTypeConversions) {
+      this(schema, logicalTypeConversions, null);
+    }
+
+    FastSerializerWithAvroGenericImpl(Schema schema, boolean logicalTypeConversions,
+        InvocationCounter invocationCounter) {
+      this.datumWriter =
+          logicalTypeConversions ? new ColdGenericDatumWriter<>(schema) : new GenericDatumWriter<>(schema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public void serialize(V data, Encoder e) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      datumWriter.write(data, e);
+    }
+  }
+
+  public static class FastSerializerWithAvroReflectImpl<V> implements FastSerializer<V> {
+    private final ReflectDatumWriter<V> datumWriter;
+    private final InvocationCounter invocationCounter;
+
+    public FastSerializerWithAvroReflectImpl(Schema schema) {
+      this(schema, null);
+    }
+
+    FastSerializerWithAvroReflectImpl(Schema schema, InvocationCounter invocationCounter) {
+      this.datumWriter = new ReflectDatumWriter<>(schema);
+      this.invocationCounter = invocationCounter;
     }
 
     @Override
     public void serialize(V data, Encoder e) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
       datumWriter.write(data, e);
     }
   }
+
+  /**
+   * Transcodes by deserializing the data with vanilla avro and serializing it back with the reader schema.
+   */
+  public static class FastTranscoderWithAvroImpl implements FastTranscoder {
+    private final GenericDatumReader<Object> datumReader;
+    private final GenericDatumWriter<Object> datumWriter;
+    private final InvocationCounter invocationCounter;
+
+    public FastTranscoderWithAvroImpl(Schema writerSchema, Schema readerSchema) {
+      this(writerSchema, readerSchema, null);
+    }
+
+    FastTranscoderWithAvroImpl(Schema writerSchema, Schema readerSchema, InvocationCounter invocationCounter) {
+      this.datumReader = new ColdGenericDatumReader<>(writerSchema, readerSchema);
+      this.datumWriter = new GenericDatumWriter<>(readerSchema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public void transcode(Decoder d, Encoder e) throws IOException {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      datumWriter.write(datumReader.read(null, d), e);
+    }
+  }
+
+  /**
+   * Compares with vanilla avro, which reads the data up to the end of the arrays rather than the given lengths.
+   */
+  public static class FastComparatorWithAvroImpl implements FastComparator {
+    private final Schema schema;
+    private final InvocationCounter invocationCounter;
+
+    public FastComparatorWithAvroImpl(Schema schema) {
+      this(schema, null);
+    }
+
+    FastComparatorWithAvroImpl(Schema schema, InvocationCounter invocationCounter) {
+      this.schema = schema;
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public int compare(byte[] b1, int s1, int l1, byte[] b2, int s2, int l2) {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      return BinaryData.compare(b1, s1, b2, s2, schema);
+    }
+  }
+
+  /**
+   * Copies by serializing the data with vanilla avro and deserializing it back, since {@code GenericData#deepCopy}
+   * isn't available in all the supported avro versions.
+   */
+  public static class FastDeepCopierWithAvroGenericImpl<V> implements FastDeepCopier<V> {
+    private final DatumWriter<V> datumWriter;
+    private final GenericDatumReader<V> datumReader;
+    private final InvocationCounter invocationCounter;
+
+    public FastDeepCopierWithAvroGenericImpl(Schema schema) {
+      this(schema, false);
+    }
+
+    public FastDeepCopierWithAvroGenericImpl(Schema schema, boolean logicalTypeConversions) {
+      this(schema, logicalTypeConversions, null);
+    }
+
+    FastDeepCopierWithAvroGenericImpl(Schema schema, boolean logicalTypeConversions,
+        InvocationCounter invocationCounter) {
+      this.datumWriter =
+          logicalTypeConversions ? new ColdGenericDatumWriter<>(schema) : new GenericDatumWriter<>(schema);
+      this.datumReader = new ColdGenericDatumReader<>(schema, schema, logicalTypeConversions);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public V deepCopy(V data, V reuse) {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      return roundTrip(datumWriter, datumReader, data, reuse);
+    }
+  }
+
+  /**
+   * Copies by serializing the data with vanilla avro and deserializing it back, since {@code SpecificData#deepCopy}
+   * isn't available in all the supported avro versions.
+   */
+  public static class FastDeepCopierWithAvroSpecificImpl<V> implements FastDeepCopier<V> {
+    private final SpecificDatumWriter<V> datumWriter;
+    private final SpecificDatumReader<V> datumReader;
+    private final InvocationCounter invocationCounter;
+
+    public FastDeepCopierWithAvroSpecificImpl(Schema schema) {
+      this(schema, null);
+    }
+
+    FastDeepCopierWithAvroSpecificImpl(Schema schema, InvocationCounter invocationCounter) {
+      this.datumWriter = new SpecificDatumWriter<>(schema);
+      this.datumReader = new ColdSpecificDatumReader<>(schema, schema);
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public V deepCopy(V data, V reuse) {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      return roundTrip(datumWriter, datumReader, data, reuse);
+    }
+  }
+
+  /**
+   * Validates by walking the schema for every datum, which accepts the same data as the generated
+   * {@link FastValidator}, i.e. the same as vanilla avro does except for the converted logical types, and tells the
+   * path of the invalid value the same way.
+   */
+  public static class FastValidatorWithAvroImpl implements FastValidator {
+    private final Schema schema;
+    // keyed by identity, empty unless logical types are converted
+    private final Map<Schema, LogicalTypeConversions.Conversion> conversions;
+    private final InvocationCounter invocationCounter;
+
+    public FastValidatorWithAvroImpl(Schema schema) {
+      this(schema, false);
+    }
+
+    public FastValidatorWithAvroImpl(Schema schema, boolean logicalTypeConversions) {
+      this(schema, logicalTypeConversions, null);
+    }
+
+    FastValidatorWithAvroImpl(Schema schema, boolean logicalTypeConversions, InvocationCounter invocationCounter) {
+      this.schema = schema;
+      this.conversions =
+          logicalTypeConversions ? LogicalTypeConversions.collectConversions(schema) : Collections.emptyMap();
+      this.invocationCounter = invocationCounter;
+    }
+
+    @Override
+    public String validate(Object datum) {
+      if (invocationCounter != null) {
+        invocationCounter.increment();
+      }
+      String invalidPath = validate(schema, datum);
+      // field names are prefixed by a dot, except for the first one
+      return invalidPath != null && invalidPath.startsWith(".") ? invalidPath.substring(1) : invalidPath;
+    }
+
+    /**
+     * @return null if the value is valid, otherwise the path of the invalid value relative to the given one
+     */
+    private String validate(Schema valueSchema, Object value) {
+      if (Schema.Type.UNION.equals(valueSchema.getType())) {
+        for (Schema optionSchema : valueSchema.getTypes()) {
+          if (isOfType(optionSchema, value) && isOfNamedType(optionSchema, value)) {
+            return validateContent(optionSchema, value);
+          }
+        }
+        return "";
+      }
+      return isOfType(valueSchema, value) ? validateContent(valueSchema, value) : "";
+    }
+
+    /**
+     * Checks the values the value holds, once it's known to be of the class of its type.
+     */
+    private String validateContent(Schema valueSchema, Object value) {
+      if (conversions.containsKey(valueSchema)) {
+        return null;
+      }
+      String invalidPath;
+      switch (valueSchema.getType()) {
+        case RECORD:
+          IndexedRecord record = (IndexedRecord) value;
+          for (Schema.Field field : valueSchema.getFields()) {
+            invalidPath = validate(field.schema(), record.get(field.pos()));
+            if (invalidPath != null) {
+              return "." + field.name() + invalidPath;
+            }
+          }
+          return null;
+        case ARRAY:
+          int index = 0;
+          for (Object element : (Collection<?>) value) {
+            invalidPath = validate(valueSchema.getElementType(), element);
+            if (invalidPath != null) {
+              return "[" + index + "]" + invalidPath;
+            }
+            index++;
+          }
+          return null;
+        case MAP:
+          // keys aren't checked, the same as vanilla avro doesn't
+          for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+            invalidPath = validate(valueSchema.getValueType(), entry.getValue());
+            if (invalidPath != null) {
+              return "[" + entry.getKey() + "]" + invalidPath;
+            }
+          }
+          return null;
+        case ENUM:
+          return valueSchema.getEnumSymbols().contains(value.toString()) ? null : "";
+        default:
+          // fully checked by the type
+          return null;
+      }
+    }
+
+    /**
+     * @return whether the value is of the class of its type, e.g. {@link CharSequence} for strings
+     */
+    private boolean isOfType(Schema valueSchema, Object value) {
+      LogicalTypeConversions.Conversion conversion = conversions.get(valueSchema);
+      if (conversion != null) {
+        return conversion.getConvertedClass().isInstance(value);
+      }
+      switch (valueSchema.getType()) {
+        case NULL:
+          return value == null;
+        case BOOLEAN:
+          return value instanceof Boolean;
+        case INT:
+          return value instanceof Integer;
+        case LONG:
+          return value instanceof Long;
+        case FLOAT:
+          return value instanceof Float;
+        case DOUBLE:
+          return value instanceof Double;
+        case STRING:
+          return value instanceof CharSequence;
+        case BYTES:
+          return value instanceof ByteBuffer;
+        case ARRAY:
+          return value instanceof Collection;
+        case MAP:
+          return value instanceof Map;
+        case RECORD:
+          return value instanceof IndexedRecord;
+        case ENUM:
+          return value instanceof GenericData.EnumSymbol;
+        case FIXED:
+          return value instanceof GenericFixed && ((GenericFixed) value).bytes().length == valueSchema.getFixedSize();
+        default:
+          throw new AvroRuntimeException("Unsupported schema type: " + valueSchema.getType());
+      }
+    }
+
+    /**
+     * @return whether the union value of named type is of the given option, since named types share their classes
+     */
+    private boolean isOfNamedType(Schema optionSchema, Object value) {
+      return !SchemaAssistant.isNamedTypeWithSchema(optionSchema) || conversions.containsKey(optionSchema)
+          || getSchemaFullName(optionSchema).equals(((GenericContainer) value).getSchema().getFullName());
+    }
+  }
+
+
+  private static <V> V roundTrip(DatumWriter<V> datumWriter, DatumReader<V> datumReader, V data, V reuse) {
+    if (data == null) {
+      return null;
+    }
+    try {
+      ByteArrayOutputStream baos = new ByteArrayOutputStream();
+      Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+      datumWriter.write(data, encoder);
+      encoder.flush();
+      return datumReader.read(reuse, new ByteArrayDecoder(baos.toByteArray()));
+    } catch (IOException e) {
+      throw new AvroRuntimeException(e);
+    }
+  }
+
+  /**
+   * Builder of {@link FastSerdeCache}, covering all the settings available through the constructors as well as
+   * the optional ones.
+   */
+  public static final class Builder {
+    private Executor executor;
+    private String compileClassPath;
+    private File persistentClassesDir;
+    private boolean inMemoryCompilation;
+    private int compileBatchSize = 1;
+    private long compileBatchWindowMs;
+    private JavaCompiler javaCompiler;
+    private int maxCacheSize;
+    private long maxIdleTimeMs;
+    private int compileThreshold;
+    private long initialFailureBackoffMs = TimeUnit.MINUTES.toMillis(1);
+    private long maxFailureBackoffMs = TimeUnit.HOURS.toMillis(1);
+    private boolean logicalTypeConversions;
+
+    private Builder() {
+    }
+
+    /**
+     * @param executor
+     *            {@link Executor} used by serializer/deserializer compile threads, the default one is used if null
+     */
+    public Builder executor(Executor executor) {
+      this.executor = executor;
+      return this;
+    }
+
+    /**
+     * @param compileClassPath
+     *            custom classpath as string
+     */
+    public Builder compileClassPath(String compileClassPath) {
+      this.compileClassPath = compileClassPath;
+      return this;
+    }
+
+    /**
+     * Enables persisting generated classes in the given directory, so that they are loaded instead of being
+     * generated and compiled again by caches created later on, e.g. after JVM restart.
+     *
+     * @param persistentClassesDir
+     *            directory to persist generated classes in, generated classes are kept in a temporary directory if null
+     * @see PersistentClassCache
+     */
+    public Builder persistentClassesDir(File persistentClassesDir) {
+      this.persistentClassesDir = persistentClassesDir;
+      return this;
+    }
+
+    /**
+     * Enables compiling generated classes in memory, so that neither their sources nor bytecode are written to
+     * the filesystem. Can't be combined with {@link #persistentClassesDir(File)}.
+     *
+     * @param inMemoryCompilation
+     *            whether generated classes should be compiled in memory
+     */
+    public Builder inMemoryCompilation(boolean inMemoryCompilation) {
+      this.inMemoryCompilation = inMemoryCompilation;
+      return this;
+    }
+
+    /**
+     * Enables compiling classes generated for multiple schemas with a single compiler invocation. Pending requests
+     * are collected until either the batch is full or the batching window elapses.
+     *
+     * @param compileBatchSize
+     *            maximum number of classes compiled together, 1 (the default) disables batching
+     * @param compileBatchWindowMs
+     *            how long to wait for further requests once the first one is pending
+     */
+    public Builder compileBatching(int compileBatchSize, long compileBatchWindowMs) {
+      if (compileBatchSize < 1 || compileBatchWindowMs < 0) {
+        throw new IllegalArgumentException(
+            "Invalid compile batching settings: " + compileBatchSize + " classes, " + compileBatchWindowMs + " ms");
+      }
+      this.compileBatchSize = compileBatchSize;
+      this.compileBatchWindowMs = compileBatchWindowMs;
+      return this;
+    }
+
+    /**
+     * Sets compiler used to compile generated classes. By default the system java compiler is used if available,
+     * otherwise the Eclipse compiler is used if it can be found on the classpath, which allows to generate classes
+     * on JRE-only runtimes. This lib doesn't depend on the Eclipse compiler, applications running on JRE have to add
+     * {@code org.eclipse.jdt:ecj} to their runtime classpath themselves (3.22.0 is the last release running on java 8).
+     * The Eclipse compiler can't be combined with {@link #inMemoryCompilation(boolean)}. Either compiler compiles
+     * generated java sources, there is no backend emitting bytecode directly.
+     *
+     * @param javaCompiler
+     *            compiler used to compile generated classes, the default one is used if null
+     */
+    public Builder javaCompiler(JavaCompiler javaCompiler) {
+      this.javaCompiler = javaCompiler;
+      return this;
+    }
+
+    /**
+     * Bounds number of cached serializers and deserializers, the least recently used ones are evicted once
+     * exceeded, down to 7/8 of the maximum at once. Classes generated by a bounded cache are loaded by separate
+     * class loaders, which allows to unload them once evicted and no longer referenced.
+     *
+     * @param maxCacheSize
+     *            maximum number of cached serializers and deserializers, 0 (the default) means unbounded
+     */
+    public Builder maxCacheSize(int maxCacheSize) {
+      if (maxCacheSize < 0) {
+        throw new IllegalArgumentException("Invalid max cache size: " + maxCacheSize);
+      }
+      this.maxCacheSize = maxCacheSize;
+      return this;
+    }
+
+    /**
+     * Makes cached serializers and deserializers evicted once not accessed through the cache for the given time.
+     * Classes generated by a bounded cache are loaded by separate class loaders, which allows to unload them once
+     * evicted and no longer referenced.
+     *
+     * @param maxIdleTimeMs
+     *            maximum idle time, 0 (the default) means entries never expire
+     */
+    public Builder maxIdleTimeMs(long maxIdleTimeMs) {
+      if (maxIdleTimeMs < 0) {
+        throw new IllegalArgumentException("Invalid max idle time: " + maxIdleTimeMs);
+      }
+      this.maxIdleTimeMs = maxIdleTimeMs;
+      return this;
+    }
+
+    /**
+     * Compiles serializers and deserializers by hotness rather than on their first use. Vanilla avro based ones are
+     * used until invoked the given number of times, then they are queued for compilation with priority given by
+     * their invocation rate, so that the hottest ones get compiled first. Compilation requested through the
+     * {@code get*Async} methods or warmup is scheduled right away and takes precedence over the others.
+     *
+     * @param compileThreshold
+     *            number of invocations to compile at, 0 (the default) compiles on first use
+     */
+    public Builder compileThreshold(int compileThreshold) {
+      if (compileThreshold < 0) {
+        throw new IllegalArgumentException("Invalid compile threshold: " + compileThreshold);
+      }
+      this.compileThreshold = compileThreshold;
+      return this;
+    }
+
+    /**
+     * Failed compilations are retried with exponential backoff, i.e. the backoff doubles with every consecutive
+     * failure of the same class, up to the given maximum. Failures are remembered by each cache separately, hence the
+     * backoff applies to evicted entries as well, but not to other caches. Defaults to 1 minute doubling up to 1 hour.
+     *
+     * @param initialBackoffMs
+     *            backoff after the first failure
+     * @param maxBackoffMs
+     *            maximum backoff
+     */
+    public Builder compileFailureBackoff(long initialBackoffMs, long maxBackoffMs) {
+      if (initialBackoffMs <= 0 || maxBackoffMs < initialBackoffMs) {
+        throw new IllegalArgumentException(
+            "Invalid compile failure backoff: " + initialBackoffMs + ", max: " + maxBackoffMs);
+      }
+      this.initialFailureBackoffMs = initialBackoffMs;
+      this.maxFailureBackoffMs = maxBackoffMs;
+      return this;
+    }
+
+    /**
+     * Makes generic serializers and deserializers convert the standard logical types inline, to the same classes
+     * as {@code GenericData} with the conversions registered does in avro-1.9 and above, regardless of the runtime
+     * avro version. Specific ones are not affected, see {@link LogicalTypeConversions}.
+     *
+     * @param logicalTypeConversions
+     *            whether logical types should be converted, disabled by default
+     */
+    public Builder logicalTypeConversions(boolean logicalTypeConversions) {
+      this.logicalTypeConversions = logicalTypeConversions;
+      return this;
+    }
+
+    public FastSerdeCache build() {
+      if (inMemoryCompilation && persistentClassesDir != null) {
+        throw new IllegalArgumentException("Classes compiled in memory can't be persisted");
+      }
+      return new FastSerdeCache(this);
+    }
+  }
 }
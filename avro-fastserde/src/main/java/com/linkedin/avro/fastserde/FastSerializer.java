@@ -7,4 +7,12 @@ import org.apache.avro.io.Encoder;
 public interface FastSerializer<T> {
 
   void serialize(T data, Encoder e) throws IOException;
+
+  /**
+   * @return exact number of bytes {@link #serialize(Object, Encoder)} writes for the data, or -1 if it isn't known
+   *         upfront, which is the case of serializers not generated by {@link FastSerializerGenerator}
+   */
+  default int sizeOf(T data) {
+    return -1;
+  }
 }
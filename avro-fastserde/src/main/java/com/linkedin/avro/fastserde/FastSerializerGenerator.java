@@ -9,6 +9,7 @@ import com.sun.codemodel.JExpr;
 import com.sun.codemodel.JExpression;
 import com.sun.codemodel.JForEach;
 import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JInvocation;
 import com.sun.codemodel.JMethod;
 import com.sun.codemodel.JMod;
 import com.sun.codemodel.JPackage;
@@ -27,9 +28,17 @@ import org.apache.commons.lang3.StringUtils;
 public class FastSerializerGenerator<T> extends FastSerdeBase {
 
   private static final String ENCODER = "encoder";
+  private static final String SIZE = "size";
   protected final Schema schema;
 
   private final Map<String, JMethod> serializeMethodMap = new HashMap<>();
+  private final Map<String, JMethod> sizeOfMethodMap = new HashMap<>();
+
+  /**
+   * Whether the code being generated sums up the encoded sizes of the values for {@link FastSerializer#sizeOf}
+   * instead of writing them.
+   */
+  private boolean sizeOf;
 
   /**
    * Enum schema mapping for Avro-1.4 to record schema id and corresponding schema JVar.
@@ -37,10 +46,19 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   private final Map<Long, JVar> enumSchemaVarMap = new HashMap<>();
 
 
+  private final boolean logicalTypeConversions;
+
   public FastSerializerGenerator(boolean useGenericTypes, Schema schema, File destination, ClassLoader classLoader,
       String compileClassPath) {
-    super("serialization", useGenericTypes, CharSequence.class, destination, classLoader, compileClassPath, true);
+    this(useGenericTypes, false, schema, destination, classLoader, compileClassPath);
+  }
+
+  public FastSerializerGenerator(boolean useGenericTypes, boolean logicalTypeConversions, Schema schema,
+      File destination, ClassLoader classLoader, String compileClassPath) {
+    super("serialization", useGenericTypes, CharSequence.class, destination, classLoader, compileClassPath, true,
+        logicalTypeConversions);
     this.schema = schema;
+    this.logicalTypeConversions = logicalTypeConversions;
   }
 
   public static String getClassName(Schema schema, String description) {
@@ -49,8 +67,37 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     return typeName + SEP + description + "Serializer" + SEP + schemaId;
   }
 
+  /**
+   * @return part of the generated class name, which tells apart classes converting logical types
+   */
+  public static String getDescription(boolean useGenericTypes, boolean logicalTypeConversions) {
+    String description = useGenericTypes ? "Generic" : "Specific";
+    return logicalTypeConversions ? description + "Converted" : description;
+  }
+
+  /**
+   * @return part of the generated class name, see {@link #getDescription(boolean, boolean)}
+   */
+  protected String getDescription() {
+    return getDescription(useGenericTypes, logicalTypeConversions);
+  }
+
   public FastSerializer<T> generateSerializer() {
-    final String className = getClassName(schema, useGenericTypes ? "Generic" : "Specific");
+    generateSerializerClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+    return loadSerializer();
+  }
+
+  /**
+   * Generates source of the serializer class, which still has to be compiled before {@link #loadSerializer()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateSerializerClass() {
+    final String className = getClassName(schema, getDescription());
     final JPackage classPackage = codeModel._package(generatedPackageName);
 
     try {
@@ -63,25 +110,21 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
       generatedClass._implements(codeModel.ref(FastSerializer.class).narrow(outputClass));
       serializeMethodParam = serializeMethod.param(outputClass, "data");
 
-      switch (schema.getType()) {
-        case RECORD:
-          processRecord(schema, serializeMethodParam, serializeMethod.body());
-          break;
-        case ARRAY:
-          processArray(schema, serializeMethodParam, serializeMethod.body());
-          break;
-        case MAP:
-          processMap(schema, serializeMethodParam, serializeMethod.body());
-          break;
-        default:
-          throw new FastSerdeGeneratorException("Unsupported input schema type: " + schema.getType());
-      }
+      processTopLevelType(schema, serializeMethodParam, serializeMethod.body());
 
       serializeMethod.param(codeModel.ref(Encoder.class), ENCODER);
       serializeMethod._throws(codeModel.ref(IOException.class));
 
-      final Class<FastSerializer<T>> clazz = compileClass(className, schemaAssistant.getUsedFullyQualifiedClassNameSet());
-      return clazz.newInstance();
+      final JMethod sizeOfMethod = generatedClass.method(JMod.PUBLIC, codeModel.INT, "sizeOf");
+      final JVar sizeOfMethodParam = sizeOfMethod.param(outputClass, "data");
+      final JVar sizeVar = sizeOfMethod.body().decl(codeModel.INT, SIZE, JExpr.lit(0));
+      sizeOf = true;
+      try {
+        processTopLevelType(schema, sizeOfMethodParam, sizeOfMethod.body());
+      } finally {
+        sizeOf = false;
+      }
+      sizeOfMethod.body()._return(sizeVar);
     } catch (JClassAlreadyExistsException e) {
       throw new FastSerdeGeneratorException("Class: " + className + " already exists");
     } catch (Exception e) {
@@ -89,6 +132,34 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     }
   }
 
+  /**
+   * Instantiates the serializer once its class is compiled.
+   */
+  FastSerializer<T> loadSerializer() {
+    try {
+      final Class<FastSerializer<T>> clazz = loadGeneratedClass();
+      return clazz.newInstance();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  private void processTopLevelType(Schema schema, JVar dataVar, JBlock body) {
+    switch (schema.getType()) {
+      case RECORD:
+        processRecord(schema, dataVar, body);
+        break;
+      case ARRAY:
+        processArray(schema, dataVar, body);
+        break;
+      case MAP:
+        processMap(schema, dataVar, body);
+        break;
+      default:
+        throw new FastSerdeGeneratorException("Unsupported input schema type: " + schema.getType());
+    }
+  }
+
   private void processComplexType(Schema schema, JExpression valueExpr, JBlock body) {
     switch (schema.getType()) {
       case RECORD:
@@ -113,6 +184,11 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   }
 
   private void processSimpleType(Schema schema, JExpression valueExpression, JBlock body, boolean cast) {
+    LogicalTypeConversions.Conversion conversion = schemaAssistant.getConversion(schema);
+    if (conversion != null) {
+      processConvertedType(schema, conversion, valueExpression, body);
+      return;
+    }
     switch (schema.getType()) {
       case ENUM:
         processEnum(schema, valueExpression, body);
@@ -126,44 +202,90 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     }
   }
 
+  private void processConvertedType(Schema schema, LogicalTypeConversions.Conversion conversion,
+      JExpression valueExpression, JBlock body) {
+    JExpression rawValueExpr = schemaAssistant.getRawValue(conversion,
+        JExpr.cast(codeModel.ref(conversion.getConvertedClass()), valueExpression));
+    String writeFunction;
+    switch (schema.getType()) {
+      case FIXED:
+        writeFunction = "writeFixed";
+        break;
+      case BYTES:
+        writeFunction = "writeBytes";
+        break;
+      case STRING:
+        writeFunction = "writeString";
+        break;
+      case INT:
+        writeFunction = "writeInt";
+        break;
+      case LONG:
+        writeFunction = "writeLong";
+        break;
+      default:
+        throw new FastSerdeGeneratorException("Unsupported logical type schema of type: " + schema.getType());
+    }
+    write(body, writeFunction, rawValueExpr);
+  }
+
   private void processRecord(final Schema recordSchema, JExpression recordExpr, final JBlock containerBody) {
     if (methodAlreadyDefined(recordSchema)) {
-      containerBody.invoke(getMethod(recordSchema)).arg(recordExpr).arg(JExpr.direct(ENCODER));
+      invokeRecordMethod(recordSchema, recordExpr, containerBody);
       return;
     }
     JMethod method = createMethod(recordSchema);
-    containerBody.invoke(getMethod(recordSchema)).arg(recordExpr).arg(JExpr.direct(ENCODER));
+    invokeRecordMethod(recordSchema, recordExpr, containerBody);
 
     JBlock body = method.body();
     recordExpr = method.listParams()[0];
+    JVar sizeVar = sizeOf ? body.decl(codeModel.INT, SIZE, JExpr.lit(0)) : null;
 
     for (Schema.Field field : recordSchema.getFields()) {
       Schema fieldSchema = field.schema();
       if (SchemaAssistant.isComplexType(fieldSchema)) {
         JClass fieldClass = schemaAssistant.classFromSchema(fieldSchema);
         JVar containerVar = declareValueVar(field.name(), fieldSchema, body);
-        JExpression valueExpression = JExpr.invoke(recordExpr, "get").arg(JExpr.lit(field.pos()));
-        containerVar.init(JExpr.cast(fieldClass, valueExpression));
+        containerVar.init(JExpr.cast(fieldClass, getRecordField(recordExpr, recordSchema, field)));
 
         processComplexType(fieldSchema, containerVar, body);
       } else {
-        processSimpleType(fieldSchema, recordExpr.invoke("get").arg(JExpr.lit(field.pos())), body);
+        processSimpleType(fieldSchema, getRecordField(recordExpr, recordSchema, field), body);
       }
     }
+    if (sizeVar != null) {
+      body._return(sizeVar);
+    }
+  }
+
+  /**
+   * @return expression of the value of the given record field, typed as {@link Object}
+   */
+  protected JExpression getRecordField(JExpression recordExpr, Schema recordSchema, Schema.Field field) {
+    return recordExpr.invoke("get").arg(JExpr.lit(field.pos()));
+  }
+
+  private void invokeRecordMethod(final Schema recordSchema, JExpression recordExpr, final JBlock containerBody) {
+    if (sizeOf) {
+      containerBody.assignPlus(JExpr.direct(SIZE), JExpr.invoke(getMethod(recordSchema)).arg(recordExpr));
+    } else {
+      containerBody.invoke(getMethod(recordSchema)).arg(recordExpr).arg(JExpr.direct(ENCODER));
+    }
   }
 
   private void processArray(final Schema arraySchema, JExpression arrayExpr, JBlock body) {
     final JClass arrayClass = schemaAssistant.classFromSchema(arraySchema);
-    body.invoke(JExpr.direct(ENCODER), "writeArrayStart");
+    write(body, "writeArrayStart");
 
     final JExpression emptyArrayCondition = arrayExpr.eq(JExpr._null()).cor(JExpr.invoke(arrayExpr, "isEmpty"));
 
     ifCodeGen(body, emptyArrayCondition, then1 -> {
-      then1.invoke(JExpr.direct(ENCODER), "setItemCount").arg(JExpr.lit(0));
+      write(then1, "setItemCount", JExpr.lit(0));
     }, else1 -> {
-      else1.invoke(JExpr.direct(ENCODER), "setItemCount").arg(JExpr.invoke(arrayExpr, "size"));
+      write(else1, "setItemCount", JExpr.invoke(arrayExpr, "size"));
 
-      if (SchemaAssistant.isPrimitive(arraySchema.getElementType())) {
+      if (SchemaAssistant.isPrimitive(arraySchema.getElementType())
+          && !schemaAssistant.hasConversion(arraySchema.getElementType())) {
         JClass primitiveListInterface = schemaAssistant.classFromSchema(arraySchema, true, false, true);
         final JExpression primitiveListCondition = arrayExpr._instanceof(primitiveListInterface);
         ifCodeGen(else1, primitiveListCondition, then2 -> {
@@ -177,18 +299,24 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
         processArrayElementLoop(arraySchema, arrayClass, arrayExpr, else1, "get");
       }
     });
-    body.invoke(JExpr.direct(ENCODER), "writeArrayEnd");
+    write(body, "writeArrayEnd");
   }
 
   private void processArrayElementLoop(final Schema arraySchema, final JClass arrayClass, JExpression arrayExpr, JBlock body, String getMethodName) {
+    final Schema elementSchema = arraySchema.getElementType();
+    int fixedElementSize = getFixedSize(elementSchema);
+    if (sizeOf && fixedElementSize >= 0) {
+      body.assignPlus(JExpr.direct(SIZE), JExpr.invoke(arrayExpr, "size").mul(JExpr.lit(fixedElementSize)));
+      return;
+    }
+
     final JForLoop forLoop = body._for();
     final JVar counter = forLoop.init(codeModel.INT, getUniqueName("counter"), JExpr.lit(0));
     forLoop.test(counter.lt(JExpr.invoke(arrayExpr, "size")));
     forLoop.update(counter.incr());
     final JBlock forBody = forLoop.body();
-    forBody.invoke(JExpr.direct(ENCODER), "startItem");
+    write(forBody, "startItem");
 
-    final Schema elementSchema = arraySchema.getElementType();
     if (SchemaAssistant.isComplexType(elementSchema)) {
       JVar containerVar = declareValueVar(elementSchema.getName(), elementSchema, forBody);
       forBody.assign(containerVar, JExpr.invoke(JExpr.cast(arrayClass, arrayExpr), getMethodName).arg(counter));
@@ -202,21 +330,21 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     final JClass mapClass = schemaAssistant.classFromSchema(mapSchema);
     JClass keyClass = schemaAssistant.findStringClass(mapSchema);
 
-    body.invoke(JExpr.direct(ENCODER), "writeMapStart");
+    write(body, "writeMapStart");
 
     final JExpression emptyMapCondition = mapExpr.eq(JExpr._null()).cor(JExpr.invoke(mapExpr, "isEmpty"));
     final JConditional emptyMapIf = body._if(emptyMapCondition);
     final JBlock emptyMapBlock = emptyMapIf._then();
-    emptyMapBlock.invoke(JExpr.direct(ENCODER), "setItemCount").arg(JExpr.lit(0));
+    write(emptyMapBlock, "setItemCount", JExpr.lit(0));
 
     final JBlock nonEmptyMapBlock = emptyMapIf._else();
-    nonEmptyMapBlock.invoke(JExpr.direct(ENCODER), "setItemCount").arg(JExpr.invoke(mapExpr, "size"));
+    write(nonEmptyMapBlock, "setItemCount", JExpr.invoke(mapExpr, "size"));
 
     final JForEach mapKeysLoop = nonEmptyMapBlock.forEach(keyClass, getUniqueName("key"),
         JExpr.invoke(JExpr.cast(mapClass, mapExpr), "keySet"));
 
     final JBlock forBody = mapKeysLoop.body();
-    forBody.invoke(JExpr.direct(ENCODER), "startItem");
+    write(forBody, "startItem");
 
     JVar keyStringVar;
     if (SchemaAssistant.hasStringableKey(mapSchema)) {
@@ -228,7 +356,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
 
     final Schema valueSchema = mapSchema.getValueType();
 
-    forBody.invoke(JExpr.direct(ENCODER), "writeString").arg(keyStringVar);
+    write(forBody, "writeString", keyStringVar);
 
     JVar containerVar;
     if (SchemaAssistant.isComplexType(valueSchema)) {
@@ -239,7 +367,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
     } else {
       processSimpleType(valueSchema, mapExpr.invoke("get").arg(mapKeysLoop.var()), forBody);
     }
-    body.invoke(JExpr.direct(ENCODER), "writeMapEnd");
+    write(body, "writeMapEnd");
   }
 
   /**
@@ -278,9 +406,8 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
         JExpression condition = unionExpr.eq(JExpr._null());
         ifBlock = ifBlock != null ? ifBlock._elseif(condition) : body._if(condition);
         JBlock thenBlock = ifBlock._then();
-        thenBlock.invoke(JExpr.direct(ENCODER), "writeIndex")
-            .arg(JExpr.lit(getIndexNamedForUnion(unionSchema, schemaOption)));
-        thenBlock.invoke(JExpr.direct(ENCODER), "writeNull");
+        write(thenBlock, "writeIndex", JExpr.lit(getIndexNamedForUnion(unionSchema, schemaOption)));
+        write(thenBlock, "writeNull");
         break;
       }
     }
@@ -304,7 +431,8 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
        * both of them have associated 'Schema', so the serializer could recognize the right type
        * by checking the associated 'Schema' in generic mode.
        */
-      if (useGenericTypes && SchemaAssistant.isNamedTypeWithSchema(schemaOption)) {
+      if (useGenericTypes && SchemaAssistant.isNamedTypeWithSchema(schemaOption)
+          && !schemaAssistant.hasConversion(schemaOption)) {
         condition = unionExpr._instanceof(rawOptionClass).cand(JExpr.invoke(JExpr.lit(AvroCompatibilityHelper.getSchemaFullName(schemaOption)), "equals")
             /* TODO: Replace by {@link AvroCompatibilityHelper#getSchemaFullName} */
             .arg(JExpr.invoke(JExpr.cast(optionClass, unionExpr), "getSchema").invoke("getFullName")));
@@ -322,8 +450,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
         ifBlock = ifBlock != null ? ifBlock._elseif(condition) : body._if(condition);
         unionTypeProcessingBlock = ifBlock._then();
       }
-      unionTypeProcessingBlock.invoke(JExpr.direct(ENCODER), "writeIndex")
-          .arg(JExpr.lit(getIndexNamedForUnion(unionSchema, schemaOption)));
+      write(unionTypeProcessingBlock, "writeIndex", JExpr.lit(getIndexNamedForUnion(unionSchema, schemaOption)));
 
       if (schemaOption.getType().equals(Schema.Type.UNION) || schemaOption.getType().equals(Schema.Type.NULL)) {
         throw new FastSerdeGeneratorException("Incorrect union subschema processing: " + schemaOption);
@@ -338,8 +465,7 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
 
   private void processFixed(Schema fixedSchema, JExpression fixedValueExpression, JBlock body) {
     JClass fixedClass = schemaAssistant.classFromSchema(fixedSchema);
-    body.invoke(JExpr.direct(ENCODER), "writeFixed")
-        .arg(JExpr.invoke(JExpr.cast(fixedClass, fixedValueExpression), "bytes"));
+    write(body, "writeFixed", JExpr.invoke(JExpr.cast(fixedClass, fixedValueExpression), "bytes"));
   }
 
   private void processEnum(Schema enumSchema, JExpression enumValueExpression, JBlock body) {
@@ -371,25 +497,22 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
       valueToWrite = enumValueCasted.invoke("ordinal");
     }
 
-    body.invoke(JExpr.direct(ENCODER), "writeEnum").arg(valueToWrite);
+    write(body, "writeEnum", valueToWrite);
   }
 
   private void processString(final Schema primitiveSchema, JExpression primitiveValueExpression, JBlock body) {
     String writeFunction = "writeString";
-    JExpression encodeVar = JExpr.direct(ENCODER);
     if (!useGenericTypes && SchemaAssistant.isStringable(primitiveSchema)) {
       if (primitiveValueExpression instanceof JVar
           && ((JVar) primitiveValueExpression).type().equals(codeModel.ref(String.class))) {
-        body.invoke(encodeVar, writeFunction).arg(primitiveValueExpression);
+        write(body, writeFunction, primitiveValueExpression);
       } else {
-        body.invoke(encodeVar, writeFunction).arg(primitiveValueExpression.invoke("toString"));
+        write(body, writeFunction, primitiveValueExpression.invoke("toString"));
       }
     } else {
       JConditional stringTypeCheck = body._if(primitiveValueExpression._instanceof(codeModel.ref(Utf8.class)));
-      stringTypeCheck._then()
-          .invoke(encodeVar, writeFunction)
-          .arg(JExpr.cast(codeModel.ref(Utf8.class), primitiveValueExpression));
-      stringTypeCheck._else().invoke(encodeVar, writeFunction).arg(primitiveValueExpression.invoke("toString"));
+      write(stringTypeCheck._then(), writeFunction, JExpr.cast(codeModel.ref(Utf8.class), primitiveValueExpression));
+      write(stringTypeCheck._else(), writeFunction, primitiveValueExpression.invoke("toString"));
     }
   }
 
@@ -426,17 +549,99 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
             "Unsupported primitive schema of type: " + primitiveSchema.getType());
     }
 
-    body.invoke(JExpr.direct(ENCODER), writeFunction).arg(writeFunctionArgument);
+    write(body, writeFunction, writeFunctionArgument);
+  }
+
+  /**
+   * Writes the value with the given {@link Encoder} function, or adds its encoded size when generating
+   * {@link FastSerializer#sizeOf}, see {@link ByteArrayEncoder}.
+   */
+  private void write(JBlock body, String writeFunction, JExpression... args) {
+    if (!sizeOf) {
+      JInvocation invocation = body.invoke(JExpr.direct(ENCODER), writeFunction);
+      for (JExpression arg : args) {
+        invocation.arg(arg);
+      }
+      return;
+    }
+    JClass encoderClass = codeModel.ref(ByteArrayEncoder.class);
+    JExpression size;
+    switch (writeFunction) {
+      case "writeNull":
+      case "writeArrayStart":
+      case "writeMapStart":
+      case "startItem":
+        return;
+      case "writeBoolean":
+      case "writeArrayEnd":
+      case "writeMapEnd":
+        size = JExpr.lit(1);
+        break;
+      case "writeFloat":
+        size = JExpr.lit(Float.BYTES);
+        break;
+      case "writeDouble":
+        size = JExpr.lit(Double.BYTES);
+        break;
+      case "writeInt":
+      case "writeEnum":
+      case "writeIndex":
+        size = encoderClass.staticInvoke("sizeOfInt").arg(args[0]);
+        break;
+      case "writeLong":
+        size = encoderClass.staticInvoke("sizeOfLong").arg(args[0]);
+        break;
+      case "setItemCount":
+        size = encoderClass.staticInvoke("sizeOfItemCount").arg(args[0]);
+        break;
+      case "writeString":
+        size = encoderClass.staticInvoke("sizeOfString").arg(args[0]);
+        break;
+      case "writeBytes":
+        size = encoderClass.staticInvoke("sizeOfBytes").arg(args[0]);
+        break;
+      case "writeFixed":
+        size = args[0].ref("length");
+        break;
+      default:
+        throw new FastSerdeGeneratorException("Unsupported encoder function: " + writeFunction);
+    }
+    body.assignPlus(JExpr.direct(SIZE), size);
+  }
+
+  /**
+   * @return number of bytes every value of the schema is encoded with, or -1 if it varies
+   */
+  private int getFixedSize(Schema schema) {
+    if (schemaAssistant.hasConversion(schema)) {
+      return -1;
+    }
+    switch (schema.getType()) {
+      case BOOLEAN:
+        return 1;
+      case FLOAT:
+        return Float.BYTES;
+      case DOUBLE:
+        return Double.BYTES;
+      case FIXED:
+        return schema.getFixedSize();
+      default:
+        return -1;
+    }
   }
 
   private boolean methodAlreadyDefined(final Schema schema) {
-    return !Schema.Type.RECORD.equals(schema.getType()) || serializeMethodMap.containsKey(AvroCompatibilityHelper.getSchemaFullName(schema));
+    return !Schema.Type.RECORD.equals(schema.getType()) || getMethodMap().containsKey(AvroCompatibilityHelper.getSchemaFullName(schema));
+  }
+
+  private Map<String, JMethod> getMethodMap() {
+    return sizeOf ? sizeOfMethodMap : serializeMethodMap;
   }
 
   private JMethod getMethod(final Schema schema) {
     if (Schema.Type.RECORD.equals(schema.getType())) {
       if (methodAlreadyDefined(schema)) {
-        return serializeMethodMap.get(AvroCompatibilityHelper.getSchemaFullName(schema));
+        return getMethodMap().get(AvroCompatibilityHelper.getSchemaFullName(schema));
       }
       throw new FastSerdeGeneratorException("No method for schema: " + AvroCompatibilityHelper.getSchemaFullName(schema));
     }
@@ -446,16 +651,25 @@ public class FastSerializerGenerator<T> extends FastSerdeBase {
   private JMethod createMethod(final Schema schema) {
     if (Schema.Type.RECORD.equals(schema.getType())) {
       if (!methodAlreadyDefined(schema)) {
-        JMethod method = generatedClass.method(
-            JMod.PUBLIC,
-            codeModel.VOID,
-            getUniqueName("serialize" + StringUtils.capitalize(schema.getName())));
-        method._throws(IOException.class);
-        method.param(schemaAssistant.classFromSchema(schema), "data");
-        method.param(Encoder.class, ENCODER);
+        JMethod method;
+        if (sizeOf) {
+          method = generatedClass.method(
+              JMod.PUBLIC,
+              codeModel.INT,
+              getUniqueName("sizeOf" + StringUtils.capitalize(schema.getName())));
+          method.param(schemaAssistant.classFromSchema(schema), "data");
+        } else {
+          method = generatedClass.method(
+              JMod.PUBLIC,
+              codeModel.VOID,
+              getUniqueName("serialize" + StringUtils.capitalize(schema.getName())));
+          method._throws(IOException.class);
+          method.param(schemaAssistant.classFromSchema(schema), "data");
+          method.param(Encoder.class, ENCODER);
+        }
 
         method.annotate(SuppressWarnings.class).param("value", "unchecked");
-        serializeMethodMap.put(AvroCompatibilityHelper.getSchemaFullName(schema), method);
+        getMethodMap().put(AvroCompatibilityHelper.getSchemaFullName(schema), method);
 
         return method;
       } else {
@@ -0,0 +1,22 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * Rewrites binary data encoded with a writer schema into the binary encoding of a reader schema, the same data
+ * deserializing with the schemas and serializing it back with the reader schema would produce, but without creating
+ * any records in between. See {@link FastTranscoderGenerator}.
+ */
+public interface FastTranscoder {
+
+  /**
+   * Reads a single datum of the writer schema and writes it with the reader schema.
+   *
+   * @param d binary decoder of the writer schema data
+   * @param e binary encoder to write the reader schema data to
+   */
+  void transcode(Decoder d, Encoder e) throws IOException;
+}
@@ -0,0 +1,485 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.JArray;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JForLoop;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JSwitch;
+import com.sun.codemodel.JVar;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * Generates {@link FastTranscoder} rewriting data of the writer schema into the reader schema, which follows the same
+ * resolution rules as {@link FastDeserializerGenerator}: aliases are applied to the writer schema, fields removed
+ * from the reader schema are skipped, fields added to it are written with their defaults, values are promoted to
+ * wider types and enum ordinals and union indexes are remapped.
+ *
+ * Values of the same schema on both sides are copied as raw bytes when decoding from a {@link ByteArrayDecoder},
+ * consecutive fields together, since their encoding doesn't change. Fields appearing in a different order in the
+ * reader schema are not supported, as each of them would have to be buffered until it can be written.
+ */
+public class FastTranscoderGenerator extends FastSerdeBase {
+
+  private static final String DECODER = "decoder";
+  private static final String ENCODER = "encoder";
+
+  private final Schema writer;
+  private final Schema reader;
+
+  private final Map<String, JMethod> transcodeMethodMap = new HashMap<>();
+
+  /**
+   * Whether the code being generated may copy values of the same schema as raw bytes. It doesn't within the code
+   * which already runs only for decoders other than {@link ByteArrayDecoder}.
+   */
+  private boolean rawCopy = true;
+
+  public FastTranscoderGenerator(Schema writer, Schema reader, File destination, ClassLoader classLoader,
+      String compileClassPath) {
+    super("transcoding", true, Utf8.class, destination, classLoader, compileClassPath, false);
+    this.writer = writer;
+    this.reader = reader;
+  }
+
+  public static String getClassName(Schema writerSchema, Schema readerSchema) {
+    Long writerSchemaId = Math.abs(Utils.getSchemaFingerprint(writerSchema));
+    Long readerSchemaId = Math.abs(Utils.getSchemaFingerprint(readerSchema));
+    String typeName = SchemaAssistant.getTypeName(readerSchema);
+    return typeName + SEP + "Transcoder" + SEP + writerSchemaId + SEP + readerSchemaId;
+  }
+
+  public FastTranscoder generateTranscoder() {
+    generateTranscoderClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+    return loadTranscoder();
+  }
+
+  /**
+   * Generates source of the transcoder class, which still has to be compiled before {@link #loadTranscoder()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateTranscoderClass() {
+    final String className = getClassName(writer, reader);
+    try {
+      generatedClass = codeModel._package(generatedPackageName)._class(className);
+      generatedClass._implements(FastTranscoder.class);
+
+      final JMethod transcodeMethod = generatedClass.method(JMod.PUBLIC, codeModel.VOID, "transcode");
+      transcodeMethod.param(Decoder.class, DECODER);
+      transcodeMethod.param(Encoder.class, ENCODER);
+      transcodeMethod._throws(IOException.class);
+
+      Schema aliasedWriterSchema = writer;
+      /**
+       * {@link Schema.applyAliases} is not working correctly in avro-1.4 since there is a bug in this function:
+       * {@literal Schema#getFieldAlias}.
+       **/
+      if (!Utils.isAvro14()) {
+        aliasedWriterSchema = Schema.applyAliases(writer, reader);
+      }
+      processValue(aliasedWriterSchema, reader, transcodeMethod.body());
+    } catch (JClassAlreadyExistsException e) {
+      throw new FastSerdeGeneratorException("Class: " + className + " already exists");
+    } catch (FastSerdeGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Instantiates the transcoder once its class is compiled.
+   */
+  FastTranscoder loadTranscoder() {
+    try {
+      final Class<FastTranscoder> clazz = loadGeneratedClass();
+      return clazz.newInstance();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  private void processValue(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    if (Schema.Type.UNION.equals(readerSchema.getType()) && !Schema.Type.UNION.equals(writerSchema.getType())) {
+      int readerIndex = getReaderUnionIndex(writerSchema, readerSchema);
+      if (readerIndex < 0) {
+        throw new FastSerdeGeneratorException(
+            "Found " + writerSchema + ", expecting " + readerSchema.getTypes().toString());
+      }
+      body.invoke(JExpr.direct(ENCODER), "writeIndex").arg(JExpr.lit(readerIndex));
+      processValue(writerSchema, readerSchema.getTypes().get(readerIndex), body);
+      return;
+    }
+    if (rawCopy && isCopiedAsRawBytes(writerSchema) && writerSchema.equals(readerSchema)) {
+      processRawCopy(Collections.singletonList(writerSchema), body);
+      return;
+    }
+    if (Schema.Type.UNION.equals(writerSchema.getType())) {
+      processUnion(writerSchema, readerSchema, body);
+      return;
+    }
+    if (!isResolvable(writerSchema, readerSchema)) {
+      throw new FastSerdeGeneratorException("Found " + writerSchema + ", expecting " + readerSchema);
+    }
+
+    JExpression decoder = JExpr.direct(DECODER);
+    JExpression encoder = JExpr.direct(ENCODER);
+    switch (readerSchema.getType()) {
+      case RECORD:
+        processRecord(writerSchema, readerSchema, body);
+        break;
+      case ARRAY:
+        processArray(writerSchema, readerSchema, body);
+        break;
+      case MAP:
+        processMap(writerSchema, readerSchema, body);
+        break;
+      case ENUM:
+        processEnum(writerSchema, readerSchema, body);
+        break;
+      case FIXED:
+        if (writerSchema.getFixedSize() != readerSchema.getFixedSize()) {
+          throw new FastSerdeGeneratorException("Size of fixed " + readerSchema.getName() + " changed from "
+              + writerSchema.getFixedSize() + " to " + readerSchema.getFixedSize());
+        }
+        JVar fixedVar = body.decl(codeModel.BYTE.array(), getUniqueName("fixed"),
+            JExpr.newArray(codeModel.BYTE, readerSchema.getFixedSize()));
+        body.invoke(decoder, "readFixed").arg(fixedVar);
+        body.invoke(encoder, "writeFixed").arg(fixedVar);
+        break;
+      case NULL:
+        body.invoke(decoder, "readNull");
+        body.invoke(encoder, "writeNull");
+        break;
+      case STRING:
+        // strings and bytes share the binary encoding, so either of them can be read as the other one
+        body.invoke(encoder, "writeString").arg(decoder.invoke("readString").arg(JExpr._null()));
+        break;
+      case BYTES:
+        body.invoke(encoder, "writeBytes").arg(decoder.invoke("readBytes").arg(JExpr._null()));
+        break;
+      default:
+        // numeric values get widened by the generated code itself
+        body.invoke(encoder, "write" + getTypeMethodSuffix(readerSchema.getType()))
+            .arg(decoder.invoke("read" + getTypeMethodSuffix(writerSchema.getType())));
+        break;
+    }
+  }
+
+  /**
+   * Copies consecutive values of the same schema on both sides as raw bytes if decoding from a byte array,
+   * otherwise transcodes them one by one.
+   */
+  private void processRawCopy(List<Schema> schemas, JBlock body) throws IOException {
+    JClass byteArrayDecoderClass = codeModel.ref(ByteArrayDecoder.class);
+    JConditional ifByteArrayDecoder = body._if(JExpr.direct(DECODER)._instanceof(byteArrayDecoderClass));
+
+    JBlock copyBlock = ifByteArrayDecoder._then();
+    JVar byteArrayDecoder = copyBlock.decl(byteArrayDecoderClass, getUniqueName("byteArrayDecoder"),
+        JExpr.cast(byteArrayDecoderClass, JExpr.direct(DECODER)));
+    JVar start = copyBlock.decl(codeModel.INT, getUniqueName("start"), byteArrayDecoder.invoke("getPosition"));
+    for (Schema schema : schemas) {
+      skipValue(schema, JExpr.direct(DECODER), copyBlock);
+    }
+    copyBlock.invoke(JExpr.direct(ENCODER), "writeFixed")
+        .arg(byteArrayDecoder.invoke("getBuffer"))
+        .arg(start)
+        .arg(byteArrayDecoder.invoke("getPosition").minus(start));
+
+    boolean rawCopyBefore = rawCopy;
+    rawCopy = false;
+    try {
+      for (Schema schema : schemas) {
+        processValue(schema, schema, ifByteArrayDecoder._else());
+      }
+    } finally {
+      rawCopy = rawCopyBefore;
+    }
+  }
+
+  private void processRecord(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    String methodKey = AvroCompatibilityHelper.getSchemaFullName(writerSchema) + writerSchema.hashCode()
+        + readerSchema.hashCode();
+    JMethod method = transcodeMethodMap.get(methodKey);
+    if (method == null) {
+      method = generatedClass.method(JMod.PUBLIC, codeModel.VOID,
+          getUniqueName("transcode" + StringUtils.capitalize(readerSchema.getName())));
+      method._throws(IOException.class);
+      method.param(Decoder.class, DECODER);
+      method.param(Encoder.class, ENCODER);
+      // registered before processing the fields, which may refer to the record itself
+      transcodeMethodMap.put(methodKey, method);
+
+      boolean rawCopyBefore = rawCopy;
+      // records of the same schema get transcoded only when they can't be copied as raw bytes
+      rawCopy = !writerSchema.equals(readerSchema);
+      try {
+        processRecordFields(writerSchema, readerSchema, method.body());
+      } finally {
+        rawCopy = rawCopyBefore;
+      }
+    }
+    body.invoke(method).arg(JExpr.direct(DECODER)).arg(JExpr.direct(ENCODER));
+  }
+
+  private void processRecordFields(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    List<Schema.Field> writerFields = writerSchema.getFields();
+    List<Schema> unchangedRun = new ArrayList<>();
+    int nextWriterFieldPos = 0;
+
+    for (Schema.Field readerField : readerSchema.getFields()) {
+      Schema.Field writerField = writerSchema.getField(readerField.name());
+      if (writerField == null) {
+        processUnchangedRun(unchangedRun, body);
+        body.invoke(JExpr.direct(ENCODER), "writeFixed").arg(declareDefaultValue(readerField));
+        continue;
+      }
+      if (writerField.pos() < nextWriterFieldPos) {
+        throw new FastSerdeGeneratorException("Field " + readerField.name() + " of record " + readerSchema.getName()
+            + " is reordered, which isn't supported by transcoders");
+      }
+      for (int pos = nextWriterFieldPos; pos < writerField.pos(); pos++) {
+        Schema.Field removedField = writerFields.get(pos);
+        if (readerSchema.getField(removedField.name()) != null) {
+          throw new FastSerdeGeneratorException("Field " + removedField.name() + " of record "
+              + readerSchema.getName() + " is reordered, which isn't supported by transcoders");
+        }
+        processUnchangedRun(unchangedRun, body);
+        skipValue(removedField.schema(), JExpr.direct(DECODER), body);
+      }
+      nextWriterFieldPos = writerField.pos() + 1;
+
+      if (rawCopy && writerField.schema().equals(readerField.schema())) {
+        unchangedRun.add(readerField.schema());
+      } else {
+        processUnchangedRun(unchangedRun, body);
+        processValue(writerField.schema(), readerField.schema(), body);
+      }
+    }
+    processUnchangedRun(unchangedRun, body);
+    for (int pos = nextWriterFieldPos; pos < writerFields.size(); pos++) {
+      skipValue(writerFields.get(pos).schema(), JExpr.direct(DECODER), body);
+    }
+  }
+
+  private void processUnchangedRun(List<Schema> unchangedRun, JBlock body) throws IOException {
+    if (unchangedRun.size() == 1) {
+      processValue(unchangedRun.get(0), unchangedRun.get(0), body);
+    } else if (!unchangedRun.isEmpty()) {
+      processRawCopy(unchangedRun, body);
+    }
+    unchangedRun.clear();
+  }
+
+  /**
+   * @return static field holding the binary encoded default value of the field
+   */
+  private JVar declareDefaultValue(Schema.Field readerField) throws IOException {
+    if (!AvroCompatibilityHelper.fieldHasDefault(readerField)) {
+      throw new FastSerdeGeneratorException("Field " + readerField.name() + " is missing in the writer schema and "
+          + "has no default value");
+    }
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(out);
+    new GenericDatumWriter<>(readerField.schema()).write(AvroCompatibilityHelper.getGenericDefaultValue(readerField),
+        encoder);
+    encoder.flush();
+
+    JArray defaultValue = JExpr.newArray(codeModel.BYTE);
+    for (byte b : out.toByteArray()) {
+      defaultValue.add(JExpr.lit((int) b));
+    }
+    return generatedClass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, codeModel.BYTE.array(),
+        getUniqueName(readerField.name() + "Default"), defaultValue);
+  }
+
+  private void processArray(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    JExpression encoder = JExpr.direct(ENCODER);
+    body.invoke(encoder, "writeArrayStart");
+    JBlock itemBody = processBlocks("readArrayStart", "arrayNext", body);
+    processValue(writerSchema.getElementType(), readerSchema.getElementType(), itemBody);
+    body.invoke(encoder, "writeArrayEnd");
+  }
+
+  private void processMap(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    JExpression encoder = JExpr.direct(ENCODER);
+    body.invoke(encoder, "writeMapStart");
+    JBlock itemBody = processBlocks("readMapStart", "mapNext", body);
+    processValue(MAP_KEY_SCHEMA, MAP_KEY_SCHEMA, itemBody);
+    processValue(writerSchema.getValueType(), readerSchema.getValueType(), itemBody);
+    body.invoke(encoder, "writeMapEnd");
+  }
+
+  /**
+   * Writes every block of items read as a block of the same size.
+   *
+   * @return body of the loop over the items of a block
+   */
+  private JBlock processBlocks(String startFunction, String nextFunction, JBlock body) {
+    JForLoop blockLoop = body._for();
+    JVar blockSize = blockLoop.init(codeModel.LONG, getUniqueName("blockSize"),
+        JExpr.direct(DECODER).invoke(startFunction));
+    blockLoop.test(blockSize.ne(JExpr.lit(0)));
+    blockLoop.update(blockSize.assign(JExpr.direct(DECODER).invoke(nextFunction)));
+    blockLoop.body().invoke(JExpr.direct(ENCODER), "setItemCount").arg(blockSize);
+
+    JForLoop itemLoop = blockLoop.body()._for();
+    JVar counter = itemLoop.init(codeModel.LONG, getUniqueName("counter"), JExpr.lit(0));
+    itemLoop.test(counter.lt(blockSize));
+    itemLoop.update(counter.incr());
+    itemLoop.body().invoke(JExpr.direct(ENCODER), "startItem");
+    return itemLoop.body();
+  }
+
+  private void processUnion(Schema writerSchema, Schema readerSchema, JBlock body) throws IOException {
+    JVar unionIndex = body.decl(codeModel.INT, getUniqueName("unionIndex"), JExpr.direct(DECODER).invoke("readIndex"));
+    JSwitch switchBlock = body._switch(unionIndex);
+    for (int i = 0; i < writerSchema.getTypes().size(); i++) {
+      Schema optionSchema = writerSchema.getTypes().get(i);
+      JBlock caseBody = switchBlock._case(JExpr.lit(i)).body();
+      if (isResolvable(optionSchema, readerSchema)) {
+        processValue(optionSchema, readerSchema, caseBody);
+      } else {
+        // This is the same exception that vanilla Avro would throw in this circumstance
+        caseBody._throw(JExpr._new(codeModel.ref(AvroTypeException.class))
+            .arg(JExpr.lit("Found " + optionSchema + ", expecting " + readerSchema)));
+      }
+      caseBody._break();
+    }
+    switchBlock._default().body()._throw(JExpr._new(codeModel.ref(RuntimeException.class))
+        .arg(JExpr.lit("Illegal union index: ").plus(unionIndex)));
+  }
+
+  private void processEnum(Schema writerSchema, Schema readerSchema, JBlock body) {
+    List<String> readerSymbols = readerSchema.getEnumSymbols();
+    int[] ordinals = new int[writerSchema.getEnumSymbols().size()];
+    boolean ordinalsUnchanged = true;
+    for (int i = 0; i < ordinals.length; i++) {
+      String symbol = writerSchema.getEnumSymbols().get(i);
+      ordinals[i] = readerSymbols.indexOf(symbol);
+      if (ordinals[i] < 0) {
+        throw new FastSerdeGeneratorException(readerSchema.getName() + " enum label impossible to transcode: " + symbol);
+      }
+      ordinalsUnchanged &= ordinals[i] == i;
+    }
+
+    JExpression ordinal = JExpr.direct(DECODER).invoke("readEnum");
+    if (!ordinalsUnchanged) {
+      JArray ordinalsInit = JExpr.newArray(codeModel.INT);
+      for (int readerOrdinal : ordinals) {
+        ordinalsInit.add(JExpr.lit(readerOrdinal));
+      }
+      JVar ordinalsVar = generatedClass.field(JMod.PRIVATE | JMod.STATIC | JMod.FINAL, codeModel.INT.array(),
+          getUniqueName(readerSchema.getName() + "Ordinals"), ordinalsInit);
+      ordinal = ordinalsVar.component(ordinal);
+    }
+    body.invoke(JExpr.direct(ENCODER), "writeEnum").arg(ordinal);
+  }
+
+  /**
+   * @return index of the reader union branch the writer schema resolves to, preferring the same type over promotion,
+   *         or -1 if there's none
+   */
+  private static int getReaderUnionIndex(Schema writerSchema, Schema readerUnionSchema) {
+    List<Schema> readerTypes = readerUnionSchema.getTypes();
+    for (int i = 0; i < readerTypes.size(); i++) {
+      if (isSameType(writerSchema, readerTypes.get(i))) {
+        return i;
+      }
+    }
+    for (int i = 0; i < readerTypes.size(); i++) {
+      if (isPromotable(writerSchema.getType(), readerTypes.get(i).getType())) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  private static boolean isResolvable(Schema writerSchema, Schema readerSchema) {
+    if (Schema.Type.UNION.equals(writerSchema.getType())) {
+      return true;
+    }
+    if (Schema.Type.UNION.equals(readerSchema.getType())) {
+      return getReaderUnionIndex(writerSchema, readerSchema) >= 0;
+    }
+    return isSameType(writerSchema, readerSchema) || isPromotable(writerSchema.getType(), readerSchema.getType());
+  }
+
+  /**
+   * Avro allows unnamed types to appear only once in a union, but named types may appear multiple times and
+   * thus need to be disambiguated via their full-name (including aliases).
+   */
+  private static boolean isSameType(Schema writerSchema, Schema readerSchema) {
+    if (!readerSchema.getType().equals(writerSchema.getType())) {
+      return false;
+    }
+    if (!SchemaAssistant.isNamedType(readerSchema)) {
+      return true;
+    }
+    String writerFullName = AvroCompatibilityHelper.getSchemaFullName(writerSchema);
+    return AvroCompatibilityHelper.getSchemaFullName(readerSchema).equals(writerFullName)
+        || readerSchema.getAliases().contains(writerFullName);
+  }
+
+  private static boolean isPromotable(Schema.Type writerType, Schema.Type readerType) {
+    switch (writerType) {
+      case INT:
+        return readerType == Schema.Type.LONG || readerType == Schema.Type.FLOAT || readerType == Schema.Type.DOUBLE;
+      case LONG:
+        return readerType == Schema.Type.FLOAT || readerType == Schema.Type.DOUBLE;
+      case FLOAT:
+        return readerType == Schema.Type.DOUBLE;
+      case STRING:
+        return readerType == Schema.Type.BYTES;
+      case BYTES:
+        return readerType == Schema.Type.STRING;
+      default:
+        return false;
+    }
+  }
+
+  /**
+   * @return true if copying the value as raw bytes is cheaper than reading and writing it, which isn't the case
+   *         of single numbers
+   */
+  private static boolean isCopiedAsRawBytes(Schema schema) {
+    switch (schema.getType()) {
+      case NULL:
+      case BOOLEAN:
+      case INT:
+      case LONG:
+      case FLOAT:
+      case DOUBLE:
+      case ENUM:
+        return false;
+      default:
+        return true;
+    }
+  }
+}
@@ -0,0 +1,21 @@
+package com.linkedin.avro.fastserde;
+
+/**
+ * Validates generic data against a schema, like {@link org.apache.avro.generic.GenericData#validate} does: values
+ * have to be of the classes of their types, union values of one of the union types, enum symbols among the ones of
+ * their schema and fixed values of their size. Unlike vanilla avro it also tells which value is invalid. See
+ * {@link FastValidatorGenerator}.
+ */
+public interface FastValidator {
+
+  /**
+   * @param datum generic datum to validate
+   * @return null if the datum is valid, otherwise the path of the first invalid value, e.g.
+   *         {@code "field.subField[2]"} or {@code "map[key]"}, which is empty if the datum itself is invalid
+   */
+  String validate(Object datum);
+
+  default boolean isValid(Object datum) {
+    return validate(datum) == null;
+  }
+}
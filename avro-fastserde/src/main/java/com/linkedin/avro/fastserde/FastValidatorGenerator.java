@@ -0,0 +1,293 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JClassAlreadyExistsException;
+import com.sun.codemodel.JConditional;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import com.sun.codemodel.JForEach;
+import com.sun.codemodel.JMethod;
+import com.sun.codemodel.JMod;
+import com.sun.codemodel.JSwitch;
+import com.sun.codemodel.JVar;
+import java.io.File;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericContainer;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.commons.lang3.StringUtils;
+
+
+/**
+ * Generates {@link FastValidator} of generic data of a schema, accepting the same data as
+ * {@link org.apache.avro.generic.GenericData#validate(Schema, Object)} except for the logical types, whose values
+ * have to be converted if the conversions are enabled. Values are checked with code specific to their schemas, e.g.
+ * enum symbols by a switch rather than a lookup in the list of symbols, and lists of primitives aren't iterated at all
+ * if they are primitive lists, which can't hold values of other classes.
+ *
+ * The path of the invalid value is only built once it's found, so that validating valid data allocates nothing.
+ */
+public class FastValidatorGenerator extends FastSerdeBase {
+
+  private static final String DATA = "data";
+
+  private final Schema schema;
+  private final boolean logicalTypeConversions;
+
+  private final Map<String, JMethod> validateMethodMap = new HashMap<>();
+
+  public FastValidatorGenerator(Schema schema, boolean logicalTypeConversions, File destination,
+      ClassLoader classLoader, String compileClassPath) {
+    super("validation", true, CharSequence.class, destination, classLoader, compileClassPath, true,
+        logicalTypeConversions);
+    this.schema = schema;
+    this.logicalTypeConversions = logicalTypeConversions;
+  }
+
+  /**
+   * @param description see {@link FastSerializerGenerator#getDescription(boolean, boolean)}
+   */
+  public static String getClassName(Schema schema, String description) {
+    Long schemaId = Math.abs(Utils.getSchemaFingerprint(schema));
+    String typeName = SchemaAssistant.getTypeName(schema);
+    return typeName + SEP + description + "Validator" + SEP + schemaId;
+  }
+
+  public FastValidator generateValidator() {
+    generateValidatorClass();
+    try {
+      compileClass();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+    return loadValidator();
+  }
+
+  /**
+   * Generates source of the validator class, which still has to be compiled before {@link #loadValidator()}
+   * can be used. Allows to compile classes of multiple generators at once.
+   */
+  void generateValidatorClass() {
+    final String className =
+        getClassName(schema, FastSerializerGenerator.getDescription(true, logicalTypeConversions));
+    try {
+      generatedClass = codeModel._package(generatedPackageName)._class(className);
+      generatedClass._implements(FastValidator.class);
+
+      final JMethod validateMethod = generatedClass.method(JMod.PUBLIC, String.class, "validate");
+      validateMethod.annotate(SuppressWarnings.class).param("value", "rawtypes");
+      JVar datum = validateMethod.param(Object.class, "datum");
+      processValue(schema, datum, null, validateMethod.body());
+      validateMethod.body()._return(JExpr._null());
+    } catch (JClassAlreadyExistsException e) {
+      throw new FastSerdeGeneratorException("Class: " + className + " already exists");
+    } catch (FastSerdeGeneratorException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Instantiates the validator once its class is compiled.
+   */
+  FastValidator loadValidator() {
+    try {
+      final Class<FastValidator> clazz = loadGeneratedClass();
+      return clazz.newInstance();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(e);
+    }
+  }
+
+  /**
+   * Generates code checking the value, which returns the path of the invalid value from the enclosing method.
+   *
+   * @param valueVar variable holding the value, so that it's evaluated once
+   * @param pathExpr expression of the path of the value, null for the datum itself or the record validated by the
+   *                 enclosing method
+   */
+  private void processValue(Schema valueSchema, JVar valueVar, JExpression pathExpr, JBlock body) {
+    if (Schema.Type.UNION.equals(valueSchema.getType())) {
+      processUnion(valueSchema, valueVar, pathExpr, body);
+      return;
+    }
+    body._if(getTypeCondition(valueSchema, valueVar).not())._then()._return(invalidPath(pathExpr));
+    processContent(valueSchema, valueVar, pathExpr, body);
+  }
+
+  /**
+   * Generates code checking the values the value holds, once it's known to be of the class of its type.
+   */
+  private void processContent(Schema valueSchema, JVar valueVar, JExpression pathExpr, JBlock body) {
+    if (schemaAssistant.hasConversion(valueSchema)) {
+      return;
+    }
+    switch (valueSchema.getType()) {
+      case RECORD:
+        JVar invalid = body.decl(codeModel.ref(String.class), getUniqueName("invalid"),
+            JExpr.invoke(getValidateRecordMethod(valueSchema)).arg(valueVar));
+        body._if(invalid.ne(JExpr._null()))._then()
+            ._return(pathExpr == null ? invalid : pathExpr.plus(JExpr.lit(".")).plus(invalid));
+        break;
+      case ARRAY:
+        processArray(valueSchema, valueVar, pathExpr, body);
+        break;
+      case MAP:
+        processMap(valueSchema, valueVar, pathExpr, body);
+        break;
+      case ENUM:
+        processEnum(valueSchema, valueVar, pathExpr, body);
+        break;
+      default:
+        // fully checked by the type condition
+        break;
+    }
+  }
+
+  private JMethod getValidateRecordMethod(Schema recordSchema) {
+    String methodKey = AvroCompatibilityHelper.getSchemaFullName(recordSchema) + recordSchema.hashCode();
+    JMethod method = validateMethodMap.get(methodKey);
+    if (method != null) {
+      return method;
+    }
+    method = generatedClass.method(JMod.PUBLIC, String.class,
+        getUniqueName("validate" + StringUtils.capitalize(recordSchema.getName())));
+    method.annotate(SuppressWarnings.class).param("value", "rawtypes");
+    JVar data = method.param(Object.class, DATA);
+    // registered before processing the fields, which may refer to the record itself
+    validateMethodMap.put(methodKey, method);
+
+    JBlock body = method.body();
+    JVar record = body.decl(codeModel.ref(IndexedRecord.class), "record",
+        JExpr.cast(codeModel.ref(IndexedRecord.class), data));
+    for (Schema.Field field : recordSchema.getFields()) {
+      JVar fieldValue = body.decl(codeModel.ref(Object.class), getUniqueName(field.name()),
+          record.invoke("get").arg(JExpr.lit(field.pos())));
+      processValue(field.schema(), fieldValue, JExpr.lit(field.name()), body);
+    }
+    body._return(JExpr._null());
+    return method;
+  }
+
+  private void processArray(Schema arraySchema, JVar arrayVar, JExpression pathExpr, JBlock body) {
+    Schema elementSchema = arraySchema.getElementType();
+    JBlock iterationBody = body;
+    if (SchemaAssistant.isPrimitive(elementSchema) && !schemaAssistant.hasConversion(elementSchema)) {
+      // elements of primitive lists can be neither null nor of another class
+      JClass primitiveListClass = schemaAssistant.classFromSchema(arraySchema, true, false, true);
+      iterationBody = body._if(arrayVar._instanceof(primitiveListClass).not())._then();
+    }
+    JVar index = iterationBody.decl(codeModel.INT, getUniqueName("index"), JExpr.lit(0));
+    JForEach forEach = iterationBody.forEach(codeModel.ref(Object.class), getUniqueName("element"),
+        JExpr.cast(codeModel.ref(Collection.class), arrayVar));
+    processValue(elementSchema, forEach.var(), elementPath(pathExpr, index), forEach.body());
+    forEach.body().assignPlus(index, JExpr.lit(1));
+  }
+
+  private void processMap(Schema mapSchema, JVar mapVar, JExpression pathExpr, JBlock body) {
+    JClass entryClass = codeModel.ref(Map.Entry.class);
+    JForEach forEach = body.forEach(codeModel.ref(Object.class), getUniqueName("entry"),
+        JExpr.cast(codeModel.ref(Map.class), mapVar).invoke("entrySet"));
+    JBlock forBody = forEach.body();
+    JVar entry = forBody.decl(entryClass, getUniqueName("mapEntry"), JExpr.cast(entryClass, forEach.var()));
+    JVar mapValue = forBody.decl(codeModel.ref(Object.class), getUniqueName("mapValue"), entry.invoke("getValue"));
+    // keys aren't checked, the same as vanilla avro doesn't
+    processValue(mapSchema.getValueType(), mapValue, elementPath(pathExpr, entry.invoke("getKey")), forBody);
+  }
+
+  private void processEnum(Schema enumSchema, JVar enumVar, JExpression pathExpr, JBlock body) {
+    JSwitch symbolSwitch = body._switch(enumVar.invoke("toString"));
+    List<String> symbols = enumSchema.getEnumSymbols();
+    for (int i = 0; i < symbols.size(); i++) {
+      if (i < symbols.size() - 1) {
+        // falls through to the next symbol
+        symbolSwitch._case(JExpr.lit(symbols.get(i)));
+      } else {
+        symbolSwitch._case(JExpr.lit(symbols.get(i))).body()._break();
+      }
+    }
+    symbolSwitch._default().body()._return(invalidPath(pathExpr));
+  }
+
+  private void processUnion(Schema unionSchema, JVar unionVar, JExpression pathExpr, JBlock body) {
+    JConditional ifBlock = null;
+    for (Schema optionSchema : unionSchema.getTypes()) {
+      JExpression condition = getTypeCondition(optionSchema, unionVar);
+      // named types of the same class are told apart by their schemas, see FastSerializerGenerator#processUnion
+      if (SchemaAssistant.isNamedTypeWithSchema(optionSchema) && !schemaAssistant.hasConversion(optionSchema)) {
+        condition = condition.cand(JExpr.lit(AvroCompatibilityHelper.getSchemaFullName(optionSchema)).invoke("equals")
+            .arg(JExpr.cast(codeModel.ref(GenericContainer.class), unionVar).invoke("getSchema").invoke("getFullName")));
+      }
+      ifBlock = ifBlock != null ? ifBlock._elseif(condition) : body._if(condition);
+      processContent(optionSchema, unionVar, pathExpr, ifBlock._then());
+    }
+    if (ifBlock != null) {
+      ifBlock._else()._return(invalidPath(pathExpr));
+    } else {
+      body._return(invalidPath(pathExpr));
+    }
+  }
+
+  /**
+   * @return condition of the value being of the class of its type, e.g. {@link CharSequence} for strings
+   */
+  private JExpression getTypeCondition(Schema valueSchema, JVar valueVar) {
+    LogicalTypeConversions.Conversion conversion = schemaAssistant.getConversion(valueSchema);
+    if (conversion != null) {
+      return valueVar._instanceof(codeModel.ref(conversion.getConvertedClass()));
+    }
+    switch (valueSchema.getType()) {
+      case NULL:
+        return valueVar.eq(JExpr._null());
+      case BOOLEAN:
+        return valueVar._instanceof(codeModel.ref(Boolean.class));
+      case INT:
+        return valueVar._instanceof(codeModel.ref(Integer.class));
+      case LONG:
+        return valueVar._instanceof(codeModel.ref(Long.class));
+      case FLOAT:
+        return valueVar._instanceof(codeModel.ref(Float.class));
+      case DOUBLE:
+        return valueVar._instanceof(codeModel.ref(Double.class));
+      case STRING:
+        return valueVar._instanceof(codeModel.ref(CharSequence.class));
+      case BYTES:
+        return valueVar._instanceof(codeModel.ref(ByteBuffer.class));
+      case ARRAY:
+        return valueVar._instanceof(codeModel.ref(Collection.class));
+      case MAP:
+        return valueVar._instanceof(codeModel.ref(Map.class));
+      case RECORD:
+        return valueVar._instanceof(codeModel.ref(IndexedRecord.class));
+      case ENUM:
+        return valueVar._instanceof(schemaAssistant.classFromSchema(valueSchema, true, true));
+      case FIXED:
+        JClass fixedClass = codeModel.ref(GenericFixed.class);
+        return valueVar._instanceof(fixedClass)
+            .cand(JExpr.cast(fixedClass, valueVar).invoke("bytes").ref("length")
+                .eq(JExpr.lit(valueSchema.getFixedSize())));
+      default:
+        throw new FastSerdeGeneratorException("Unsupported schema type: " + valueSchema.getType());
+    }
+  }
+
+  private static JExpression invalidPath(JExpression pathExpr) {
+    return pathExpr != null ? pathExpr : JExpr.lit("");
+  }
+
+  /**
+   * @return path of an array element or a map value, e.g. {@code "field[2]"}
+   */
+  private static JExpression elementPath(JExpression pathExpr, JExpression keyExpr) {
+    JExpression prefix = pathExpr != null ? pathExpr.plus(JExpr.lit("[")) : JExpr.lit("[");
+    return prefix.plus(keyExpr).plus(JExpr.lit("]"));
+  }
+}
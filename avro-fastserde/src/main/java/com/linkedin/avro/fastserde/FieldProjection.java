@@ -0,0 +1,217 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.linkedin.avroutil1.compatibility.SchemaNormalization;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.TreeSet;
+import org.apache.avro.Schema;
+
+
+/**
+ * Set of field paths to deserialize out of a record, everything else gets skipped. A path is a dot separated list of
+ * field names, e.g. "header.timestamp", where all but the last field have to be records, or unions, arrays or maps
+ * of records. The last field is deserialized as a whole.
+ *
+ * Projecting a reader schema prunes all the records to the projected fields, so the generated deserializer reads just
+ * those and skips the others, and the deserialized records have the projected schema. Since a named record can only
+ * have a single definition within a schema, records reachable via multiple paths get the union of their projected
+ * fields, and records deserialized as a whole somewhere are kept whole everywhere.
+ */
+public final class FieldProjection {
+  private final SortedSet<String> fieldPaths;
+  private final long fingerprint;
+
+  private FieldProjection(SortedSet<String> fieldPaths) {
+    this.fieldPaths = Collections.unmodifiableSortedSet(fieldPaths);
+    this.fingerprint =
+        SchemaNormalization.fingerprint64(String.join(",", fieldPaths).getBytes(StandardCharsets.UTF_8));
+  }
+
+  public static FieldProjection of(String... fieldPaths) {
+    return of(Arrays.asList(fieldPaths));
+  }
+
+  public static FieldProjection of(Collection<String> fieldPaths) {
+    if (fieldPaths.isEmpty()) {
+      throw new IllegalArgumentException("At least one field path has to be projected");
+    }
+    for (String fieldPath : fieldPaths) {
+      if (fieldPath == null || fieldPath.isEmpty() || fieldPath.startsWith(".") || fieldPath.endsWith(".")
+          || fieldPath.contains("..")) {
+        throw new IllegalArgumentException("Invalid field path: " + fieldPath);
+      }
+    }
+    return new FieldProjection(new TreeSet<>(fieldPaths));
+  }
+
+  public Set<String> getFieldPaths() {
+    return fieldPaths;
+  }
+
+  /**
+   * @return fingerprint of the projected field paths, which identifies the projection along with the reader schema
+   */
+  public long getFingerprint() {
+    return fingerprint;
+  }
+
+  /**
+   * Prunes the given record schema to the projected fields.
+   *
+   * @param readerSchema record schema to project
+   * @return new schema containing only the projected fields
+   * @throws IllegalArgumentException if the schema is not a record or a projected field doesn't exist
+   */
+  public Schema project(Schema readerSchema) {
+    if (readerSchema.getType() != Schema.Type.RECORD) {
+      throw new IllegalArgumentException("Only record schemas can be projected, got: " + readerSchema.getType());
+    }
+    Map<String, Set<String>> projectedFields = new HashMap<>();
+    Set<String> wholeRecords = new HashSet<>();
+    for (String fieldPath : fieldPaths) {
+      collectProjectedFields(readerSchema, fieldPath, fieldPath.split("\\."), 0, projectedFields, wholeRecords);
+    }
+    return projectSchema(readerSchema, projectedFields, wholeRecords, new HashMap<>());
+  }
+
+  private static void collectProjectedFields(Schema recordSchema, String fieldPath, String[] fieldNames, int index,
+      Map<String, Set<String>> projectedFields, Set<String> wholeRecords) {
+    Schema.Field field = recordSchema.getField(fieldNames[index]);
+    if (field == null) {
+      throw new IllegalArgumentException(
+          "Field " + fieldPath + " doesn't exist in " + AvroCompatibilityHelper.getSchemaFullName(recordSchema));
+    }
+    projectedFields.computeIfAbsent(recordSchema.getFullName(), k -> new HashSet<>()).add(field.name());
+    if (index == fieldNames.length - 1) {
+      collectNestedRecords(field.schema(), true, wholeRecords, new ArrayList<>());
+      return;
+    }
+    List<Schema> nestedRecords = new ArrayList<>();
+    collectNestedRecords(field.schema(), false, wholeRecords, nestedRecords);
+    boolean found = false;
+    for (Schema nestedRecord : nestedRecords) {
+      if (nestedRecord.getField(fieldNames[index + 1]) != null) {
+        collectProjectedFields(nestedRecord, fieldPath, fieldNames, index + 1, projectedFields, wholeRecords);
+        found = true;
+      }
+    }
+    if (!found) {
+      throw new IllegalArgumentException("Field " + fieldPath + " doesn't exist in " + field.name());
+    }
+  }
+
+  /**
+   * Collects records nested in the given schema, either only the closest ones or, if the schema is going to be
+   * deserialized as a whole, all of them into the whole records.
+   */
+  private static void collectNestedRecords(Schema schema, boolean whole, Set<String> wholeRecords,
+      List<Schema> nestedRecords) {
+    switch (schema.getType()) {
+      case RECORD:
+        if (!whole) {
+          nestedRecords.add(schema);
+        } else if (wholeRecords.add(schema.getFullName())) {
+          for (Schema.Field field : schema.getFields()) {
+            collectNestedRecords(field.schema(), true, wholeRecords, nestedRecords);
+          }
+        }
+        break;
+      case UNION:
+        for (Schema type : schema.getTypes()) {
+          collectNestedRecords(type, whole, wholeRecords, nestedRecords);
+        }
+        break;
+      case ARRAY:
+        collectNestedRecords(schema.getElementType(), whole, wholeRecords, nestedRecords);
+        break;
+      case MAP:
+        collectNestedRecords(schema.getValueType(), whole, wholeRecords, nestedRecords);
+        break;
+      default:
+        break;
+    }
+  }
+
+  private static Schema projectSchema(Schema schema, Map<String, Set<String>> projectedFields,
+      Set<String> wholeRecords, Map<String, Schema> projectedRecords) {
+    switch (schema.getType()) {
+      case RECORD:
+        if (wholeRecords.contains(schema.getFullName())) {
+          return schema;
+        }
+        Schema projectedRecord = projectedRecords.get(schema.getFullName());
+        if (projectedRecord != null) {
+          return projectedRecord;
+        }
+        projectedRecord = Schema.createRecord(schema.getName(), schema.getDoc(), schema.getNamespace(), schema.isError());
+        for (String alias : schema.getAliases()) {
+          projectedRecord.addAlias(alias);
+        }
+        // registered before the fields get projected, which may refer back to it
+        projectedRecords.put(schema.getFullName(), projectedRecord);
+        Set<String> fieldNames = projectedFields.getOrDefault(schema.getFullName(), Collections.emptySet());
+        List<Schema.Field> fields = new ArrayList<>();
+        for (Schema.Field field : schema.getFields()) {
+          if (fieldNames.contains(field.name())) {
+            Schema.Field projectedField = AvroCompatibilityHelper.cloneSchemaField(field)
+                .setSchema(projectSchema(field.schema(), projectedFields, wholeRecords, projectedRecords))
+                .build();
+            for (String alias : AvroCompatibilityHelper.getFieldAliases(field)) {
+              projectedField.addAlias(alias);
+            }
+            fields.add(projectedField);
+          }
+        }
+        projectedRecord.setFields(fields);
+        return projectedRecord;
+      case UNION:
+        List<Schema> types = new ArrayList<>();
+        boolean projected = false;
+        for (Schema type : schema.getTypes()) {
+          Schema projectedType = projectSchema(type, projectedFields, wholeRecords, projectedRecords);
+          projected |= projectedType != type;
+          types.add(projectedType);
+        }
+        return projected ? Schema.createUnion(types) : schema;
+      case ARRAY:
+        Schema elementType = projectSchema(schema.getElementType(), projectedFields, wholeRecords, projectedRecords);
+        return elementType != schema.getElementType() ? Schema.createArray(elementType) : schema;
+      case MAP:
+        Schema valueType = projectSchema(schema.getValueType(), projectedFields, wholeRecords, projectedRecords);
+        return valueType != schema.getValueType() ? Schema.createMap(valueType) : schema;
+      default:
+        return schema;
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o == null || getClass() != o.getClass()) {
+      return false;
+    }
+    return fieldPaths.equals(((FieldProjection) o).fieldPaths);
+  }
+
+  @Override
+  public int hashCode() {
+    return fieldPaths.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return "FieldProjection" + fieldPaths;
+  }
+}
@@ -0,0 +1,193 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import javax.tools.JavaCompiler;
+import javax.tools.StandardJavaFileManager;
+import javax.tools.ToolProvider;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * Compiles classes generated by {@link FastSerdeBase} instances. Classes of multiple generators can be compiled
+ * together with a single compiler invocation, which saves the compiler warmup repeated otherwise for every class.
+ *
+ * Any {@link JavaCompiler} can be used, by default the system one is used if available (i.e. running on JDK),
+ * otherwise the Eclipse compiler is used if it can be found on the classpath, which allows to generate classes on
+ * JRE-only runtimes. The Eclipse compiler only compiles source files though, so it can't be used for in-memory
+ * compilation.
+ */
+final class GeneratedClassesCompiler {
+  private static final Logger LOGGER = LoggerFactory.getLogger(GeneratedClassesCompiler.class);
+
+  /*
+   * Disable sharedNameTable in runtime complication
+   *
+   * The SharedNameTable was introduced to speed up Java complication by using soft references
+   * to avoid re-allocations. However, in fast-avro runtime compilation, sharedNameTable brings
+   * severe Memory and GC issue. When fast-avro needed to process a large number of different
+   * schemas, SharedNameTable objects will consume huge memory and cannot be freed.
+   *
+   * SharedNameTable should be disabled for runtime compilation by "-XDuseUnsharedTable" config.
+   * The memory issue by SharedNameTable does not exist in Java 11 (tested JDK-11_0_5-zulu
+   * and JDK-11_0_5-zing_19_12_100_0_1), thus the change can be reverted in java 11.
+   * Keeping this config also does not bring any downgrade.
+   *
+   */
+  private static final String DISABLE_SHARED_NAME_TABLE = "-XDuseUnsharedTable";
+  private static final String JAVAC_CLASS_NAME = "com.sun.tools.javac.api.JavacTool";
+  static final String ECLIPSE_COMPILER_CLASS_NAME = "org.eclipse.jdt.internal.compiler.tool.EclipseCompiler";
+
+  private GeneratedClassesCompiler() {
+  }
+
+  /**
+   * @return system java compiler if available, Eclipse compiler if it is on the classpath or null otherwise
+   */
+  static JavaCompiler getDefaultJavaCompiler() {
+    JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+    if (compiler == null) {
+      try {
+        compiler = (JavaCompiler) Class.forName(ECLIPSE_COMPILER_CLASS_NAME).newInstance();
+        LOGGER.info("System java compiler is not available, using: {}", ECLIPSE_COMPILER_CLASS_NAME);
+      } catch (ReflectiveOperationException | LinkageError e) {
+        LOGGER.warn("Neither system java compiler nor {} is available", ECLIPSE_COMPILER_CLASS_NAME);
+      }
+    }
+    return compiler;
+  }
+
+  /**
+   * Compiles classes of the given generators with a single compiler invocation. All the generators are expected
+   * to share destination, class loader and compile classpath. Compiled classes are available through the class
+   * loader once this method returns.
+   *
+   * @param generators generators with already generated classes
+   * @param compiler compiler to use, the default one is used if null
+   * @throws IOException on io issues
+   * @throws FastSerdeGeneratorException if compilation fails
+   */
+  static void compile(List<? extends FastSerdeBase> generators, JavaCompiler compiler) throws IOException {
+    if (generators.isEmpty()) {
+      return;
+    }
+    if (compiler == null) {
+      compiler = getDefaultJavaCompiler();
+      if (compiler == null) {
+        throw new FastSerdeGeneratorException("No java compiler available to compile: " + getClassNames(generators));
+      }
+    }
+    try {
+      if (generators.get(0).classLoader instanceof InMemoryClassLoader) {
+        compileInMemory(generators, compiler);
+      } else {
+        compileFiles(generators, compiler);
+      }
+    } catch (ClassNotFoundException e) {
+      throw new FastSerdeGeneratorException("Unable to infer compile classpath for: " + getClassNames(generators), e);
+    }
+  }
+
+  private static void compileFiles(List<? extends FastSerdeBase> generators, JavaCompiler compiler)
+      throws IOException, ClassNotFoundException {
+    String compileClassPath = generators.get(0).compileClassPath;
+    List<String> filePaths = new ArrayList<>(generators.size());
+    for (FastSerdeBase generator : generators) {
+      generator.codeModel.build(generator.destination);
+      String filePath = generator.destination.getAbsolutePath() + generator.generatedSourcesPath
+          + generator.generatedClass.name() + ".java";
+      compileClassPath = Utils.inferCompileDependencies(compileClassPath, filePath,
+          generator.schemaAssistant.getUsedFullyQualifiedClassNameSet());
+      filePaths.add(filePath);
+    }
+
+    boolean compileResult;
+    // JavaCompiler#run isn't used since the Eclipse compiler terminates the JVM once done
+    try (StandardJavaFileManager fileManager = compiler.getStandardFileManager(null, null, null)) {
+      LOGGER.info("Starting compilation for the generated source files: {} ", filePaths);
+      LOGGER.debug("The inferred compile class path for files: {} : {}", filePaths, compileClassPath);
+      compileResult = compiler.getTask(null, fileManager, null, getOptions(compiler, compileClassPath), null,
+          fileManager.getJavaFileObjectsFromStrings(filePaths)).call();
+    } catch (Exception e) {
+      throw new FastSerdeGeneratorException(
+          "Unable to compile:" + getClassNames(generators) + " from source files: " + filePaths, e);
+    }
+
+    if (!compileResult) {
+      throw new FastSerdeGeneratorException(
+          "Unable to compile:" + getClassNames(generators) + " from source files: " + filePaths);
+    } else {
+      LOGGER.info("Successfully compiled classes {} defined at source files: {}", getClassNames(generators), filePaths);
+    }
+  }
+
+  /**
+   * Compiles generated classes without writing neither their sources nor bytecode to the filesystem. Compiled
+   * classes are handed over to the {@link InMemoryClassLoader} they are loaded by.
+   */
+  private static void compileInMemory(List<? extends FastSerdeBase> generators, JavaCompiler compiler)
+      throws IOException, ClassNotFoundException {
+    if (ECLIPSE_COMPILER_CLASS_NAME.equals(compiler.getClass().getName())) {
+      // it insists on compilation units being existing files
+      throw new FastSerdeGeneratorException("In-memory compilation is not supported by: " + ECLIPSE_COMPILER_CLASS_NAME);
+    }
+    String compileClassPath = generators.get(0).compileClassPath;
+    InMemoryCodeWriter codeWriter = new InMemoryCodeWriter();
+    for (FastSerdeBase generator : generators) {
+      generator.codeModel.build(codeWriter);
+    }
+    Map<String, String> sources = codeWriter.getSources();
+    for (FastSerdeBase generator : generators) {
+      compileClassPath = Utils.inferCompileDependencies(compileClassPath,
+          new StringReader(sources.get(generator.getGeneratedClassName())),
+          generator.schemaAssistant.getUsedFullyQualifiedClassNameSet());
+    }
+
+    List<String> classNames = getClassNames(generators);
+    boolean compileResult;
+    try (InMemoryJavaFileManager fileManager = new InMemoryJavaFileManager(
+        compiler.getStandardFileManager(null, null, null))) {
+      LOGGER.info("Starting in-memory compilation for the generated classes: {} ", classNames);
+      LOGGER.debug("The inferred compile class path for classes: {} : {}", classNames, compileClassPath);
+      try {
+        compileResult = compiler.getTask(null, fileManager, null, getOptions(compiler, compileClassPath), null,
+            InMemoryJavaFileManager.toCompilationUnits(sources)).call();
+      } catch (Exception e) {
+        throw new FastSerdeGeneratorException("Unable to compile:" + classNames + " in memory", e);
+      }
+
+      if (!compileResult) {
+        throw new FastSerdeGeneratorException("Unable to compile:" + classNames + " in memory");
+      }
+      LOGGER.info("Successfully compiled classes {} in memory", classNames);
+      ((InMemoryClassLoader) generators.get(0).classLoader).addClasses(fileManager.getClassBytes());
+    }
+  }
+
+  private static List<String> getOptions(JavaCompiler compiler, String compileClassPath) {
+    List<String> options = new ArrayList<>();
+    options.add("-cp");
+    options.add(compileClassPath);
+    if (JAVAC_CLASS_NAME.equals(compiler.getClass().getName())) {
+      options.add(DISABLE_SHARED_NAME_TABLE);
+    } else if (ECLIPSE_COMPILER_CLASS_NAME.equals(compiler.getClass().getName())) {
+      // unlike javac, the Eclipse compiler doesn't default to the source level of the runtime
+      options.add("-source");
+      options.add("1.8");
+      options.add("-target");
+      options.add("1.8");
+      // generated code relies on raw types and unchecked casts, warnings are of no use
+      options.add("-nowarn");
+    }
+    return options;
+  }
+
+  private static List<String> getClassNames(List<? extends FastSerdeBase> generators) {
+    return generators.stream().map(FastSerdeBase::getGeneratedClassName).collect(Collectors.toList());
+  }
+}
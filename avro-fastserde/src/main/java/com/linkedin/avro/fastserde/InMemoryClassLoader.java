@@ -0,0 +1,39 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+
+/**
+ * Class loader defining generated classes straight from bytecode compiled in memory.
+ */
+public final class InMemoryClassLoader extends ClassLoader {
+  static {
+    ClassLoader.registerAsParallelCapable();
+  }
+
+  private final Map<String, byte[]> pendingClasses = new ConcurrentHashMap<>();
+
+  public InMemoryClassLoader(ClassLoader parent) {
+    super(parent);
+  }
+
+  /**
+   * Registers bytecode of classes, which are going to be defined once loaded.
+   *
+   * @param classBytes bytecode keyed by binary class name
+   */
+  void addClasses(Map<String, byte[]> classBytes) {
+    pendingClasses.putAll(classBytes);
+  }
+
+  @Override
+  protected Class<?> findClass(String name) throws ClassNotFoundException {
+    // bytecode is no longer needed once class is defined
+    byte[] bytes = pendingClasses.remove(name);
+    if (bytes == null) {
+      throw new ClassNotFoundException(name);
+    }
+    return defineClass(name, bytes, 0, bytes.length);
+  }
+}
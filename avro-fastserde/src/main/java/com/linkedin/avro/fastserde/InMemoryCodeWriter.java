@@ -0,0 +1,50 @@
+package com.linkedin.avro.fastserde;
+
+import com.sun.codemodel.CodeWriter;
+import com.sun.codemodel.JPackage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * {@link CodeWriter} keeping sources produced by {@link com.sun.codemodel.JCodeModel} in memory, keyed by fully
+ * qualified class name.
+ */
+class InMemoryCodeWriter extends CodeWriter {
+  private static final String JAVA_FILE_SUFFIX = ".java";
+
+  private final Map<String, ByteArrayOutputStream> outputs = new HashMap<>();
+
+  InMemoryCodeWriter() {
+    this.encoding = StandardCharsets.UTF_8.name();
+  }
+
+  @Override
+  public OutputStream openBinary(JPackage pkg, String fileName) throws IOException {
+    if (!fileName.endsWith(JAVA_FILE_SUFFIX)) {
+      throw new FastSerdeGeneratorException("Unexpected non-source file generated: " + fileName);
+    }
+    String simpleClassName = fileName.substring(0, fileName.length() - JAVA_FILE_SUFFIX.length());
+    String className = pkg.isUnnamed() ? simpleClassName : pkg.name() + "." + simpleClassName;
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    outputs.put(className, output);
+    return output;
+  }
+
+  @Override
+  public void close() throws IOException {
+  }
+
+  /**
+   * @return generated sources keyed by fully qualified class name
+   */
+  Map<String, String> getSources() {
+    Map<String, String> sources = new HashMap<>(outputs.size());
+    outputs.forEach((className, output) -> sources.put(className, new String(output.toByteArray(), StandardCharsets.UTF_8)));
+    return sources;
+  }
+}
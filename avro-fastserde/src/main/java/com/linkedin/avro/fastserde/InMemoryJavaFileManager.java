@@ -0,0 +1,83 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.StandardJavaFileManager;
+
+
+/**
+ * {@link JavaFileManager} compiling sources held in memory and keeping produced bytecode in memory as well, so that
+ * the compilation doesn't touch the filesystem apart from reading the compile classpath.
+ */
+class InMemoryJavaFileManager extends ForwardingJavaFileManager<StandardJavaFileManager> {
+  private final Map<String, ByteArrayOutputStream> classOutputs = new ConcurrentHashMap<>();
+
+  InMemoryJavaFileManager(StandardJavaFileManager fileManager) {
+    super(fileManager);
+  }
+
+  /**
+   * @param sources sources keyed by fully qualified class name
+   * @return compilation units to be passed to the compiler
+   */
+  static List<JavaFileObject> toCompilationUnits(Map<String, String> sources) {
+    List<JavaFileObject> compilationUnits = new ArrayList<>(sources.size());
+    sources.forEach((className, source) -> compilationUnits.add(new SourceFileObject(className, source)));
+    return compilationUnits;
+  }
+
+  @Override
+  public JavaFileObject getJavaFileForOutput(Location location, String className, JavaFileObject.Kind kind,
+      FileObject sibling) throws IOException {
+    if (kind != JavaFileObject.Kind.CLASS) {
+      return super.getJavaFileForOutput(location, className, kind, sibling);
+    }
+    return new SimpleJavaFileObject(createUri(className, kind), kind) {
+      @Override
+      public OutputStream openOutputStream() {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        classOutputs.put(className, output);
+        return output;
+      }
+    };
+  }
+
+  /**
+   * @return bytecode of all the compiled classes, including nested ones, keyed by binary class name
+   */
+  Map<String, byte[]> getClassBytes() {
+    Map<String, byte[]> classBytes = new ConcurrentHashMap<>(classOutputs.size());
+    classOutputs.forEach((className, output) -> classBytes.put(className, output.toByteArray()));
+    return Collections.unmodifiableMap(classBytes);
+  }
+
+  private static URI createUri(String className, JavaFileObject.Kind kind) {
+    return URI.create("mem:///" + className.replace('.', '/') + kind.extension);
+  }
+
+  private static final class SourceFileObject extends SimpleJavaFileObject {
+    private final String source;
+
+    SourceFileObject(String className, String source) {
+      super(createUri(className, Kind.SOURCE), Kind.SOURCE);
+      this.source = source;
+    }
+
+    @Override
+    public CharSequence getCharContent(boolean ignoreEncodingErrors) {
+      return source;
+    }
+  }
+}
@@ -0,0 +1,113 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ListIterator;
+import java.util.Map;
+import org.apache.avro.generic.IndexedRecord;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Support of input view deserializers, see {@link FastSerdeCache#getFastInputViewGenericDeserializer}, which avoid
+ * copying strings and bytes when reading from a {@link ByteArrayDecoder}: strings are read as {@link Utf8View}s and
+ * bytes as {@link ByteBuffer}s sharing the input array. Such data is only valid while the input array isn't
+ * modified, {@link #materialize(Object)} detaches it.
+ */
+public final class InputViews {
+
+  private InputViews() {
+  }
+
+  /**
+   * Used by the generated code.
+   *
+   * @return {@link Utf8View} when reading from a {@link ByteArrayDecoder}, a regular {@link org.apache.avro.util.Utf8}
+   *         otherwise
+   */
+  public static CharSequence readString(Decoder in) throws IOException {
+    if (in instanceof ByteArrayDecoder) {
+      return ((ByteArrayDecoder) in).readStringView();
+    }
+    return in.readString(null);
+  }
+
+  /**
+   * Used by the generated code.
+   *
+   * @return {@link ByteBuffer} sharing the input array when reading from a {@link ByteArrayDecoder}, a copy
+   *         otherwise
+   */
+  public static ByteBuffer readBytes(Decoder in) throws IOException {
+    if (in instanceof ByteArrayDecoder) {
+      return ((ByteArrayDecoder) in).readBytesView();
+    }
+    return in.readBytes(null);
+  }
+
+  /**
+   * Detaches the data read by an input view deserializer from its input. Records, arrays and maps are modified in
+   * place, their strings and bytes get replaced by copies.
+   *
+   * @param datum data read by an input view deserializer
+   * @return datum not depending on the input anymore, the same instance unless it's a string or bytes
+   */
+  @SuppressWarnings("unchecked")
+  public static Object materialize(Object datum) {
+    if (datum instanceof Utf8View) {
+      return ((Utf8View) datum).materialize();
+    } else if (datum instanceof ByteBuffer) {
+      return materializeBytes((ByteBuffer) datum);
+    } else if (datum instanceof IndexedRecord) {
+      IndexedRecord record = (IndexedRecord) datum;
+      int fieldCount = record.getSchema().getFields().size();
+      for (int i = 0; i < fieldCount; i++) {
+        Object value = record.get(i);
+        Object materialized = materialize(value);
+        if (materialized != value) {
+          record.put(i, materialized);
+        }
+      }
+    } else if (datum instanceof List) {
+      ListIterator<Object> iterator = ((List<Object>) datum).listIterator();
+      while (iterator.hasNext()) {
+        Object element = iterator.next();
+        Object materialized = materialize(element);
+        if (materialized != element) {
+          iterator.set(materialized);
+        }
+      }
+    } else if (datum instanceof Map) {
+      Map<Object, Object> map = (Map<Object, Object>) datum;
+      List<Object> viewKeys = new ArrayList<>();
+      for (Map.Entry<Object, Object> entry : map.entrySet()) {
+        Object materialized = materialize(entry.getValue());
+        if (materialized != entry.getValue()) {
+          entry.setValue(materialized);
+        }
+        if (entry.getKey() instanceof Utf8View) {
+          viewKeys.add(entry.getKey());
+        }
+      }
+      for (Object key : viewKeys) {
+        map.put(((Utf8View) key).materialize(), map.remove(key));
+      }
+    }
+    return datum;
+  }
+
+  /**
+   * Copies the buffer if it's a view, i.e. only covers a part of its backing array.
+   */
+  private static ByteBuffer materializeBytes(ByteBuffer bytes) {
+    if (!bytes.hasArray() || (bytes.arrayOffset() == 0 && bytes.capacity() == bytes.array().length)) {
+      return bytes;
+    }
+    ByteBuffer copy = ByteBuffer.allocate(bytes.remaining());
+    copy.put(bytes.duplicate());
+    copy.flip();
+    return copy;
+  }
+}
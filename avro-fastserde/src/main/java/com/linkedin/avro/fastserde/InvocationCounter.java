@@ -0,0 +1,38 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.DoubleConsumer;
+
+
+/**
+ * Counts invocations of vanilla avro based serializer/deserializer and notifies once the given threshold is
+ * reached, passing the observed invocation rate. Used by {@link FastSerdeCache} to compile only the hot ones.
+ * Invocations past the threshold aren't counted, so that the hot fallback path doesn't contend on the counter.
+ */
+final class InvocationCounter {
+  private final long threshold;
+  private final DoubleConsumer thresholdListener;
+  private final long createdAtNanos = System.nanoTime();
+  private final AtomicLong invocations = new AtomicLong();
+
+  /**
+   * @param threshold number of invocations to notify at
+   * @param thresholdListener listener receiving invocations per second
+   */
+  InvocationCounter(long threshold, DoubleConsumer thresholdListener) {
+    this.threshold = threshold;
+    this.thresholdListener = thresholdListener;
+  }
+
+  void increment() {
+    if (invocations.get() < threshold && invocations.incrementAndGet() == threshold) {
+      long elapsedNanos = Math.max(System.nanoTime() - createdAtNanos, 1);
+      thresholdListener.accept(threshold * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos);
+    }
+  }
+
+  long getInvocations() {
+    return invocations.get();
+  }
+}
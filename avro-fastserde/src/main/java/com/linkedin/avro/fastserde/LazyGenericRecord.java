@@ -0,0 +1,159 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.avro.AvroRuntimeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.generic.IndexedRecord;
+
+
+/**
+ * {@link GenericRecord} produced by lazy deserializers, see {@link FastSerdeCache#getFastLazyGenericDeserializer}.
+ * Deserialization only finds out where each field starts within the input array, using the generated skip code,
+ * and every field is decoded on its first access. The input array is retained, so it must not be modified while
+ * the record is in use, and its part holding the record is available via {@link #getOriginalBytes()}, e.g. to
+ * forward the record without serializing it again.
+ *
+ * Fields set by {@link #put(int, Object)} are not reflected by the original bytes, see {@link #isModified()}.
+ * Not thread-safe, same as {@link GenericData.Record}.
+ */
+public class LazyGenericRecord implements GenericRecord {
+  private static final Object NOT_DECODED = new Object();
+
+  private final Schema schema;
+  private final FieldDecoder fieldDecoder;
+  private final Object[] values;
+  private byte[] buffer;
+  private int[] fieldOffsets;
+  private ByteArrayDecoder decoder;
+  private boolean modified;
+
+  /**
+   * Decodes fields of records of a specific writer and reader schema, implemented by generated deserializers.
+   */
+  public interface FieldDecoder {
+    /**
+     * @param readerFieldPos position of the field within the reader schema
+     * @param decoder decoder over the record bytes
+     * @param fieldOffsets positions of the writer schema fields within the record bytes followed by the position
+     *                     right after the record
+     * @return decoded value of the field
+     */
+    Object decodeField(int readerFieldPos, ByteArrayDecoder decoder, int[] fieldOffsets) throws IOException;
+  }
+
+  public LazyGenericRecord(Schema schema, FieldDecoder fieldDecoder, byte[] buffer, int[] fieldOffsets) {
+    this.schema = schema;
+    this.fieldDecoder = fieldDecoder;
+    this.values = new Object[schema.getFields().size()];
+    reset(buffer, fieldOffsets);
+  }
+
+  /**
+   * Points the record to another serialized record of the same schemas, used by deserializers reusing records.
+   */
+  public void reset(byte[] buffer, int[] fieldOffsets) {
+    this.buffer = buffer;
+    this.fieldOffsets = fieldOffsets;
+    this.modified = false;
+    Arrays.fill(values, NOT_DECODED);
+  }
+
+  /**
+   * Resets the given record if it was created by the same field decoder, otherwise creates a new one.
+   */
+  public static LazyGenericRecord newOrReused(Object reuse, Schema schema, FieldDecoder fieldDecoder, byte[] buffer,
+      int[] fieldOffsets) {
+    if (reuse instanceof LazyGenericRecord && ((LazyGenericRecord) reuse).fieldDecoder == fieldDecoder) {
+      LazyGenericRecord record = (LazyGenericRecord) reuse;
+      record.reset(buffer, fieldOffsets);
+      return record;
+    }
+    return new LazyGenericRecord(schema, fieldDecoder, buffer, fieldOffsets);
+  }
+
+  @Override
+  public Schema getSchema() {
+    return schema;
+  }
+
+  @Override
+  public void put(String key, Object v) {
+    Schema.Field field = schema.getField(key);
+    if (field == null) {
+      throw new AvroRuntimeException("Not a valid schema field: " + key);
+    }
+    put(field.pos(), v);
+  }
+
+  @Override
+  public void put(int i, Object v) {
+    values[i] = v;
+    modified = true;
+  }
+
+  @Override
+  public Object get(String key) {
+    Schema.Field field = schema.getField(key);
+    return field == null ? null : get(field.pos());
+  }
+
+  @Override
+  public Object get(int i) {
+    Object value = values[i];
+    if (value == NOT_DECODED) {
+      if (decoder == null) {
+        decoder = new ByteArrayDecoder(buffer, fieldOffsets[0], fieldOffsets[fieldOffsets.length - 1] - fieldOffsets[0]);
+      } else {
+        decoder.setBuffer(buffer, fieldOffsets[0], fieldOffsets[fieldOffsets.length - 1] - fieldOffsets[0]);
+      }
+      try {
+        value = fieldDecoder.decodeField(i, decoder, fieldOffsets);
+      } catch (IOException e) {
+        throw new AvroRuntimeException("Failed to decode field " + schema.getFields().get(i).name(), e);
+      }
+      values[i] = value;
+    }
+    return value;
+  }
+
+  /**
+   * @return read-only buffer holding the serialized record as it was deserialized, which is in the writer schema
+   */
+  public ByteBuffer getOriginalBytes() {
+    int start = fieldOffsets[0];
+    return ByteBuffer.wrap(buffer, start, fieldOffsets[fieldOffsets.length - 1] - start).slice().asReadOnlyBuffer();
+  }
+
+  /**
+   * @return true if any field was set after deserialization, in which case the original bytes don't match the record
+   */
+  public boolean isModified() {
+    return modified;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o == this) {
+      return true;
+    }
+    if (!(o instanceof IndexedRecord)) {
+      return false;
+    }
+    IndexedRecord that = (IndexedRecord) o;
+    return schema.equals(that.getSchema()) && GenericData.get().compare(this, that, schema) == 0;
+  }
+
+  @Override
+  public int hashCode() {
+    return GenericData.get().hashCode(this, schema);
+  }
+
+  @Override
+  public String toString() {
+    return GenericData.get().toString(this);
+  }
+}
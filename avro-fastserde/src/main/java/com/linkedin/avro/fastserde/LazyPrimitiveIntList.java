@@ -0,0 +1,157 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveIntList;
+import java.io.IOException;
+import java.util.Collection;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * A {@link PrimitiveIntList} which defers decoding of int-arrays, see {@link LazyPrimitiveList}.
+ */
+public class LazyPrimitiveIntList extends LazyPrimitiveList<Integer, int[]> implements PrimitiveIntList {
+  private static final Schema INT_SCHEMA = Schema.create(Schema.Type.INT);
+  private static final Schema SCHEMA = Schema.createArray(INT_SCHEMA);
+
+  public LazyPrimitiveIntList(int capacity) {
+    super(capacity);
+  }
+
+  public LazyPrimitiveIntList(Collection<Integer> c) {
+    super(c != null ? c.size() : 0);
+    if (c != null) {
+      addAll(c);
+    }
+  }
+
+  /**
+   * Instantiate (or re-use) and populate a {@link LazyPrimitiveIntList} from a {@link org.apache.avro.io.Decoder}.
+   *
+   * N.B.: the caller must ensure the data is of the appropriate type by calling {@link #isIntArray(Schema)}.
+   *
+   * @param old old {@link LazyPrimitiveIntList} to reuse
+   * @param in {@link org.apache.avro.io.Decoder} to read new list from
+   * @return a {@link LazyPrimitiveIntList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveIntArray(Object old, Decoder in) throws IOException {
+    LazyPrimitiveIntList array = old instanceof LazyPrimitiveIntList ? (LazyPrimitiveIntList) old
+        : new LazyPrimitiveIntList(0);
+    array.read(in);
+    return array;
+  }
+
+  /**
+   * @param expected {@link Schema} to inspect
+   * @return true if the {@code expected} SCHEMA is of the right type to decode as a {@link LazyPrimitiveIntList}
+   *         false otherwise
+   */
+  public static boolean isIntArray(Schema expected) {
+    return expected != null && Schema.Type.ARRAY.equals(expected.getType()) && INT_SCHEMA.equals(
+        expected.getElementType());
+  }
+
+  @Override
+  public Schema getSchema() {
+    return SCHEMA;
+  }
+
+  @Override
+  public int getPrimitive(int i) {
+    checkIfLargerThanSize(i);
+    decodeRawBytes();
+    return elements[i];
+  }
+
+  @Override
+  public Integer get(int i) {
+    return getPrimitive(i);
+  }
+
+  @Override
+  public boolean addPrimitive(int o) {
+    addInternal(size());
+    elements[size() - 1] = o;
+    return true;
+  }
+
+  @Override
+  public boolean add(Integer o) {
+    return addPrimitive(o);
+  }
+
+  @Override
+  public void add(int location, Integer o) {
+    addInternal(location);
+    elements[location] = o;
+  }
+
+  @Override
+  public Integer set(int i, Integer o) {
+    return setPrimitive(i, o);
+  }
+
+  @Override
+  public int setPrimitive(int i, int o) {
+    checkIfLargerThanSize(i);
+    decodeRawBytes();
+    int response = elements[i];
+    elements[i] = o;
+    return response;
+  }
+
+  @Override
+  public Integer peek() {
+    decodeRawBytes();
+    return (size() < elements.length) ? Integer.valueOf(elements[size()]) : null;
+  }
+
+  @Override
+  public void reverse() {
+    decodeRawBytes();
+    int left = 0;
+    int right = size() - 1;
+
+    while (left < right) {
+      int tmp = elements[left];
+      elements[left] = elements[right];
+      elements[right] = tmp;
+
+      left++;
+      right--;
+    }
+  }
+
+  @Override
+  protected int capacity() {
+    return elements.length;
+  }
+
+  @Override
+  protected int[] newArray(int capacity) {
+    return new int[capacity];
+  }
+
+  @Override
+  protected void decode(VarintBuffer rawBytes, int[] array) {
+    rawBytes.decodeInts(array);
+  }
+
+  @Override
+  protected void read(Decoder in, int[] array, int index, int count) throws IOException {
+    for (int i = index; i < index + count; i++) {
+      array[i] = in.readInt();
+    }
+  }
+
+  @Override
+  protected int compareElementAtIndex(int[] thatElements, int index) {
+    return Integer.compare(elements[index], thatElements[index]);
+  }
+
+  @Override
+  protected int hashCodeOfElementAtIndex(int index) {
+    return Integer.hashCode(elements[index]);
+  }
+}
@@ -0,0 +1,246 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Iterator;
+import org.apache.avro.generic.GenericArray;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * Base of the primitive lists of varint encoded elements, i.e. {@link LazyPrimitiveIntList} and
+ * {@link LazyPrimitiveLongList}, which defer decoding of the elements in the same way as
+ * {@link ByteBufferBackedPrimitiveFloatList} does for floats.
+ *
+ * Since varints don't have a fixed width, the raw bytes of all the blocks of the array are kept in a
+ * {@link VarintBuffer} and the whole array is decoded in bulk into the elements array on the first access. The raw
+ * bytes can only be kept when reading from a {@link ByteArrayDecoder}, for other decoders the elements get decoded
+ * right away, though still without boxing.
+ *
+ * @param <T> boxed type of the elements
+ * @param <A> primitive array type holding the decoded elements
+ */
+public abstract class LazyPrimitiveList<T, A> extends AbstractList<T>
+    implements GenericArray<T>, Comparable<GenericArray<T>> {
+  private int size;
+  protected A elements;
+  private boolean isCached = true;
+  private final VarintBuffer rawBytes = new VarintBuffer();
+
+  protected LazyPrimitiveList(int capacity) {
+    elements = newArray(capacity);
+  }
+
+  // Abstract functions required by child classes
+
+  /**
+   * @return the size of the primitive array, which could be larger than {@link #size}
+   */
+  protected abstract int capacity();
+
+  /**
+   * @param capacity of the new primitive array
+   * @return an instance of the right type of primitive array used by the child class
+   */
+  protected abstract A newArray(int capacity);
+
+  /**
+   * Decodes all the raw values into the primitive array, which is able to hold them.
+   */
+  protected abstract void decode(VarintBuffer rawBytes, A array);
+
+  /**
+   * Reads the given number of elements from a decoder whose raw bytes aren't accessible into the primitive array.
+   */
+  protected abstract void read(Decoder in, A array, int index, int count) throws IOException;
+
+  /**
+   * @return the comparison result between decoded elements of this and that list at the provided index
+   */
+  protected abstract int compareElementAtIndex(A thatElements, int index);
+
+  /**
+   * @return hash code of the decoded element at the provided index
+   */
+  protected abstract int hashCodeOfElementAtIndex(int index);
+
+  /**
+   * Replaces the elements of the list with the ones read from the decoder, keeping their raw bytes if possible.
+   *
+   * @param in {@link Decoder} to read new elements from
+   * @throws IOException on io errors
+   */
+  protected void read(Decoder in) throws IOException {
+    clear();
+    if (in instanceof ByteArrayDecoder) {
+      ByteArrayDecoder byteArrayDecoder = (ByteArrayDecoder) in;
+      for (long length = in.readArrayStart(); length > 0; length = in.arrayNext()) {
+        rawBytes.append(byteArrayDecoder, length);
+      }
+      size = rawBytes.getCount();
+      isCached = size == 0;
+    } else {
+      // the raw bytes of other decoders aren't accessible
+      for (long length = in.readArrayStart(); length > 0; length = in.arrayNext()) {
+        ensureCapacity((int) (size + length));
+        read(in, elements, size, (int) length);
+        size += (int) length;
+      }
+    }
+  }
+
+  /**
+   * Decodes the raw bytes if not done yet, needed before any access to the elements array.
+   */
+  protected void decodeRawBytes() {
+    if (isCached) {
+      return;
+    }
+    synchronized (this) {
+      if (!isCached) {
+        if (capacity() < size) {
+          elements = newArray(size);
+        }
+        decode(rawBytes, elements);
+        isCached = true;
+      }
+    }
+  }
+
+  /**
+   * Makes the elements array able to hold the given number of elements, the raw bytes must be decoded already.
+   */
+  protected void ensureCapacity(int capacity) {
+    if (capacity > capacity()) {
+      A newElements = newArray(Math.max(capacity, (capacity() * 3) / 2 + 1));
+      System.arraycopy(elements, 0, newElements, 0, size);
+      elements = newElements;
+    }
+  }
+
+  /**
+   * Checks the index of an element, which must be within the list and not just within the elements array.
+   */
+  protected void checkIfLargerThanSize(int index) {
+    if (index >= size) {
+      throw new IndexOutOfBoundsException("Index " + index + " out of bounds.");
+    }
+  }
+
+  /**
+   * Makes room for an element at the given index of the list, which is grown by one element.
+   */
+  protected void addInternal(int location) {
+    if (location > size || location < 0) {
+      throw new IndexOutOfBoundsException("Index " + location + " out of bounds.");
+    }
+    decodeRawBytes();
+    ensureCapacity(size + 1);
+    System.arraycopy(elements, location, elements, location + 1, size - location);
+    size++;
+  }
+
+  // Public API
+
+  @Override
+  public int size() {
+    return size;
+  }
+
+  @Override
+  public void clear() {
+    rawBytes.clear();
+    isCached = true;
+    size = 0;
+  }
+
+  @Override
+  public Iterator<T> iterator() {
+    return new Iterator<T>() {
+      private int position = 0;
+
+      @Override
+      public boolean hasNext() {
+        return position < size;
+      }
+
+      @Override
+      public T next() {
+        return get(position++);
+      }
+
+      @Override
+      public void remove() {
+        throw new UnsupportedOperationException();
+      }
+    };
+  }
+
+  @Override
+  public T remove(int i) {
+    checkIfLargerThanSize(i);
+    T result = get(i);
+    --size;
+    System.arraycopy(elements, i + 1, elements, i, (size - i));
+    return result;
+  }
+
+  @Override
+  public int compareTo(GenericArray<T> that) {
+    if (that != null && that.getClass() == getClass()) {
+      LazyPrimitiveList<T, A> thatPrimitiveList = (LazyPrimitiveList<T, A>) that;
+      decodeRawBytes();
+      thatPrimitiveList.decodeRawBytes();
+      if (this.size == thatPrimitiveList.size) {
+        for (int i = 0; i < this.size; i++) {
+          int compare = compareElementAtIndex(thatPrimitiveList.elements, i);
+          if (compare != 0) {
+            return compare;
+          }
+        }
+        return 0;
+      } else if (this.size > thatPrimitiveList.size) {
+        return 1;
+      } else {
+        return -1;
+      }
+    } else {
+      // Not our own type of primitive list, so we will delegate to the regular implementation, which will do boxing
+      return GenericData.get().compare(this, that, this.getSchema());
+    }
+  }
+
+  @Override
+  public String toString() {
+    StringBuilder buffer = new StringBuilder();
+    buffer.append("[");
+    for (int i = 0; i < size; i++) {
+      if (i > 0) {
+        buffer.append(", ");
+      }
+      buffer.append(get(i));
+    }
+    buffer.append("]");
+    return buffer.toString();
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (o instanceof GenericArray) {
+      return compareTo((GenericArray) o) == 0;
+    } else {
+      return super.equals(o);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    decodeRawBytes();
+    int hashCode = 1;
+    for (int i = 0; i < this.size; i++) {
+      hashCode = 31 * hashCode + hashCodeOfElementAtIndex(i);
+    }
+    return hashCode;
+  }
+}
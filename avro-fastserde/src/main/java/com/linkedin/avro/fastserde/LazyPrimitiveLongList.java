@@ -0,0 +1,157 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.api.PrimitiveLongList;
+import java.io.IOException;
+import java.util.Collection;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
+
+
+/**
+ * A {@link PrimitiveLongList} which defers decoding of long-arrays, see {@link LazyPrimitiveList}.
+ */
+public class LazyPrimitiveLongList extends LazyPrimitiveList<Long, long[]> implements PrimitiveLongList {
+  private static final Schema LONG_SCHEMA = Schema.create(Schema.Type.LONG);
+  private static final Schema SCHEMA = Schema.createArray(LONG_SCHEMA);
+
+  public LazyPrimitiveLongList(int capacity) {
+    super(capacity);
+  }
+
+  public LazyPrimitiveLongList(Collection<Long> c) {
+    super(c != null ? c.size() : 0);
+    if (c != null) {
+      addAll(c);
+    }
+  }
+
+  /**
+   * Instantiate (or re-use) and populate a {@link LazyPrimitiveLongList} from a {@link org.apache.avro.io.Decoder}.
+   *
+   * N.B.: the caller must ensure the data is of the appropriate type by calling {@link #isLongArray(Schema)}.
+   *
+   * @param old old {@link LazyPrimitiveLongList} to reuse
+   * @param in {@link org.apache.avro.io.Decoder} to read new list from
+   * @return a {@link LazyPrimitiveLongList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveLongArray(Object old, Decoder in) throws IOException {
+    LazyPrimitiveLongList array = old instanceof LazyPrimitiveLongList ? (LazyPrimitiveLongList) old
+        : new LazyPrimitiveLongList(0);
+    array.read(in);
+    return array;
+  }
+
+  /**
+   * @param expected {@link Schema} to inspect
+   * @return true if the {@code expected} SCHEMA is of the right type to decode as a {@link LazyPrimitiveLongList}
+   *         false otherwise
+   */
+  public static boolean isLongArray(Schema expected) {
+    return expected != null && Schema.Type.ARRAY.equals(expected.getType()) && LONG_SCHEMA.equals(
+        expected.getElementType());
+  }
+
+  @Override
+  public Schema getSchema() {
+    return SCHEMA;
+  }
+
+  @Override
+  public long getPrimitive(int i) {
+    checkIfLargerThanSize(i);
+    decodeRawBytes();
+    return elements[i];
+  }
+
+  @Override
+  public Long get(int i) {
+    return getPrimitive(i);
+  }
+
+  @Override
+  public boolean addPrimitive(long o) {
+    addInternal(size());
+    elements[size() - 1] = o;
+    return true;
+  }
+
+  @Override
+  public boolean add(Long o) {
+    return addPrimitive(o);
+  }
+
+  @Override
+  public void add(int location, Long o) {
+    addInternal(location);
+    elements[location] = o;
+  }
+
+  @Override
+  public Long set(int i, Long o) {
+    return setPrimitive(i, o);
+  }
+
+  @Override
+  public long setPrimitive(int i, long o) {
+    checkIfLargerThanSize(i);
+    decodeRawBytes();
+    long response = elements[i];
+    elements[i] = o;
+    return response;
+  }
+
+  @Override
+  public Long peek() {
+    decodeRawBytes();
+    return (size() < elements.length) ? Long.valueOf(elements[size()]) : null;
+  }
+
+  @Override
+  public void reverse() {
+    decodeRawBytes();
+    int left = 0;
+    int right = size() - 1;
+
+    while (left < right) {
+      long tmp = elements[left];
+      elements[left] = elements[right];
+      elements[right] = tmp;
+
+      left++;
+      right--;
+    }
+  }
+
+  @Override
+  protected int capacity() {
+    return elements.length;
+  }
+
+  @Override
+  protected long[] newArray(int capacity) {
+    return new long[capacity];
+  }
+
+  @Override
+  protected void decode(VarintBuffer rawBytes, long[] array) {
+    rawBytes.decodeLongs(array);
+  }
+
+  @Override
+  protected void read(Decoder in, long[] array, int index, int count) throws IOException {
+    for (int i = index; i < index + count; i++) {
+      array[i] = in.readLong();
+    }
+  }
+
+  @Override
+  protected int compareElementAtIndex(long[] thatElements, int index) {
+    return Long.compare(elements[index], thatElements[index]);
+  }
+
+  @Override
+  protected int hashCodeOfElementAtIndex(int index) {
+    return Long.hashCode(elements[index]);
+  }
+}
@@ -0,0 +1,310 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericFixed;
+
+
+/**
+ * Conversions of the standard logical types, which map them to the same classes as the conversions registered with
+ * {@code GenericData} in avro-1.9 and above: decimal to {@link BigDecimal}, date to {@link LocalDate}, time-millis
+ * and time-micros to {@link LocalTime}, timestamp-millis and timestamp-micros to {@link Instant} and uuid to
+ * {@link UUID}. Logical types are resolved from the schema props, so that they are supported regardless of the
+ * runtime avro version, and invalid ones are ignored the same way avro does.
+ *
+ * Generated serializers and deserializers inline the conversions with precision and scale resolved at generation
+ * time, the static methods here are used by the generated code for the conversions which don't fit in an expression.
+ */
+public final class LogicalTypeConversions {
+  public static final String LOGICAL_TYPE_PROP = "logicalType";
+  public static final String PRECISION_PROP = "precision";
+  public static final String SCALE_PROP = "scale";
+
+  private LogicalTypeConversions() {
+  }
+
+  /**
+   * @return conversion of the logical type of the given schema, null if it has none or it's invalid
+   */
+  public static Conversion getConversion(Schema schema) {
+    String logicalType = AvroCompatibilityHelper.getSchemaPropAsJsonString(schema, LOGICAL_TYPE_PROP, false, false);
+    if (logicalType == null) {
+      return null;
+    }
+    Schema.Type type = schema.getType();
+    switch (logicalType) {
+      case "date":
+        return type == Schema.Type.INT ? new Conversion(Kind.DATE, schema) : null;
+      case "time-millis":
+        return type == Schema.Type.INT ? new Conversion(Kind.TIME_MILLIS, schema) : null;
+      case "time-micros":
+        return type == Schema.Type.LONG ? new Conversion(Kind.TIME_MICROS, schema) : null;
+      case "timestamp-millis":
+        return type == Schema.Type.LONG ? new Conversion(Kind.TIMESTAMP_MILLIS, schema) : null;
+      case "timestamp-micros":
+        return type == Schema.Type.LONG ? new Conversion(Kind.TIMESTAMP_MICROS, schema) : null;
+      case "uuid":
+        return type == Schema.Type.STRING ? new Conversion(Kind.UUID, schema) : null;
+      case "decimal":
+        return getDecimalConversion(schema);
+      default:
+        return null;
+    }
+  }
+
+  private static Conversion getDecimalConversion(Schema schema) {
+    if (schema.getType() != Schema.Type.BYTES && schema.getType() != Schema.Type.FIXED) {
+      return null;
+    }
+    Integer precision = getIntProp(schema, PRECISION_PROP);
+    Integer scale = getIntProp(schema, SCALE_PROP);
+    if (scale == null) {
+      scale = 0;
+    }
+    if (precision == null || precision <= 0 || scale < 0 || scale > precision) {
+      return null;
+    }
+    if (schema.getType() == Schema.Type.FIXED && precision > maxPrecision(schema.getFixedSize())) {
+      return null;
+    }
+    return new Conversion(Kind.DECIMAL, schema, precision, scale);
+  }
+
+  private static Integer getIntProp(Schema schema, String propName) {
+    String value = AvroCompatibilityHelper.getSchemaPropAsJsonString(schema, propName, false, false);
+    if (value == null) {
+      return null;
+    }
+    try {
+      return Integer.valueOf(value);
+    } catch (NumberFormatException e) {
+      return null;
+    }
+  }
+
+  private static long maxPrecision(int fixedSize) {
+    return Math.round(Math.floor(Math.log10(2) * (8 * fixedSize - 1)));
+  }
+
+  /**
+   * Collects conversions of all the schemas nested in the given one, keyed by identity since they are looked up by
+   * the very schema instances while reading or writing.
+   */
+  public static Map<Schema, Conversion> collectConversions(Schema schema) {
+    Map<Schema, Conversion> conversions = new IdentityHashMap<>();
+    collectConversions(schema, conversions, new IdentityHashMap<>());
+    return conversions;
+  }
+
+  private static void collectConversions(Schema schema, Map<Schema, Conversion> conversions,
+      Map<Schema, Boolean> visited) {
+    if (visited.put(schema, Boolean.TRUE) != null) {
+      return;
+    }
+    switch (schema.getType()) {
+      case RECORD:
+        for (Schema.Field field : schema.getFields()) {
+          collectConversions(field.schema(), conversions, visited);
+        }
+        break;
+      case ARRAY:
+        collectConversions(schema.getElementType(), conversions, visited);
+        break;
+      case MAP:
+        collectConversions(schema.getValueType(), conversions, visited);
+        break;
+      case UNION:
+        for (Schema type : schema.getTypes()) {
+          collectConversions(type, conversions, visited);
+        }
+        break;
+      default:
+        Conversion conversion = getConversion(schema);
+        if (conversion != null) {
+          conversions.put(schema, conversion);
+        }
+    }
+  }
+
+  /**
+   * Used by the generated code.
+   */
+  public static BigDecimal toDecimal(ByteBuffer bytes, int scale) {
+    byte[] unscaled = new byte[bytes.remaining()];
+    bytes.duplicate().get(unscaled);
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  /**
+   * Used by the generated code.
+   */
+  public static BigDecimal toDecimal(byte[] unscaled, int scale) {
+    return new BigDecimal(new BigInteger(unscaled), scale);
+  }
+
+  /**
+   * Used by the generated code.
+   */
+  public static ByteBuffer toDecimalBytes(BigDecimal value, int precision, int scale) {
+    validateDecimal(value, precision, scale);
+    return ByteBuffer.wrap(value.unscaledValue().toByteArray());
+  }
+
+  /**
+   * Used by the generated code, sign extends the unscaled value to the size of the fixed.
+   */
+  public static byte[] toDecimalFixed(BigDecimal value, int fixedSize, int precision, int scale) {
+    validateDecimal(value, precision, scale);
+    byte[] unscaled = value.unscaledValue().toByteArray();
+    if (unscaled.length > fixedSize) {
+      throw new AvroTypeException("Cannot encode decimal with precision " + value.precision() + " as fixed of size "
+          + fixedSize);
+    }
+    byte[] bytes = new byte[fixedSize];
+    int offset = fixedSize - unscaled.length;
+    Arrays.fill(bytes, 0, offset, (byte) (value.signum() < 0 ? 0xFF : 0x00));
+    System.arraycopy(unscaled, 0, bytes, offset, unscaled.length);
+    return bytes;
+  }
+
+  private static void validateDecimal(BigDecimal value, int precision, int scale) {
+    if (value.scale() != scale) {
+      throw new AvroTypeException("Cannot encode decimal with scale " + value.scale() + " as scale " + scale);
+    }
+    if (value.precision() > precision) {
+      throw new AvroTypeException(
+          "Cannot encode decimal with precision " + value.precision() + " as max precision " + precision);
+    }
+  }
+
+  /**
+   * Used by the generated code.
+   */
+  public static Instant toTimestampMicros(long microsFromEpoch) {
+    long epochSeconds = microsFromEpoch / 1_000_000L;
+    long nanoAdjustment = (microsFromEpoch % 1_000_000L) * 1_000L;
+    return Instant.ofEpochSecond(epochSeconds, nanoAdjustment);
+  }
+
+  /**
+   * Used by the generated code.
+   */
+  public static long fromTimestampMicros(Instant instant) {
+    long seconds = instant.getEpochSecond();
+    int nanos = instant.getNano();
+    if (seconds < 0 && nanos > 0) {
+      // avoids overflow of the seconds for the earliest representable instants
+      long micros = Math.multiplyExact(seconds + 1, 1_000_000L);
+      return Math.addExact(micros, nanos / 1_000L - 1_000_000L);
+    }
+    return Math.addExact(Math.multiplyExact(seconds, 1_000_000L), nanos / 1_000L);
+  }
+
+  enum Kind {
+    DECIMAL(BigDecimal.class),
+    DATE(LocalDate.class),
+    TIME_MILLIS(LocalTime.class),
+    TIME_MICROS(LocalTime.class),
+    TIMESTAMP_MILLIS(Instant.class),
+    TIMESTAMP_MICROS(Instant.class),
+    UUID(java.util.UUID.class);
+
+    final Class<?> convertedClass;
+
+    Kind(Class<?> convertedClass) {
+      this.convertedClass = convertedClass;
+    }
+  }
+
+  /**
+   * Conversion of a logical type, with its parameters resolved. The boxing methods are used when the conversion
+   * can't be inlined, e.g. by vanilla avro based readers and writers used until the generated classes get compiled.
+   * Fixed decimals are converted from either {@link GenericFixed} or its bytes and to the bytes, uuids to
+   * {@link String}.
+   */
+  public static final class Conversion {
+    final Kind kind;
+    final Schema.Type type;
+    final int fixedSize;
+    final int precision;
+    final int scale;
+
+    private Conversion(Kind kind, Schema schema) {
+      this(kind, schema, 0, 0);
+    }
+
+    private Conversion(Kind kind, Schema schema, int precision, int scale) {
+      this.kind = kind;
+      this.type = schema.getType();
+      this.fixedSize = type == Schema.Type.FIXED ? schema.getFixedSize() : 0;
+      this.precision = precision;
+      this.scale = scale;
+    }
+
+    public Class<?> getConvertedClass() {
+      return kind.convertedClass;
+    }
+
+    public Object fromRaw(Object raw) {
+      if (raw == null) {
+        return null;
+      }
+      switch (kind) {
+        case DECIMAL:
+          if (raw instanceof ByteBuffer) {
+            return toDecimal((ByteBuffer) raw, scale);
+          }
+          return toDecimal(raw instanceof GenericFixed ? ((GenericFixed) raw).bytes() : (byte[]) raw, scale);
+        case DATE:
+          return LocalDate.ofEpochDay((Integer) raw);
+        case TIME_MILLIS:
+          return LocalTime.ofNanoOfDay(TimeUnit.MILLISECONDS.toNanos((Integer) raw));
+        case TIME_MICROS:
+          return LocalTime.ofNanoOfDay(TimeUnit.MICROSECONDS.toNanos((Long) raw));
+        case TIMESTAMP_MILLIS:
+          return Instant.ofEpochMilli((Long) raw);
+        case TIMESTAMP_MICROS:
+          return toTimestampMicros((Long) raw);
+        case UUID:
+          return java.util.UUID.fromString(raw.toString());
+        default:
+          throw new IllegalStateException("Unknown logical type: " + kind);
+      }
+    }
+
+    public Object toRaw(Object value) {
+      switch (kind) {
+        case DECIMAL:
+          return type == Schema.Type.FIXED
+              ? toDecimalFixed((BigDecimal) value, fixedSize, precision, scale)
+              : toDecimalBytes((BigDecimal) value, precision, scale);
+        case DATE:
+          return (int) ((LocalDate) value).toEpochDay();
+        case TIME_MILLIS:
+          return (int) TimeUnit.NANOSECONDS.toMillis(((LocalTime) value).toNanoOfDay());
+        case TIME_MICROS:
+          return TimeUnit.NANOSECONDS.toMicros(((LocalTime) value).toNanoOfDay());
+        case TIMESTAMP_MILLIS:
+          return ((Instant) value).toEpochMilli();
+        case TIMESTAMP_MICROS:
+          return fromTimestampMicros((Instant) value);
+        case UUID:
+          return value.toString();
+        default:
+          throw new IllegalStateException("Unknown logical type: " + kind);
+      }
+    }
+  }
+}
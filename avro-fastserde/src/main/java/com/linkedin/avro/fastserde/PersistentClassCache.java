@@ -0,0 +1,136 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+
+/**
+ * On-disk store of the classes generated by {@link FastSerdeCache}, which allows to reuse them across JVM restarts
+ * instead of generating and compiling them again.
+ *
+ * Entries are keyed by the generated class name, which already encodes the schema fingerprints, and placed in the
+ * generated package of the runtime avro version under a sub-directory dedicated to the current
+ * {@link FastSerdeBase#GENERATOR_VERSION}. Every compiled class is accompanied by a checksum file, written only
+ * once the class has been successfully compiled. Classes without a matching checksum (i.e. partially written,
+ * truncated or otherwise corrupted) are removed, so that they get generated again.
+ */
+public final class PersistentClassCache {
+  private static final Logger LOGGER = LoggerFactory.getLogger(PersistentClassCache.class);
+  static final String CHECKSUM_FILE_SUFFIX = ".checksum";
+
+  private final File classesDir;
+
+  /**
+   * @param rootDir
+   *            directory shared by all the generator versions, created if it does not exist
+   */
+  public PersistentClassCache(File rootDir) {
+    this.classesDir = new File(rootDir, "v" + FastSerdeBase.GENERATOR_VERSION);
+    if (!classesDir.isDirectory() && !classesDir.mkdirs()) {
+      throw new FastSerdeGeneratorException("Unable to create persistent classes dir: " + classesDir);
+    }
+  }
+
+  /**
+   * @return directory the generated sources and classes should be written to
+   */
+  public File getClassesDir() {
+    return classesDir;
+  }
+
+  /**
+   * Loads previously persisted class. Entries which can not be verified or loaded are removed.
+   *
+   * @param fullClassName fully qualified name of the generated class
+   * @param classLoader class loader backed by {@link #getClassesDir()}
+   * @return persisted class or null if there is no valid entry for the given class name
+   */
+  public Class<?> loadClass(String fullClassName, ClassLoader classLoader) {
+    File classFile = getClassFile(fullClassName);
+    if (!classFile.isFile()) {
+      return null;
+    }
+
+    try {
+      if (!computeChecksum(classFile).equals(readChecksum(fullClassName))) {
+        LOGGER.warn("Discarding persisted class: {} since its checksum doesn't match", fullClassName);
+        remove(fullClassName);
+        return null;
+      }
+      Class<?> clazz = classLoader.loadClass(fullClassName);
+      LOGGER.info("Loaded persisted class: {} from: {}", fullClassName, classFile);
+      return clazz;
+    } catch (IOException | ClassNotFoundException | LinkageError e) {
+      LOGGER.warn("Discarding persisted class: " + fullClassName + " since it couldn't be loaded", e);
+      remove(fullClassName);
+      return null;
+    }
+  }
+
+  /**
+   * Marks freshly compiled class as valid by recording its checksum.
+   *
+   * @param fullClassName fully qualified name of the generated class
+   */
+  public void store(String fullClassName) {
+    File classFile = getClassFile(fullClassName);
+    Path checksumPath = getChecksumFile(fullClassName).toPath();
+    try {
+      Path tmpPath = Files.createTempFile(classFile.getParentFile().toPath(), classFile.getName(), ".tmp");
+      Files.write(tmpPath, computeChecksum(classFile).getBytes(StandardCharsets.UTF_8));
+      try {
+        Files.move(tmpPath, checksumPath, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+      } catch (AtomicMoveNotSupportedException e) {
+        Files.move(tmpPath, checksumPath, StandardCopyOption.REPLACE_EXISTING);
+      }
+    } catch (IOException e) {
+      // class stays usable within the current cache, it will simply be generated again next time
+      LOGGER.warn("Unable to persist checksum of class: " + fullClassName, e);
+    }
+  }
+
+  /**
+   * Removes persisted class together with its checksum.
+   *
+   * @param fullClassName fully qualified name of the generated class
+   */
+  public void remove(String fullClassName) {
+    try {
+      Files.deleteIfExists(getChecksumFile(fullClassName).toPath());
+      Files.deleteIfExists(getClassFile(fullClassName).toPath());
+    } catch (IOException e) {
+      LOGGER.warn("Unable to remove persisted class: " + fullClassName, e);
+    }
+  }
+
+  File getClassFile(String fullClassName) {
+    return new File(classesDir, fullClassName.replace('.', File.separatorChar) + ".class");
+  }
+
+  private File getChecksumFile(String fullClassName) {
+    return new File(classesDir, fullClassName.replace('.', File.separatorChar) + CHECKSUM_FILE_SUFFIX);
+  }
+
+  private String readChecksum(String fullClassName) throws IOException {
+    File checksumFile = getChecksumFile(fullClassName);
+    if (!checksumFile.isFile()) {
+      return "";
+    }
+    return new String(Files.readAllBytes(checksumFile.toPath()), StandardCharsets.UTF_8);
+  }
+
+  private static String computeChecksum(File classFile) throws IOException {
+    byte[] bytes = Files.readAllBytes(classFile.toPath());
+    CRC32 crc = new CRC32();
+    crc.update(bytes);
+    return bytes.length + ":" + Long.toHexString(crc.getValue());
+  }
+}
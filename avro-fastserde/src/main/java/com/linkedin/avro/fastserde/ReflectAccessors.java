@@ -0,0 +1,245 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import com.sun.codemodel.JBlock;
+import com.sun.codemodel.JClass;
+import com.sun.codemodel.JCodeModel;
+import com.sun.codemodel.JExpr;
+import com.sun.codemodel.JExpression;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.specific.SpecificFixed;
+
+
+/**
+ * Finds out at generation time the fields of the POJOs handled by {@link org.apache.avro.reflect.ReflectData}, which
+ * the generated code reads and writes directly. Only the fields it can access are supported, i.e. public non-static
+ * ones, which also have to be non-final when deserializing. Getters and setters aren't used in their place, since
+ * {@link org.apache.avro.reflect.ReflectDatumReader} and {@link org.apache.avro.reflect.ReflectDatumWriter} bypass
+ * them and access the fields themselves. The classes have to be public top-level ones named after the schemas,
+ * the deserialized ones need a public no-arg constructor, enums have to declare the symbols of their schemas in the
+ * same order and field types have to be the ones the generated code handles, e.g. {@link List} rather than java
+ * arrays and {@link ByteBuffer} rather than byte arrays. {@link FastSerdeGeneratorException} is thrown otherwise, so
+ * that such classes keep being handled by vanilla avro.
+ */
+final class ReflectAccessors {
+  private final JCodeModel codeModel;
+  private final ClassLoader classLoader;
+  private final boolean forSerializer;
+  // keyed by schema full name
+  private final Map<String, Class<?>> classes = new HashMap<>();
+  private final Map<String, Map<String, Field>> fields = new HashMap<>();
+
+  ReflectAccessors(JCodeModel codeModel, ClassLoader classLoader, boolean forSerializer) {
+    this.codeModel = codeModel;
+    this.classLoader = classLoader;
+    this.forSerializer = forSerializer;
+  }
+
+  /**
+   * Checks the classes of all the named types of the schema and the fields of the records.
+   */
+  void check(Schema schema) {
+    switch (schema.getType()) {
+      case RECORD:
+      case ENUM:
+      case FIXED:
+        resolveClass(schema);
+        break;
+      case ARRAY:
+        check(schema.getElementType());
+        break;
+      case MAP:
+        check(schema.getValueType());
+        break;
+      case UNION:
+        for (Schema unionSchema : schema.getTypes()) {
+          check(unionSchema);
+        }
+        break;
+      default:
+        // no class to check
+    }
+  }
+
+  /**
+   * @return expression of the value of the record field, typed as {@link Object}
+   */
+  JExpression getField(JExpression recordExpr, Schema recordSchema, Schema.Field field) {
+    return JExpr.cast(codeModel.ref(Object.class), recordExpr.ref(getJavaField(recordSchema, field).getName()));
+  }
+
+  void putField(JBlock body, JExpression recordExpr, Schema recordSchema, Schema.Field field,
+      JExpression valueExpr) {
+    Field javaField = getJavaField(recordSchema, field);
+    // the value may be typed more specifically than the field, e.g. as a primitive list or a raw primitive
+    JClass fieldClass = codeModel._ref(javaField.getType()).boxify();
+    body.assign(recordExpr.ref(javaField.getName()),
+        JExpr.cast(fieldClass, JExpr.cast(codeModel.ref(Object.class), valueExpr)));
+  }
+
+  private Field getJavaField(Schema recordSchema, Schema.Field field) {
+    resolveClass(recordSchema);
+    Field javaField = fields.get(AvroCompatibilityHelper.getSchemaFullName(recordSchema)).get(field.name());
+    if (javaField == null) {
+      throw new FastSerdeGeneratorException("No field " + field.name() + " in the schema of "
+          + AvroCompatibilityHelper.getSchemaFullName(recordSchema));
+    }
+    return javaField;
+  }
+
+  private Class<?> resolveClass(Schema schema) {
+    String name = AvroCompatibilityHelper.getSchemaFullName(schema);
+    Class<?> clazz = classes.get(name);
+    if (clazz != null) {
+      return clazz;
+    }
+    try {
+      clazz = Class.forName(name, false, classLoader);
+    } catch (ClassNotFoundException e) {
+      throw new FastSerdeGeneratorException("No class found for schema " + name, e);
+    }
+    if (!Modifier.isPublic(clazz.getModifiers()) || clazz.getEnclosingClass() != null) {
+      throw new FastSerdeGeneratorException(name + " is not a public top-level class");
+    }
+    // registered before its fields are checked, which may refer to it again
+    classes.put(name, clazz);
+
+    switch (schema.getType()) {
+      case RECORD:
+        if (!forSerializer) {
+          checkNoArgConstructor(clazz);
+        }
+        Map<String, Field> recordFields = new HashMap<>();
+        fields.put(name, recordFields);
+        for (Schema.Field field : schema.getFields()) {
+          Field javaField = findField(clazz, field.name());
+          if (!isCompatible(field.schema(), javaField.getType())) {
+            throw new FastSerdeGeneratorException("Field " + field.name() + " of " + name + " of type "
+                + javaField.getType().getName() + " doesn't match its schema: " + field.schema());
+          }
+          recordFields.put(field.name(), javaField);
+        }
+        break;
+      case ENUM:
+        List<String> constants = new ArrayList<>();
+        if (clazz.isEnum()) {
+          for (Object constant : clazz.getEnumConstants()) {
+            constants.add(((Enum<?>) constant).name());
+          }
+        }
+        if (!constants.equals(schema.getEnumSymbols())) {
+          throw new FastSerdeGeneratorException(name + " is not an enum of symbols " + schema.getEnumSymbols());
+        }
+        break;
+      case FIXED:
+        if (!SpecificFixed.class.isAssignableFrom(clazz)) {
+          throw new FastSerdeGeneratorException(name + " is not a " + SpecificFixed.class.getName());
+        }
+        if (!forSerializer) {
+          checkNoArgConstructor(clazz);
+        }
+        break;
+      default:
+        throw new FastSerdeGeneratorException("Unexpected named schema: " + schema.getType());
+    }
+    return clazz;
+  }
+
+  private static void checkNoArgConstructor(Class<?> clazz) {
+    try {
+      clazz.getConstructor();
+    } catch (NoSuchMethodException e) {
+      throw new FastSerdeGeneratorException(clazz.getName() + " has no public no-arg constructor", e);
+    }
+    if (Modifier.isAbstract(clazz.getModifiers())) {
+      throw new FastSerdeGeneratorException(clazz.getName() + " is abstract");
+    }
+  }
+
+  /**
+   * Looks the field up like {@link org.apache.avro.reflect.ReflectData} does, i.e. among the fields declared by the
+   * class and its superclasses, and checks that the generated code can access it.
+   */
+  private Field findField(Class<?> clazz, String fieldName) {
+    Field field = null;
+    for (Class<?> c = clazz; c != null && field == null; c = c.getSuperclass()) {
+      try {
+        field = c.getDeclaredField(fieldName);
+      } catch (NoSuchFieldException e) {
+        // looked up in the superclass
+      }
+    }
+    if (field == null || Modifier.isStatic(field.getModifiers())) {
+      throw new FastSerdeGeneratorException("No field " + fieldName + " in " + clazz.getName());
+    }
+    int modifiers = field.getModifiers();
+    if (!Modifier.isPublic(modifiers) || !Modifier.isPublic(field.getDeclaringClass().getModifiers())) {
+      throw new FastSerdeGeneratorException("Field " + fieldName + " of " + clazz.getName() + " is not public");
+    }
+    if (!forSerializer && Modifier.isFinal(modifiers)) {
+      throw new FastSerdeGeneratorException("Field " + fieldName + " of " + clazz.getName() + " is final");
+    }
+    return field;
+  }
+
+  /**
+   * @return whether the generated code can assign values of the schema to fields of the type when deserializing, or
+   *         cast values of fields of the type to the classes of the schema when serializing
+   */
+  private boolean isCompatible(Schema schema, Class<?> type) {
+    switch (schema.getType()) {
+      case RECORD:
+      case ENUM:
+      case FIXED:
+        return type == resolveClass(schema);
+      case ARRAY:
+        check(schema.getElementType());
+        return isCompatibleContainer(List.class, type);
+      case MAP:
+        check(schema.getValueType());
+        return isCompatibleContainer(Map.class, type);
+      case UNION:
+        List<Schema> types = schema.getTypes();
+        if (types.size() == 2 && types.get(0).getType() == Schema.Type.NULL) {
+          return !type.isPrimitive() && isCompatible(types.get(1), type);
+        } else if (types.size() == 2 && types.get(1).getType() == Schema.Type.NULL) {
+          return !type.isPrimitive() && isCompatible(types.get(0), type);
+        }
+        check(schema);
+        return type == Object.class;
+      case STRING:
+        String stringClass = schema.getProp(SchemaAssistant.CLASS_PROP);
+        if (stringClass != null) {
+          return Utils.isAbleToSupportStringableProps() && type.getName().equals(stringClass);
+        }
+        return forSerializer ? CharSequence.class.isAssignableFrom(type) : type.isAssignableFrom(String.class);
+      case BYTES:
+        return isCompatibleContainer(ByteBuffer.class, type);
+      case INT:
+        return type == int.class || type == Integer.class;
+      case LONG:
+        return type == long.class || type == Long.class;
+      case FLOAT:
+        return type == float.class || type == Float.class;
+      case DOUBLE:
+        return type == double.class || type == Double.class;
+      case BOOLEAN:
+        return type == boolean.class || type == Boolean.class;
+      case NULL:
+        return !type.isPrimitive();
+      default:
+        return false;
+    }
+  }
+
+  private boolean isCompatibleContainer(Class<?> containerClass, Class<?> type) {
+    return forSerializer ? containerClass.isAssignableFrom(type) : type.isAssignableFrom(containerClass);
+  }
+}
@@ -25,6 +25,9 @@ import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.Comparator;
 import java.util.HashMap;
@@ -33,6 +36,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.UUID;
 import java.util.function.BiConsumer;
 import java.util.function.Supplier;
 import org.apache.avro.Schema;
@@ -67,8 +71,17 @@ public class SchemaAssistant {
    * it is not meaningful for serializer in generic mode.
    */
   private final boolean isForSerializer;
+  /**
+   * Whether logical types are converted, see {@link LogicalTypeConversions}.
+   */
+  private final boolean logicalTypeConversions;
 
   public SchemaAssistant(JCodeModel codeModel, boolean useGenericTypes, Class defaultStringClass, boolean isForSerializer) {
+    this(codeModel, useGenericTypes, defaultStringClass, isForSerializer, false);
+  }
+
+  public SchemaAssistant(JCodeModel codeModel, boolean useGenericTypes, Class defaultStringClass, boolean isForSerializer,
+      boolean logicalTypeConversions) {
     this.codeModel = codeModel;
     this.useGenericTypes = useGenericTypes;
     /**
@@ -77,6 +90,7 @@ public class SchemaAssistant {
     this.exceptionsFromStringable = new TreeSet<>(Comparator.comparing(Class::getCanonicalName));
     this.defaultStringType = codeModel.ref(defaultStringClass);
     this.isForSerializer = isForSerializer;
+    this.logicalTypeConversions = logicalTypeConversions;
   }
 
   protected Set<String> getUsedFullyQualifiedClassNameSet() {
@@ -109,6 +123,75 @@ public class SchemaAssistant {
     }
   }
 
+  /**
+   * @return conversion of the logical type of the given schema, null if it has none or conversions are disabled
+   */
+  public LogicalTypeConversions.Conversion getConversion(Schema schema) {
+    return logicalTypeConversions ? LogicalTypeConversions.getConversion(schema) : null;
+  }
+
+  public boolean hasConversion(Schema schema) {
+    return getConversion(schema) != null;
+  }
+
+  /**
+   * @return expression converting the given raw value of the logical type, i.e. int, long, {@link CharSequence},
+   *         {@link ByteBuffer} or byte array of the fixed, to the corresponding java type
+   */
+  public JExpression getConvertedValue(LogicalTypeConversions.Conversion conversion, JExpression rawValueExpr) {
+    JClass conversionsClass = codeModel.ref(LogicalTypeConversions.class);
+    switch (conversion.kind) {
+      case DECIMAL:
+        return conversionsClass.staticInvoke("toDecimal").arg(rawValueExpr).arg(JExpr.lit(conversion.scale));
+      case DATE:
+        return codeModel.ref(LocalDate.class).staticInvoke("ofEpochDay").arg(rawValueExpr);
+      case TIME_MILLIS:
+        return codeModel.ref(LocalTime.class).staticInvoke("ofNanoOfDay")
+            .arg(JExpr.cast(codeModel.LONG, rawValueExpr).mul(JExpr.lit(1_000_000L)));
+      case TIME_MICROS:
+        return codeModel.ref(LocalTime.class).staticInvoke("ofNanoOfDay").arg(rawValueExpr.mul(JExpr.lit(1_000L)));
+      case TIMESTAMP_MILLIS:
+        return codeModel.ref(Instant.class).staticInvoke("ofEpochMilli").arg(rawValueExpr);
+      case TIMESTAMP_MICROS:
+        return conversionsClass.staticInvoke("toTimestampMicros").arg(rawValueExpr);
+      case UUID:
+        return codeModel.ref(UUID.class).staticInvoke("fromString").arg(rawValueExpr.invoke("toString"));
+      default:
+        throw new SchemaAssistantException("Unsupported logical type: " + conversion.kind);
+    }
+  }
+
+  /**
+   * @return expression converting the given value of the logical type to its raw value, i.e. int, long,
+   *         {@link String}, {@link ByteBuffer} or byte array of the fixed
+   */
+  public JExpression getRawValue(LogicalTypeConversions.Conversion conversion, JExpression valueExpr) {
+    JClass conversionsClass = codeModel.ref(LogicalTypeConversions.class);
+    switch (conversion.kind) {
+      case DECIMAL:
+        if (Schema.Type.FIXED.equals(conversion.type)) {
+          return conversionsClass.staticInvoke("toDecimalFixed").arg(valueExpr).arg(JExpr.lit(conversion.fixedSize))
+              .arg(JExpr.lit(conversion.precision)).arg(JExpr.lit(conversion.scale));
+        }
+        return conversionsClass.staticInvoke("toDecimalBytes").arg(valueExpr).arg(JExpr.lit(conversion.precision))
+            .arg(JExpr.lit(conversion.scale));
+      case DATE:
+        return JExpr.cast(codeModel.INT, valueExpr.invoke("toEpochDay"));
+      case TIME_MILLIS:
+        return JExpr.cast(codeModel.INT, valueExpr.invoke("toNanoOfDay").div(JExpr.lit(1_000_000L)));
+      case TIME_MICROS:
+        return valueExpr.invoke("toNanoOfDay").div(JExpr.lit(1_000L));
+      case TIMESTAMP_MILLIS:
+        return valueExpr.invoke("toEpochMilli");
+      case TIMESTAMP_MICROS:
+        return conversionsClass.staticInvoke("fromTimestampMicros").arg(valueExpr);
+      case UUID:
+        return valueExpr.invoke("toString");
+      default:
+        throw new SchemaAssistantException("Unsupported logical type: " + conversion.kind);
+    }
+  }
+
   /**
    * Determines if a data type is capable of reuse
    *
@@ -278,6 +361,11 @@ public class SchemaAssistant {
   public JClass classFromSchema(Schema schema, boolean abstractType, boolean rawType, boolean primitiveList) {
     JClass outputClass;
 
+    LogicalTypeConversions.Conversion conversion = getConversion(schema);
+    if (conversion != null) {
+      return codeModel.ref(conversion.getConvertedClass());
+    }
+
     switch (schema.getType()) {
 
       case RECORD:
@@ -294,6 +382,8 @@ public class SchemaAssistant {
 
       case ARRAY:
         Class klass = null;
+        // converted logical types are never kept in primitive lists
+        primitiveList = primitiveList && !hasConversion(schema.getElementType());
         if (primitiveList) {
           switch (schema.getElementType().getType()) {
             case BOOLEAN: klass = abstractType ? PrimitiveBooleanList.class : PrimitiveBooleanArrayList.class; break;
@@ -476,10 +566,11 @@ public class SchemaAssistant {
   }
 
   public JExpression getStringableValue(Schema schema, JExpression stringExpr) {
-    if (isStringable(schema)) {
-      return JExpr._new(classFromSchema(schema)).arg(stringExpr);
-    } else {
-      return JExpr._new(defaultStringType()).arg(stringExpr);
+    JClass stringClass = isStringable(schema) ? classFromSchema(schema) : defaultStringType();
+    if (stringClass.equals(codeModel.ref(CharSequence.class))) {
+      // input view deserializers declare strings as CharSequence, their default values are still Utf8
+      stringClass = codeModel.ref(Utf8.class);
     }
+    return JExpr._new(stringClass).arg(stringExpr);
   }
 }
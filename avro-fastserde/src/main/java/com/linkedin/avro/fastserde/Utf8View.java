@@ -0,0 +1,133 @@
+package com.linkedin.avro.fastserde;
+
+import java.nio.charset.StandardCharsets;
+import org.apache.avro.util.Utf8;
+
+
+/**
+ * A string read by input view deserializers, see {@link InputViews}: instead of holding a copy of its UTF-8 bytes
+ * like {@link Utf8} does, it refers to the range of the input array they were read from. Hence it's only valid while
+ * that array isn't modified, {@link #materialize()} detaches it.
+ *
+ * It equals and has the same hash code as the other views and {@link Utf8}s of the same bytes, though {@link Utf8}
+ * doesn't consider itself equal to a view.
+ */
+public final class Utf8View implements CharSequence, Comparable<Utf8View> {
+  private final byte[] buffer;
+  private final int offset;
+  private final int length;
+  private String string;
+
+  public Utf8View(byte[] buffer, int offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > buffer.length) {
+      throw new IndexOutOfBoundsException(
+          "Offset " + offset + " and length " + length + " out of bounds of an array of " + buffer.length);
+    }
+    this.buffer = buffer;
+    this.offset = offset;
+    this.length = length;
+  }
+
+  /**
+   * @return array holding the bytes of the string starting at {@link #getOffset()}, usually the whole input
+   */
+  public byte[] getBuffer() {
+    return buffer;
+  }
+
+  public int getOffset() {
+    return offset;
+  }
+
+  public int getByteLength() {
+    return length;
+  }
+
+  /**
+   * @return {@link Utf8} holding a copy of the bytes, which doesn't depend on the input anymore
+   */
+  public Utf8 materialize() {
+    byte[] bytes = new byte[length];
+    System.arraycopy(buffer, offset, bytes, 0, length);
+    return new Utf8(bytes);
+  }
+
+  @Override
+  public int length() {
+    return toString().length();
+  }
+
+  @Override
+  public char charAt(int index) {
+    return toString().charAt(index);
+  }
+
+  @Override
+  public CharSequence subSequence(int start, int end) {
+    return toString().subSequence(start, end);
+  }
+
+  @Override
+  public String toString() {
+    if (string == null) {
+      string = new String(buffer, offset, length, StandardCharsets.UTF_8);
+    }
+    return string;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (o instanceof Utf8View) {
+      Utf8View that = (Utf8View) o;
+      return bytesEqual(that.buffer, that.offset, that.length);
+    }
+    if (o instanceof Utf8) {
+      Utf8 that = (Utf8) o;
+      // getByteLength() doesn't exist in old avro versions
+      return bytesEqual(that.getBytes(), 0, that.getLength());
+    }
+    return false;
+  }
+
+  private boolean bytesEqual(byte[] thatBuffer, int thatOffset, int thatLength) {
+    if (length != thatLength) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      if (buffer[offset + i] != thatBuffer[thatOffset + i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Same as {@link Utf8#hashCode()}.
+   */
+  @Override
+  public int hashCode() {
+    int hash = 0;
+    for (int i = offset; i < offset + length; i++) {
+      hash = hash * 31 + buffer[i];
+    }
+    return hash;
+  }
+
+  /**
+   * Compares the bytes like {@link Utf8#compareTo(Utf8)} does.
+   */
+  @Override
+  public int compareTo(Utf8View that) {
+    int end = Math.min(length, that.length);
+    for (int i = 0; i < end; i++) {
+      int compare = (buffer[offset + i] & 0xff) - (that.buffer[that.offset + i] & 0xff);
+      if (compare != 0) {
+        return compare;
+      }
+    }
+    return length - that.length;
+  }
+}
@@ -7,14 +7,13 @@ import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.Reader;
 import java.security.CodeSource;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
 
@@ -36,7 +35,8 @@ public class Utils {
   }
 
   // Cache the mapping between Schema and the corresponding fingerprint
-  private static final Map<Schema, Long> SCHEMA_IDS_CACHE = new ConcurrentHashMap<>();
+  private static final WeakIdentityFingerprintCache SCHEMA_IDS_CACHE =
+      new WeakIdentityFingerprintCache(SchemaNormalization::parsingFingerprint64);
 
   private Utils() {
   }
@@ -86,13 +86,16 @@ public class Utils {
    * @return fingerprint for the given schema
    */
   public static Long getSchemaFingerprint(Schema schema) {
-    Long schemaId = SCHEMA_IDS_CACHE.get(schema);
-    if (schemaId == null) {
-      schemaId = SchemaNormalization.parsingFingerprint64(schema);
-      SCHEMA_IDS_CACHE.put(schema, schemaId);
-    }
+    return getPrimitiveSchemaFingerprint(schema);
+  }
 
-    return schemaId;
+  /**
+   * Same as {@link #getSchemaFingerprint(Schema)}, without boxing the fingerprint.
+   * @param schema a schema
+   * @return fingerprint for the given schema
+   */
+  static long getPrimitiveSchemaFingerprint(Schema schema) {
+    return SCHEMA_IDS_CACHE.getFingerprint(schema);
   }
 
   private static String replaceLast(String str, char target, char replacement) {
@@ -131,11 +134,25 @@ public class Utils {
    */
   public static String inferCompileDependencies(String existingCompileClasspath, String filePath, Set<String> knownUsedFullyQualifiedClassNameSet)
       throws IOException, ClassNotFoundException {
+    return inferCompileDependencies(existingCompileClasspath, new FileReader(filePath), knownUsedFullyQualifiedClassNameSet);
+  }
+
+  /**
+   * This class is used to infer all the compilation dependencies.
+   * @param existingCompileClasspath existing compile classpath
+   * @param source reader of the java source to compile, closed once consumed
+   * @param knownUsedFullyQualifiedClassNameSet: known fully qualified class name when generating the serialization/de-serialization classes
+   * @return classpath to compile given source
+   * @throws IOException on io issues
+   * @throws ClassNotFoundException on classloading issues
+   */
+  public static String inferCompileDependencies(String existingCompileClasspath, Reader source, Set<String> knownUsedFullyQualifiedClassNameSet)
+      throws IOException, ClassNotFoundException {
     Set<String> usedFullyQualifiedClassNameSet = new HashSet<>(knownUsedFullyQualifiedClassNameSet);
     Set<String> libSet = Arrays.stream(existingCompileClasspath.split(":")).collect(Collectors.toSet());
     final String importPrefix = "import ";
     // collect all the necessary dependencies for compilation
-    try (BufferedReader reader = new BufferedReader(new FileReader(filePath))) {
+    try (BufferedReader reader = new BufferedReader(source)) {
       String line;
       while ((line = reader.readLine()) != null) {
         if (line.startsWith(importPrefix)) {
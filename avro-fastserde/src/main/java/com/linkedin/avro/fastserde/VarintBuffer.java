@@ -0,0 +1,70 @@
+package com.linkedin.avro.fastserde;
+
+import java.io.IOException;
+import org.apache.avro.AvroRuntimeException;
+
+
+/**
+ * Growable buffer holding the raw bytes of zig-zag varint encoded ints or longs, as read from a
+ * {@link ByteArrayDecoder}, which are decoded in bulk on demand. Since varints don't have a fixed width, there is no
+ * way to decode a single element without decoding the preceding ones, hence all the values are decoded at once.
+ */
+public class VarintBuffer {
+  private static final byte[] EMPTY = new byte[0];
+  private byte[] bytes = EMPTY;
+  private int length;
+  private int count;
+
+  /**
+   * Copies the raw bytes of the given number of values from the decoder, which is moved past them.
+   */
+  public void append(ByteArrayDecoder in, long valueCount) throws IOException {
+    int start = in.getPosition();
+    in.skipVarints(valueCount);
+    int byteCount = in.getPosition() - start;
+    if (length + byteCount > bytes.length) {
+      byte[] newBytes = new byte[Math.max(length + byteCount, (bytes.length * 3) / 2 + 1)];
+      System.arraycopy(bytes, 0, newBytes, 0, length);
+      bytes = newBytes;
+    }
+    System.arraycopy(in.getBuffer(), start, bytes, length, byteCount);
+    length += byteCount;
+    count += (int) valueCount;
+  }
+
+  /**
+   * @return number of values held by the buffer
+   */
+  public int getCount() {
+    return count;
+  }
+
+  public void clear() {
+    length = 0;
+    count = 0;
+  }
+
+  /**
+   * Decodes all the values into the given array, which must be able to hold {@link #getCount()} ints.
+   */
+  public void decodeInts(int[] array) {
+    try {
+      new ByteArrayDecoder(bytes, 0, length).readInts(array, 0, count);
+    } catch (IOException e) {
+      // the bytes of all the values were already read by the decoder they were copied from
+      throw new AvroRuntimeException("Truncated raw bytes of " + count + " ints", e);
+    }
+  }
+
+  /**
+   * Decodes all the values into the given array, which must be able to hold {@link #getCount()} longs.
+   */
+  public void decodeLongs(long[] array) {
+    try {
+      new ByteArrayDecoder(bytes, 0, length).readLongs(array, 0, count);
+    } catch (IOException e) {
+      // the bytes of all the values were already read by the decoder they were copied from
+      throw new AvroRuntimeException("Truncated raw bytes of " + count + " longs", e);
+    }
+  }
+}
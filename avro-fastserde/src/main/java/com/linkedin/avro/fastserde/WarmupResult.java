@@ -0,0 +1,97 @@
+package com.linkedin.avro.fastserde;
+
+import static com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper.getSchemaFullName;
+
+import java.util.Collections;
+import java.util.List;
+import org.apache.avro.Schema;
+
+
+/**
+ * Outcome of {@link FastSerdeCache} warmup, i.e. of compiling a set of serializers and/or deserializers ahead of
+ * their first use.
+ */
+public final class WarmupResult {
+  private final int compiledCount;
+  private final List<Failure> failures;
+
+  WarmupResult(int compiledCount, List<Failure> failures) {
+    this.compiledCount = compiledCount;
+    this.failures = Collections.unmodifiableList(failures);
+  }
+
+  /**
+   * @return true if all the requested serializers and deserializers were compiled
+   */
+  public boolean isSuccessful() {
+    return failures.isEmpty();
+  }
+
+  /**
+   * @return number of compiled serializers and deserializers
+   */
+  public int getCompiledCount() {
+    return compiledCount;
+  }
+
+  /**
+   * @return serializers and deserializers which couldn't be compiled, vanilla avro based ones are used instead
+   */
+  public List<Failure> getFailures() {
+    return failures;
+  }
+
+  @Override
+  public String toString() {
+    return "WarmupResult{compiledCount=" + compiledCount + ", failures=" + failures + '}';
+  }
+
+  /**
+   * Serializer or deserializer which couldn't be compiled.
+   */
+  public static final class Failure {
+    private final Schema writerSchema;
+    private final Schema readerSchema;
+    private final boolean generic;
+    private final boolean serializer;
+    private final Throwable cause;
+
+    Failure(Schema writerSchema, Schema readerSchema, boolean generic, boolean serializer, Throwable cause) {
+      this.writerSchema = writerSchema;
+      this.readerSchema = readerSchema;
+      this.generic = generic;
+      this.serializer = serializer;
+      this.cause = cause;
+    }
+
+    public Schema getWriterSchema() {
+      return writerSchema;
+    }
+
+    /**
+     * @return reader schema, same as the writer one for serializers
+     */
+    public Schema getReaderSchema() {
+      return readerSchema;
+    }
+
+    public boolean isGeneric() {
+      return generic;
+    }
+
+    public boolean isSerializer() {
+      return serializer;
+    }
+
+    public Throwable getCause() {
+      return cause;
+    }
+
+    @Override
+    public String toString() {
+      return (generic ? "generic" : "specific") + (serializer ? " serializer" : " deserializer") + " for writer schema: "
+          + getSchemaFullName(writerSchema) + " and reader schema: "
+          + getSchemaFullName(readerSchema) + " failed with: " + cause;
+    }
+  }
+}
@@ -0,0 +1,121 @@
+package com.linkedin.avro.fastserde;
+
+import java.lang.ref.Reference;
+import java.lang.ref.ReferenceQueue;
+import java.lang.ref.WeakReference;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+import org.apache.avro.Schema;
+
+
+/**
+ * Concurrent cache of schema fingerprints keyed by schema identity. Unlike a regular map it neither calls
+ * {@link Schema#hashCode()} nor {@link Schema#equals(Object)}, which walk the whole schema, and it doesn't prevent
+ * schemas from being garbage collected. Lookups neither lock nor allocate, additions are serialized by a lock and
+ * purge entries of collected schemas.
+ *
+ * Equal but distinct schema instances are cached separately, each computing the fingerprint on its own.
+ */
+final class WeakIdentityFingerprintCache {
+  private static final float LOAD_FACTOR = 0.75f;
+
+  private final ToLongFunction<Schema> fingerprintFunction;
+  private final ReferenceQueue<Schema> queue = new ReferenceQueue<>();
+  private volatile AtomicReferenceArray<Node> table = new AtomicReferenceArray<>(64);
+  // guarded by this
+  private int size;
+
+  WeakIdentityFingerprintCache(ToLongFunction<Schema> fingerprintFunction) {
+    this.fingerprintFunction = fingerprintFunction;
+  }
+
+  long getFingerprint(Schema schema) {
+    int hash = System.identityHashCode(schema);
+    AtomicReferenceArray<Node> table = this.table;
+    for (Node node = table.get(hash & (table.length() - 1)); node != null; node = node.next) {
+      if (node.get() == schema) {
+        return node.fingerprint;
+      }
+    }
+    // computed outside of the lock, concurrent callers may compute it more than once
+    long fingerprint = fingerprintFunction.applyAsLong(schema);
+    add(schema, hash, fingerprint);
+    return fingerprint;
+  }
+
+  synchronized int size() {
+    purge();
+    return size;
+  }
+
+  private synchronized void add(Schema schema, int hash, long fingerprint) {
+    purge();
+    int index = hash & (table.length() - 1);
+    for (Node node = table.get(index); node != null; node = node.next) {
+      if (node.get() == schema) {
+        return;
+      }
+    }
+    table.set(index, new Node(schema, hash, fingerprint, table.get(index), queue));
+    if (++size > table.length() * LOAD_FACTOR) {
+      resize();
+    }
+  }
+
+  /**
+   * Unlinks nodes of collected schemas. Lookups traversing the unlinked nodes simply carry on with the next ones.
+   */
+  private void purge() {
+    for (Reference<? extends Schema> reference = queue.poll(); reference != null; reference = queue.poll()) {
+      Node purged = (Node) reference;
+      int index = purged.hash & (table.length() - 1);
+      Node previous = null;
+      for (Node node = table.get(index); node != null; previous = node, node = node.next) {
+        if (node == purged) {
+          if (previous == null) {
+            table.set(index, node.next);
+          } else {
+            previous.next = node.next;
+          }
+          size--;
+          break;
+        }
+      }
+    }
+  }
+
+  /**
+   * Copies the live nodes into a twice as big table, so that concurrent lookups still traversing the old one aren't
+   * redirected to other buckets. Nodes left in the old table get garbage collected along with it, purging them is a
+   * no-op.
+   */
+  private void resize() {
+    AtomicReferenceArray<Node> newTable = new AtomicReferenceArray<>(table.length() * 2);
+    int newSize = 0;
+    for (int i = 0; i < table.length(); i++) {
+      for (Node node = table.get(i); node != null; node = node.next) {
+        Schema schema = node.get();
+        if (schema != null) {
+          int index = node.hash & (newTable.length() - 1);
+          newTable.set(index, new Node(schema, node.hash, node.fingerprint, newTable.get(index), queue));
+          newSize++;
+        }
+      }
+    }
+    size = newSize;
+    table = newTable;
+  }
+
+  private static final class Node extends WeakReference<Schema> {
+    private final int hash;
+    private final long fingerprint;
+    private volatile Node next;
+
+    Node(Schema schema, int hash, long fingerprint, Node next, ReferenceQueue<Schema> queue) {
+      super(schema, queue);
+      this.hash = hash;
+      this.fingerprint = fingerprint;
+      this.next = next;
+    }
+  }
+}
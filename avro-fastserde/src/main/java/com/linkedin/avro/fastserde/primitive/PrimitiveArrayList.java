@@ -89,6 +89,18 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
     return result;
   }
 
+  /**
+   * Replaces the elements of this list with the ones of the given list, which are copied all at once rather than
+   * one by one.
+   *
+   * @param that list of the same type to copy the elements of
+   */
+  public void copyFrom(PrimitiveArrayList<T, L, A> that) {
+    size = 0;
+    getAndAddSize(that.size);
+    System.arraycopy(that.elementsArray, 0, elementsArray, 0, that.size);
+  }
+
   @Override
   public int compareTo(GenericArray<T> that) {
     if (isInstanceOfCorrectPrimitiveList(that)) {
@@ -147,7 +159,8 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
   /**
    * A function used when appending an element to the end of the list. It increments the size as a side-effect.
    *
-   * N.B.: Since {@link #size} is private, this is the only size mutation operation allowed for child classes.
+   * N.B.: Since {@link #size} is private, this and {@link #getAndAddSize(int)} are the only size mutation operations
+   * allowed for child classes.
    *
    * @return the index of the appended element
    */
@@ -155,6 +168,24 @@ public abstract class PrimitiveArrayList<T, L, A> extends AbstractList<T>
     return size++;
   }
 
+  /**
+   * A function used when appending a number of elements to the end of the list at once, e.g. a whole block decoded in
+   * bulk. It makes sure the primitive array can hold them and increments the size as a side-effect.
+   *
+   * @param count number of elements to append
+   * @return the index of the first appended element
+   */
+  protected int getAndAddSize(int count) {
+    if (size + count > capacity()) {
+      A newElements = newArray(Math.max(size + count, (size * 3)/2 + 1));
+      System.arraycopy(elementsArray, 0, newElements, 0, size);
+      this.elementsArray = newElements;
+    }
+    int index = size;
+    size += count;
+    return index;
+  }
+
   /** Checks if the primitve array is at capacity, and if so, resizes it to 1.5x + 1. */
   protected void capacityCheck() {
     if (size == capacity()) {
@@ -2,7 +2,10 @@ package com.linkedin.avro.fastserde.primitive;
 
 import com.linkedin.avro.api.PrimitiveBooleanList;
 import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.ByteArrayDecoder;
+import java.io.IOException;
 import org.apache.avro.Schema;
+import org.apache.avro.io.Decoder;
 
 
 public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLongList, long[]> implements PrimitiveLongList {
@@ -16,6 +19,38 @@ public class PrimitiveLongArrayList extends PrimitiveArrayList<Long, PrimitiveLo
     super();
   }
 
+  /**
+   * Instantiate (or re-use) and populate a {@link PrimitiveLongArrayList} from a {@link Decoder}. Every block of the
+   * array is decoded in one go right into the elements array, with {@link ByteArrayDecoder#readLongs} when possible.
+   * Since ints are encoded the same way, it reads arrays of ints promoted to longs as well.
+   *
+   * @param old old {@link PrimitiveLongArrayList} to reuse
+   * @param in {@link Decoder} to read new list from
+   * @return a {@link PrimitiveLongArrayList} with data, possibly the old argument reused
+   * @throws IOException on io errors
+   */
+  public static Object readPrimitiveLongArray(Object old, Decoder in) throws IOException {
+    PrimitiveLongArrayList array;
+    if (old instanceof PrimitiveLongArrayList) {
+      array = (PrimitiveLongArrayList) old;
+      array.clear();
+    } else {
+      array = new PrimitiveLongArrayList(0);
+    }
+
+    for (long length = in.readArrayStart(); length > 0; length = in.arrayNext()) {
+      int index = array.getAndAddSize((int) length);
+      if (in instanceof ByteArrayDecoder) {
+        ((ByteArrayDecoder) in).readLongs(array.elementsArray, index, (int) length);
+      } else {
+        for (int i = index; i < index + length; i++) {
+          array.elementsArray[i] = in.readLong();
+        }
+      }
+    }
+    return array;
+  }
+
   @Override
   public Long get(int index) {
     return getPrimitive(index);
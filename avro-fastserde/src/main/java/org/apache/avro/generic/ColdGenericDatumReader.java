@@ -1,21 +1,49 @@
 package org.apache.avro.generic;
 
+import com.linkedin.avro.fastserde.LogicalTypeConversions;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Map;
 import org.apache.avro.Schema;
+import org.apache.avro.io.ResolvingDecoder;
 
 
 /**
  * A light-weight extension of {@link GenericDatumReader} which merely ensures that the types of the
- * extended API are always returned.
+ * extended API are always returned. Optionally converts logical types the same way as the generated
+ * deserializers do, see {@link LogicalTypeConversions}.
  *
  * This class needs to be in the org.apache.avro.generic package in order to access protected methods.
  */
 public class ColdGenericDatumReader<T> extends GenericDatumReader<T> implements ColdDatumReaderMixIn {
+  private final Map<Schema, LogicalTypeConversions.Conversion> conversions;
+
   public ColdGenericDatumReader(Schema writerSchema, Schema readerSchema) {
+    this(writerSchema, readerSchema, false);
+  }
+
+  public ColdGenericDatumReader(Schema writerSchema, Schema readerSchema, boolean logicalTypeConversions) {
     super(writerSchema, readerSchema);
+    this.conversions = logicalTypeConversions
+        ? LogicalTypeConversions.collectConversions(readerSchema)
+        : Collections.emptyMap();
+  }
+
+  @Override
+  protected Object read(Object old, Schema expected, ResolvingDecoder in) throws IOException {
+    LogicalTypeConversions.Conversion conversion = conversions.get(expected);
+    if (conversion != null) {
+      return conversion.fromRaw(super.read(null, expected, in));
+    }
+    return super.read(old, expected, in);
   }
 
   @Override
   protected Object newArray(Object old, int size, Schema schema) {
+    if (conversions.containsKey(schema.getElementType())) {
+      // converted logical types can't be kept in the primitive lists
+      return super.newArray(old != null && old.getClass() == GenericData.Array.class ? old : null, size, schema);
+    }
     return newArray(old, size, schema, super::newArray);
   }
 }
@@ -0,0 +1,68 @@
+package org.apache.avro.generic;
+
+import com.linkedin.avro.fastserde.LogicalTypeConversions;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.io.Encoder;
+
+
+/**
+ * An extension of {@link GenericDatumWriter} which converts logical types the same way as the generated
+ * serializers do, see {@link LogicalTypeConversions}.
+ */
+public class ColdGenericDatumWriter<T> extends GenericDatumWriter<T> {
+  private final Map<Schema, LogicalTypeConversions.Conversion> conversions;
+
+  public ColdGenericDatumWriter(Schema schema) {
+    super(schema);
+    this.conversions = LogicalTypeConversions.collectConversions(schema);
+  }
+
+  @Override
+  protected void write(Schema schema, Object datum, Encoder out) throws IOException {
+    if (Schema.Type.UNION.equals(schema.getType()) && datum != null) {
+      // union branches can't be resolved by the converted classes
+      List<Schema> types = schema.getTypes();
+      for (int i = 0; i < types.size(); i++) {
+        LogicalTypeConversions.Conversion conversion = conversions.get(types.get(i));
+        if (conversion != null && conversion.getConvertedClass().isInstance(datum)) {
+          out.writeIndex(i);
+          writeRaw(types.get(i), conversion.toRaw(datum), out);
+          return;
+        }
+      }
+    } else {
+      LogicalTypeConversions.Conversion conversion = conversions.get(schema);
+      if (conversion != null) {
+        writeRaw(schema, conversion.toRaw(datum), out);
+        return;
+      }
+    }
+    super.write(schema, datum, out);
+  }
+
+  private static void writeRaw(Schema schema, Object raw, Encoder out) throws IOException {
+    switch (schema.getType()) {
+      case FIXED:
+        out.writeFixed((byte[]) raw);
+        break;
+      case BYTES:
+        out.writeBytes((ByteBuffer) raw);
+        break;
+      case STRING:
+        out.writeString((String) raw);
+        break;
+      case INT:
+        out.writeInt((Integer) raw);
+        break;
+      case LONG:
+        out.writeLong((Long) raw);
+        break;
+      default:
+        throw new IllegalStateException("Unsupported logical type schema of type: " + schema.getType());
+    }
+  }
+}
@@ -0,0 +1,74 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class ByteBufferBackedPrimitiveDoubleListTest {
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldGetElementsAcrossBlocks() throws IOException {
+    // when
+    ByteBufferBackedPrimitiveDoubleList list = read(null, 2, 1d, 2d, 3d, 4d, 5d);
+
+    // then
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(list.getPrimitive(i), (double) (i + 1));
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReuseLargerBuffers() throws IOException {
+    // given
+    ByteBufferBackedPrimitiveDoubleList list = read(null, 3, 1d, 2d, 3d, 4d, 5d, 6d);
+    list.setPrimitive(0, 0d);
+
+    // when
+    ByteBufferBackedPrimitiveDoubleList reused = read(list, 2, 7d, 8d, 9d);
+
+    // then
+    Assert.assertSame(reused, list);
+    Assert.assertEquals(reused.getPrimitive(2), 9d);
+    Assert.assertEquals(reused, Arrays.asList(7d, 8d, 9d));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReuseListCreatedFromCollection() throws IOException {
+    // given
+    ByteBufferBackedPrimitiveDoubleList list = new ByteBufferBackedPrimitiveDoubleList(Arrays.asList(1d, 2d));
+
+    // when
+    ByteBufferBackedPrimitiveDoubleList reused = read(list, 2, 3d, 4d, 5d);
+
+    // then
+    Assert.assertSame(reused, list);
+    Assert.assertEquals(reused, Arrays.asList(3d, 4d, 5d));
+  }
+
+  /**
+   * Writes the array in blocks of up to the given number of elements, then reads it back.
+   */
+  private static ByteBufferBackedPrimitiveDoubleList read(Object reuse, int blockSize, double... elements)
+      throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (int i = 0; i < elements.length; i++) {
+      if (i % blockSize == 0) {
+        encoder.writeLong(Math.min(blockSize, elements.length - i));
+      }
+      encoder.writeDouble(elements[i]);
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    byte[] bytes = baos.toByteArray();
+    Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+    return (ByteBufferBackedPrimitiveDoubleList) ByteBufferBackedPrimitiveDoubleList.readPrimitiveDoubleArray(reuse,
+        decoder);
+  }
+}
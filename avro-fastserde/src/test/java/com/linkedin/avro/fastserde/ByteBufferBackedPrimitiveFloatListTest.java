@@ -0,0 +1,75 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class ByteBufferBackedPrimitiveFloatListTest {
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldGetElementsAcrossBlocks() throws IOException {
+    // when
+    ByteBufferBackedPrimitiveFloatList list = read(null, 2, 1f, 2f, 3f, 4f, 5f);
+
+    // then
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(list.getPrimitive(i), (float) (i + 1));
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReuseLargerBuffers() throws IOException {
+    // given
+    ByteBufferBackedPrimitiveFloatList list = read(null, 3, 1f, 2f, 3f, 4f, 5f, 6f);
+    list.setPrimitive(0, 0f);
+
+    // when
+    ByteBufferBackedPrimitiveFloatList reused = read(list, 2, 7f, 8f, 9f);
+
+    // then
+    Assert.assertSame(reused, list);
+    Assert.assertEquals(reused.getPrimitive(2), 9f);
+    Assert.assertEquals(reused, Arrays.asList(7f, 8f, 9f));
+    reused.reverse();
+    Assert.assertEquals(reused, Arrays.asList(9f, 8f, 7f));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldSetAndCompareNotYetDecodedLists() throws IOException {
+    // given
+    ByteBufferBackedPrimitiveFloatList list = read(null, 2, 1f, 2f, 3f);
+    ByteBufferBackedPrimitiveFloatList other = read(null, 1, 1f, 2f, 3f);
+
+    // then
+    Assert.assertEquals(list.compareTo(other), 0);
+    Assert.assertEquals(list.set(1, 5f), 2f);
+    Assert.assertTrue(list.compareTo(other) > 0);
+  }
+
+  /**
+   * Writes the array in blocks of up to the given number of elements, then reads it back.
+   */
+  private static ByteBufferBackedPrimitiveFloatList read(Object reuse, int blockSize, float... elements)
+      throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (int i = 0; i < elements.length; i++) {
+      if (i % blockSize == 0) {
+        encoder.writeLong(Math.min(blockSize, elements.length - i));
+      }
+      encoder.writeFloat(elements[i]);
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    byte[] bytes = baos.toByteArray();
+    Decoder decoder = AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+    return (ByteBufferBackedPrimitiveFloatList) ByteBufferBackedPrimitiveFloatList.readPrimitiveFloatArray(reuse,
+        decoder);
+  }
+}
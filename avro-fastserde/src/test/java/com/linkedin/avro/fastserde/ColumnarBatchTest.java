@@ -0,0 +1,213 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.FastDeserializerGeneratorBase.DeserializerKind;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class ColumnarBatchTest {
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"deserializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        ColumnarBatchTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeRecordsIntoColumns() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testBoolean", Schema.Type.BOOLEAN),
+        createPrimitiveUnionFieldSchema("testUnionLong", Schema.Type.LONG),
+        createPrimitiveFieldSchema("testFloat", Schema.Type.FLOAT),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES));
+    FastDeserializer<ColumnarBatch> deserializer = generateDeserializer(recordSchema, recordSchema);
+    // grows past the initial capacity
+    ColumnarBatch batch = new ColumnarBatch(recordSchema, 2);
+
+    // when
+    for (int i = 0; i < 5; i++) {
+      GenericRecord builder = new GenericData.Record(recordSchema);
+      builder.put("testInt", i);
+      builder.put("testBoolean", i % 2 == 0);
+      builder.put("testUnionLong", i % 2 == 0 ? null : (long) i);
+      builder.put("testFloat", i + 0.5f);
+      builder.put("testUnionString", i % 2 == 0 ? "string" + i : null);
+      builder.put("testBytes", ByteBuffer.wrap(new byte[]{(byte) i, 1}));
+      Assert.assertSame(deserializer.deserialize(batch, new ByteArrayDecoder(serialize(builder))), batch);
+    }
+
+    // then
+    Assert.assertEquals(batch.size(), 5);
+    for (int i = 0; i < 5; i++) {
+      Assert.assertEquals(batch.getIntColumn("testInt").get(i), i);
+      Assert.assertEquals(batch.getIntColumn("testBoolean").getBoolean(i), i % 2 == 0);
+      Assert.assertEquals(batch.getLongColumn("testUnionLong").isNull(i), i % 2 == 0);
+      Assert.assertEquals(batch.getDoubleColumn("testFloat").get(i), i + 0.5);
+      Assert.assertEquals(batch.getBytesColumn("testUnionString").getString(i), i % 2 == 0 ? "string" + i : null);
+      Assert.assertEquals(batch.getBytesColumn("testBytes").getByteArray(i), new byte[]{(byte) i, 1});
+    }
+    Assert.assertEquals(batch.getLongColumn("testUnionLong").get(3), 3L);
+    Assert.assertEquals(batch.getBytesColumn("testUnionString").getLength(1), 0);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeEvolvedSchemaIntoColumns() throws Exception {
+    // given
+    Schema writerSchema = Schema.parse("{\"type\": \"record\", \"name\": \"EvolvedRecord\", \"fields\": ["
+        + "{\"name\": \"testInt\", \"type\": \"int\"},"
+        + "{\"name\": \"removedArray\", \"type\": {\"type\": \"array\", \"items\": \"string\"}},"
+        + "{\"name\": \"testString\", \"type\": \"string\"}]}");
+    Schema readerSchema = Schema.parse("{\"type\": \"record\", \"name\": \"EvolvedRecord\", \"fields\": ["
+        + "{\"name\": \"testString\", \"type\": \"string\"},"
+        + "{\"name\": \"testInt\", \"type\": \"long\"},"
+        + "{\"name\": \"addedDouble\", \"type\": \"double\", \"default\": 1.5},"
+        + "{\"name\": \"addedString\", \"type\": \"string\", \"default\": \"abc\"},"
+        + "{\"name\": \"addedUnionInt\", \"type\": [\"null\", \"int\"], \"default\": null}]}");
+    GenericRecord builder = new GenericData.Record(writerSchema);
+    builder.put("testInt", 7);
+    builder.put("removedArray", Arrays.asList("x", "y"));
+    builder.put("testString", "def");
+
+    // when
+    ColumnarBatch batch =
+        generateDeserializer(writerSchema, readerSchema).deserialize(null, new ByteArrayDecoder(serialize(builder)));
+
+    // then
+    Assert.assertEquals(batch.getSchema(), readerSchema);
+    Assert.assertEquals(batch.size(), 1);
+    Assert.assertEquals(batch.getBytesColumn("testString").getString(0), "def");
+    Assert.assertEquals(batch.getLongColumn("testInt").get(0), 7L);
+    Assert.assertEquals(batch.getDoubleColumn("addedDouble").get(0), 1.5);
+    Assert.assertEquals(batch.getBytesColumn("addedString").getString(0), "abc");
+    Assert.assertTrue(batch.getIntColumn("addedUnionInt").isNull(0));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeTheSameAsColdDeserializer() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testLong", 5L);
+    builder.put("testUnionString", "xyz");
+    byte[] bytes = serialize(builder);
+
+    // when
+    ColumnarBatch batch = generateDeserializer(recordSchema, recordSchema).deserialize(null, new ByteArrayDecoder(bytes));
+    ColumnarBatch coldBatch = new FastSerdeCache.FastDeserializerWithAvroColumnarImpl(recordSchema, recordSchema)
+        .deserialize(null, new ByteArrayDecoder(bytes));
+
+    // then
+    Assert.assertEquals(coldBatch.size(), batch.size());
+    Assert.assertEquals(coldBatch.getLongColumn("testLong").get(0), batch.getLongColumn("testLong").get(0));
+    Assert.assertEquals(coldBatch.getBytesColumn("testUnionString").getString(0),
+        batch.getBytesColumn("testUnionString").getString(0));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadColumnsOfContiguousRecords() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    int[] offsets = new int[4];
+    for (int i = 0; i < 3; i++) {
+      GenericRecord builder = new GenericData.Record(recordSchema);
+      builder.put("testInt", i);
+      builder.put("testString", "value" + i);
+      offsets[i] = baos.size();
+      baos.write(serialize(builder));
+    }
+    offsets[3] = baos.size();
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    cache.getFastColumnarDeserializerAsync(recordSchema, recordSchema).get();
+    FastColumnarDatumReader reader = new FastColumnarDatumReader(recordSchema, cache);
+
+    // when
+    ColumnarBatch batch = reader.readColumns(baos.toByteArray(), offsets, null);
+    ColumnarBatch reusedBatch = reader.readColumns(baos.toByteArray(), Arrays.copyOf(offsets, 3), batch);
+
+    // then
+    Assert.assertSame(reusedBatch, batch);
+    Assert.assertEquals(batch.size(), 2);
+    Assert.assertEquals(batch.getIntColumn("testInt").get(1), 1);
+    Assert.assertEquals(batch.getBytesColumn("testString").getString(1), "value1");
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = UnsupportedOperationException.class)
+  public void shouldNotReadBatchIntoArrayOfBatches() throws Exception {
+    Schema recordSchema = createRecord(createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    new FastColumnarDatumReader(recordSchema).readBatch(new byte[0], new int[]{0}, new ColumnarBatch[0]);
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = FastDeserializerGeneratorException.class)
+  public void shouldNotGenerateForFieldsWithoutColumns() throws Exception {
+    Schema recordSchema = createRecord(createMapFieldSchema("testMap", Schema.create(Schema.Type.STRING)));
+    generateDeserializer(recordSchema, recordSchema);
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectBatchOfOtherSchema() throws Exception {
+    Schema recordSchema = createRecord(createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema otherSchema = createRecord("OtherRecord", createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 1);
+    generateDeserializer(recordSchema, recordSchema)
+        .deserialize(new ColumnarBatch(otherSchema), new ByteArrayDecoder(serialize(builder)));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldClearBatch() {
+    Schema recordSchema = createRecord(createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testUnionString", "abc");
+    ColumnarBatch batch = new ColumnarBatch(recordSchema);
+    batch.addRecord(record);
+
+    batch.clear();
+    batch.addRow();
+
+    Assert.assertEquals(batch.size(), 1);
+    Assert.assertTrue(batch.getBytesColumn("testUnionString").isNull(0));
+    Assert.assertEquals(batch.getBytesColumn("testUnionString").getLength(0), 0);
+    Assert.assertNull(batch.getBytesColumn("testUnionString").getString(0));
+  }
+
+  private static FastDeserializer<ColumnarBatch> generateDeserializer(Schema writerSchema, Schema readerSchema) {
+    return new FastGenericDeserializerGenerator<ColumnarBatch>(writerSchema, readerSchema, DeserializerKind.COLUMNAR,
+        tempDir, classLoader, null).generateDeserializer();
+  }
+
+  private static byte[] serialize(GenericRecord record) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
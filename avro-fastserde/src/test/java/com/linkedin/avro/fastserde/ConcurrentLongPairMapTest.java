@@ -0,0 +1,98 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.HashMap;
+import java.util.Map;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class ConcurrentLongPairMapTest {
+
+  @Test(groups = "deserializationTest")
+  public void testBasicOperations() {
+    ConcurrentLongPairMap<String> map = new ConcurrentLongPairMap<>();
+    Assert.assertNull(map.get(1, 2));
+    Assert.assertNull(map.putIfAbsent(1, 2, "a"));
+    Assert.assertEquals(map.putIfAbsent(1, 2, "b"), "a");
+    Assert.assertEquals(map.get(1, 2), "a");
+    Assert.assertNull(map.get(2, 1));
+    Assert.assertEquals(map.size(), 1);
+
+    Assert.assertFalse(map.replace(1, 2, "b", "c"));
+    String value = map.get(1, 2);
+    Assert.assertTrue(map.replace(1, 2, value, "c"));
+    Assert.assertEquals(map.get(1, 2), "c");
+    Assert.assertEquals(map.put(1, 2, "d"), "c");
+
+    Assert.assertFalse(map.remove(1, 2, "c"));
+    Assert.assertTrue(map.remove(1, 2, map.get(1, 2)));
+    Assert.assertNull(map.get(1, 2));
+    Assert.assertEquals(map.size(), 0);
+    Assert.assertFalse(map.replace(1, 2, null, "e"));
+
+    // tombstone is reused by the same key
+    Assert.assertNull(map.putIfAbsent(1, 2, "f"));
+    Assert.assertEquals(map.get(1, 2), "f");
+    Assert.assertEquals(map.size(), 1);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testKeysDontCollide() {
+    ConcurrentLongPairMap<String> map = new ConcurrentLongPairMap<>();
+    // used to collide once concatenated into a string key
+    map.put(12, 3, "12-3");
+    map.put(1, 23, "1-23");
+    // used to collide because of Math.abs
+    map.put(-5, 5, "-5-5");
+    map.put(5, 5, "5-5");
+    Assert.assertEquals(map.get(12, 3), "12-3");
+    Assert.assertEquals(map.get(1, 23), "1-23");
+    Assert.assertEquals(map.get(-5, 5), "-5-5");
+    Assert.assertEquals(map.get(5, 5), "5-5");
+    Assert.assertEquals(map.size(), 4);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testRehash() {
+    ConcurrentLongPairMap<Long> map = new ConcurrentLongPairMap<>(2);
+    for (long i = 0; i < 10_000; i++) {
+      map.put(i, -i, i);
+      if (i % 3 == 0) {
+        Assert.assertTrue(map.remove(i, -i, map.get(i, -i)));
+      }
+    }
+    Map<Long, Long> entries = new HashMap<>();
+    map.forEach((key1, key2, value) -> {
+      Assert.assertEquals(key2, -key1);
+      entries.put(key1, value);
+    });
+    Assert.assertEquals(map.size(), entries.size());
+    for (long i = 0; i < 10_000; i++) {
+      Assert.assertEquals(map.get(i, -i), i % 3 == 0 ? null : Long.valueOf(i));
+      Assert.assertEquals(entries.get(i), i % 3 == 0 ? null : Long.valueOf(i));
+    }
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testConcurrentReads() throws Exception {
+    ConcurrentLongPairMap<Long> map = new ConcurrentLongPairMap<>();
+    int entries = 100_000;
+    Thread writer = new Thread(() -> {
+      for (long i = 0; i < entries; i++) {
+        map.putIfAbsent(i, i + 1, i);
+      }
+    });
+    writer.start();
+    // once visible, entries are expected to stay visible and complete throughout the rehashes
+    for (long i = 0; i < entries; i++) {
+      Long value;
+      while ((value = map.get(i, i + 1)) == null) {
+        Thread.yield();
+      }
+      Assert.assertEquals(value.longValue(), i);
+      Assert.assertEquals(map.get(i / 2, i / 2 + 1), Long.valueOf(i / 2));
+    }
+    writer.join();
+    Assert.assertEquals(map.size(), entries);
+  }
+}
@@ -0,0 +1,216 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.BinaryData;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastComparatorTest {
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"SortedRecord\", "
+      + "\"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"int\"},"
+      + "{\"name\": \"testLong\", \"type\": \"long\", \"order\": \"descending\"},"
+      + "{\"name\": \"testIgnored\", \"type\": {\"type\": \"map\", \"values\": \"string\"}, \"order\": \"ignore\"},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testUnion\", \"type\": [\"null\", \"double\", \"string\"], \"order\": \"descending\"},"
+      + "{\"name\": \"testArray\", \"type\": {\"type\": \"array\", \"items\": \"float\"}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"testFixed\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 2}},"
+      + "{\"name\": \"testSubRecord\", \"type\": {\"type\": \"record\", \"name\": \"SubRecord\", \"fields\": ["
+      + "  {\"name\": \"subBoolean\", \"type\": \"boolean\", \"order\": \"descending\"},"
+      + "  {\"name\": \"subBytes\", \"type\": \"bytes\"}]}}]}");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"serializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        FastComparatorTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCompareTheSameAsBinaryData() throws Exception {
+    // given
+    FastComparator comparator = generateComparator(SCHEMA);
+    List<byte[]> serialized = new ArrayList<>();
+    GenericRecord base = newRecord();
+    serialized.add(serialize(base, SCHEMA));
+    String[] modifiedFields = {"testInt", "testLong", "testIgnored", "testString", "testUnion", "testArray",
+        "testEnum", "testFixed", "testSubRecord"};
+    for (String field : modifiedFields) {
+      for (int variant = 0; variant < 3; variant++) {
+        GenericRecord record = newRecord();
+        record.put(field, modifiedValue(field, variant));
+        serialized.add(serialize(record, SCHEMA));
+      }
+    }
+
+    // then
+    for (byte[] b1 : serialized) {
+      for (byte[] b2 : serialized) {
+        int expected = BinaryData.compare(b1, 0, b2, 0, SCHEMA);
+        int actual = comparator.compare(b1, 0, b1.length, b2, 0, b2.length);
+        Assert.assertEquals(Integer.signum(actual), Integer.signum(expected));
+      }
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCompareAtOffsets() throws Exception {
+    // given
+    Schema schema = createRecord(createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    GenericRecord record1 = new GenericData.Record(schema);
+    record1.put("testString", "abc");
+    GenericRecord record2 = new GenericData.Record(schema);
+    record2.put("testString", "abd");
+    byte[] bytes1 = serialize(record1, schema);
+    byte[] bytes2 = serialize(record2, schema);
+    byte[] both = new byte[bytes1.length + bytes2.length];
+    System.arraycopy(bytes1, 0, both, 0, bytes1.length);
+    System.arraycopy(bytes2, 0, both, bytes1.length, bytes2.length);
+
+    // when
+    FastComparator comparator = generateComparator(schema);
+
+    // then
+    Assert.assertTrue(comparator.compare(both, 0, bytes1.length, both, bytes1.length, bytes2.length) < 0);
+    Assert.assertTrue(comparator.compare(both, bytes1.length, both, 0) > 0);
+    Assert.assertEquals(comparator.compare(both, 0, bytes1, 0), 0);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCompareNaNAndNegativeZeroTheSameAsBinaryData() throws Exception {
+    // given
+    Schema schema = createRecord(createPrimitiveFieldSchema("testFloat", Schema.Type.FLOAT),
+        createPrimitiveFieldSchema("testDouble", Schema.Type.DOUBLE));
+    Object[][] values = {{Float.NaN, Double.NaN}, {-0.0f, -0.0d}, {0.0f, 0.0d}, {1.0f, 1.0d}, {-1.0f, -1.0d}};
+    List<byte[]> serialized = new ArrayList<>();
+    for (Object[] floatValues : values) {
+      for (Object[] doubleValues : values) {
+        GenericRecord record = new GenericData.Record(schema);
+        record.put("testFloat", floatValues[0]);
+        record.put("testDouble", doubleValues[1]);
+        serialized.add(serialize(record, schema));
+      }
+    }
+
+    // when
+    FastComparator comparator = generateComparator(schema);
+
+    // then
+    for (byte[] b1 : serialized) {
+      for (byte[] b2 : serialized) {
+        Assert.assertEquals(comparator.compare(b1, 0, b1.length, b2, 0, b2.length),
+            BinaryData.compare(b1, 0, b2, 0, schema));
+      }
+    }
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = FastSerdeGeneratorException.class)
+  public void shouldNotGenerateForMaps() {
+    generateComparator(createRecord(createMapFieldSchema("testMap", Schema.create(Schema.Type.INT))));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCompareWithCache() throws Exception {
+    // given
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    GenericRecord record = newRecord();
+    byte[] bytes1 = serialize(record, SCHEMA);
+    record.put("testInt", 2);
+    byte[] bytes2 = serialize(record, SCHEMA);
+
+    // when
+    FastComparator comparator = cache.getFastComparatorAsync(SCHEMA).get();
+
+    // then
+    Assert.assertFalse(comparator instanceof FastSerdeCache.FastComparatorWithAvroImpl);
+    Assert.assertSame(cache.getFastComparator(SCHEMA), comparator);
+    Assert.assertTrue(comparator.compare(bytes1, 0, bytes2, 0) < 0);
+  }
+
+  private static GenericRecord newRecord() {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("testInt", 1);
+    record.put("testLong", 10L);
+    record.put("testIgnored", Collections.singletonMap("key", "value"));
+    record.put("testString", "bcd");
+    record.put("testUnion", 1.5);
+    record.put("testArray", Arrays.asList(1f, 2f));
+    record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("testEnum").schema(), "A"));
+    record.put("testFixed",
+        AvroCompatibilityHelper.newFixed(SCHEMA.getField("testFixed").schema(), new byte[]{1, (byte) 0x80}));
+    record.put("testSubRecord", newSubRecord(false, new byte[]{1}));
+    return record;
+  }
+
+  private static GenericRecord newSubRecord(boolean subBoolean, byte[] subBytes) {
+    GenericRecord subRecord = new GenericData.Record(SCHEMA.getField("testSubRecord").schema());
+    subRecord.put("subBoolean", subBoolean);
+    subRecord.put("subBytes", ByteBuffer.wrap(subBytes));
+    return subRecord;
+  }
+
+  /**
+   * @return values lower, higher or otherwise different than the ones of {@link #newRecord()}
+   */
+  private static Object modifiedValue(String field, int variant) {
+    switch (field) {
+      case "testInt":
+        return new int[]{-5, 2, 300}[variant];
+      case "testLong":
+        return new long[]{9L, 11L, Long.MIN_VALUE}[variant];
+      case "testIgnored":
+        return Collections.singletonMap("other" + variant, "value");
+      case "testString":
+        return new String[]{"bc", "bcda", "é"}[variant];
+      case "testUnion":
+        return new Object[]{null, -2.5, "union"}[variant];
+      case "testArray":
+        return new List<?>[]{Collections.emptyList(), Arrays.asList(1f, 2f, 0f), Arrays.asList(1f, 3f)}[variant];
+      case "testEnum":
+        return AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("testEnum").schema(), variant == 0 ? "A" : "B");
+      case "testFixed":
+        return AvroCompatibilityHelper.newFixed(SCHEMA.getField("testFixed").schema(),
+            new byte[][]{{1, 0x7f}, {(byte) 0xff, 0}, {1, (byte) 0x80}}[variant]);
+      case "testSubRecord":
+        return variant == 0 ? newSubRecord(true, new byte[]{1}) : newSubRecord(false, new byte[]{1, (byte) variant});
+      default:
+        throw new IllegalArgumentException(field);
+    }
+  }
+
+  private static FastComparator generateComparator(Schema schema) {
+    return new FastComparatorGenerator(schema, tempDir, classLoader, null).generateComparator();
+  }
+
+  private static byte[] serialize(Object datum, Schema schema) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
@@ -2,10 +2,18 @@ package com.linkedin.avro.fastserde;
 
 import com.linkedin.avro.fastserde.generated.avro.TestEnum;
 import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
 import org.apache.avro.util.Utf8;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
@@ -97,4 +105,162 @@ public class FastDatumReaderTest {
     Assert.assertEquals(new Utf8("test"),
         fastGenericDatumReader.read(null, FastSerdeTestsSupport.genericDataAsDecoder(record)).get("test"));
   }
+
+  @Test(groups = {"deserializationTest"})
+  @SuppressWarnings("unchecked")
+  public void shouldCreateProjectingGenericDatumReader() throws IOException {
+    // given
+    Schema subRecordSchema = createRecord("ProjectedSubRecord", createPrimitiveFieldSchema("subField1", Schema.Type.STRING),
+        createPrimitiveFieldSchema("subField2", Schema.Type.INT));
+    Schema recordSchema = createRecord("ProjectedRecord",
+        createPrimitiveFieldSchema("field1", Schema.Type.STRING),
+        createField("subRecord", subRecordSchema),
+        createMapFieldSchema("map", Schema.create(Schema.Type.STRING)),
+        createPrimitiveFieldSchema("field2", Schema.Type.LONG));
+    FieldProjection projection = FieldProjection.of("subRecord.subField2", "field2");
+    FastGenericDatumReader<GenericRecord> fastGenericDatumReader =
+        new FastGenericDatumReader<>(recordSchema, recordSchema, projection, cache);
+
+    GenericRecord subRecord = new GenericData.Record(subRecordSchema);
+    subRecord.put("subField1", "abc");
+    subRecord.put("subField2", 1);
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("field1", "def");
+    record.put("subRecord", subRecord);
+    record.put("map", Collections.singletonMap("key", "value"));
+    record.put("field2", 2L);
+
+    // when
+    fastGenericDatumReader.read(null, FastSerdeTestsSupport.genericDataAsDecoder(record));
+    GenericRecord projectedRecord =
+        fastGenericDatumReader.read(null, FastSerdeTestsSupport.genericDataAsDecoder(record));
+
+    // then
+    Schema projectedSchema = cache.getProjectedSchema(recordSchema, projection);
+    Assert.assertSame(cache.getProjectedSchema(recordSchema, FieldProjection.of("field2", "subRecord.subField2")),
+        projectedSchema);
+    Assert.assertSame(projectedRecord.getSchema(), projectedSchema);
+    Assert.assertEquals(projectedSchema.getFields().size(), 2);
+    Assert.assertEquals(((GenericRecord) projectedRecord.get("subRecord")).getSchema().getFields().size(), 1);
+    Assert.assertEquals(((GenericRecord) projectedRecord.get("subRecord")).get("subField2"), 1);
+    Assert.assertEquals(projectedRecord.get("field2"), 2L);
+
+    FastDeserializer<GenericRecord> fastGenericDeserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(recordSchema, recordSchema, projection);
+    Assert.assertFalse(fastGenericDeserializer instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastGenericDeserializer(recordSchema, projectedSchema), fastGenericDeserializer);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadBatchFromArray() throws IOException {
+    // given
+    Schema recordSchema = createRecord("BatchRecord", createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createPrimitiveFieldSchema("value", Schema.Type.LONG));
+    FastGenericDatumReader<GenericRecord> fastGenericDatumReader = new FastGenericDatumReader<>(recordSchema, cache);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    baos.write(new byte[]{1, 2, 3});
+    int[] offsets = new int[4];
+    for (int i = 0; i < 3; i++) {
+      offsets[i] = baos.size();
+      baos.write(serialize(batchRecord(recordSchema, i)));
+    }
+    offsets[3] = baos.size();
+    GenericRecord[] records = new GenericRecord[4];
+
+    // when
+    int count = fastGenericDatumReader.readBatch(baos.toByteArray(), offsets, records);
+    GenericRecord firstRecord = records[0];
+    fastGenericDatumReader.readBatch(baos.toByteArray(), offsets, records);
+
+    // then
+    Assert.assertEquals(count, 3);
+    for (int i = 0; i < 3; i++) {
+      Assert.assertEquals(records[i].get("name"), new Utf8("record" + i));
+      Assert.assertEquals(records[i].get("value"), (long) i);
+    }
+    Assert.assertNull(records[3]);
+    Assert.assertSame(records[0], firstRecord);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadBatchFromBuffers() throws IOException {
+    // given
+    Schema recordSchema = createRecord("BatchRecord", createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createPrimitiveFieldSchema("value", Schema.Type.LONG));
+    FastGenericDatumReader<GenericRecord> fastGenericDatumReader = new FastGenericDatumReader<>(recordSchema, cache);
+
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 4; i++) {
+      byte[] bytes = serialize(batchRecord(recordSchema, i));
+      ByteBuffer buffer = i % 2 == 0 ? ByteBuffer.allocate(bytes.length + 2) : ByteBuffer.allocateDirect(bytes.length + 2);
+      buffer.put((byte) 0).put(bytes).put((byte) 0).flip();
+      buffer.position(1);
+      buffer.limit(bytes.length + 1);
+      buffers.add(i % 2 == 0 ? buffer.slice() : buffer);
+    }
+    GenericRecord[] records = new GenericRecord[4];
+
+    // when
+    int count = fastGenericDatumReader.readBatch(buffers, records);
+
+    // then
+    Assert.assertEquals(count, 4);
+    for (int i = 0; i < 4; i++) {
+      Assert.assertEquals(records[i].get("name"), new Utf8("record" + i));
+      Assert.assertEquals(records[i].get("value"), (long) i);
+    }
+    Assert.assertEquals(buffers.get(1).position(), 1);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadBatchOfInputViewsFromDirectBuffers() throws IOException {
+    // given
+    Schema recordSchema = createRecord("BatchRecord", createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createPrimitiveFieldSchema("value", Schema.Type.LONG));
+    FastGenericDatumReader<GenericRecord> fastGenericDatumReader =
+        new FastGenericDatumReader<>(recordSchema, recordSchema, cache, true);
+    cache.getFastInputViewGenericDeserializer(recordSchema, recordSchema);
+
+    List<ByteBuffer> buffers = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      byte[] bytes = serialize(batchRecord(recordSchema, i));
+      ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length);
+      buffer.put(bytes).flip();
+      buffers.add(buffer);
+    }
+    GenericRecord[] records = new GenericRecord[3];
+
+    // when
+    fastGenericDatumReader.readBatch(buffers, records);
+
+    // then
+    for (int i = 0; i < 3; i++) {
+      Assert.assertTrue(records[i].get("name") instanceof Utf8View);
+      Assert.assertEquals(records[i].get("name").toString(), "record" + i);
+    }
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = IllegalArgumentException.class)
+  public void shouldRejectBatchNotFittingIntoRecords() throws IOException {
+    Schema recordSchema = createRecord("BatchRecord", createPrimitiveFieldSchema("name", Schema.Type.STRING),
+        createPrimitiveFieldSchema("value", Schema.Type.LONG));
+    new FastGenericDatumReader<GenericRecord>(recordSchema, cache).readBatch(new byte[0], new int[3],
+        new GenericRecord[1]);
+  }
+
+  private static GenericRecord batchRecord(Schema recordSchema, int i) {
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("name", "record" + i);
+    record.put("value", (long) i);
+    return record;
+  }
+
+  private static byte[] serialize(GenericRecord record) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
 }
@@ -5,9 +5,11 @@ import com.linkedin.avro.fastserde.generated.avro.TestRecord;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.nio.ByteBuffer;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
 import org.testng.Assert;
 import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
@@ -69,4 +71,29 @@ public class FastDatumWriterTest {
     Assert.assertNotNull(fastGenericSerializer);
     Assert.assertNotEquals(2, fastGenericSerializer.getClass().getDeclaredMethods().length);
   }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldSerializeIntoExactlySizedArray() throws IOException {
+    // given
+    Schema recordSchema = createRecord("TestSizedSchema", createPrimitiveUnionFieldSchema("test", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG));
+    FastGenericDatumWriter<GenericRecord> fastGenericDatumWriter = new FastGenericDatumWriter<>(recordSchema, cache);
+
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("test", "test");
+    record.put("testLong", Long.MIN_VALUE);
+
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    fastGenericDatumWriter.write(record, encoder);
+    encoder.flush();
+
+    // when
+    byte[] bytes = fastGenericDatumWriter.toByteArray(record);
+    ByteBuffer buffer = fastGenericDatumWriter.toByteBuffer(record);
+
+    // then
+    Assert.assertEquals(bytes, baos.toByteArray());
+    Assert.assertEquals(buffer, ByteBuffer.wrap(baos.toByteArray()));
+  }
 }
@@ -0,0 +1,200 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.generated.avro.SubRecord;
+import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import com.linkedin.avro.fastserde.primitive.PrimitiveFloatArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericFixed;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastDeepCopierTest {
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"CopiedRecord\", "
+      + "\"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"int\"},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testBytes\", \"type\": \"bytes\"},"
+      + "{\"name\": \"testFloatArray\", \"type\": {\"type\": \"array\", \"items\": \"float\"}},"
+      + "{\"name\": \"testMap\", \"type\": {\"type\": \"map\", \"values\": [\"null\", \"string\"]}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"testFixed\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 2}},"
+      + "{\"name\": \"testRecordArray\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", "
+      + "  \"name\": \"SubRecord\", \"fields\": [{\"name\": \"subString\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"testUnion\", \"type\": [\"null\", \"SubRecord\", \"Hash\"]}]}");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"serializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        FastDeepCopierTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCopyGenericRecord() {
+    // given
+    GenericRecord record = newRecord();
+    FastDeepCopier<GenericRecord> deepCopier = generateGenericDeepCopier(SCHEMA);
+
+    // when
+    GenericRecord copy = deepCopier.deepCopy(record);
+
+    // then
+    Assert.assertNotSame(copy, record);
+    Assert.assertEquals(copy.toString(), record.toString());
+    Assert.assertNotSame(copy.get("testString"), record.get("testString"));
+    Assert.assertNotSame(copy.get("testBytes"), record.get("testBytes"));
+    Assert.assertTrue(copy.get("testFloatArray") instanceof PrimitiveFloatArrayList);
+    Assert.assertNotSame(copy.get("testFloatArray"), record.get("testFloatArray"));
+    Assert.assertNotSame(copy.get("testFixed"), record.get("testFixed"));
+    Assert.assertNotSame(((List<?>) copy.get("testRecordArray")).get(0),
+        ((List<?>) record.get("testRecordArray")).get(0));
+    Assert.assertNotSame(copy.get("testUnion"), record.get("testUnion"));
+    Assert.assertSame(copy.get("testEnum"), record.get("testEnum"));
+
+    // mutating the copy leaves the original untouched
+    ((Utf8) copy.get("testString")).getBytes()[0] = 'x';
+    ((ByteBuffer) copy.get("testBytes")).put(0, (byte) 9);
+    ((List<Float>) copy.get("testFloatArray")).set(0, 9f);
+    ((Map<CharSequence, Object>) copy.get("testMap")).clear();
+    ((GenericFixed) copy.get("testFixed")).bytes()[0] = 9;
+    Assert.assertEquals(record.toString(), newRecord().toString());
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCopyIntoReusedGenericRecord() {
+    // given
+    FastDeepCopier<GenericRecord> deepCopier = generateGenericDeepCopier(SCHEMA);
+    GenericRecord reuse = deepCopier.deepCopy(newRecord());
+    Object reusedArray = reuse.get("testFloatArray");
+    Object reusedFixed = reuse.get("testFixed");
+    Object reusedBytes = reuse.get("testBytes");
+
+    GenericRecord record = newRecord();
+    record.put("testInt", 2);
+    record.put("testFloatArray", Arrays.asList(5f, 6f, 7f));
+    record.put("testUnion", null);
+
+    // when
+    GenericRecord copy = deepCopier.deepCopy(record, reuse);
+
+    // then
+    Assert.assertSame(copy, reuse);
+    Assert.assertEquals(copy.toString(), record.toString());
+    Assert.assertSame(copy.get("testFloatArray"), reusedArray);
+    Assert.assertSame(copy.get("testFixed"), reusedFixed);
+    Assert.assertSame(copy.get("testBytes"), reusedBytes);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCopyNullsAndTopLevelArrays() {
+    // given
+    Schema arraySchema = Schema.createArray(SCHEMA.getField("testRecordArray").schema().getElementType());
+    FastDeepCopier<List<GenericRecord>> deepCopier =
+        new FastDeepCopierGenerator<List<GenericRecord>>(true, false, arraySchema, tempDir, classLoader, null)
+            .generateDeepCopier();
+    List<GenericRecord> array = (List<GenericRecord>) newRecord().get("testRecordArray");
+
+    // when
+    List<GenericRecord> copy = deepCopier.deepCopy(array);
+
+    // then
+    Assert.assertNull(deepCopier.deepCopy(null));
+    Assert.assertEquals(copy.toString(), array.toString());
+    Assert.assertNotSame(copy.get(0), array.get(0));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCopySpecificRecord() {
+    // given
+    TestRecord record = FastSpecificSerializerGeneratorTest.emptyTestRecord();
+    setField(record, "testStringUnion", new Utf8("union"));
+    setField(record, "recordsMap", Collections.singletonMap(new Utf8("key"), new SubRecord()));
+    FastDeepCopier<TestRecord> deepCopier =
+        new FastDeepCopierGenerator<TestRecord>(false, false, TestRecord.SCHEMA$, tempDir, classLoader, null)
+            .generateDeepCopier();
+
+    // when
+    TestRecord copy = deepCopier.deepCopy(record);
+
+    // then
+    Assert.assertNotSame(copy, record);
+    Assert.assertEquals(copy.toString(), record.toString());
+    Assert.assertNotSame(getField(copy, "subRecord"), getField(record, "subRecord"));
+    Assert.assertNotSame(getField(copy, "testStringUnion"), getField(record, "testStringUnion"));
+    Assert.assertSame(deepCopier.deepCopy(record, copy), copy);
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = FastSerdeGeneratorException.class)
+  public void shouldNotGenerateForPrimitives() {
+    generateGenericDeepCopier(Schema.create(Schema.Type.STRING));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldCopyWithCache() throws Exception {
+    // given
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    GenericRecord record = newRecord();
+
+    // when
+    FastDeepCopier<GenericRecord> deepCopier =
+        (FastDeepCopier<GenericRecord>) cache.getFastGenericDeepCopierAsync(SCHEMA).get();
+
+    // then
+    Assert.assertFalse(deepCopier instanceof FastSerdeCache.FastDeepCopierWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastGenericDeepCopier(SCHEMA), deepCopier);
+    Assert.assertEquals(deepCopier.deepCopy(record).toString(), record.toString());
+    Assert.assertEquals(new FastSerdeCache.FastDeepCopierWithAvroGenericImpl<GenericRecord>(SCHEMA).deepCopy(record)
+        .toString(), record.toString());
+  }
+
+  private static GenericRecord newRecord() {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("testInt", 1);
+    record.put("testString", new Utf8("abc"));
+    record.put("testBytes", ByteBuffer.wrap(new byte[]{1, 2}));
+    PrimitiveFloatArrayList floats = new PrimitiveFloatArrayList(2);
+    floats.addPrimitive(1f);
+    floats.addPrimitive(2f);
+    record.put("testFloatArray", floats);
+    Map<CharSequence, Object> map = new HashMap<>();
+    map.put(new Utf8("key"), new Utf8("value"));
+    record.put("testMap", map);
+    record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("testEnum").schema(), "B"));
+    record.put("testFixed",
+        AvroCompatibilityHelper.newFixed(SCHEMA.getField("testFixed").schema(), new byte[]{3, 4}));
+    GenericRecord subRecord = new GenericData.Record(SCHEMA.getField("testRecordArray").schema().getElementType());
+    subRecord.put("subString", new Utf8("sub"));
+    record.put("testRecordArray", Collections.singletonList(subRecord));
+    GenericRecord unionRecord = new GenericData.Record(SCHEMA.getField("testRecordArray").schema().getElementType());
+    unionRecord.put("subString", "union");
+    record.put("testUnion", unionRecord);
+    return record;
+  }
+
+  private static FastDeepCopier<GenericRecord> generateGenericDeepCopier(Schema schema) {
+    return new FastDeepCopierGenerator<GenericRecord>(true, false, schema, tempDir, classLoader, null)
+        .generateDeepCopier();
+  }
+}
@@ -5,8 +5,11 @@ import com.linkedin.avro.api.PrimitiveDoubleList;
 import com.linkedin.avro.api.PrimitiveFloatList;
 import com.linkedin.avro.api.PrimitiveIntList;
 import com.linkedin.avro.api.PrimitiveLongList;
+import com.linkedin.avro.fastserde.primitive.PrimitiveLongArrayList;
 import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
 import com.linkedin.avroutil1.compatibility.AvroVersion;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.lang.reflect.InvocationTargetException;
@@ -14,6 +17,7 @@ import java.lang.reflect.Method;
 import java.net.URL;
 import java.net.URLClassLoader;
 import java.nio.ByteBuffer;
+import java.nio.file.Files;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -1014,6 +1018,26 @@ public class FastGenericDeserializerGeneratorTest {
     shouldReadArrayOfPrimitives(implementation, Schema.Type.LONG, PrimitiveLongList.class, data);
   }
 
+  @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
+  public void shouldReadArrayOfIntsPromotedToLongs(Implementation implementation) {
+    // given
+    Schema writerArraySchema = Schema.createArray(Schema.create(Schema.Type.INT));
+    Schema readerArraySchema = Schema.createArray(Schema.create(Schema.Type.LONG));
+    GenericData.Array<Integer> avroArray = new GenericData.Array<>(0, writerArraySchema);
+    avroArray.add(1);
+    avroArray.add(-2);
+    avroArray.add(Integer.MIN_VALUE);
+
+    // when
+    List<Long> array = implementation.decode(writerArraySchema, readerArraySchema, genericDataAsDecoder(avroArray));
+
+    // then
+    Assert.assertEquals(array, Arrays.asList(1L, -2L, (long) Integer.MIN_VALUE));
+    if (implementation == Implementation.WARM_FAST_AVRO) {
+      Assert.assertTrue(array instanceof PrimitiveLongArrayList);
+    }
+  }
+
   private <E, L> void shouldReadArrayOfPrimitives(Implementation implementation, Schema.Type elementType, Class<L> expectedListClass, List<E> data) {
     // given
     Schema elementSchema = Schema.create(elementType);
@@ -1201,6 +1225,221 @@ public class FastGenericDeserializerGeneratorTest {
     Assert.assertEquals(subRecordSchema.hashCode(), ((GenericRecord) backwardRecord.get("record2")).getSchema().hashCode());
   }
 
+  @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
+  public void shouldReadWideRecord(Implementation implementation) {
+    // given
+    Schema writerSchema = createRecord("wideRecord", createWideRecordFields(600).toArray(new Schema.Field[0]));
+    List<Schema.Field> readerFields = createWideRecordFields(600);
+    for (int i = 0; i < 100; i++) {
+      readerFields.add(createPrimitiveUnionFieldSchema("addedField" + i, Schema.Type.INT));
+    }
+    Schema readerSchema = createRecord("wideRecord", readerFields.toArray(new Schema.Field[0]));
+    GenericRecord builder = createWideRecord(writerSchema);
+
+    // when
+    GenericRecord record = implementation.decode(writerSchema, readerSchema, genericDataAsDecoder(builder));
+
+    // then
+    for (Schema.Field field : writerSchema.getFields()) {
+      Assert.assertEquals(String.valueOf(record.get(field.name())), String.valueOf(builder.get(field.name())),
+          field.name());
+    }
+    for (int i = 0; i < 100; i++) {
+      Assert.assertNull(record.get("addedField" + i));
+    }
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "Implementation")
+  public void shouldSkipRemovedWideRecord(Implementation implementation) {
+    // given
+    Schema wideRecordSchema = createRecord("wideRecord", createWideRecordFields(600).toArray(new Schema.Field[0]));
+    Schema writerSchema = createRecord(
+        createField("wideRecord", wideRecordSchema),
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema readerSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    GenericRecord builder = new GenericData.Record(writerSchema);
+    builder.put("wideRecord", createWideRecord(wideRecordSchema));
+    builder.put("testInt", 42);
+
+    // when
+    GenericRecord record = implementation.decode(writerSchema, readerSchema, genericDataAsDecoder(builder));
+
+    // then
+    Assert.assertEquals(record.get("testInt"), 42);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldSplitWideRecordIntoChunkMethods() throws Exception {
+    // given
+    Schema wideRecordSchema = createRecord("wideRecord", createWideRecordFields(600).toArray(new Schema.Field[0]));
+    Schema writerSchema = createRecord(
+        createField("wideRecord", wideRecordSchema),
+        createField("removedWideRecord", wideRecordSchema),
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    Schema readerSchema = createRecord(
+        createField("wideRecord", wideRecordSchema),
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+
+    // when
+    FastDeserializer<GenericRecord> deserializer =
+        new FastGenericDeserializerGenerator<GenericRecord>(writerSchema, readerSchema, tempDir, classLoader,
+            null).generateDeserializer();
+
+    // then
+    long populateMethods = Arrays.stream(deserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("populateWideRecord"))
+        .count();
+    Assert.assertTrue(populateMethods > 1, "Expected wide record fields to be split, got " + populateMethods);
+    long skipMethods = Arrays.stream(deserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("skipWideRecord"))
+        .count();
+    Assert.assertTrue(skipMethods > 1, "Expected skipped wide record fields to be split, got " + skipMethods);
+    long smallRecordChunks = Arrays.stream(deserializer.getClass().getDeclaredMethods())
+        .filter(method -> method.getName().startsWith("populateSubRecord") || method.getName().startsWith("skipSubRecord"))
+        .count();
+    Assert.assertEquals(smallRecordChunks, 0);
+    // every method stays JIT-compilable, whatever the estimate of its size was
+    getBytecodeLengths(deserializer.getClass()).forEach((method, length) -> Assert.assertTrue(length < 8000,
+        "Expected method " + method + " to be smaller than 8000 bytes of bytecode, got " + length));
+  }
+
+  /**
+   * @return bytecode length of each method of the given generated class, read from the Code attributes of its class
+   *         file, the biggest one of overloaded methods
+   */
+  private static Map<String, Integer> getBytecodeLengths(Class<?> generatedClass) throws IOException {
+    File classFile = new File(tempDir, generatedClass.getName().replace('.', File.separatorChar) + ".class");
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(classFile.toPath())));
+    // magic, minor and major version
+    in.skipBytes(8);
+    int constantPoolCount = in.readUnsignedShort();
+    String[] utf8Constants = new String[constantPoolCount];
+    for (int i = 1; i < constantPoolCount; i++) {
+      switch (in.readUnsignedByte()) {
+        case 1: // utf8
+          utf8Constants[i] = in.readUTF();
+          break;
+        case 5: // long
+        case 6: // double
+          in.skipBytes(8);
+          i++;
+          break;
+        case 7: // class
+        case 8: // string
+        case 16: // method type
+        case 19: // module
+        case 20: // package
+          in.skipBytes(2);
+          break;
+        case 15: // method handle
+          in.skipBytes(3);
+          break;
+        default: // integer, float, member refs, name and type, dynamic
+          in.skipBytes(4);
+      }
+    }
+    // access flags, this and super class
+    in.skipBytes(6);
+    in.skipBytes(2 * in.readUnsignedShort());
+    int fieldCount = in.readUnsignedShort();
+    for (int i = 0; i < fieldCount; i++) {
+      // access flags, name and descriptor
+      in.skipBytes(6);
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        in.skipBytes(2);
+        in.skipBytes(in.readInt());
+      }
+    }
+    Map<String, Integer> bytecodeLengths = new HashMap<>();
+    int methodCount = in.readUnsignedShort();
+    for (int i = 0; i < methodCount; i++) {
+      in.skipBytes(2);
+      String methodName = utf8Constants[in.readUnsignedShort()];
+      in.skipBytes(2);
+      int attributeCount = in.readUnsignedShort();
+      for (int j = 0; j < attributeCount; j++) {
+        String attributeName = utf8Constants[in.readUnsignedShort()];
+        int attributeLength = in.readInt();
+        if ("Code".equals(attributeName)) {
+          // max stack and max locals precede the code length
+          in.skipBytes(4);
+          bytecodeLengths.merge(methodName, in.readInt(), Math::max);
+          in.skipBytes(attributeLength - 8);
+        } else {
+          in.skipBytes(attributeLength);
+        }
+      }
+    }
+    return bytecodeLengths;
+  }
+
+  private static List<Schema.Field> createWideRecordFields(int numberOfFields) {
+    Schema subRecordSchema = createRecord("subRecord", createPrimitiveFieldSchema("subField", Schema.Type.STRING));
+    Schema enumSchema = createEnumSchema("testEnum", new String[]{"A", "B"});
+    List<Schema.Field> fields = new ArrayList<>();
+    for (int i = 0; i < numberOfFields; i++) {
+      switch (i % 7) {
+        case 0:
+          fields.add(createPrimitiveFieldSchema("int" + i, Schema.Type.INT));
+          break;
+        case 1:
+          fields.add(createPrimitiveFieldSchema("string" + i, Schema.Type.STRING));
+          break;
+        case 2:
+          fields.add(createPrimitiveUnionFieldSchema("longUnion" + i, Schema.Type.LONG));
+          break;
+        case 3:
+          fields.add(createArrayFieldSchema("intArray" + i, Schema.create(Schema.Type.INT)));
+          break;
+        case 4:
+          fields.add(createMapFieldSchema("stringMap" + i, Schema.create(Schema.Type.STRING)));
+          break;
+        case 5:
+          fields.add(createField("record" + i, subRecordSchema));
+          break;
+        default:
+          fields.add(createField("enum" + i, enumSchema));
+          break;
+      }
+    }
+    return fields;
+  }
+
+  private static GenericRecord createWideRecord(Schema schema) {
+    GenericRecord record = new GenericData.Record(schema);
+    for (Schema.Field field : schema.getFields()) {
+      int i = field.pos();
+      switch (i % 7) {
+        case 0:
+          record.put(i, i);
+          break;
+        case 1:
+          record.put(i, "string" + i);
+          break;
+        case 2:
+          record.put(i, i % 2 == 0 ? null : (long) i);
+          break;
+        case 3:
+          record.put(i, Arrays.asList(i, i + 1));
+          break;
+        case 4:
+          record.put(i, Collections.singletonMap("key" + i, "value" + i));
+          break;
+        case 5:
+          GenericRecord subRecord = new GenericData.Record(field.schema());
+          subRecord.put("subField", "subField" + i);
+          record.put(i, subRecord);
+          break;
+        default:
+          record.put(i, AvroCompatibilityHelper.newEnumSymbol(field.schema(), i % 2 == 0 ? "A" : "B"));
+          break;
+      }
+    }
+    return record;
+  }
+
   private static <T> T decodeRecordColdFast(Schema writerSchema, Schema readerSchema, Decoder decoder) {
     FastDeserializer<T> deserializer =
         new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(writerSchema, readerSchema);
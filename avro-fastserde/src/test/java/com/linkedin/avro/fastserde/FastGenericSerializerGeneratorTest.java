@@ -104,6 +104,33 @@ public class FastGenericSerializerGeneratorTest {
     Assert.assertEquals(ByteBuffer.wrap(new byte[]{0x01, 0x02}), record.get("testBytesUnion"));
   }
 
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteMultiByteStrings() {
+    // given
+    Schema recordSchema = createRecord(
+        createField("testString", Schema.create(Schema.Type.STRING)),
+        createPrimitiveUnionFieldSchema("testStringUnion", Schema.Type.STRING),
+        createMapFieldSchema("testMap", Schema.create(Schema.Type.STRING)));
+    // 1, 2, 3 and 4 bytes long characters followed by an unpaired surrogate
+    String string = "a\u00e9\u20ac\ud83d\ude00\ud800";
+    Map<String, String> map = new HashMap<>();
+    map.put(string, string);
+
+    GenericData.Record builder = new GenericData.Record(recordSchema);
+    builder.put("testString", string);
+    builder.put("testStringUnion", new Utf8(string));
+    builder.put("testMap", map);
+
+    // when
+    GenericRecord record = decodeRecord(recordSchema, dataAsBinaryDecoder(builder));
+
+    // then
+    String expected = "a\u00e9\u20ac\ud83d\ude00?";
+    Assert.assertEquals(record.get("testString").toString(), expected);
+    Assert.assertEquals(record.get("testStringUnion").toString(), expected);
+    Assert.assertEquals(((Map<?, ?>) record.get("testMap")).get(new Utf8(expected)).toString(), expected);
+  }
+
   public GenericData.Fixed newFixed(Schema fixedSchema, byte[] bytes) {
     GenericData.Fixed fixed = new GenericData.Fixed(fixedSchema);
     fixed.bytes(bytes);
@@ -572,6 +599,11 @@ public class FastGenericSerializerGeneratorTest {
       FastSerializer<T> fastSerializer = fastGenericSerializerGenerator.generateSerializer();
       fastSerializer.serialize(data, binaryEncoder);
       binaryEncoder.flush();
+
+      // the generated size has to be exact for every written schema
+      byte[] bytes = new byte[fastSerializer.sizeOf(data)];
+      fastSerializer.serialize(data, new ByteArrayEncoder(bytes));
+      Assert.assertEquals(bytes, baos.toByteArray());
     } catch (Exception e) {
       throw new RuntimeException(e);
     }
@@ -0,0 +1,207 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.reflect.ReflectColor;
+import com.linkedin.avro.fastserde.reflect.ReflectRecord;
+import com.linkedin.avro.fastserde.reflect.ReflectSubRecord;
+import com.linkedin.avro.fastserde.reflect.PrivateFieldRecord;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.avro.Schema;
+import org.apache.avro.io.DatumWriter;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.reflect.ReflectDatumWriter;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastReflectSerdeTest {
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"ReflectRecord\", "
+      + "\"namespace\": \"com.linkedin.avro.fastserde.reflect\", \"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"int\"},"
+      + "{\"name\": \"testLongUnion\", \"type\": [\"null\", \"long\"]},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testBytes\", \"type\": \"bytes\"},"
+      + "{\"name\": \"testFloatList\", \"type\": {\"type\": \"array\", \"items\": \"float\"}},"
+      + "{\"name\": \"testRecordMap\", \"type\": {\"type\": \"map\", \"values\": {\"type\": \"record\", "
+      + "  \"name\": \"ReflectSubRecord\", \"fields\": [{\"name\": \"subString\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"ReflectColor\", "
+      + "  \"symbols\": [\"RED\", \"GREEN\"]}},"
+      + "{\"name\": \"testSubRecordUnion\", \"type\": [\"null\", \"ReflectSubRecord\"]},"
+      + "{\"name\": \"testDouble\", \"type\": \"double\"}]}");
+
+  private static final Schema PRIVATE_FIELD_SCHEMA = Schema.parse("{\"type\": \"record\", "
+      + "\"name\": \"PrivateFieldRecord\", \"namespace\": \"com.linkedin.avro.fastserde.reflect\", "
+      + "\"fields\": [{\"name\": \"value\", \"type\": \"int\"}]}");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"serializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        FastReflectSerdeTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteLikeReflectDatumWriter() throws Exception {
+    skipIfJavaStringsNotSupported();
+    // given
+    FastSerializer<ReflectRecord> serializer =
+        new FastReflectSerializerGenerator<ReflectRecord>(SCHEMA, tempDir, classLoader, null).generateSerializer();
+    ReflectRecord record = newRecord();
+    ReflectRecord recordWithNulls = newRecord();
+    recordWithNulls.testLongUnion = null;
+    recordWithNulls.testSubRecordUnion = null;
+
+    // then
+    for (ReflectRecord data : Arrays.asList(record, recordWithNulls)) {
+      Assert.assertEquals(serialize(serializer, data), serialize(new ReflectDatumWriter<>(SCHEMA), data));
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldReadWhatReflectDatumWriterWrote() throws Exception {
+    skipIfJavaStringsNotSupported();
+    // given
+    FastDeserializer<ReflectRecord> deserializer =
+        new FastReflectDeserializerGenerator<ReflectRecord>(SCHEMA, SCHEMA, tempDir, classLoader, null)
+            .generateDeserializer();
+    byte[] bytes = serialize(new ReflectDatumWriter<>(SCHEMA), newRecord());
+
+    // when
+    ReflectRecord record = deserializer.deserialize(null, DecoderFactory.defaultFactory()
+        .createBinaryDecoder(bytes, null));
+
+    // then
+    Assert.assertEquals(record.testInt, 1);
+    Assert.assertEquals(record.testLongUnion, Long.valueOf(2L));
+    Assert.assertEquals(record.testString, "abc");
+    Assert.assertEquals(record.testBytes, ByteBuffer.wrap(new byte[]{1, 2}));
+    Assert.assertEquals(record.testFloatList, Arrays.asList(1f, 2f));
+    Assert.assertEquals(record.testRecordMap.get("key").subString, "value");
+    Assert.assertEquals(record.testEnum, ReflectColor.GREEN);
+    Assert.assertEquals(record.testSubRecordUnion.subString, "union");
+    Assert.assertEquals(record.testDouble, 3.5);
+
+    // the record is reused
+    ReflectSubRecord subRecord = record.testSubRecordUnion;
+    Assert.assertSame(deserializer.deserialize(record,
+        DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null)), record);
+    Assert.assertSame(record.testSubRecordUnion, subRecord);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldFallBackToReflectForInaccessibleFields() throws Exception {
+    skipIfJavaStringsNotSupported();
+    // given
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    PrivateFieldRecord record = new PrivateFieldRecord(5);
+
+    // when
+    FastReflectDatumReader<PrivateFieldRecord> datumReader = new FastReflectDatumReader<>(PRIVATE_FIELD_SCHEMA, cache);
+    byte[] bytes = serialize(new FastReflectDatumWriter<>(PRIVATE_FIELD_SCHEMA, cache), record);
+    PrivateFieldRecord readRecord =
+        datumReader.read(null, DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null));
+
+    // then
+    Assert.assertTrue(cache.getFastReflectSerializerAsync(PRIVATE_FIELD_SCHEMA).handle((serializer, e) -> e != null)
+        .get());
+    Assert.assertTrue(
+        cache.getFastReflectSerializer(PRIVATE_FIELD_SCHEMA) instanceof FastSerdeCache.FastSerializerWithAvroReflectImpl);
+    Assert.assertTrue(cache.getFastReflectDeserializerAsync(PRIVATE_FIELD_SCHEMA, PRIVATE_FIELD_SCHEMA)
+        .handle((deserializer, e) -> e != null).get());
+    Assert.assertTrue(cache.getFastReflectDeserializer(PRIVATE_FIELD_SCHEMA, PRIVATE_FIELD_SCHEMA)
+        instanceof FastSerdeCache.FastDeserializerWithAvroReflectImpl);
+    Assert.assertEquals(readRecord.getValue(), 5);
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = FastSerdeGeneratorException.class)
+  public void shouldNotGenerateDeserializerOfPrivateFields() {
+    skipIfJavaStringsNotSupported();
+    new FastReflectDeserializerGenerator<PrivateFieldRecord>(PRIVATE_FIELD_SCHEMA, PRIVATE_FIELD_SCHEMA, tempDir,
+        classLoader, null);
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = FastSerdeGeneratorException.class)
+  public void shouldNotGenerateSerializerOfPrivateFieldsWithGetters() {
+    new FastReflectSerializerGenerator<PrivateFieldRecord>(PRIVATE_FIELD_SCHEMA, tempDir, classLoader, null);
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldRoundTripWithCache() throws Exception {
+    skipIfJavaStringsNotSupported();
+    // given
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    ReflectRecord record = newRecord();
+
+    // when
+    FastSerializer<ReflectRecord> serializer =
+        (FastSerializer<ReflectRecord>) cache.getFastReflectSerializerAsync(SCHEMA).get();
+    FastDeserializer<ReflectRecord> deserializer =
+        (FastDeserializer<ReflectRecord>) cache.getFastReflectDeserializerAsync(SCHEMA, SCHEMA).get();
+    byte[] bytes = serialize(serializer, record);
+    ReflectRecord readRecord =
+        deserializer.deserialize(null, DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null));
+
+    // then
+    Assert.assertFalse(serializer instanceof FastSerdeCache.FastSerializerWithAvroReflectImpl);
+    Assert.assertFalse(deserializer instanceof FastSerdeCache.FastDeserializerWithAvroReflectImpl);
+    Assert.assertSame(cache.getFastReflectSerializer(SCHEMA), serializer);
+    Assert.assertSame(cache.getFastReflectDeserializer(SCHEMA, SCHEMA), deserializer);
+    Assert.assertEquals(serialize(serializer, readRecord), bytes);
+  }
+
+  private static void skipIfJavaStringsNotSupported() {
+    if (!Utils.isAbleToSupportJavaStrings()) {
+      throw new SkipException("Reflect FastDeserializer needs avro reading java strings");
+    }
+  }
+
+  private static ReflectRecord newRecord() {
+    ReflectRecord record = new ReflectRecord();
+    record.testInt = 1;
+    record.testLongUnion = 2L;
+    record.testString = "abc";
+    record.testBytes = ByteBuffer.wrap(new byte[]{1, 2});
+    record.testFloatList = Arrays.asList(1f, 2f);
+    ReflectSubRecord mapValue = new ReflectSubRecord();
+    mapValue.subString = "value";
+    record.testRecordMap = Collections.singletonMap("key", mapValue);
+    record.testEnum = ReflectColor.GREEN;
+    ReflectSubRecord unionValue = new ReflectSubRecord();
+    unionValue.subString = "union";
+    record.testSubRecordUnion = unionValue;
+    record.testDouble = 3.5;
+    return record;
+  }
+
+  private static <T> byte[] serialize(FastSerializer<T> serializer, T data) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    serializer.serialize(data, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  private static <T> byte[] serialize(DatumWriter<T> datumWriter, T data) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    datumWriter.write(data, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
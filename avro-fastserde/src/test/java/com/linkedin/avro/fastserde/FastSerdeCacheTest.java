@@ -1,14 +1,29 @@
 package com.linkedin.avro.fastserde;
 
 import com.linkedin.avro.fastserde.generated.avro.TestRecord;
+import java.io.File;
+import java.lang.ref.WeakReference;
+import java.nio.file.Files;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import javax.tools.JavaCompiler;
 import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
 import org.testng.Assert;
+import org.testng.SkipException;
 import org.testng.annotations.Test;
 
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
 
 public class FastSerdeCacheTest {
 
@@ -68,4 +83,424 @@ public class FastSerdeCacheTest {
     FastSerdeCache cache = FastSerdeCache.getDefaultInstance();
     cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
   }
+
+  @Test(groups = "deserializationTest")
+  public void testPersistedClassesAreReusedAcrossCaches() throws Exception {
+    File persistentDir = Files.createTempDirectory("persistent").toFile();
+    Schema recordSchema = createRecord("persistedRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 42);
+
+    FastDeserializer<?> deserializer = FastSerdeCache.builder()
+        .persistentClassesDir(persistentDir)
+        .build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    PersistentClassCache persistentClassCache = new PersistentClassCache(persistentDir);
+    File classFile = persistentClassCache.getClassFile(deserializer.getClass().getName());
+    File sourceFile = new File(classFile.getParentFile(), deserializer.getClass().getSimpleName() + ".java");
+    Assert.assertTrue(classFile.isFile());
+    Assert.assertTrue(sourceFile.delete());
+
+    // no code generation nor compilation expected, hence the source file is not written again
+    FastDeserializer<GenericRecord> persistedDeserializer = (FastDeserializer<GenericRecord>) FastSerdeCache.builder()
+        .persistentClassesDir(persistentDir)
+        .build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertEquals(persistedDeserializer.getClass().getName(), deserializer.getClass().getName());
+    Assert.assertFalse(sourceFile.exists());
+    Assert.assertEquals(persistedDeserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+
+    // corrupted class is discarded and generated again
+    Files.write(classFile.toPath(), new byte[]{1, 2, 3});
+    FastDeserializer<GenericRecord> regeneratedDeserializer = (FastDeserializer<GenericRecord>) FastSerdeCache.builder()
+        .persistentClassesDir(persistentDir)
+        .build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertTrue(sourceFile.exists());
+    Assert.assertEquals(regeneratedDeserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+
+    Assert.assertTrue(sourceFile.delete());
+    FastSerdeCache.builder().persistentClassesDir(persistentDir).build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertFalse(sourceFile.exists());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testClassesPersistedByPreviousGeneratorVersionAreNotReused() throws Exception {
+    File persistentDir = Files.createTempDirectory("persistent").toFile();
+    Schema recordSchema = createRecord("versionedRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 42);
+
+    FastDeserializer<?> deserializer = FastSerdeCache.builder()
+        .persistentClassesDir(persistentDir)
+        .build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    // pretend the class got persisted by the previous generator version
+    File classesDir = new PersistentClassCache(persistentDir).getClassesDir();
+    File previousClassesDir = new File(persistentDir, "v" + (FastSerdeBase.GENERATOR_VERSION - 1));
+    Files.move(classesDir.toPath(), previousClassesDir.toPath());
+
+    FastDeserializer<GenericRecord> regeneratedDeserializer = (FastDeserializer<GenericRecord>) FastSerdeCache.builder()
+        .persistentClassesDir(persistentDir)
+        .build()
+        .buildFastGenericDeserializer(recordSchema, recordSchema);
+    File classFile = new PersistentClassCache(persistentDir).getClassFile(deserializer.getClass().getName());
+    File sourceFile = new File(classFile.getParentFile(), deserializer.getClass().getSimpleName() + ".java");
+    Assert.assertTrue(classFile.getPath().startsWith(classesDir.getPath()));
+    Assert.assertTrue(classFile.isFile());
+    Assert.assertTrue(sourceFile.isFile());
+    Assert.assertEquals(regeneratedDeserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testInMemoryCompilation() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder().inMemoryCompilation(true).build();
+    Schema recordSchema = createRecord("inMemoryRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 42);
+
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertTrue(deserializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+    Assert.assertEquals(deserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+
+    FastDeserializer<?> specificDeserializer = cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$);
+    Assert.assertTrue(specificDeserializer.getClass().getClassLoader() instanceof InMemoryClassLoader);
+  }
+
+  @Test(groups = "deserializationTest", expectedExceptions = IllegalArgumentException.class)
+  public void testInMemoryCompilationCanNotBePersisted() throws Exception {
+    FastSerdeCache.builder().inMemoryCompilation(true).persistentClassesDir(new File(".")).build();
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCompileBatching() throws Exception {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    FastSerdeCache cache = FastSerdeCache.builder().executor(scheduledTasks::add).compileBatching(10, 0).build();
+    List<Schema> schemas = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      schemas.add(createRecord("batchedRecord" + i, createField("testInt", Schema.create(Schema.Type.INT))));
+      Assert.assertTrue(cache.getFastGenericDeserializer(schemas.get(i), schemas.get(i))
+          instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    }
+    Assert.assertTrue(
+        cache.getFastGenericSerializer(schemas.get(0)) instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl);
+
+    // all the pending requests are expected to be compiled by a single task
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    scheduledTasks.get(0).run();
+    Assert.assertEquals(scheduledTasks.size(), 1);
+
+    for (Schema schema : schemas) {
+      GenericRecord record = new GenericData.Record(schema);
+      record.put("testInt", 42);
+      FastDeserializer<GenericRecord> deserializer =
+          (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(schema, schema);
+      Assert.assertTrue(deserializer.getClass().getName().startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+      Assert.assertEquals(deserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+    }
+    Assert.assertTrue(cache.getFastGenericSerializer(schemas.get(0))
+        .getClass()
+        .getName()
+        .startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testEclipseCompiler() throws Exception {
+    Schema recordSchema = createRecord("eclipseCompiledRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 42);
+
+    FastSerdeCache cache = FastSerdeCache.builder().javaCompiler(newEclipseCompiler()).build();
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.buildFastGenericDeserializer(recordSchema, recordSchema);
+    Assert.assertEquals(deserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+    Assert.assertNotNull(cache.buildFastSpecificDeserializer(TestRecord.SCHEMA$, TestRecord.SCHEMA$));
+    Assert.assertNotNull(cache.buildFastGenericSerializer(recordSchema));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSizeEviction() {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(Runnable::run)
+        .inMemoryCompilation(true)
+        .maxCacheSize(2)
+        .build();
+    List<Schema> schemas = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      schemas.add(createRecord("sizeEvictedRecord" + i, createField("testInt", Schema.create(Schema.Type.INT))));
+      cache.getFastGenericDeserializer(schemas.get(i), schemas.get(i));
+    }
+
+    Assert.assertEquals(cache.getSizeEvictionCount(), 1);
+    Assert.assertEquals(cache.getIdleEvictionCount(), 0);
+    // the least recently used one is evicted, the most recent ones stay compiled
+    Assert.assertFalse(cache.getFastGenericDeserializer(schemas.get(2), schemas.get(2))
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertTrue(cache.getFastGenericDeserializer(schemas.get(0), schemas.get(0))
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSizeEvictionInBatches() {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    // cold entries are never compiled, only counted
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(scheduledTasks::add)
+        .compileThreshold(1000)
+        .maxCacheSize(16)
+        .build();
+    for (int i = 0; i < 17; i++) {
+      Schema schema = createRecord("batchEvictedRecord" + i, createField("testInt", Schema.create(Schema.Type.INT)));
+      cache.getFastGenericSerializer(schema);
+    }
+    // evicted down to the low-water mark of 14
+    Assert.assertEquals(cache.getSizeEvictionCount(), 3);
+
+    for (int i = 17; i < 19; i++) {
+      Schema schema = createRecord("batchEvictedRecord" + i, createField("testInt", Schema.create(Schema.Type.INT)));
+      cache.getFastGenericSerializer(schema);
+    }
+    Assert.assertEquals(cache.getSizeEvictionCount(), 3);
+    Assert.assertTrue(scheduledTasks.isEmpty());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testProjectedSchemasAreEvictedWithTheirDeserializers() {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(Runnable::run)
+        .inMemoryCompilation(true)
+        .maxCacheSize(1)
+        .build();
+    Schema schema = createRecord("projectedEvictedRecord", createField("testInt", Schema.create(Schema.Type.INT)),
+        createField("testLong", Schema.create(Schema.Type.LONG)));
+    Schema otherSchema = createRecord("notProjectedRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    FieldProjection projection = FieldProjection.of("testInt");
+    cache.getFastGenericDeserializer(schema, schema, projection);
+    Schema projectedSchema = cache.getProjectedSchema(schema, projection);
+
+    cache.getFastGenericDeserializer(otherSchema, otherSchema);
+    Assert.assertEquals(cache.getSizeEvictionCount(), 1);
+    Assert.assertNotSame(cache.getProjectedSchema(schema, projection), projectedSchema);
+    Assert.assertEquals(cache.getProjectedSchema(schema, projection), projectedSchema);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testIdleEviction() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(Runnable::run)
+        .inMemoryCompilation(true)
+        .maxIdleTimeMs(50)
+        .build();
+    Schema idleSchema = createRecord("idleRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    Schema activeSchema = createRecord("activeRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    cache.getFastGenericSerializer(idleSchema);
+    Thread.sleep(100);
+    cache.getFastGenericSerializer(activeSchema);
+
+    Assert.assertEquals(cache.getIdleEvictionCount(), 1);
+    Assert.assertEquals(cache.getSizeEvictionCount(), 0);
+    Assert.assertFalse(
+        cache.getFastGenericSerializer(activeSchema) instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testEvictedClassesAreUnloaded() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(Runnable::run)
+        .inMemoryCompilation(true)
+        .maxCacheSize(1)
+        .build();
+    Schema evictedSchema = createRecord("unloadedRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    Schema schema = createRecord("loadedRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    cache.getFastGenericDeserializer(evictedSchema, evictedSchema);
+    WeakReference<ClassLoader> classLoader =
+        new WeakReference<>(cache.getFastGenericDeserializer(evictedSchema, evictedSchema).getClass().getClassLoader());
+    Assert.assertTrue(classLoader.get() instanceof InMemoryClassLoader);
+
+    cache.getFastGenericDeserializer(schema, schema);
+    Assert.assertEquals(cache.getSizeEvictionCount(), 1);
+    for (int i = 0; i < 10 && classLoader.get() != null; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertNull(classLoader.get());
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSingleFlightCompilation() throws Exception {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    FastSerdeCache cache =
+        FastSerdeCache.builder().executor(scheduledTasks::add).inMemoryCompilation(true).build();
+    Schema schema = createRecord("singleFlightRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+
+    CompletableFuture<FastDeserializer<?>> compiled = cache.getFastGenericDeserializerAsync(schema, schema);
+    Assert.assertSame(cache.getFastGenericDeserializerAsync(schema, schema), compiled);
+    cache.getFastGenericDeserializer(schema, schema);
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    Assert.assertFalse(compiled.isDone());
+
+    scheduledTasks.get(0).run();
+    Assert.assertSame(compiled.get(), cache.getFastGenericDeserializer(schema, schema));
+    Assert.assertTrue(compiled.get().getClass().getName().startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testCompilationFailuresAreRetriedWithBackoff() throws Exception {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    // the Eclipse compiler doesn't support in-memory compilation
+    FastSerdeCache failingCache = FastSerdeCache.builder()
+        .executor(scheduledTasks::add)
+        .inMemoryCompilation(true)
+        .javaCompiler(newEclipseCompiler())
+        .compileFailureBackoff(200, 200)
+        .maxCacheSize(1)
+        .build();
+    Schema schema = createRecord("failingRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    Schema otherSchema = createRecord("otherRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+
+    CompletableFuture<FastSerializer<?>> compiled = failingCache.getFastGenericSerializerAsync(schema);
+    scheduledTasks.remove(0).run();
+    Assert.assertTrue(compiled.isCompletedExceptionally());
+    Assert.assertTrue(
+        failingCache.getFastGenericSerializer(schema) instanceof FastSerdeCache.FastSerializerWithAvroGenericImpl);
+    Assert.assertTrue(scheduledTasks.isEmpty());
+
+    // failure is remembered until the backoff elapses, even once the failed entry gets evicted
+    failingCache.getFastGenericSerializer(otherSchema);
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    scheduledTasks.clear();
+    Assert.assertTrue(failingCache.getFastGenericSerializerAsync(schema).isCompletedExceptionally());
+    Assert.assertTrue(scheduledTasks.isEmpty());
+
+    // other caches, compiling with their own settings, aren't affected
+    FastSerdeCache cache = FastSerdeCache.builder().executor(scheduledTasks::add).inMemoryCompilation(true).build();
+    CompletableFuture<FastSerializer<?>> compiledElsewhere = cache.getFastGenericSerializerAsync(schema);
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    scheduledTasks.remove(0).run();
+    Assert.assertTrue(
+        compiledElsewhere.get().getClass().getName().startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+
+    Thread.sleep(250);
+    compiled = failingCache.getFastGenericSerializerAsync(schema);
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    scheduledTasks.remove(0).run();
+    Assert.assertTrue(compiled.isCompletedExceptionally());
+  }
+
+  @Test(groups = "deserializationTest", expectedExceptions = IllegalArgumentException.class)
+  public void testInvalidCompileFailureBackoff() {
+    FastSerdeCache.builder().compileFailureBackoff(10, 5);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUp() throws Exception {
+    FastSerdeCache cache = FastSerdeCache.builder().executor(Runnable::run).inMemoryCompilation(true).build();
+    Schema writerSchema = createRecord("warmedUpRecord", createField("testInt", Schema.create(Schema.Type.INT)),
+        createField("testString", Schema.create(Schema.Type.STRING)));
+    Schema readerSchema = createRecord("warmedUpRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+
+    WarmupResult deserializersResult = cache.warmUpDeserializers(
+        Arrays.asList(new AbstractMap.SimpleEntry<>(writerSchema, readerSchema),
+            new AbstractMap.SimpleEntry<>(writerSchema, writerSchema)), true, false).get();
+    Assert.assertTrue(deserializersResult.isSuccessful());
+    Assert.assertEquals(deserializersResult.getCompiledCount(), 2);
+    Assert.assertTrue(cache.getFastGenericDeserializer(writerSchema, readerSchema)
+        .getClass()
+        .getName()
+        .startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+
+    WarmupResult serializersResult = cache.warmUpSerializers(Collections.singletonList(writerSchema), true, false).get();
+    Assert.assertTrue(serializersResult.isSuccessful());
+    Assert.assertTrue(cache.getFastGenericSerializer(writerSchema)
+        .getClass()
+        .getName()
+        .startsWith(FastSerdeBase.GENERATED_PACKAGE_NAME_PREFIX));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testWarmUpReportsFailures() throws Exception {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    // the Eclipse compiler doesn't support in-memory compilation
+    FastSerdeCache cache = FastSerdeCache.builder()
+        .executor(scheduledTasks::add)
+        .inMemoryCompilation(true)
+        .javaCompiler(newEclipseCompiler())
+        .build();
+    Schema schema = createRecord("failedWarmupRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+
+    CompletableFuture<WarmupResult> warmup =
+        cache.warmUpDeserializers(Collections.singletonMap(schema, schema).entrySet(), true, false);
+    Assert.assertFalse(warmup.isDone());
+    scheduledTasks.forEach(Runnable::run);
+
+    WarmupResult result = warmup.get();
+    Assert.assertFalse(result.isSuccessful());
+    Assert.assertEquals(result.getCompiledCount(), 0);
+    Assert.assertEquals(result.getFailures().size(), 1);
+    WarmupResult.Failure failure = result.getFailures().get(0);
+    Assert.assertSame(failure.getWriterSchema(), schema);
+    Assert.assertTrue(failure.isGeneric());
+    Assert.assertFalse(failure.isSerializer());
+    Assert.assertTrue(failure.getCause() instanceof FastDeserializerGeneratorException);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testTieredCompilation() throws Exception {
+    List<Runnable> scheduledTasks = new ArrayList<>();
+    FastSerdeCache cache =
+        FastSerdeCache.builder().executor(scheduledTasks::add).inMemoryCompilation(true).compileThreshold(2).build();
+    Schema coldSchema = createRecord("coldRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    Schema warmSchema = createRecord("warmRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+    Schema hotSchema = createRecord("hotRecord", createField("testInt", Schema.create(Schema.Type.INT)));
+
+    Assert.assertTrue(cache.getFastGenericDeserializer(coldSchema, coldSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    deserializeGeneric(cache, coldSchema);
+    FastDeserializer<GenericRecord> warmDeserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(warmSchema, warmSchema);
+    Thread.sleep(50);
+    deserializeGeneric(cache, warmSchema);
+    deserializeGeneric(cache, warmSchema);
+    Assert.assertEquals(scheduledTasks.size(), 1);
+    cache.getFastGenericDeserializer(hotSchema, hotSchema);
+    deserializeGeneric(cache, hotSchema);
+    deserializeGeneric(cache, hotSchema);
+    Assert.assertEquals(scheduledTasks.size(), 2);
+
+    // the hotter one is compiled first, even though the warm one crossed the threshold earlier
+    scheduledTasks.get(0).run();
+    Assert.assertFalse(cache.getFastGenericDeserializer(hotSchema, hotSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertSame(cache.getFastGenericDeserializer(warmSchema, warmSchema), warmDeserializer);
+    scheduledTasks.get(1).run();
+    Assert.assertFalse(cache.getFastGenericDeserializer(warmSchema, warmSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+    Assert.assertTrue(cache.getFastGenericDeserializer(coldSchema, coldSchema)
+        instanceof FastSerdeCache.FastDeserializerWithAvroGenericImpl);
+
+    // awaiting the compiled one doesn't wait for the threshold
+    CompletableFuture<FastDeserializer<?>> compiled = cache.getFastGenericDeserializerAsync(coldSchema, coldSchema);
+    Assert.assertEquals(scheduledTasks.size(), 3);
+    scheduledTasks.get(2).run();
+    Assert.assertTrue(compiled.isDone());
+    Assert.assertSame(cache.getFastGenericDeserializer(coldSchema, coldSchema), compiled.get());
+  }
+
+  private static void deserializeGeneric(FastSerdeCache cache, Schema schema) throws Exception {
+    GenericRecord record = new GenericData.Record(schema);
+    record.put("testInt", 42);
+    FastDeserializer<GenericRecord> deserializer =
+        (FastDeserializer<GenericRecord>) cache.getFastGenericDeserializer(schema, schema);
+    Assert.assertEquals(deserializer.deserialize(genericDataAsDecoder(record)).get("testInt"), 42);
+  }
+
+  private static JavaCompiler newEclipseCompiler() {
+    try {
+      return (JavaCompiler) Class.forName(GeneratedClassesCompiler.ECLIPSE_COMPILER_CLASS_NAME).newInstance();
+    } catch (ReflectiveOperationException | LinkageError e) {
+      throw new SkipException("Eclipse compiler is not available on this runtime", e);
+    }
+  }
 }
@@ -0,0 +1,208 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumReader;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastTranscoderTest {
+
+  private static final Schema WRITER_SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"EvolvedRecord\", "
+      + "\"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"int\"},"
+      + "{\"name\": \"removedString\", \"type\": \"string\"},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testUnionString\", \"type\": [\"null\", \"string\"]},"
+      + "{\"name\": \"testArray\", \"type\": {\"type\": \"array\", \"items\": \"int\"}},"
+      + "{\"name\": \"testMap\", \"type\": {\"type\": \"map\", \"values\": \"float\"}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"testUnion\", \"type\": [\"null\", \"int\", \"string\"]},"
+      + "{\"name\": \"removedSubRecord\", \"type\": {\"type\": \"record\", \"name\": \"Removed\", \"fields\": ["
+      + "  {\"name\": \"subField\", \"type\": {\"type\": \"map\", \"values\": \"string\"}}]}},"
+      + "{\"name\": \"testBytes\", \"type\": \"bytes\"}]}");
+
+  private static final Schema READER_SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"EvolvedRecord\", "
+      + "\"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"long\"},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testUnionString\", \"type\": [\"null\", \"string\"]},"
+      + "{\"name\": \"addedDouble\", \"type\": \"double\", \"default\": 1.5},"
+      + "{\"name\": \"testArray\", \"type\": {\"type\": \"array\", \"items\": \"double\"}},"
+      + "{\"name\": \"testMap\", \"type\": {\"type\": \"map\", \"values\": \"float\"}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"C\", \"B\", \"A\"]}},"
+      + "{\"name\": \"testUnion\", \"type\": [\"string\", \"long\", \"null\"]},"
+      + "{\"name\": \"testBytes\", \"type\": \"bytes\"},"
+      + "{\"name\": \"addedString\", \"type\": \"string\", \"default\": \"abc\"}]}");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"deserializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        FastTranscoderTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldTranscodeEvolvedSchema() throws Exception {
+    // given
+    FastTranscoder transcoder = generateTranscoder(WRITER_SCHEMA, READER_SCHEMA);
+
+    for (int i = 0; i < 3; i++) {
+      byte[] bytes = serialize(newWriterRecord(i), WRITER_SCHEMA);
+
+      // when
+      byte[] transcoded = transcode(transcoder, new ByteArrayDecoder(bytes));
+      byte[] transcodedFromStream =
+          transcode(transcoder, AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null));
+
+      // then
+      byte[] expected = reserialize(bytes, WRITER_SCHEMA, READER_SCHEMA);
+      Assert.assertEquals(transcoded, expected);
+      Assert.assertEquals(transcodedFromStream, expected);
+    }
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldCopyUnchangedSchema() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING),
+        createArrayFieldSchema("testArray", Schema.create(Schema.Type.STRING)));
+    GenericRecord record = new GenericData.Record(recordSchema);
+    record.put("testInt", 7);
+    record.put("testUnionString", "abc");
+    record.put("testArray", Arrays.asList("x", "y"));
+    byte[] bytes = serialize(record, recordSchema);
+    FastTranscoder transcoder = generateTranscoder(recordSchema, recordSchema);
+
+    // when
+    ByteArrayDecoder decoder = new ByteArrayDecoder(bytes);
+    byte[] transcoded = transcode(transcoder, decoder);
+
+    // then
+    Assert.assertEquals(transcoded, bytes);
+    Assert.assertEquals(decoder.getPosition(), bytes.length);
+    Assert.assertEquals(
+        transcode(transcoder, AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null)), bytes);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldTranscodeTheSameAsColdTranscoder() throws Exception {
+    // given
+    byte[] bytes = serialize(newWriterRecord(1), WRITER_SCHEMA);
+
+    // when
+    byte[] transcoded = transcode(generateTranscoder(WRITER_SCHEMA, READER_SCHEMA), new ByteArrayDecoder(bytes));
+    byte[] coldTranscoded = transcode(new FastSerdeCache.FastTranscoderWithAvroImpl(WRITER_SCHEMA, READER_SCHEMA),
+        new ByteArrayDecoder(bytes));
+
+    // then
+    Assert.assertEquals(transcoded, coldTranscoded);
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = AvroTypeException.class)
+  public void shouldFailOnUnionBranchMissingInReaderSchema() throws Exception {
+    Schema writerSchema = createRecord(createUnionFieldWithNull("testUnion", Schema.create(Schema.Type.STRING)));
+    Schema readerSchema = createRecord(createPrimitiveFieldSchema("testUnion", Schema.Type.STRING));
+    GenericRecord record = new GenericData.Record(writerSchema);
+    record.put("testUnion", null);
+    transcode(generateTranscoder(writerSchema, readerSchema), new ByteArrayDecoder(serialize(record, writerSchema)));
+  }
+
+  @Test(groups = {"deserializationTest"}, expectedExceptions = FastSerdeGeneratorException.class)
+  public void shouldNotGenerateForReorderedFields() {
+    Schema writerSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    Schema readerSchema = createRecord(
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    generateTranscoder(writerSchema, readerSchema);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldTranscodeWithCache() throws Exception {
+    // given
+    byte[] bytes = serialize(newWriterRecord(2), WRITER_SCHEMA);
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+
+    // when
+    FastTranscoder transcoder = cache.getFastTranscoderAsync(WRITER_SCHEMA, READER_SCHEMA).get();
+
+    // then
+    Assert.assertFalse(transcoder instanceof FastSerdeCache.FastTranscoderWithAvroImpl);
+    Assert.assertSame(cache.getFastTranscoder(WRITER_SCHEMA, READER_SCHEMA), transcoder);
+    Assert.assertEquals(transcode(transcoder, new ByteArrayDecoder(bytes)),
+        reserialize(bytes, WRITER_SCHEMA, READER_SCHEMA));
+  }
+
+  private static GenericRecord newWriterRecord(int i) {
+    GenericRecord record = new GenericData.Record(WRITER_SCHEMA);
+    record.put("testInt", -i);
+    record.put("removedString", "removed" + i);
+    record.put("testString", "string" + i);
+    record.put("testUnionString", i % 2 == 0 ? null : "union" + i);
+    record.put("testArray", Arrays.asList(i, i + 1, i + 2));
+    Map<String, Float> map = new HashMap<>();
+    map.put("key" + i, i + 0.5f);
+    record.put("testMap", map);
+    record.put("testEnum",
+        AvroCompatibilityHelper.newEnumSymbol(WRITER_SCHEMA.getField("testEnum").schema(), i % 2 == 0 ? "A" : "B"));
+    record.put("testUnion", i == 0 ? null : (i == 1 ? (Object) i : "union" + i));
+    GenericRecord removed = new GenericData.Record(WRITER_SCHEMA.getField("removedSubRecord").schema());
+    removed.put("subField", Collections.singletonMap("sub", "value" + i));
+    record.put("removedSubRecord", removed);
+    record.put("testBytes", ByteBuffer.wrap(new byte[]{'b', (byte) ('0' + i)}));
+    return record;
+  }
+
+  private static FastTranscoder generateTranscoder(Schema writerSchema, Schema readerSchema) {
+    return new FastTranscoderGenerator(writerSchema, readerSchema, tempDir, classLoader, null).generateTranscoder();
+  }
+
+  private static byte[] transcode(FastTranscoder transcoder, Decoder decoder) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    transcoder.transcode(decoder, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+
+  private static byte[] reserialize(byte[] bytes, Schema writerSchema, Schema readerSchema) throws Exception {
+    Object datum = new GenericDatumReader<>(writerSchema, readerSchema)
+        .read(null, AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null));
+    return serialize(datum, readerSchema);
+  }
+
+  private static byte[] serialize(Object datum, Schema schema) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<>(schema).write(datum, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
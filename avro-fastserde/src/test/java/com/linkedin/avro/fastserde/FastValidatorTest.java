@@ -0,0 +1,175 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.primitive.PrimitiveIntArrayList;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FastValidatorTest {
+
+  private static final Schema SCHEMA = Schema.parse("{\"type\": \"record\", \"name\": \"ValidatedRecord\", "
+      + "\"fields\": ["
+      + "{\"name\": \"testInt\", \"type\": \"int\"},"
+      + "{\"name\": \"testString\", \"type\": \"string\"},"
+      + "{\"name\": \"testBytes\", \"type\": \"bytes\"},"
+      + "{\"name\": \"testIntArray\", \"type\": {\"type\": \"array\", \"items\": \"int\"}},"
+      + "{\"name\": \"testMap\", \"type\": {\"type\": \"map\", \"values\": \"long\"}},"
+      + "{\"name\": \"testEnum\", \"type\": {\"type\": \"enum\", \"name\": \"Color\", \"symbols\": [\"A\", \"B\"]}},"
+      + "{\"name\": \"testFixed\", \"type\": {\"type\": \"fixed\", \"name\": \"Hash\", \"size\": 2}},"
+      + "{\"name\": \"testRecordArray\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"record\", "
+      + "  \"name\": \"SubRecord\", \"fields\": [{\"name\": \"subString\", \"type\": \"string\"}]}}},"
+      + "{\"name\": \"testUnion\", \"type\": [\"null\", \"SubRecord\", \"double\"]}]}");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"serializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        FastValidatorTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldAcceptValidData() {
+    // given
+    FastValidator validator = generateValidator(SCHEMA);
+    GenericRecord record = newRecord();
+    PrimitiveIntArrayList ints = new PrimitiveIntArrayList(1);
+    ints.addPrimitive(1);
+    GenericRecord recordWithPrimitiveList = newRecord();
+    recordWithPrimitiveList.put("testIntArray", ints);
+    GenericRecord recordWithUnionDouble = newRecord();
+    recordWithUnionDouble.put("testUnion", 1.5);
+    GenericRecord recordWithUnionNull = newRecord();
+    recordWithUnionNull.put("testUnion", null);
+
+    // then
+    for (GenericRecord valid : Arrays.asList(record, recordWithPrimitiveList, recordWithUnionDouble,
+        recordWithUnionNull)) {
+      Assert.assertTrue(GenericData.get().validate(SCHEMA, valid));
+      Assert.assertNull(validator.validate(valid));
+      Assert.assertTrue(validator.isValid(valid));
+    }
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldReturnPathOfInvalidValue() {
+    assertInvalidPaths(generateValidator(SCHEMA));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldReturnPathOfInvalidValueWithAvroImpl() {
+    assertInvalidPaths(new FastSerdeCache.FastValidatorWithAvroImpl(SCHEMA));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldAcceptConvertedLogicalTypes() {
+    // given
+    Schema schema = Schema.parse("{\"type\": \"record\", \"name\": \"ConvertedRecord\", \"fields\": ["
+        + "{\"name\": \"date\", \"type\": {\"type\": \"int\", \"logicalType\": \"date\"}},"
+        + "{\"name\": \"decimals\", \"type\": {\"type\": \"array\", \"items\": {\"type\": \"bytes\", "
+        + "  \"logicalType\": \"decimal\", \"precision\": 9, \"scale\": 2}}}]}");
+    GenericRecord converted = new GenericData.Record(schema);
+    converted.put("date", LocalDate.of(2020, 1, 1));
+    converted.put("decimals", Collections.singletonList(new BigDecimal("1.25")));
+    GenericRecord raw = new GenericData.Record(schema);
+    raw.put("date", 1);
+    raw.put("decimals", Arrays.asList(ByteBuffer.wrap(new byte[]{1}), new BigDecimal("1.25")));
+
+    // then
+    for (FastValidator validator : Arrays.asList(
+        new FastValidatorGenerator(schema, true, tempDir, classLoader, null).generateValidator(),
+        new FastSerdeCache.FastValidatorWithAvroImpl(schema, true))) {
+      Assert.assertNull(validator.validate(converted));
+      Assert.assertEquals(validator.validate(raw), "date");
+      raw.put("date", LocalDate.of(2020, 1, 1));
+      Assert.assertEquals(validator.validate(raw), "decimals[0]");
+      raw.put("date", 1);
+    }
+    Assert.assertEquals(new FastSerdeCache.FastValidatorWithAvroImpl(schema).validate(converted), "date");
+  }
+
+  private static void assertInvalidPaths(FastValidator validator) {
+    GenericRecord subRecord = new GenericData.Record(SCHEMA.getField("testRecordArray").schema().getElementType());
+    subRecord.put("subString", 1);
+
+    // then
+    assertInvalid(validator, "testInt", 1L, "testInt");
+    assertInvalid(validator, "testString", null, "testString");
+    assertInvalid(validator, "testBytes", new byte[]{1}, "testBytes");
+    assertInvalid(validator, "testIntArray", Arrays.asList(1, null), "testIntArray[1]");
+    assertInvalid(validator, "testMap", Collections.singletonMap("key", 1), "testMap[key]");
+    assertInvalid(validator, "testEnum",
+        AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("testEnum").schema(), "C"), "testEnum");
+    assertInvalid(validator, "testFixed",
+        AvroCompatibilityHelper.newFixed(SCHEMA.getField("testFixed").schema(), new byte[]{1, 2, 3}), "testFixed");
+    assertInvalid(validator, "testRecordArray", Arrays.asList(newRecord().get("testUnion"), subRecord),
+        "testRecordArray[1].subString");
+    assertInvalid(validator, "testUnion", 1.5f, "testUnion");
+    assertInvalid(validator, "testUnion", subRecord, "testUnion.subString");
+    Assert.assertEquals(validator.validate("not a record"), "");
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldValidateWithCache() throws Exception {
+    // given
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+    GenericRecord record = newRecord();
+    record.put("testInt", "1");
+
+    // when
+    FastValidator validator = cache.getFastValidatorAsync(SCHEMA).get();
+
+    // then
+    Assert.assertFalse(validator instanceof FastSerdeCache.FastValidatorWithAvroImpl);
+    Assert.assertSame(cache.getFastValidator(SCHEMA), validator);
+    Assert.assertEquals(validator.validate(record), "testInt");
+    Assert.assertEquals(new FastSerdeCache.FastValidatorWithAvroImpl(SCHEMA).validate(record), "testInt");
+  }
+
+  private static void assertInvalid(FastValidator validator, String field, Object value, String expectedPath) {
+    GenericRecord record = newRecord();
+    record.put(field, value);
+    Assert.assertFalse(GenericData.get().validate(SCHEMA, record));
+    Assert.assertEquals(validator.validate(record), expectedPath);
+  }
+
+  private static GenericRecord newRecord() {
+    GenericRecord record = new GenericData.Record(SCHEMA);
+    record.put("testInt", 1);
+    record.put("testString", new Utf8("abc"));
+    record.put("testBytes", ByteBuffer.wrap(new byte[]{1, 2}));
+    record.put("testIntArray", Arrays.asList(1, 2));
+    record.put("testMap", Collections.singletonMap(new Utf8("key"), 1L));
+    record.put("testEnum", AvroCompatibilityHelper.newEnumSymbol(SCHEMA.getField("testEnum").schema(), "B"));
+    record.put("testFixed",
+        AvroCompatibilityHelper.newFixed(SCHEMA.getField("testFixed").schema(), new byte[]{3, 4}));
+    GenericRecord subRecord = new GenericData.Record(SCHEMA.getField("testRecordArray").schema().getElementType());
+    subRecord.put("subString", "sub");
+    record.put("testRecordArray", Collections.singletonList(subRecord));
+    record.put("testUnion", subRecord);
+    return record;
+  }
+
+  private static FastValidator generateValidator(Schema schema) {
+    return new FastValidatorGenerator(schema, false, tempDir, classLoader, null).generateValidator();
+  }
+}
@@ -0,0 +1,86 @@
+package com.linkedin.avro.fastserde;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.avro.Schema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class FieldProjectionTest {
+
+  @Test(groups = "deserializationTest")
+  public void shouldProjectNestedFields() {
+    Schema subRecordSchema = createRecord("subRecord", createPrimitiveFieldSchema("subField1", Schema.Type.STRING),
+        createPrimitiveFieldSchema("subField2", Schema.Type.INT));
+    Schema recordSchema = createRecord("record",
+        createPrimitiveFieldSchema("field1", Schema.Type.STRING),
+        createUnionFieldWithNull("unionField", subRecordSchema),
+        createArrayFieldSchema("arrayField", createRecord("arrayRecord",
+            createPrimitiveFieldSchema("elementField1", Schema.Type.STRING),
+            createPrimitiveFieldSchema("elementField2", Schema.Type.STRING))),
+        createPrimitiveFieldSchema("field2", Schema.Type.LONG));
+
+    Schema projectedSchema =
+        FieldProjection.of("field2", "unionField.subField2", "arrayField.elementField1").project(recordSchema);
+
+    Assert.assertEquals(fieldNames(projectedSchema), Arrays.asList("unionField", "arrayField", "field2"));
+    Schema projectedSubRecord = projectedSchema.getField("unionField").schema().getTypes().get(1);
+    Assert.assertEquals(projectedSubRecord.getFullName(), subRecordSchema.getFullName());
+    Assert.assertEquals(fieldNames(projectedSubRecord), Collections.singletonList("subField2"));
+    Assert.assertEquals(fieldNames(projectedSchema.getField("arrayField").schema().getElementType()),
+        Collections.singletonList("elementField1"));
+    // the original schema stays intact
+    Assert.assertEquals(recordSchema.getFields().size(), 4);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldMergeProjectionsOfTheSameRecord() {
+    Schema subRecordSchema = createRecord("subRecord", createPrimitiveFieldSchema("subField1", Schema.Type.STRING),
+        createPrimitiveFieldSchema("subField2", Schema.Type.INT),
+        createPrimitiveFieldSchema("subField3", Schema.Type.INT));
+    Schema recordSchema = createRecord("record",
+        createField("subRecord1", subRecordSchema),
+        createField("subRecord2", subRecordSchema),
+        createField("subRecord3", subRecordSchema));
+
+    Schema mergedSchema = FieldProjection.of("subRecord1.subField1", "subRecord2.subField2").project(recordSchema);
+    Schema wholeSchema = FieldProjection.of("subRecord1.subField1", "subRecord3").project(recordSchema);
+
+    Assert.assertSame(mergedSchema.getField("subRecord1").schema(), mergedSchema.getField("subRecord2").schema());
+    Assert.assertEquals(fieldNames(mergedSchema.getField("subRecord1").schema()), Arrays.asList("subField1", "subField2"));
+    Assert.assertSame(wholeSchema.getField("subRecord1").schema(), subRecordSchema);
+    // named records can't be defined twice
+    Assert.assertEquals(Schema.parse(mergedSchema.toString()), mergedSchema);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldFailOnInvalidProjection() {
+    Schema recordSchema = createRecord("record", createPrimitiveFieldSchema("field1", Schema.Type.STRING));
+
+    Assert.assertThrows(IllegalArgumentException.class, () -> FieldProjection.of());
+    Assert.assertThrows(IllegalArgumentException.class, () -> FieldProjection.of("field1."));
+    Assert.assertThrows(IllegalArgumentException.class, () -> FieldProjection.of("field2").project(recordSchema));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> FieldProjection.of("field1.subField").project(recordSchema));
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> FieldProjection.of("field1").project(Schema.create(Schema.Type.STRING)));
+  }
+
+  @Test(groups = "deserializationTest")
+  public void shouldIdentifyProjectionByFieldPaths() {
+    FieldProjection projection = FieldProjection.of("b", "a.c");
+
+    Assert.assertEquals(FieldProjection.of("a.c", "b"), projection);
+    Assert.assertEquals(FieldProjection.of("a.c", "b").getFingerprint(), projection.getFingerprint());
+    Assert.assertNotEquals(FieldProjection.of("a.c").getFingerprint(), projection.getFingerprint());
+  }
+
+  private static List<String> fieldNames(Schema recordSchema) {
+    return recordSchema.getFields().stream().map(Schema.Field::name).collect(Collectors.toList());
+  }
+}
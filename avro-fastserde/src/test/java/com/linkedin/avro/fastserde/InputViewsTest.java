@@ -0,0 +1,136 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.FastDeserializerGeneratorBase.DeserializerKind;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class InputViewsTest {
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"deserializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        InputViewsTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadViewsOverInput() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES),
+        createArrayFieldSchema("testArray", Schema.create(Schema.Type.STRING)),
+        createMapFieldSchema("testMap", Schema.create(Schema.Type.STRING)));
+    byte[] bytes = serialize(newRecord(recordSchema));
+
+    // when
+    GenericRecord record = decode(recordSchema, new ByteArrayDecoder(bytes));
+
+    // then
+    Assert.assertTrue(record.get("testString") instanceof Utf8View);
+    Assert.assertEquals(record.get("testString").toString(), "abc");
+    Assert.assertTrue(record.get("testString").equals(new Utf8("abc")));
+    Assert.assertEquals(record.get("testUnionString").toString(), "xyz");
+    Assert.assertSame(((ByteBuffer) record.get("testBytes")).array(), bytes);
+    Assert.assertEquals(((ByteBuffer) record.get("testBytes")).get(0), (byte) 1);
+    Assert.assertEquals(((List<?>) record.get("testArray")).get(1), new Utf8View("ab".getBytes(), 0, 2));
+    Map<?, ?> map = (Map<?, ?>) record.get("testMap");
+    Assert.assertEquals(map.get(new Utf8View("key".getBytes(), 0, 3)).toString(), "value");
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldMaterializeViews() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES),
+        createArrayFieldSchema("testArray", Schema.create(Schema.Type.STRING)),
+        createMapFieldSchema("testMap", Schema.create(Schema.Type.STRING)));
+    byte[] bytes = serialize(newRecord(recordSchema));
+    GenericRecord record = decode(recordSchema, new ByteArrayDecoder(bytes));
+
+    // when
+    InputViews.materialize(record);
+    Arrays.fill(bytes, (byte) 0);
+
+    // then
+    Assert.assertEquals(record.get("testString"), new Utf8("abc"));
+    Assert.assertEquals(record.get("testUnionString"), new Utf8("xyz"));
+    Assert.assertEquals(record.get("testBytes"), ByteBuffer.wrap(new byte[]{1, 2}));
+    Assert.assertEquals(((List<?>) record.get("testArray")).get(0), new Utf8("a"));
+    Assert.assertEquals(((List<?>) record.get("testArray")).get(1), new Utf8("ab"));
+    Assert.assertEquals(record.get("testMap"), Collections.singletonMap(new Utf8("key"), new Utf8("value")));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldCopyFromOtherDecoders() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testBytes", Schema.Type.BYTES));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testString", "abc");
+    builder.put("testBytes", ByteBuffer.wrap(new byte[]{1, 2}));
+    byte[] bytes = serialize(builder);
+
+    // when
+    GenericRecord record =
+        decode(recordSchema, AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null));
+
+    // then
+    Assert.assertEquals(record.get("testString"), new Utf8("abc"));
+    Assert.assertEquals(record.get("testBytes"), ByteBuffer.wrap(new byte[]{1, 2}));
+  }
+
+  private static GenericRecord newRecord(Schema recordSchema) {
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testString", "abc");
+    builder.put("testUnionString", "xyz");
+    builder.put("testBytes", ByteBuffer.wrap(new byte[]{1, 2}));
+    builder.put("testArray", Arrays.asList("a", "ab"));
+    builder.put("testMap", Collections.singletonMap("key", "value"));
+    return builder;
+  }
+
+  private static GenericRecord decode(Schema recordSchema, Decoder decoder) throws Exception {
+    FastDeserializer<Object> deserializer =
+        new FastGenericDeserializerGenerator<>(recordSchema, recordSchema, DeserializerKind.INPUT_VIEW_GENERIC,
+            tempDir, classLoader, null).generateDeserializer();
+    return (GenericRecord) deserializer.deserialize(null, decoder);
+  }
+
+  private static byte[] serialize(GenericRecord record) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
@@ -0,0 +1,201 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.FastDeserializerGeneratorBase.DeserializerKind;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class LazyGenericRecordTest {
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"deserializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        LazyGenericRecordTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeFieldsOnAccess() throws Exception {
+    // given
+    Schema subRecordSchema = createRecord("subRecord", createPrimitiveFieldSchema("subField", Schema.Type.STRING));
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveUnionFieldSchema("testUnionString", Schema.Type.STRING),
+        createField("testRecord", subRecordSchema),
+        createArrayFieldSchema("testArray", Schema.create(Schema.Type.LONG)),
+        createMapFieldSchema("testMap", Schema.create(Schema.Type.STRING)),
+        createPrimitiveFieldSchema("testDouble", Schema.Type.DOUBLE));
+    GenericRecord subRecord = new GenericData.Record(subRecordSchema);
+    subRecord.put("subField", "abc");
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 1);
+    builder.put("testUnionString", "xyz");
+    builder.put("testRecord", subRecord);
+    builder.put("testArray", Arrays.asList(1L, 2L, 3L));
+    builder.put("testMap", Collections.singletonMap("key", "value"));
+    builder.put("testDouble", 2.5);
+    byte[] bytes = serialize(builder);
+
+    // when
+    LazyGenericRecord record = decode(recordSchema, recordSchema, bytes, null);
+
+    // then
+    Assert.assertEquals(record.get("testDouble"), 2.5);
+    Assert.assertEquals(record.get(0), 1);
+    Assert.assertEquals(record.get("testUnionString"), new Utf8("xyz"));
+    Assert.assertEquals(((GenericRecord) record.get("testRecord")).get("subField"), new Utf8("abc"));
+    Assert.assertEquals(record.get("testArray"), Arrays.asList(1L, 2L, 3L));
+    Assert.assertEquals(((Map<?, ?>) record.get("testMap")).get(new Utf8("key")), new Utf8("value"));
+    Assert.assertNull(record.get("nonExistingField"));
+    Assert.assertSame(record.get("testRecord"), record.get(2));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldDecodeFieldsOfEvolvedSchema() throws Exception {
+    // given
+    Schema writerSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("removedString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG));
+    Schema readerSchema = createRecord(
+        createPrimitiveFieldSchema("testLong", Schema.Type.LONG),
+        createPrimitiveUnionFieldSchema("addedString", Schema.Type.STRING),
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    GenericRecord builder = new GenericData.Record(writerSchema);
+    builder.put("testInt", 1);
+    builder.put("removedString", "removed");
+    builder.put("testLong", 2L);
+
+    // when
+    LazyGenericRecord record = decode(writerSchema, readerSchema, serialize(builder), null);
+
+    // then
+    Assert.assertEquals(record.getSchema(), readerSchema);
+    Assert.assertEquals(record.get(0), 2L);
+    Assert.assertNull(record.get(1));
+    Assert.assertEquals(record.get(2), 1);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldExposeOriginalBytes() throws Exception {
+    // given
+    Schema recordSchema = createRecord(
+        createPrimitiveFieldSchema("testInt", Schema.Type.INT),
+        createPrimitiveFieldSchema("testString", Schema.Type.STRING));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 42);
+    builder.put("testString", "abc");
+    byte[] recordBytes = serialize(builder);
+    // the record preceded and followed by other data
+    byte[] bytes = new byte[recordBytes.length + 4];
+    System.arraycopy(recordBytes, 0, bytes, 2, recordBytes.length);
+    FastDeserializer<?> deserializer =
+        new FastGenericDeserializerGenerator<>(recordSchema, recordSchema, DeserializerKind.LAZY_GENERIC, tempDir,
+            classLoader, null).generateDeserializer();
+
+    // when
+    LazyGenericRecord record =
+        (LazyGenericRecord) deserializer.deserialize(null, new ByteArrayDecoder(bytes, 2, recordBytes.length + 2));
+
+    // then
+    Assert.assertEquals(record.getOriginalBytes(), ByteBuffer.wrap(recordBytes));
+    Assert.assertFalse(record.isModified());
+    Assert.assertTrue(record.equals(builder));
+
+    record.put("testInt", 1);
+    Assert.assertTrue(record.isModified());
+    Assert.assertEquals(record.get("testInt"), 1);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReuseRecord() throws Exception {
+    // given
+    Schema recordSchema = createRecord(createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    FastDeserializer<Object> deserializer =
+        new FastGenericDeserializerGenerator<>(recordSchema, recordSchema, DeserializerKind.LAZY_GENERIC, tempDir,
+            classLoader, null).generateDeserializer();
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 1);
+    LazyGenericRecord first = (LazyGenericRecord) deserializer.deserialize(null, new ByteArrayDecoder(serialize(builder)));
+    Assert.assertEquals(first.get(0), 1);
+    builder.put("testInt", 2);
+
+    // when
+    Object second = deserializer.deserialize(first, new ByteArrayDecoder(serialize(builder)));
+
+    // then
+    Assert.assertSame(second, first);
+    Assert.assertEquals(first.get(0), 2);
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldRequireByteArrayDecoder() throws Exception {
+    // given
+    Schema recordSchema = createRecord(createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 1);
+    FastDeserializer<?> deserializer =
+        new FastGenericDeserializerGenerator<>(recordSchema, recordSchema, DeserializerKind.LAZY_GENERIC, tempDir,
+            classLoader, null).generateDeserializer();
+
+    // then
+    Assert.assertThrows(IllegalArgumentException.class,
+        () -> deserializer.deserialize(null, genericDataAsDecoder(builder)));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldGetLazyDeserializerFromCache() throws Exception {
+    // given
+    Schema recordSchema = createRecord(createPrimitiveFieldSchema("testInt", Schema.Type.INT));
+    GenericRecord builder = new GenericData.Record(recordSchema);
+    builder.put("testInt", 1);
+    FastSerdeCache cache = FastSerdeCache.builder().build();
+
+    // when
+    FastDeserializer<?> deserializer = cache.getFastLazyGenericDeserializerAsync(recordSchema, recordSchema).get();
+
+    // then
+    Object record = deserializer.deserialize(null, new ByteArrayDecoder(serialize(builder)));
+    Assert.assertTrue(record instanceof LazyGenericRecord);
+    Assert.assertEquals(((GenericRecord) record).get("testInt"), 1);
+    Assert.assertSame(cache.getFastLazyGenericDeserializer(recordSchema, recordSchema), deserializer);
+  }
+
+  private static LazyGenericRecord decode(Schema writerSchema, Schema readerSchema, byte[] bytes, Object reuse)
+      throws Exception {
+    FastDeserializer<Object> deserializer =
+        new FastGenericDeserializerGenerator<>(writerSchema, readerSchema, DeserializerKind.LAZY_GENERIC, tempDir,
+            classLoader, null).generateDeserializer();
+    return (LazyGenericRecord) deserializer.deserialize(reuse, new ByteArrayDecoder(bytes));
+  }
+
+  private static byte[] serialize(GenericRecord record) throws Exception {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
@@ -0,0 +1,88 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class LazyPrimitiveIntListTest {
+
+  @DataProvider(name = "ByteArrayDecoder")
+  public static Object[][] byteArrayDecoder() {
+    return new Object[][]{{true}, {false}};
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "ByteArrayDecoder")
+  public void shouldGetElementsAcrossBlocks(boolean byteArrayDecoder) throws IOException {
+    // when
+    LazyPrimitiveIntList list = read(null, byteArrayDecoder, 2, 0, -1, 300, Integer.MIN_VALUE, Integer.MAX_VALUE);
+
+    // then
+    Assert.assertEquals(list.size(), 5);
+    Assert.assertEquals(list, Arrays.asList(0, -1, 300, Integer.MIN_VALUE, Integer.MAX_VALUE));
+    Assert.assertEquals(list.hashCode(), Arrays.asList(0, -1, 300, Integer.MIN_VALUE, Integer.MAX_VALUE).hashCode());
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "ByteArrayDecoder")
+  public void shouldReuseList(boolean byteArrayDecoder) throws IOException {
+    // given
+    LazyPrimitiveIntList list = read(null, byteArrayDecoder, 3, 1, 2, 3, 4, 5, 6);
+    list.setPrimitive(0, 0);
+
+    // when
+    LazyPrimitiveIntList reused = read(list, byteArrayDecoder, 2, 7, 8, 9);
+
+    // then
+    Assert.assertSame(reused, list);
+    Assert.assertEquals(reused.getPrimitive(2), 9);
+    reused.addPrimitive(10);
+    reused.add(0, 11);
+    Assert.assertEquals(reused.remove(1), Integer.valueOf(7));
+    reused.reverse();
+    Assert.assertEquals(reused, Arrays.asList(10, 9, 8, 11));
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "ByteArrayDecoder")
+  public void shouldReadEmptyArray(boolean byteArrayDecoder) throws IOException {
+    // given
+    LazyPrimitiveIntList list = read(null, byteArrayDecoder, 2, 1, 2, 3);
+
+    // when
+    LazyPrimitiveIntList reused = read(list, byteArrayDecoder, 2);
+
+    // then
+    Assert.assertTrue(reused.isEmpty());
+    Assert.assertEquals(reused.compareTo(new LazyPrimitiveIntList(0)), 0);
+  }
+
+  private static LazyPrimitiveIntList read(Object reuse, boolean byteArrayDecoder, int blockSize, int... elements)
+      throws IOException {
+    byte[] bytes = write(blockSize, elements);
+    Decoder decoder = byteArrayDecoder ? new ByteArrayDecoder(bytes)
+        : AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+    return (LazyPrimitiveIntList) LazyPrimitiveIntList.readPrimitiveIntArray(reuse, decoder);
+  }
+
+  /**
+   * Writes the array in blocks of up to the given number of elements.
+   */
+  private static byte[] write(int blockSize, int... elements) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (int i = 0; i < elements.length; i++) {
+      if (i % blockSize == 0) {
+        encoder.writeLong(Math.min(blockSize, elements.length - i));
+      }
+      encoder.writeInt(elements[i]);
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
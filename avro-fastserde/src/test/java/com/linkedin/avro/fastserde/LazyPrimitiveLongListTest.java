@@ -0,0 +1,72 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.Encoder;
+import org.testng.Assert;
+import org.testng.annotations.DataProvider;
+import org.testng.annotations.Test;
+
+
+public class LazyPrimitiveLongListTest {
+
+  @DataProvider(name = "ByteArrayDecoder")
+  public static Object[][] byteArrayDecoder() {
+    return new Object[][]{{true}, {false}};
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "ByteArrayDecoder")
+  public void shouldGetElementsAcrossBlocks(boolean byteArrayDecoder) throws IOException {
+    // when
+    LazyPrimitiveLongList list = read(null, byteArrayDecoder, 2, 0L, -1L, 300L, Long.MIN_VALUE, Long.MAX_VALUE);
+
+    // then
+    Assert.assertEquals(list.size(), 5);
+    Assert.assertEquals(list, Arrays.asList(0L, -1L, 300L, Long.MIN_VALUE, Long.MAX_VALUE));
+  }
+
+  @Test(groups = {"deserializationTest"}, dataProvider = "ByteArrayDecoder")
+  public void shouldReuseList(boolean byteArrayDecoder) throws IOException {
+    // given
+    LazyPrimitiveLongList list = read(null, byteArrayDecoder, 3, 1L, 2L, 3L, 4L, 5L, 6L);
+    list.setPrimitive(0, 0L);
+
+    // when
+    LazyPrimitiveLongList reused = read(list, byteArrayDecoder, 2, 7L, 8L, 9L);
+
+    // then
+    Assert.assertSame(reused, list);
+    Assert.assertEquals(reused.getPrimitive(2), 9L);
+    reused.addPrimitive(10L);
+    reused.reverse();
+    Assert.assertEquals(reused, Arrays.asList(10L, 9L, 8L, 7L));
+  }
+
+  private static LazyPrimitiveLongList read(Object reuse, boolean byteArrayDecoder, int blockSize, long... elements)
+      throws IOException {
+    byte[] bytes = write(blockSize, elements);
+    Decoder decoder = byteArrayDecoder ? new ByteArrayDecoder(bytes)
+        : AvroCompatibilityHelper.newBinaryDecoder(bytes, 0, bytes.length, null);
+    return (LazyPrimitiveLongList) LazyPrimitiveLongList.readPrimitiveLongArray(reuse, decoder);
+  }
+
+  /**
+   * Writes the array in blocks of up to the given number of elements.
+   */
+  private static byte[] write(int blockSize, long... elements) throws IOException {
+    ByteArrayOutputStream baos = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(baos, true, null);
+    for (int i = 0; i < elements.length; i++) {
+      if (i % blockSize == 0) {
+        encoder.writeLong(Math.min(blockSize, elements.length - i));
+      }
+      encoder.writeLong(elements[i]);
+    }
+    encoder.writeLong(0);
+    encoder.flush();
+    return baos.toByteArray();
+  }
+}
@@ -0,0 +1,239 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avro.fastserde.FastDeserializerGeneratorBase.DeserializerKind;
+import com.linkedin.avroutil1.compatibility.AvroCompatibilityHelper;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.apache.avro.AvroTypeException;
+import org.apache.avro.Schema;
+import org.apache.avro.generic.GenericData;
+import org.apache.avro.generic.GenericDatumWriter;
+import org.apache.avro.generic.GenericRecord;
+import org.apache.avro.io.Decoder;
+import org.apache.avro.io.DecoderFactory;
+import org.apache.avro.io.Encoder;
+import org.apache.avro.util.Utf8;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import static com.linkedin.avro.fastserde.FastSerdeTestsSupport.*;
+
+
+public class LogicalTypeConversionsTest {
+
+  private static final Schema RECORD_SCHEMA = AvroCompatibilityHelper.parse("{\"type\":\"record\","
+      + "\"name\":\"LogicalTypesRecord\",\"namespace\":\"com.linkedin.avro.fastserde.generated.avro\",\"fields\":["
+      + "{\"name\":\"date\",\"type\":{\"type\":\"int\",\"logicalType\":\"date\"}},"
+      + "{\"name\":\"timeMillis\",\"type\":{\"type\":\"int\",\"logicalType\":\"time-millis\"}},"
+      + "{\"name\":\"timeMicros\",\"type\":{\"type\":\"long\",\"logicalType\":\"time-micros\"}},"
+      + "{\"name\":\"timestampMillis\",\"type\":{\"type\":\"long\",\"logicalType\":\"timestamp-millis\"}},"
+      + "{\"name\":\"timestampMicros\",\"type\":{\"type\":\"long\",\"logicalType\":\"timestamp-micros\"}},"
+      + "{\"name\":\"uuid\",\"type\":{\"type\":\"string\",\"logicalType\":\"uuid\"}},"
+      + "{\"name\":\"decimal\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal\",\"precision\":9,\"scale\":2}},"
+      + "{\"name\":\"fixedDecimal\",\"type\":{\"type\":\"fixed\",\"name\":\"FixedDecimal\",\"size\":8,"
+      + "\"logicalType\":\"decimal\",\"precision\":18,\"scale\":3}},"
+      + "{\"name\":\"invalidDecimal\",\"type\":{\"type\":\"bytes\",\"logicalType\":\"decimal\",\"precision\":2,"
+      + "\"scale\":3}},"
+      + "{\"name\":\"unionTimestamp\",\"type\":[\"null\",{\"type\":\"long\",\"logicalType\":\"timestamp-millis\"}]},"
+      + "{\"name\":\"dates\",\"type\":{\"type\":\"array\",\"items\":{\"type\":\"int\",\"logicalType\":\"date\"}}},"
+      + "{\"name\":\"decimals\",\"type\":{\"type\":\"map\",\"values\":{\"type\":\"bytes\",\"logicalType\":\"decimal\","
+      + "\"precision\":9,\"scale\":2}}},"
+      + "{\"name\":\"defaultDate\",\"type\":{\"type\":\"int\",\"logicalType\":\"date\"},\"default\":1}]}");
+
+  private static final UUID TEST_UUID = UUID.fromString("1e7b5d0c-45e1-4b2a-9c0e-2b7c4fd3c7a1");
+
+  private static File tempDir;
+  private static ClassLoader classLoader;
+
+  @BeforeTest(groups = {"deserializationTest", "serializationTest"})
+  public void prepare() throws Exception {
+    tempDir = getCodeGenDirectory();
+
+    classLoader = URLClassLoader.newInstance(new URL[]{tempDir.toURI().toURL()},
+        LogicalTypeConversionsTest.class.getClassLoader());
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldReadConvertedLogicalTypes() throws Exception {
+    // given
+    GenericRecord rawRecord = newRawRecord(RECORD_SCHEMA);
+
+    // when
+    GenericRecord record = decode(RECORD_SCHEMA, RECORD_SCHEMA, writeRaw(rawRecord));
+
+    // then
+    assertConverted(record);
+    Assert.assertEquals(record.get("invalidDecimal"), ByteBuffer.wrap(new byte[]{0x01}));
+  }
+
+  @Test(groups = {"deserializationTest"})
+  public void shouldConvertDefaultValues() throws Exception {
+    // given
+    Schema writerSchema = createRecord("LogicalTypesRecord",
+        createPrimitiveFieldSchema("date", Schema.Type.INT));
+    GenericData.Record writtenRecord = new GenericData.Record(writerSchema);
+    writtenRecord.put("date", 3);
+    Schema readerSchema = AvroCompatibilityHelper.parse("{\"type\":\"record\",\"name\":\"LogicalTypesRecord\","
+        + "\"namespace\":\"com.linkedin.avro.fastserde.generated.avro\",\"fields\":["
+        + "{\"name\":\"date\",\"type\":\"int\"},"
+        + "{\"name\":\"defaultDate\",\"type\":{\"type\":\"int\",\"logicalType\":\"date\"},\"default\":1}]}");
+
+    // when
+    GenericRecord record = decode(writerSchema, readerSchema, writeRaw(writtenRecord));
+
+    // then
+    Assert.assertEquals(record.get("date"), 3);
+    Assert.assertEquals(record.get("defaultDate"), LocalDate.ofEpochDay(1));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldWriteConvertedLogicalTypesAsRaw() throws Exception {
+    // given
+    GenericRecord record = newConvertedRecord(RECORD_SCHEMA);
+    FastSerializer<GenericRecord> serializer =
+        new FastGenericSerializerGenerator<GenericRecord>(RECORD_SCHEMA, true, tempDir, classLoader, null)
+            .generateSerializer();
+
+    // when
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, null);
+    serializer.serialize(record, encoder);
+    encoder.flush();
+
+    // then
+    Assert.assertEquals(output.toByteArray(), writeRaw(newRawRecord(RECORD_SCHEMA)));
+  }
+
+  @Test(groups = {"deserializationTest", "serializationTest"})
+  public void shouldConvertTheSameWayBeforeCompilation() throws Exception {
+    // given
+    byte[] rawBytes = writeRaw(newRawRecord(RECORD_SCHEMA));
+    FastDeserializer<GenericRecord> coldDeserializer =
+        new FastSerdeCache.FastDeserializerWithAvroGenericImpl<>(RECORD_SCHEMA, RECORD_SCHEMA, true);
+    FastSerializer<GenericRecord> coldSerializer =
+        new FastSerdeCache.FastSerializerWithAvroGenericImpl<>(RECORD_SCHEMA, true);
+
+    // when
+    GenericRecord record = coldDeserializer.deserialize(null, DecoderFactory.defaultFactory()
+        .createBinaryDecoder(rawBytes, null));
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, null);
+    coldSerializer.serialize(newConvertedRecord(RECORD_SCHEMA), encoder);
+    encoder.flush();
+
+    // then
+    assertConverted(record);
+    Assert.assertEquals(output.toByteArray(), rawBytes);
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = AvroTypeException.class)
+  public void shouldRejectDecimalOfDifferentScale() {
+    LogicalTypeConversions.getConversion(RECORD_SCHEMA.getField("decimal").schema()).toRaw(new BigDecimal("1.5"));
+  }
+
+  @Test(groups = {"serializationTest"}, expectedExceptions = AvroTypeException.class)
+  public void shouldRejectDecimalExceedingPrecision() {
+    LogicalTypeConversions.getConversion(RECORD_SCHEMA.getField("decimal").schema())
+        .toRaw(new BigDecimal("12345678.90"));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldSignExtendFixedDecimals() {
+    Assert.assertEquals(LogicalTypeConversions.toDecimalFixed(new BigDecimal("-0.001"), 4, 9, 3),
+        new byte[]{(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF});
+    Assert.assertEquals(LogicalTypeConversions.toDecimal(new byte[]{(byte) 0xFF, (byte) 0xFF}, 3),
+        new BigDecimal("-0.001"));
+  }
+
+  @Test(groups = {"serializationTest"})
+  public void shouldConvertTimestampMicrosBeforeEpoch() {
+    Instant instant = Instant.ofEpochSecond(-2, 500_000_000);
+
+    Assert.assertEquals(LogicalTypeConversions.fromTimestampMicros(instant), -1_500_000L);
+    Assert.assertEquals(LogicalTypeConversions.toTimestampMicros(-1_500_000L), instant);
+  }
+
+  private static GenericRecord newRawRecord(Schema schema) {
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("date", 18000);
+    record.put("timeMillis", 3_600_123);
+    record.put("timeMicros", 3_600_123_456L);
+    record.put("timestampMillis", 1_600_000_000_123L);
+    record.put("timestampMicros", 1_600_000_000_123_456L);
+    record.put("uuid", new Utf8(TEST_UUID.toString()));
+    record.put("decimal", ByteBuffer.wrap(new BigDecimal("-123.45").unscaledValue().toByteArray()));
+    record.put("fixedDecimal", AvroCompatibilityHelper.newFixed(schema.getField("fixedDecimal").schema(),
+        new byte[]{0, 0, 0, 0, 0, 0, 0x30, 0x39}));
+    record.put("invalidDecimal", ByteBuffer.wrap(new byte[]{0x01}));
+    record.put("unionTimestamp", 1_600_000_000_000L);
+    record.put("dates", Arrays.asList(1, 2));
+    record.put("decimals", Collections.singletonMap(new Utf8("key"), ByteBuffer.wrap(new byte[]{0x64})));
+    record.put("defaultDate", 1);
+    return record;
+  }
+
+  private static GenericRecord newConvertedRecord(Schema schema) {
+    GenericData.Record record = new GenericData.Record(schema);
+    record.put("date", LocalDate.ofEpochDay(18000));
+    record.put("timeMillis", LocalTime.ofNanoOfDay(3_600_123_000_000L));
+    record.put("timeMicros", LocalTime.ofNanoOfDay(3_600_123_456_000L));
+    record.put("timestampMillis", Instant.ofEpochMilli(1_600_000_000_123L));
+    record.put("timestampMicros", Instant.ofEpochSecond(1_600_000_000L, 123_456_000L));
+    record.put("uuid", TEST_UUID);
+    record.put("decimal", new BigDecimal("-123.45"));
+    record.put("fixedDecimal", new BigDecimal("12.345"));
+    record.put("invalidDecimal", ByteBuffer.wrap(new byte[]{0x01}));
+    record.put("unionTimestamp", Instant.ofEpochMilli(1_600_000_000_000L));
+    record.put("dates", Arrays.asList(LocalDate.ofEpochDay(1), LocalDate.ofEpochDay(2)));
+    record.put("decimals", Collections.singletonMap(new Utf8("key"), new BigDecimal("1.00")));
+    record.put("defaultDate", LocalDate.ofEpochDay(1));
+    return record;
+  }
+
+  private static void assertConverted(GenericRecord record) {
+    Assert.assertEquals(record.get("date"), LocalDate.ofEpochDay(18000));
+    Assert.assertEquals(record.get("timeMillis"), LocalTime.ofNanoOfDay(3_600_123_000_000L));
+    Assert.assertEquals(record.get("timeMicros"), LocalTime.ofNanoOfDay(3_600_123_456_000L));
+    Assert.assertEquals(record.get("timestampMillis"), Instant.ofEpochMilli(1_600_000_000_123L));
+    Assert.assertEquals(record.get("timestampMicros"), Instant.ofEpochSecond(1_600_000_000L, 123_456_000L));
+    Assert.assertEquals(record.get("uuid"), TEST_UUID);
+    Assert.assertEquals(record.get("decimal"), new BigDecimal("-123.45"));
+    Assert.assertEquals(record.get("fixedDecimal"), new BigDecimal("12.345"));
+    Assert.assertEquals(record.get("unionTimestamp"), Instant.ofEpochMilli(1_600_000_000_000L));
+    List<?> dates = (List<?>) record.get("dates");
+    Assert.assertEquals(dates.size(), 2);
+    Assert.assertEquals(dates.get(0), LocalDate.ofEpochDay(1));
+    Assert.assertEquals(dates.get(1), LocalDate.ofEpochDay(2));
+    Map<?, ?> decimals = (Map<?, ?>) record.get("decimals");
+    Assert.assertEquals(decimals.get(new Utf8("key")), new BigDecimal("1.00"));
+    Assert.assertEquals(record.get("defaultDate"), LocalDate.ofEpochDay(1));
+  }
+
+  private static byte[] writeRaw(GenericRecord record) throws Exception {
+    ByteArrayOutputStream output = new ByteArrayOutputStream();
+    Encoder encoder = AvroCompatibilityHelper.newBinaryEncoder(output, true, null);
+    new GenericDatumWriter<GenericRecord>(record.getSchema()).write(record, encoder);
+    encoder.flush();
+    return output.toByteArray();
+  }
+
+  private static GenericRecord decode(Schema writerSchema, Schema readerSchema, byte[] bytes) throws Exception {
+    FastDeserializer<GenericRecord> deserializer = new FastGenericDeserializerGenerator<GenericRecord>(writerSchema,
+        readerSchema, DeserializerKind.GENERIC, true, tempDir, classLoader, null).generateDeserializer();
+    Decoder decoder = DecoderFactory.defaultFactory().createBinaryDecoder(bytes, null);
+    return deserializer.deserialize(null, decoder);
+  }
+}
@@ -0,0 +1,67 @@
+package com.linkedin.avro.fastserde;
+
+import com.linkedin.avroutil1.compatibility.SchemaNormalization;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.apache.avro.Schema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+
+public class WeakIdentityFingerprintCacheTest {
+
+  @Test(groups = "deserializationTest")
+  public void testFingerprintIsComputedOncePerInstance() {
+    AtomicInteger computations = new AtomicInteger();
+    WeakIdentityFingerprintCache cache = new WeakIdentityFingerprintCache(schema -> {
+      computations.incrementAndGet();
+      return SchemaNormalization.parsingFingerprint64(schema);
+    });
+    Schema schema = createSchema(0);
+    Schema equalSchema = createSchema(0);
+
+    long fingerprint = cache.getFingerprint(schema);
+    Assert.assertEquals(cache.getFingerprint(schema), fingerprint);
+    Assert.assertEquals(computations.get(), 1);
+    // identity keyed
+    Assert.assertEquals(cache.getFingerprint(equalSchema), fingerprint);
+    Assert.assertEquals(computations.get(), 2);
+    Assert.assertNotEquals(cache.getFingerprint(createSchema(1)), fingerprint);
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testResize() {
+    WeakIdentityFingerprintCache cache = new WeakIdentityFingerprintCache(SchemaNormalization::parsingFingerprint64);
+    List<Schema> schemas = new ArrayList<>();
+    for (int i = 0; i < 1000; i++) {
+      schemas.add(createSchema(i));
+      cache.getFingerprint(schemas.get(i));
+    }
+    Assert.assertEquals(cache.size(), 1000);
+    for (Schema schema : schemas) {
+      Assert.assertEquals(cache.getFingerprint(schema), SchemaNormalization.parsingFingerprint64(schema));
+    }
+  }
+
+  @Test(groups = "deserializationTest")
+  public void testSchemasAreNotRetained() throws Exception {
+    WeakIdentityFingerprintCache cache = new WeakIdentityFingerprintCache(SchemaNormalization::parsingFingerprint64);
+    Schema retainedSchema = createSchema(1000);
+    cache.getFingerprint(retainedSchema);
+    for (int i = 0; i < 100; i++) {
+      cache.getFingerprint(createSchema(i));
+    }
+    for (int i = 0; i < 10 && cache.size() > 1; i++) {
+      System.gc();
+      Thread.sleep(10);
+    }
+    Assert.assertEquals(cache.size(), 1);
+    Assert.assertEquals(cache.getFingerprint(retainedSchema), SchemaNormalization.parsingFingerprint64(retainedSchema));
+  }
+
+  private static Schema createSchema(int i) {
+    return Schema.parse("{\"type\": \"record\", \"name\": \"record" + i
+        + "\", \"fields\": [{\"name\": \"field\", \"type\": \"int\"}]}");
+  }
+}
@@ -0,0 +1,19 @@
+package com.linkedin.avro.fastserde.reflect;
+
+/**
+ * POJO whose field is private, so generated code can access it neither directly nor through its getter.
+ */
+public class PrivateFieldRecord {
+  private int value;
+
+  public PrivateFieldRecord() {
+  }
+
+  public PrivateFieldRecord(int value) {
+    this.value = value;
+  }
+
+  public int getValue() {
+    return value;
+  }
+}
@@ -0,0 +1,5 @@
+package com.linkedin.avro.fastserde.reflect;
+
+public enum ReflectColor {
+  RED, GREEN
+}
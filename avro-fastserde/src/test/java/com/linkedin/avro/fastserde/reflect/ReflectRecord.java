@@ -0,0 +1,21 @@
+package com.linkedin.avro.fastserde.reflect;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+
+
+/**
+ * POJO whose fields are accessed directly by generated code.
+ */
+public class ReflectRecord {
+  public int testInt;
+  public Long testLongUnion;
+  public String testString;
+  public ByteBuffer testBytes;
+  public List<Float> testFloatList;
+  public Map<String, ReflectSubRecord> testRecordMap;
+  public ReflectColor testEnum;
+  public ReflectSubRecord testSubRecordUnion;
+  public double testDouble;
+}
@@ -0,0 +1,5 @@
+package com.linkedin.avro.fastserde.reflect;
+
+public class ReflectSubRecord {
+  public String subString;
+}
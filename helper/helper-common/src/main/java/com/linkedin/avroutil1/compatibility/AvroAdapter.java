@@ -12,6 +12,7 @@ import java.io.ObjectInput;
 import java.io.ObjectOutput;
 import java.io.OutputStream;
 import java.util.Collection;
+import java.util.Set;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.io.BinaryDecoder;
@@ -90,6 +91,8 @@ public interface AvroAdapter {
 
   boolean fieldHasDefault(Schema.Field field);
 
+  Set<String> getFieldAliases(Schema.Field field);
+
   FieldBuilder cloneSchemaField(Schema.Field field);
 
   FieldBuilder newFieldBuilder(String name);
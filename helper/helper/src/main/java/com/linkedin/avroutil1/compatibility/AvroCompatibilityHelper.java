@@ -21,6 +21,7 @@ import java.io.ObjectOutput;
 import java.io.OutputStream;
 import java.lang.reflect.Modifier;
 import java.util.Collection;
+import java.util.Set;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
 import org.apache.avro.generic.IndexedRecord;
@@ -484,6 +485,17 @@ public class AvroCompatibilityHelper {
     return ADAPTER.fieldHasDefault(field);
   }
 
+  /**
+   * returns the aliases of a schema field. fields have aliases under all versions of avro,
+   * but {@link Schema.Field#aliases()} only exists in avro 1.6+
+   * @param field a schema field
+   * @return the (possibly empty) set of aliases of the field
+   */
+  public static Set<String> getFieldAliases(Schema.Field field) {
+    assertAvroAvailable();
+    return ADAPTER.getFieldAliases(field);
+  }
+
   /**
    * returns the default value for a schema field, as a generic record class
    * (if the default value is complex enough - say records, enums, fixed fields etc)
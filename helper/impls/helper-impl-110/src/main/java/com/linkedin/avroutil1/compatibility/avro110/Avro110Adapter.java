@@ -54,6 +54,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 public class Avro110Adapter implements AvroAdapter {
@@ -257,6 +258,11 @@ public class Avro110Adapter implements AvroAdapter {
         return field.hasDefaultValue();
     }
 
+    @Override
+    public Set<String> getFieldAliases(Schema.Field field) {
+        return field.aliases();
+    }
+
     @Override
     public FieldBuilder cloneSchemaField(Schema.Field field) {
         return new FieldBuilder110(field);
@@ -40,6 +40,7 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.avro.Avro14SchemaAccessUtil;
 import org.apache.avro.AvroRuntimeException;
@@ -62,6 +63,16 @@ public class Avro14Adapter implements AvroAdapter {
   private final static Logger LOG = LoggerFactory.getLogger(Avro14Adapter.class);
   private final static DecoderFactory DIRECT_DECODER_FACTORY = new DecoderFactory().configureDirectDecoder(true);
   private final static DecoderFactory BUFFERED_DECODER_FACTORY = DecoderFactory.defaultFactory();
+  private final static Field SCHEMA_FIELD_ALIASES_FIELD;
+
+  static {
+    try {
+      SCHEMA_FIELD_ALIASES_FIELD = Schema.Field.class.getDeclaredField("aliases");
+      SCHEMA_FIELD_ALIASES_FIELD.setAccessible(true); //no accessor before avro 1.6
+    } catch (Throwable issue) {
+      throw new IllegalStateException("unable to find/access Schema$Field.aliases", issue);
+    }
+  }
 
   private final Method compilerEnqueueMethod;
   private final Method compilerCompileMethod;
@@ -229,6 +240,17 @@ public class Avro14Adapter implements AvroAdapter {
     return null != field.defaultValue();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public Set<String> getFieldAliases(Schema.Field field) {
+    try {
+      Set<String> aliases = (Set<String>) SCHEMA_FIELD_ALIASES_FIELD.get(field);
+      return aliases == null ? Collections.emptySet() : Collections.unmodifiableSet(aliases);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("unable to access Schema$Field.aliases", e);
+    }
+  }
+
   @Override
   public FieldBuilder cloneSchemaField(Schema.Field field) {
     return new FieldBuilder14(field);
@@ -43,6 +43,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
 import org.apache.avro.generic.GenericData;
@@ -61,6 +62,16 @@ import org.slf4j.LoggerFactory;
 
 public class Avro15Adapter implements AvroAdapter {
   private final static Logger LOG = LoggerFactory.getLogger(Avro15Adapter.class);
+  private final static Field SCHEMA_FIELD_ALIASES_FIELD;
+
+  static {
+    try {
+      SCHEMA_FIELD_ALIASES_FIELD = Schema.Field.class.getDeclaredField("aliases");
+      SCHEMA_FIELD_ALIASES_FIELD.setAccessible(true); //no accessor before avro 1.6
+    } catch (Throwable issue) {
+      throw new IllegalStateException("unable to find/access Schema$Field.aliases", issue);
+    }
+  }
 
   private boolean compilerSupported;
   private Constructor<?> specificCompilerCtr;
@@ -247,6 +258,17 @@ public class Avro15Adapter implements AvroAdapter {
     return null != field.defaultValue();
   }
 
+  @Override
+  @SuppressWarnings("unchecked")
+  public Set<String> getFieldAliases(Schema.Field field) {
+    try {
+      Set<String> aliases = (Set<String>) SCHEMA_FIELD_ALIASES_FIELD.get(field);
+      return aliases == null ? Collections.emptySet() : Collections.unmodifiableSet(aliases);
+    } catch (IllegalAccessException e) {
+      throw new IllegalStateException("unable to access Schema$Field.aliases", e);
+    }
+  }
+
   @Override
   public FieldBuilder cloneSchemaField(Schema.Field field) {
     return new FieldBuilder15(field);
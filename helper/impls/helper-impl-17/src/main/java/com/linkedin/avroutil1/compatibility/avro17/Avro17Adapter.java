@@ -41,6 +41,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaNormalization;
@@ -323,6 +324,11 @@ public class Avro17Adapter implements AvroAdapter {
     return null != field.defaultValue();
   }
 
+  @Override
+  public Set<String> getFieldAliases(Schema.Field field) {
+    return field.aliases();
+  }
+
   @Override
   public FieldBuilder cloneSchemaField(Schema.Field field) {
     return new FieldBuilder17(field);
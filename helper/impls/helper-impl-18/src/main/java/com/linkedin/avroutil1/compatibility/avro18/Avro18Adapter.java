@@ -37,6 +37,7 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 import org.apache.avro.Schema;
 import org.apache.avro.SchemaNormalization;
@@ -261,6 +262,11 @@ public class Avro18Adapter implements AvroAdapter {
     return null != field.defaultValue();
   }
 
+  @Override
+  public Set<String> getFieldAliases(Schema.Field field) {
+    return field.aliases();
+  }
+
   @Override
   public FieldBuilder cloneSchemaField(Schema.Field field) {
     return new FieldBuilder18(field);
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2021 LinkedIn Corp.
+ * Licensed under the BSD 2-Clause License (the "License").
+ * See License in the project root for license information.
+ */
+
+package com.linkedin.avroutil1.compatibility;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import org.apache.avro.Schema;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+public class FieldAliasesTest {
+
+    @Test
+    public void testGetFieldAliases() throws Exception {
+        String avsc = "{\"type\": \"record\", \"name\": \"Record\", \"fields\": ["
+            + "{\"name\": \"aliased\", \"type\": \"int\", \"aliases\": [\"old\", \"older\"]},"
+            + "{\"name\": \"plain\", \"type\": \"int\"}]}";
+        Schema schema = Schema.parse(avsc);
+
+        Assert.assertEquals(AvroCompatibilityHelper.getFieldAliases(schema.getField("aliased")),
+            new HashSet<>(Arrays.asList("old", "older")));
+        Assert.assertTrue(AvroCompatibilityHelper.getFieldAliases(schema.getField("plain")).isEmpty());
+    }
+}